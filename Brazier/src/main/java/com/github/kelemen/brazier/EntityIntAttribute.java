@@ -0,0 +1,9 @@
+package com.github.kelemen.brazier;
+
+public interface EntityIntAttribute<EntityType> {
+    // Returns false if the entity does not have this attribute at all. For
+    // example: spells do not have attack.
+    public boolean hasValue(EntityType entity);
+
+    public int getValue(EntityType entity);
+}
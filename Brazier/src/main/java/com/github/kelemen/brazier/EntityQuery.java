@@ -0,0 +1,155 @@
+package com.github.kelemen.brazier;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class EntityQuery<EntityType extends HearthStoneEntity> {
+    private final HearthStoneEntityDatabase<EntityType> db;
+    private final Set<Keyword> requiredKeywords;
+    private final Set<Keyword> excludedKeywords;
+    private final Map<EntityIntAttribute<? super EntityType>, IntRange> ranges;
+
+    EntityQuery(HearthStoneEntityDatabase<EntityType> db) {
+        this.db = db;
+        this.requiredKeywords = new HashSet<>();
+        this.excludedKeywords = new HashSet<>();
+        this.ranges = new HashMap<>();
+    }
+
+    public EntityQuery<EntityType> withKeywords(Keyword... keywords) {
+        ExceptionHelper.checkNotNullElements(keywords, "keywords");
+        Collections.addAll(requiredKeywords, keywords);
+        return this;
+    }
+
+    public EntityQuery<EntityType> withoutKeywords(Keyword... keywords) {
+        ExceptionHelper.checkNotNullElements(keywords, "keywords");
+        Collections.addAll(excludedKeywords, keywords);
+        return this;
+    }
+
+    // Both minValue and maxValue are inclusive.
+    public EntityQuery<EntityType> withRange(
+            EntityIntAttribute<? super EntityType> attribute,
+            int minValue,
+            int maxValue) {
+        ExceptionHelper.checkNotNullArgument(attribute, "attribute");
+
+        IntRange range = new IntRange(minValue, maxValue);
+        IntRange prevRange = ranges.get(attribute);
+        ranges.put(attribute, prevRange != null ? prevRange.intersect(range) : range);
+        return this;
+    }
+
+    public EntityQuery<EntityType> withValue(EntityIntAttribute<? super EntityType> attribute, int value) {
+        return withRange(attribute, value, value);
+    }
+
+    public List<EntityType> find() {
+        return db.find(new Key(this));
+    }
+
+    static final class Key {
+        private final Set<Keyword> requiredKeywords;
+        private final Set<Keyword> excludedKeywords;
+        private final Map<EntityIntAttribute<?>, IntRange> ranges;
+
+        private Key(EntityQuery<?> query) {
+            this.requiredKeywords = Collections.unmodifiableSet(new HashSet<>(query.requiredKeywords));
+            this.excludedKeywords = Collections.unmodifiableSet(new HashSet<>(query.excludedKeywords));
+            this.ranges = Collections.unmodifiableMap(new HashMap<>(query.ranges));
+        }
+
+        public Set<Keyword> getRequiredKeywords() {
+            return requiredKeywords;
+        }
+
+        public Set<Keyword> getExcludedKeywords() {
+            return excludedKeywords;
+        }
+
+        public Map<EntityIntAttribute<?>, IntRange> getRanges() {
+            return ranges;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 59 * hash + requiredKeywords.hashCode();
+            hash = 59 * hash + excludedKeywords.hashCode();
+            hash = 59 * hash + ranges.hashCode();
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final Key other = (Key)obj;
+            return Objects.equals(this.requiredKeywords, other.requiredKeywords)
+                    && Objects.equals(this.excludedKeywords, other.excludedKeywords)
+                    && Objects.equals(this.ranges, other.ranges);
+        }
+
+        @Override
+        public String toString() {
+            return "EntityQuery{" + "with=" + requiredKeywords
+                    + ", without=" + excludedKeywords
+                    + ", ranges=" + ranges.values() + '}';
+        }
+    }
+
+    static final class IntRange {
+        private final int minValue;
+        private final int maxValue;
+
+        public IntRange(int minValue, int maxValue) {
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+        }
+
+        public int getMinValue() {
+            return minValue;
+        }
+
+        public int getMaxValue() {
+            return maxValue;
+        }
+
+        public boolean isEmpty() {
+            return minValue > maxValue;
+        }
+
+        public IntRange intersect(IntRange other) {
+            return new IntRange(Math.max(minValue, other.minValue), Math.min(maxValue, other.maxValue));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * minValue + maxValue;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final IntRange other = (IntRange)obj;
+            return this.minValue == other.minValue && this.maxValue == other.maxValue;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + minValue + ", " + maxValue + "]";
+        }
+    }
+}
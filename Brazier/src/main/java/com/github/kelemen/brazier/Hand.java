@@ -17,6 +17,9 @@ public final class Hand implements PlayerProperty {
     private final int maxSize;
 
     private List<CardRef> hand;
+    // Incremented on every change of the hand (including undos), so it never
+    // returns to a previous value.
+    private long version;
 
     public Hand(Player owner, int maxSize) {
         ExceptionHelper.checkNotNullArgument(owner, "owner");
@@ -25,6 +28,7 @@ public final class Hand implements PlayerProperty {
         this.owner = owner;
         this.maxSize = maxSize;
         this.hand = new ArrayList<>(Player.MAX_HAND_SIZE);
+        this.version = 0;
     }
 
     @Override
@@ -36,6 +40,12 @@ public final class Hand implements PlayerProperty {
         return maxSize;
     }
 
+    // Returns a different value if the list of cards in the hand might have
+    // changed since the last call.
+    public long getVersion() {
+        return version;
+    }
+
     public int getCardCount() {
         return hand.size();
     }
@@ -110,7 +120,11 @@ public final class Hand implements PlayerProperty {
         // TODO: Show cards to opponent
         List<CardRef> prevHand = hand;
         hand = new ArrayList<>(Player.MAX_HAND_SIZE);
-        result.addUndo(() -> hand = prevHand);
+        version++;
+        result.addUndo(() -> {
+            hand = prevHand;
+            version++;
+        });
 
         for (CardRef cardRef: prevHand) {
             result.addUndo(cardRef.deactivate());
@@ -143,6 +157,7 @@ public final class Hand implements PlayerProperty {
 
     public UndoableResult<Card> replaceAtIndex(int cardIndex, CardDescr newCard) {
         CardRef result = hand.remove(cardIndex);
+        version++;
         UndoAction deactivateUndo = result.deactivate();
 
         CardRef newCardRef = new CardRef(owner, newCard);
@@ -154,15 +169,18 @@ public final class Hand implements PlayerProperty {
             hand.remove(cardIndex);
             deactivateUndo.undo();
             hand.add(cardIndex, result);
+            version++;
         });
     }
 
     public UndoableResult<Card> removeAtIndex(int cardIndex) {
         CardRef result = hand.remove(cardIndex);
+        version++;
         UndoAction deactivateUndo = result.deactivate();
         return new UndoableResult<>(result.card, () -> {
             deactivateUndo.undo();
             hand.add(cardIndex, result);
+            version++;
         });
     }
 
@@ -192,12 +210,14 @@ public final class Hand implements PlayerProperty {
 
         CardRef newCardRef = new CardRef(newCard);
         hand.add(newCardRef);
+        version++;
         UndoAction activateUndo = newCardRef.activate();
         UndoAction eventUndo = onAddEvent.apply(newCard);
         return () -> {
             eventUndo.undo();
             activateUndo.undo();
             hand.remove(hand.size() - 1);
+            version++;
         };
     }
 
@@ -216,7 +236,12 @@ public final class Hand implements PlayerProperty {
         }
 
         public UndoAction activate() {
-            abilityRef = card.getCardDescr().getInHandAbility().activate(card);
+            CardDescr cardDescr = card.getCardDescr();
+            if (!cardDescr.getEffectClass().isTriggered()) {
+                return UndoAction.DO_NOTHING;
+            }
+
+            abilityRef = cardDescr.getInHandAbility().activate(card);
             return abilityRef;
         }
 
@@ -1,15 +1,23 @@
 package com.github.kelemen.brazier;
 
+import com.github.kelemen.brazier.cards.CardAttributes;
 import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.cards.CardSearchIndex;
 import com.github.kelemen.brazier.cards.CardType;
+import com.github.kelemen.brazier.minions.MinionAttributes;
 import com.github.kelemen.brazier.minions.MinionDescr;
+import com.github.kelemen.brazier.minions.MinionId;
+import com.github.kelemen.brazier.parsing.CardHeader;
 import com.github.kelemen.brazier.parsing.CardParser;
 import com.github.kelemen.brazier.parsing.EntityParser;
 import com.github.kelemen.brazier.parsing.JsonDeserializer;
+import com.github.kelemen.brazier.parsing.JsonTree;
 import com.github.kelemen.brazier.parsing.ObjectParsingException;
 import com.github.kelemen.brazier.parsing.ParserUtils;
 import com.github.kelemen.brazier.parsing.UseTrackerJsonTree;
 import com.github.kelemen.brazier.weapons.WeaponDescr;
+import com.github.kelemen.brazier.weapons.WeaponId;
 import com.google.gson.JsonObject;
 import java.io.IOException;
 import java.net.URI;
@@ -20,16 +28,25 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import org.jtrim.utils.ExceptionHelper;
 
 public final class HearthStoneDb {
+    static final String CARD_EXTENSION = ".card";
+    static final String POWER_EXTENSION = ".power";
+
     private final HearthStoneEntityDatabase<MinionDescr> minionDb;
     private final HearthStoneEntityDatabase<CardDescr> cardDb;
     private final HearthStoneEntityDatabase<WeaponDescr> weaponDb;
     private final HearthStoneEntityDatabase<CardDescr> heroPowerDb;
+    private final AtomicReference<CardSearchIndex> cardSearchIndexRef;
 
     public HearthStoneDb(
             HearthStoneEntityDatabase<CardDescr> cardDb,
@@ -41,6 +58,19 @@ public final class HearthStoneDb {
         this.minionDb = toMinionDb(cardDb);
         this.cardDb = cardDb;
         this.heroPowerDb = heroPowerDb;
+        this.cardSearchIndexRef = new AtomicReference<>(null);
+    }
+
+    private HearthStoneDb(
+            HearthStoneEntityDatabase<CardDescr> cardDb,
+            HearthStoneEntityDatabase<MinionDescr> minionDb,
+            HearthStoneEntityDatabase<WeaponDescr> weaponDb,
+            HearthStoneEntityDatabase<CardDescr> heroPowerDb) {
+        this.weaponDb = weaponDb;
+        this.minionDb = minionDb;
+        this.cardDb = cardDb;
+        this.heroPowerDb = heroPowerDb;
+        this.cardSearchIndexRef = new AtomicReference<>(null);
     }
 
     private static HearthStoneEntityDatabase<MinionDescr> toMinionDb(HearthStoneEntityDatabase<CardDescr> cardDb) {
@@ -82,7 +112,15 @@ public final class HearthStoneDb {
         return dir.resolve("card-db.zip");
     }
 
-    private static Path tryGetCardDbPath() {
+    static Path getCardDir(Path root) {
+        return root.resolve("cards");
+    }
+
+    static Path getPowerDir(Path root) {
+        return root.resolve("powers");
+    }
+
+    static Path tryGetCardDbPath() {
         String cardDbPath = System.getProperty("CARD_DB");
         if (cardDbPath == null) {
             return tryGetDefaultCardDbPath();
@@ -101,24 +139,183 @@ public final class HearthStoneDb {
         return fromPath(cardDbPath);
     }
 
+    public static HearthStoneDb readDefaultLazily() throws IOException, ObjectParsingException {
+        Path cardDbPath = tryGetCardDbPath();
+        if (cardDbPath == null) {
+            throw new IllegalStateException("Missing card database.");
+        }
+
+        return fromPathLazily(cardDbPath);
+    }
+
     public static HearthStoneDb fromPath(Path path) throws IOException, ObjectParsingException {
+        return fromRoot(getRoot(path));
+    }
+
+    // Only the headers of the cards (name, keywords, etc.) are read when
+    // creating the database. The rest of the card definitions are parsed when
+    // they are first requested.
+    public static HearthStoneDb fromPathLazily(Path path) throws IOException, ObjectParsingException {
+        return fromRootLazily(getRoot(path));
+    }
+
+    static Path getRoot(Path path) throws IOException {
         if (Files.isDirectory(path)) {
-            return fromRoot(path);
+            return path;
         }
         else {
-            FileSystem zipFS = FileSystems.newFileSystem(path, null);
+            FileSystem zipFS = FileSystems.newFileSystem(path, (ClassLoader)null);
             Iterator<Path> roots = zipFS.getRootDirectories().iterator();
             if (!roots.hasNext()) {
                 throw new IOException("No root dir in " + path);
             }
-            return fromRoot(roots.next());
+            return roots.next();
+        }
+    }
+
+    private static HearthStoneDb fromRootLazily(Path root) throws IOException, ObjectParsingException {
+        CardParser headerParser = newHeaderParser();
+
+        Map<Path, CardHeader> cardHeaders = new LinkedHashMap<>();
+        forEachEntityFile(getCardDir(root), CARD_EXTENSION, (cardFile) -> {
+            cardHeaders.put(cardFile, readCardHeader(headerParser, cardFile));
+        });
+
+        Map<Path, CardHeader> powerHeaders = new LinkedHashMap<>();
+        forEachEntityFile(getPowerDir(root), POWER_EXTENSION, (powerFile) -> {
+            powerHeaders.put(powerFile, readHeroPowerHeader(headerParser, powerFile));
+        });
+
+        return createLazily(cardHeaders, powerHeaders);
+    }
+
+    static CardParser newHeaderParser() {
+        // Headers never reference other entities, so they do not need a database.
+        return new CardParser(ParserUtils.createDefaultDeserializer(() -> null));
+    }
+
+    static CardHeader readCardHeader(CardParser headerParser, Path cardFile) throws IOException, ObjectParsingException {
+        return headerParser.parseHeader(new UseTrackerJsonTree(ParserUtils.fromJsonFile(cardFile)));
+    }
+
+    static CardHeader readHeroPowerHeader(CardParser headerParser, Path powerFile) throws IOException, ObjectParsingException {
+        JsonTree powerObj = new UseTrackerJsonTree(ParserUtils.fromJsonFile(powerFile));
+        return headerParser.parseHeader(powerObj, CardType.HERO_POWER);
+    }
+
+    static HearthStoneDb createLazily(Map<Path, CardHeader> cardHeaders, Map<Path, CardHeader> powerHeaders) {
+        return createLazily(cardHeaders, powerHeaders, null, Collections.emptySet());
+    }
+
+    // The entities of the kept files are not parsed again but are taken from
+    // the previous database (which must contain them).
+    static HearthStoneDb createLazily(
+            Map<Path, CardHeader> cardHeaders,
+            Map<Path, CardHeader> powerHeaders,
+            HearthStoneDb previousDb,
+            Set<Path> keptFiles) {
+        AtomicReference<HearthStoneDb> resultRef = new AtomicReference<>();
+
+        JsonDeserializer objectParser = ParserUtils.createDefaultDeserializer(resultRef::get);
+        CardParser cardParser = new CardParser(objectParser);
+
+        HearthStoneEntityDatabase.Builder<CardDescr> cardDb = new HearthStoneEntityDatabase.Builder<>();
+        HearthStoneEntityDatabase.Builder<MinionDescr> minionDb = new HearthStoneEntityDatabase.Builder<>();
+        HearthStoneEntityDatabase.Builder<WeaponDescr> weaponDb = new HearthStoneEntityDatabase.Builder<>();
+        HearthStoneEntityDatabase.Builder<CardDescr> heroPowerDb = new HearthStoneEntityDatabase.Builder<>();
+
+        cardHeaders.forEach((cardFile, header) -> {
+            CardId cardId = header.getId();
+
+            // The mana cost is known from the header, so mana cost queries do
+            // not need to parse every card.
+            Supplier<CardDescr> cardLoader = keptFiles.contains(cardFile)
+                    ? () -> previousDb.getCardDb().getById(cardId)
+                    : () -> parseLazyEntity(cardFile, cardParser);
+            cardDb.addLazyEntity(cardId, header.getKeywords(), cardManaCost(header), cardLoader);
+
+            // The keywords of the minion and the weapon are the same as the
+            // keywords of their card.
+            if (header.hasMinion()) {
+                Map<EntityIntAttribute<? super MinionDescr>, Integer> knownAttributes
+                        = Collections.singletonMap(MinionAttributes.MANA_COST, header.getManaCost());
+                minionDb.addLazyEntity(new MinionId(cardId.getName()), header.getKeywords(), knownAttributes, () -> {
+                    return resultRef.get().getCardDb().getById(cardId).getMinion();
+                });
+            }
+            if (header.hasWeapon()) {
+                weaponDb.addLazyEntity(new WeaponId(cardId.getName()), header.getKeywords(), () -> {
+                    return resultRef.get().getCardDb().getById(cardId).getWeapon();
+                });
+            }
+        });
+
+        powerHeaders.forEach((powerFile, header) -> {
+            CardId powerId = header.getId();
+            Supplier<CardDescr> powerLoader = keptFiles.contains(powerFile)
+                    ? () -> previousDb.getHeroPowerDb().getById(powerId)
+                    : () -> parseLazyEntity(powerFile, (obj) -> cardParser.fromJson(obj, CardType.HERO_POWER));
+            heroPowerDb.addLazyEntity(powerId, header.getKeywords(), cardManaCost(header), powerLoader);
+        });
+
+        HearthStoneDb result = new HearthStoneDb(
+                cardDb.create(),
+                minionDb.create(),
+                weaponDb.create(),
+                heroPowerDb.create());
+        resultRef.set(result);
+
+        return result;
+    }
+
+    private static Map<EntityIntAttribute<? super CardDescr>, Integer> cardManaCost(CardHeader header) {
+        return Collections.singletonMap(CardAttributes.MANA_COST, header.getManaCost());
+    }
+
+    private static <T extends HearthStoneEntity> T parseLazyEntity(Path entityFile, EntityParser<T> parser) {
+        try {
+            return parseEntity(entityFile, parser);
+        } catch (ObjectParsingException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    private static <T extends HearthStoneEntity> T parseEntity(
+            Path entityFile,
+            EntityParser<T> parser) throws ObjectParsingException {
+        try {
+            JsonObject entityObj = ParserUtils.fromJsonFile(entityFile);
+            UseTrackerJsonTree trackedTree = new UseTrackerJsonTree(entityObj);
+            T result = parser.fromJson(trackedTree);
+            trackedTree.checkRequestedAllElements();
+            return result;
+        } catch (Exception ex) {
+            throw new ObjectParsingException("Failed to parse " + entityFile.getFileName(), ex);
+        }
+    }
+
+    private static void forEachEntityFile(
+            Path dir,
+            String extension,
+            EntityFileProcessor processor) throws IOException, ObjectParsingException {
+
+        try (DirectoryStream<Path> entityFiles = Files.newDirectoryStream(dir)) {
+            for (Path entityFile: entityFiles) {
+                if (hasExt(entityFile, extension)) {
+                    try {
+                        processor.processFile(entityFile);
+                    } catch (Exception ex) {
+                        throw new ObjectParsingException("Failed to parse " + entityFile.getFileName(), ex);
+                    }
+                }
+            }
         }
     }
 
     private static HearthStoneDb fromRoot(Path root) throws IOException, ObjectParsingException {
         Path minionDir = root.resolve("minions");
-        Path cardDir = root.resolve("cards");
-        Path powerDir = root.resolve("powers");
+        Path cardDir = getCardDir(root);
+        Path powerDir = getPowerDir(root);
 
         AtomicReference<HearthStoneEntityDatabase<CardDescr>> cardDbRef = new AtomicReference<>();
         AtomicReference<HearthStoneDb> resultRef = new AtomicReference<>();
@@ -138,7 +335,7 @@ public final class HearthStoneDb {
         return result;
     }
 
-    private static boolean hasExt(Path path, String ext) {
+    static boolean hasExt(Path path, String ext) {
         String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
         return fileName.endsWith(ext);
     }
@@ -147,7 +344,7 @@ public final class HearthStoneDb {
             Path cardDir,
             JsonDeserializer objectParser) throws IOException, ObjectParsingException {
 
-        return createEntityDb(cardDir, ".card", new CardParser(objectParser));
+        return createEntityDb(cardDir, CARD_EXTENSION, new CardParser(objectParser));
     }
 
     private static HearthStoneEntityDatabase<CardDescr> createHeroPowerDb(
@@ -155,7 +352,7 @@ public final class HearthStoneDb {
             JsonDeserializer objectParser) throws IOException, ObjectParsingException {
 
         CardParser cardParser = new CardParser(objectParser);
-        return createEntityDb(powerDir, ".power", (obj) -> {
+        return createEntityDb(powerDir, POWER_EXTENSION, (obj) -> {
             return cardParser.fromJson(obj, CardType.HERO_POWER);
         });
     }
@@ -166,22 +363,9 @@ public final class HearthStoneDb {
             EntityParser<T> parser) throws IOException, ObjectParsingException {
 
         HearthStoneEntityDatabase.Builder<T> result = new HearthStoneEntityDatabase.Builder<>();
-
-        try (DirectoryStream<Path> entityFiles = Files.newDirectoryStream(powerDir)) {
-            for (Path entityFile: entityFiles) {
-                if (hasExt(entityFile, extension)) {
-                    try {
-                        JsonObject entityObj = ParserUtils.fromJsonFile(entityFile);
-                        UseTrackerJsonTree trackedTree = new UseTrackerJsonTree(entityObj);
-                        result.addEntity(parser.fromJson(trackedTree));
-                        trackedTree.checkRequestedAllElements();
-                    } catch (Exception ex) {
-                        throw new ObjectParsingException("Failed to parse " + entityFile.getFileName(), ex);
-                    }
-                }
-            }
-        }
-
+        forEachEntityFile(powerDir, extension, (entityFile) -> {
+            result.addEntity(parseEntity(entityFile, parser));
+        });
         return result.create();
     }
 
@@ -189,6 +373,17 @@ public final class HearthStoneDb {
         return heroPowerDb;
     }
 
+    public CardSearchIndex getCardSearchIndex() {
+        CardSearchIndex result = cardSearchIndexRef.get();
+        if (result == null) {
+            result = new CardSearchIndex(cardDb);
+            if (!cardSearchIndexRef.compareAndSet(null, result)) {
+                result = cardSearchIndexRef.get();
+            }
+        }
+        return result;
+    }
+
     public HearthStoneEntityDatabase<WeaponDescr> getWeaponDb() {
         return weaponDb;
     }
@@ -200,4 +395,8 @@ public final class HearthStoneDb {
     public HearthStoneEntityDatabase<CardDescr> getCardDb() {
         return cardDb;
     }
+
+    private interface EntityFileProcessor {
+        public void processFile(Path entityFile) throws Exception;
+    }
 }
@@ -0,0 +1,348 @@
+package com.github.kelemen.brazier;
+
+import com.github.kelemen.brazier.parsing.CardHeader;
+import com.github.kelemen.brazier.parsing.CardParser;
+import com.github.kelemen.brazier.parsing.ObjectParsingException;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.event.CopyOnTriggerListenerManager;
+import org.jtrim.event.EventListeners;
+import org.jtrim.event.ListenerManager;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.utils.ExceptionHelper;
+
+// Every reload creates a new (lazily parsed) HearthStoneDb, so worlds created
+// with an earlier database keep using the cards they were started with.
+public final class HearthStoneDbWatcher implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(HearthStoneDbWatcher.class.getName());
+
+    // Editors usually generate multiple events for a single save, so we wait
+    // a little for further events before reloading the database.
+    private static final long EVENT_BATCH_TIME_MS = 50;
+
+    private final Path cardDir;
+    private final Path powerDir;
+    private final CardParser headerParser;
+    private final WatchService watchService;
+
+    private final Object reloadLock;
+    private Map<Path, CardHeader> cardHeaders;
+    private Map<Path, CardHeader> powerHeaders;
+    // Files which are currently invalid, so their entities are taken from
+    // the database which successfully parsed them.
+    private Set<Path> keptFiles;
+
+    private final AtomicReference<HearthStoneDb> currentDb;
+    private final ListenerManager<Runnable> reloadListeners;
+
+    private final AtomicReference<Thread> watchThreadRef;
+
+    private HearthStoneDbWatcher(Path root) throws IOException, ObjectParsingException {
+        this.cardDir = HearthStoneDb.getCardDir(root);
+        this.powerDir = HearthStoneDb.getPowerDir(root);
+        this.headerParser = HearthStoneDb.newHeaderParser();
+        this.reloadLock = new Object();
+        this.cardHeaders = new LinkedHashMap<>();
+        this.powerHeaders = new LinkedHashMap<>();
+        this.keptFiles = Collections.emptySet();
+        this.reloadListeners = new CopyOnTriggerListenerManager<>();
+        this.watchThreadRef = new AtomicReference<>(null);
+
+        this.watchService = root.getFileSystem().newWatchService();
+        try {
+            registerDir(cardDir);
+            registerDir(powerDir);
+
+            for (Path cardFile: listFiles(cardDir, HearthStoneDb.CARD_EXTENSION)) {
+                readHeader(cardFile, cardHeaders, powerHeaders);
+            }
+            for (Path powerFile: listFiles(powerDir, HearthStoneDb.POWER_EXTENSION)) {
+                readHeader(powerFile, cardHeaders, powerHeaders);
+            }
+        } catch (Throwable ex) {
+            watchService.close();
+            throw ex;
+        }
+
+        this.currentDb = new AtomicReference<>(HearthStoneDb.createLazily(cardHeaders, powerHeaders));
+    }
+
+    public static HearthStoneDbWatcher watchDefault() throws IOException, ObjectParsingException {
+        Path cardDbPath = HearthStoneDb.tryGetCardDbPath();
+        if (cardDbPath == null) {
+            throw new IllegalStateException("Missing card database.");
+        }
+
+        return watch(cardDbPath);
+    }
+
+    public static HearthStoneDbWatcher watch(Path root) throws IOException, ObjectParsingException {
+        ExceptionHelper.checkNotNullArgument(root, "root");
+
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Only card database directories can be watched: " + root);
+        }
+
+        return new HearthStoneDbWatcher(root);
+    }
+
+    private void registerDir(Path dir) throws IOException {
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private static Set<Path> listFiles(Path dir, String extension) throws IOException {
+        Set<Path> result = new LinkedHashSet<>();
+        try (DirectoryStream<Path> entityFiles = Files.newDirectoryStream(dir)) {
+            for (Path entityFile: entityFiles) {
+                if (HearthStoneDb.hasExt(entityFile, extension)) {
+                    result.add(entityFile);
+                }
+            }
+        }
+        return result;
+    }
+
+    public HearthStoneDb getCurrentDb() {
+        return currentDb.get();
+    }
+
+    // The listeners are notified on the watcher thread after the new database
+    // is available through getCurrentDb().
+    public ListenerRef addReloadListener(Runnable listener) {
+        return reloadListeners.registerListener(listener);
+    }
+
+    public void start() {
+        Thread watchThread = new Thread(this::watchChanges, "CardDb-Watcher");
+        watchThread.setDaemon(true);
+
+        if (!watchThreadRef.compareAndSet(null, watchThread)) {
+            throw new IllegalStateException("The watcher has already been started.");
+        }
+        watchThread.start();
+    }
+
+    private void watchChanges() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changedFiles = new LinkedHashSet<>();
+                collectChanges(watchService.take(), changedFiles);
+
+                WatchKey nextKey = watchService.poll(EVENT_BATCH_TIME_MS, TimeUnit.MILLISECONDS);
+                while (nextKey != null) {
+                    collectChanges(nextKey, changedFiles);
+                    nextKey = watchService.poll(EVENT_BATCH_TIME_MS, TimeUnit.MILLISECONDS);
+                }
+
+                reload(changedFiles);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // The watcher was closed.
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changedFiles) {
+        Path dir = (Path)key.watchable();
+        for (WatchEvent<?> event: key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // We have lost some events, so check every file in the directory.
+                addAllFiles(dir, changedFiles);
+            }
+            else {
+                changedFiles.add(dir.resolve((Path)event.context()));
+            }
+        }
+        key.reset();
+    }
+
+    private void addAllFiles(Path dir, Set<Path> result) {
+        synchronized (reloadLock) {
+            result.addAll(cardDir.equals(dir) ? cardHeaders.keySet() : powerHeaders.keySet());
+        }
+        try {
+            result.addAll(listFiles(dir, cardDir.equals(dir)
+                    ? HearthStoneDb.CARD_EXTENSION
+                    : HearthStoneDb.POWER_EXTENSION));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to list the files of " + dir, ex);
+        }
+    }
+
+    private boolean isCardFile(Path file) {
+        return cardDir.equals(file.getParent()) && HearthStoneDb.hasExt(file, HearthStoneDb.CARD_EXTENSION);
+    }
+
+    private boolean isPowerFile(Path file) {
+        return powerDir.equals(file.getParent()) && HearthStoneDb.hasExt(file, HearthStoneDb.POWER_EXTENSION);
+    }
+
+    private void readHeader(
+            Path file,
+            Map<Path, CardHeader> newCardHeaders,
+            Map<Path, CardHeader> newPowerHeaders) throws IOException, ObjectParsingException {
+
+        boolean cardFile = isCardFile(file);
+        if (!cardFile && !isPowerFile(file)) {
+            return;
+        }
+
+        Map<Path, CardHeader> headers = cardFile ? newCardHeaders : newPowerHeaders;
+        if (!Files.isRegularFile(file)) {
+            headers.remove(file);
+            return;
+        }
+
+        try {
+            CardHeader header = cardFile
+                    ? HearthStoneDb.readCardHeader(headerParser, file)
+                    : HearthStoneDb.readHeroPowerHeader(headerParser, file);
+            headers.put(file, header);
+        } catch (Exception ex) {
+            throw new ObjectParsingException("Failed to parse " + file.getFileName(), ex);
+        }
+    }
+
+    private static void parseEntity(HearthStoneDb db, CardHeader cardHeader, CardHeader powerHeader) {
+        if (cardHeader != null) {
+            db.getCardDb().getById(cardHeader.getId());
+        }
+        if (powerHeader != null) {
+            db.getHeroPowerDb().getById(powerHeader.getId());
+        }
+    }
+
+    private static void restoreHeader(Path file, Map<Path, CardHeader> prevHeaders, Map<Path, CardHeader> newHeaders) {
+        CardHeader prevHeader = prevHeaders.get(file);
+        if (prevHeader != null) {
+            newHeaders.put(file, prevHeader);
+        }
+        else {
+            newHeaders.remove(file);
+        }
+    }
+
+    // Called when the given file turned out to be invalid: Its previous
+    // entity is kept if it is still available, otherwise the entity is removed.
+    private void keepPreviousEntity(
+            Path file,
+            HearthStoneDb prevDb,
+            Map<Path, CardHeader> newCardHeaders,
+            Map<Path, CardHeader> newPowerHeaders,
+            Set<Path> newKeptFiles) {
+        restoreHeader(file, cardHeaders, newCardHeaders);
+        restoreHeader(file, powerHeaders, newPowerHeaders);
+
+        CardHeader cardHeader = cardHeaders.get(file);
+        CardHeader powerHeader = powerHeaders.get(file);
+        if (cardHeader == null && powerHeader == null) {
+            return;
+        }
+
+        try {
+            // The previous database might not have parsed it yet, in which
+            // case it can no longer be parsed.
+            parseEntity(prevDb, cardHeader, powerHeader);
+            newKeptFiles.add(file);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "The previous version of " + file.getFileName() + " is not available.", ex);
+            newCardHeaders.remove(file);
+            newPowerHeaders.remove(file);
+            newKeptFiles.remove(file);
+        }
+    }
+
+    // Returns true if a new database has been created. Invalid files are
+    // logged and their previous version remains in the new database. If all
+    // the changed files are invalid, the current database remains in use.
+    boolean reload(Collection<Path> changedFiles) {
+        if (changedFiles.isEmpty()) {
+            return false;
+        }
+
+        synchronized (reloadLock) {
+            HearthStoneDb prevDb = currentDb.get();
+            Map<Path, CardHeader> newCardHeaders = new LinkedHashMap<>(cardHeaders);
+            Map<Path, CardHeader> newPowerHeaders = new LinkedHashMap<>(powerHeaders);
+            Set<Path> newKeptFiles = new HashSet<>(keptFiles);
+
+            Set<Path> readFiles = new LinkedHashSet<>();
+            for (Path file: changedFiles) {
+                try {
+                    readHeader(file, newCardHeaders, newPowerHeaders);
+                    newKeptFiles.remove(file);
+                    readFiles.add(file);
+                } catch (Exception ex) {
+                    LOGGER.log(Level.WARNING, "Failed to reload " + file.getFileName(), ex);
+                    keepPreviousEntity(file, prevDb, newCardHeaders, newPowerHeaders, newKeptFiles);
+                }
+            }
+
+            if (readFiles.isEmpty()) {
+                return false;
+            }
+
+            HearthStoneDb newDb = HearthStoneDb.createLazily(newCardHeaders, newPowerHeaders, prevDb, newKeptFiles);
+
+            // We only parse the modified files here to report errors early.
+            // Everything else is parsed by the new database when needed.
+            Set<Path> invalidFiles = new HashSet<>();
+            for (Path file: readFiles) {
+                try {
+                    parseEntity(newDb, newCardHeaders.get(file), newPowerHeaders.get(file));
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Failed to reload " + file.getFileName(), ex);
+                    invalidFiles.add(file);
+                }
+            }
+
+            if (!invalidFiles.isEmpty()) {
+                if (invalidFiles.size() == readFiles.size()) {
+                    return false;
+                }
+
+                for (Path file: invalidFiles) {
+                    keepPreviousEntity(file, prevDb, newCardHeaders, newPowerHeaders, newKeptFiles);
+                }
+                newDb = HearthStoneDb.createLazily(newCardHeaders, newPowerHeaders, prevDb, newKeptFiles);
+            }
+
+            cardHeaders = newCardHeaders;
+            powerHeaders = newPowerHeaders;
+            keptFiles = newKeptFiles;
+            currentDb.set(newDb);
+        }
+
+        EventListeners.dispatchRunnable(reloadListeners);
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread watchThread = watchThreadRef.get();
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+        watchService.close();
+    }
+}
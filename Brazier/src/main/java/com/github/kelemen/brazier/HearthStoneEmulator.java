@@ -5,6 +5,7 @@ import com.github.kelemen.brazier.cards.Card;
 import com.github.kelemen.brazier.cards.CardDescr;
 import com.github.kelemen.brazier.cards.CardId;
 import com.github.kelemen.brazier.minions.MinionId;
+import com.github.kelemen.brazier.server.SimulationServer;
 import com.github.kelemen.brazier.ui.UiUtils;
 import com.github.kelemen.brazier.ui.WorldPlayPanel;
 import com.github.kelemen.brazier.weapons.WeaponId;
@@ -208,7 +209,25 @@ public class HearthStoneEmulator {
         player2.setMana(10);
     }
 
+    // Runs until the process is killed. The database is loaded only once,
+    // then every request uses it.
+    private static void runServer(String[] args) throws Throwable {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : SimulationServer.DEFAULT_PORT;
+
+        HearthStoneDb db = HearthStoneDb.readDefault();
+
+        SimulationServer.Builder serverBuilder = new SimulationServer.Builder(db);
+        serverBuilder.setPort(port);
+        SimulationServer server = serverBuilder.start();
+        System.out.println("Simulation server is listening on port " + server.getPort());
+    }
+
     public static void main(String[] args) throws Throwable {
+        if (args.length > 0 && "--server".equals(args[0])) {
+            runServer(args);
+            return;
+        }
+
         UiUtils.useLookAndFeel("Nimbus");
 
         HearthStoneDb db = HearthStoneDb.readDefault();
@@ -1,6 +1,10 @@
 package com.github.kelemen.brazier;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -8,12 +12,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import org.jtrim.collections.CollectionsEx;
 import org.jtrim.utils.ExceptionHelper;
 
 public final class HearthStoneEntityDatabase<EntityType extends HearthStoneEntity> {
     public static final class Builder<EntityType extends HearthStoneEntity> {
-        private final List<EntityType> entities;
+        private final List<EntityRef<EntityType>> entities;
         private final Set<EntityId> addedIds;
 
         public Builder() {
@@ -23,13 +29,34 @@ public final class HearthStoneEntityDatabase<EntityType extends HearthStoneEntit
 
         public void addEntity(EntityType entity) {
             ExceptionHelper.checkNotNullArgument(entity, "entity");
+            addEntityRef(new EntityRef<>(entity));
+        }
+
+        public void addLazyEntity(
+                EntityId id,
+                Set<Keyword> keywords,
+                Supplier<? extends EntityType> entityLoader) {
+            addLazyEntity(id, keywords, Collections.emptyMap(), entityLoader);
+        }
 
-            if (!addedIds.add(entity.getId())) {
+        public void addLazyEntity(
+                EntityId id,
+                Set<Keyword> keywords,
+                Map<EntityIntAttribute<? super EntityType>, Integer> knownAttributes,
+                Supplier<? extends EntityType> entityLoader) {
+            // The keywords and the known attributes must be the same as the
+            // ones of the loaded entity because queries do not load the entities
+            // they skip.
+            addEntityRef(new EntityRef<>(id, keywords, knownAttributes, entityLoader));
+        }
+
+        private void addEntityRef(EntityRef<EntityType> entityRef) {
+            if (!addedIds.add(entityRef.getId())) {
                 throw new IllegalArgumentException("Attempting to add multiple entities with the same ID: "
-                        + entity.getId());
+                        + entityRef.getId());
             }
 
-            entities.add(entity);
+            entities.add(entityRef);
         }
 
         public HearthStoneEntityDatabase<EntityType> create() {
@@ -37,24 +64,35 @@ public final class HearthStoneEntityDatabase<EntityType extends HearthStoneEntit
         }
     }
 
-    private final List<EntityType> entities;
-    private final Map<EntityId, EntityType> entitiesById;
+    private final List<EntityRef<EntityType>> entityRefs;
+    private final Map<EntityId, EntityRef<EntityType>> entitiesById;
 
+    private final AtomicReference<List<EntityType>> entities;
     private final ConcurrentMap<Keywords, List<EntityType>> entitiesByKeyword;
 
+    private final ConcurrentMap<Keyword, BitSet> keywordIndexes;
+    private final ConcurrentMap<EntityIntAttribute<?>, IntAttributeIndex> intAttributeIndexes;
+    private final ConcurrentMap<EntityQuery.Key, List<EntityType>> queryResults;
+
     private HearthStoneEntityDatabase(Builder<EntityType> builder) {
-        this.entities = CollectionsEx.readOnlyCopy(builder.entities);
-        this.entitiesById = toById(this.entities);
+        this.entityRefs = CollectionsEx.readOnlyCopy(builder.entities);
+        this.entitiesById = toById(this.entityRefs);
+        this.entities = new AtomicReference<>(null);
         this.entitiesByKeyword = new ConcurrentHashMap<>();
+        this.keywordIndexes = new ConcurrentHashMap<>();
+        this.intAttributeIndexes = new ConcurrentHashMap<>();
+        this.queryResults = new ConcurrentHashMap<>();
     }
 
     public static <EntityType extends HearthStoneEntity> HearthStoneEntityDatabase<EntityType> emptyDatabase() {
         return new Builder<EntityType>().create();
     }
 
-    private static <EntityType extends HearthStoneEntity> Map<EntityId, EntityType> toById(List<EntityType> entities) {
-        Map<EntityId, EntityType> result = CollectionsEx.newHashMap(entities.size());
-        for (EntityType entity: entities) {
+    private static <EntityType extends HearthStoneEntity> Map<EntityId, EntityRef<EntityType>> toById(
+            List<EntityRef<EntityType>> entities) {
+
+        Map<EntityId, EntityRef<EntityType>> result = CollectionsEx.newHashMap(entities.size());
+        for (EntityRef<EntityType> entity: entities) {
             if (result.put(entity.getId(), entity) != null) {
                 throw new IllegalArgumentException("Found entities with the same ID: " + entity.getId());
             }
@@ -63,17 +101,18 @@ public final class HearthStoneEntityDatabase<EntityType extends HearthStoneEntit
     }
 
     private List<EntityType> findByKeywords(Keywords keywords) {
-        List<EntityType> result = new LinkedList<>();
-        for (EntityType entity: entities) {
-            if (keywords.isApplicable(entity)) {
-                result.add(entity);
+        List<EntityType> result = new ArrayList<>();
+        for (EntityRef<EntityType> entityRef: entityRefs) {
+            if (keywords.isApplicable(entityRef.getKeywords())) {
+                result.add(entityRef.getEntity());
             }
         }
         return result;
     }
 
     public EntityType tryGetById(EntityId id) {
-        return entitiesById.get(id);
+        EntityRef<EntityType> entityRef = entitiesById.get(id);
+        return entityRef != null ? entityRef.getEntity() : null;
     }
 
     public EntityType getById(EntityId id) {
@@ -88,14 +127,265 @@ public final class HearthStoneEntityDatabase<EntityType extends HearthStoneEntit
         Keywords allKeys = new Keywords(keywords);
 
         if (keywords.length == 0) {
-            return entities;
+            return getAll();
         }
 
-        return entitiesByKeyword.computeIfAbsent(allKeys, (key) -> CollectionsEx.readOnlyCopy(findByKeywords(key)));
+        // We do not use computeIfAbsent because lazily loaded entities might
+        // take a long time to be parsed.
+        List<EntityType> result = entitiesByKeyword.get(allKeys);
+        if (result == null) {
+            result = Collections.unmodifiableList(findByKeywords(allKeys));
+            List<EntityType> prevResult = entitiesByKeyword.putIfAbsent(allKeys, result);
+            if (prevResult != null) {
+                result = prevResult;
+            }
+        }
+        return result;
     }
 
     public List<EntityType> getAll() {
-        return entities;
+        List<EntityType> result = entities.get();
+        if (result == null) {
+            List<EntityType> allEntities = new ArrayList<>(entityRefs.size());
+            for (EntityRef<EntityType> entityRef: entityRefs) {
+                allEntities.add(entityRef.getEntity());
+            }
+            result = Collections.unmodifiableList(allEntities);
+            if (!entities.compareAndSet(null, result)) {
+                result = entities.get();
+            }
+        }
+        return result;
+    }
+
+    public EntityQuery<EntityType> query() {
+        return new EntityQuery<>(this);
+    }
+
+    List<EntityType> find(EntityQuery.Key queryKey) {
+        List<EntityType> result = queryResults.get(queryKey);
+        if (result == null) {
+            result = Collections.unmodifiableList(findNow(queryKey));
+            List<EntityType> prevResult = queryResults.putIfAbsent(queryKey, result);
+            if (prevResult != null) {
+                result = prevResult;
+            }
+        }
+        return result;
+    }
+
+    private List<EntityType> findNow(EntityQuery.Key queryKey) {
+        BitSet selected = new BitSet(entityRefs.size());
+        selected.set(0, entityRefs.size());
+
+        for (Keyword keyword: queryKey.getRequiredKeywords()) {
+            selected.and(getKeywordIndex(keyword));
+        }
+        for (Keyword keyword: queryKey.getExcludedKeywords()) {
+            selected.andNot(getKeywordIndex(keyword));
+        }
+
+        for (Map.Entry<EntityIntAttribute<?>, EntityQuery.IntRange> entry: queryKey.getRanges().entrySet()) {
+            if (selected.isEmpty()) {
+                break;
+            }
+
+            EntityQuery.IntRange range = entry.getValue();
+            if (range.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            // The query only allows attributes applicable to our entity type.
+            @SuppressWarnings("unchecked")
+            EntityIntAttribute<? super EntityType> attribute = (EntityIntAttribute<? super EntityType>)entry.getKey();
+            getIntAttributeIndex(attribute).retainRange(range, selected);
+        }
+
+        List<EntityType> result = new ArrayList<>(selected.cardinality());
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            result.add(entityRefs.get(i).getEntity());
+        }
+        return result;
+    }
+
+    // The returned BitSet must not be modified.
+    private BitSet getKeywordIndex(Keyword keyword) {
+        BitSet result = keywordIndexes.get(keyword);
+        if (result == null) {
+            result = new BitSet(entityRefs.size());
+            int index = 0;
+            for (EntityRef<EntityType> entityRef: entityRefs) {
+                if (entityRef.getKeywords().contains(keyword)) {
+                    result.set(index);
+                }
+                index++;
+            }
+
+            BitSet prevResult = keywordIndexes.putIfAbsent(keyword, result);
+            if (prevResult != null) {
+                result = prevResult;
+            }
+        }
+        return result;
+    }
+
+    private IntAttributeIndex getIntAttributeIndex(EntityIntAttribute<? super EntityType> attribute) {
+        IntAttributeIndex result = intAttributeIndexes.get(attribute);
+        if (result == null) {
+            result = new IntAttributeIndex(entityRefs, attribute);
+            IntAttributeIndex prevResult = intAttributeIndexes.putIfAbsent(attribute, result);
+            if (prevResult != null) {
+                result = prevResult;
+            }
+        }
+        return result;
+    }
+
+    private static final class IntAttributeIndex {
+        // The entities having the attribute sorted by the value of the attribute.
+        private final int[] sortedValues;
+        private final int[] entityIndexes;
+
+        public <EntityType extends HearthStoneEntity> IntAttributeIndex(
+                List<EntityRef<EntityType>> entityRefs,
+                EntityIntAttribute<? super EntityType> attribute) {
+
+            // The value is in the upper bits, so sorting the keys sorts by value.
+            long[] keys = new long[entityRefs.size()];
+            int count = 0;
+            int index = 0;
+            for (EntityRef<EntityType> entityRef: entityRefs) {
+                // Only load the entity if the value of the attribute is not
+                // known without it.
+                Integer value = entityRef.tryGetKnownValue(attribute);
+                if (value == null) {
+                    EntityType entity = entityRef.getEntity();
+                    if (attribute.hasValue(entity)) {
+                        value = attribute.getValue(entity);
+                    }
+                }
+
+                if (value != null) {
+                    keys[count] = ((long)value << 32) | index;
+                    count++;
+                }
+                index++;
+            }
+            Arrays.sort(keys, 0, count);
+
+            this.sortedValues = new int[count];
+            this.entityIndexes = new int[count];
+            for (int i = 0; i < count; i++) {
+                sortedValues[i] = (int)(keys[i] >> 32);
+                entityIndexes[i] = (int)keys[i];
+            }
+        }
+
+        // Returns the index of the first value not less than the given value.
+        private int lowerBound(int value) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] < value) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        public void retainRange(EntityQuery.IntRange range, BitSet selected) {
+            int start = lowerBound(range.getMinValue());
+            int end = range.getMaxValue() == Integer.MAX_VALUE
+                    ? sortedValues.length
+                    : lowerBound(range.getMaxValue() + 1);
+
+            BitSet inRange = new BitSet(selected.length());
+            for (int i = start; i < end; i++) {
+                inRange.set(entityIndexes[i]);
+            }
+            selected.and(inRange);
+        }
+    }
+
+    private static final class EntityRef<EntityType extends HearthStoneEntity> {
+        private final EntityId id;
+        private final Set<Keyword> keywords;
+        private final Map<EntityIntAttribute<?>, Integer> knownAttributes;
+
+        private Supplier<? extends EntityType> entityLoader;
+        private volatile EntityType entity;
+
+        public EntityRef(EntityType entity) {
+            this.id = entity.getId();
+            this.keywords = entity.getKeywords();
+            this.knownAttributes = Collections.emptyMap();
+            this.entityLoader = null;
+            this.entity = entity;
+        }
+
+        public EntityRef(
+                EntityId id,
+                Set<Keyword> keywords,
+                Map<? extends EntityIntAttribute<?>, Integer> knownAttributes,
+                Supplier<? extends EntityType> entityLoader) {
+            ExceptionHelper.checkNotNullArgument(id, "id");
+            ExceptionHelper.checkNotNullArgument(keywords, "keywords");
+            ExceptionHelper.checkNotNullArgument(knownAttributes, "knownAttributes");
+            ExceptionHelper.checkNotNullArgument(entityLoader, "entityLoader");
+
+            this.id = id;
+            this.keywords = keywords;
+            this.knownAttributes = knownAttributes.isEmpty()
+                    ? Collections.emptyMap()
+                    : Collections.unmodifiableMap(new HashMap<>(knownAttributes));
+            this.entityLoader = entityLoader;
+            this.entity = null;
+        }
+
+        public EntityId getId() {
+            return id;
+        }
+
+        public Set<Keyword> getKeywords() {
+            return keywords;
+        }
+
+        public Integer tryGetKnownValue(EntityIntAttribute<?> attribute) {
+            return knownAttributes.get(attribute);
+        }
+
+        public EntityType getEntity() {
+            EntityType result = entity;
+            if (result == null) {
+                // We must not load the same entity concurrently, because
+                // loading an entity might be expensive (e.g.: parsing a file).
+                synchronized (this) {
+                    result = entity;
+                    if (result == null) {
+                        result = loadEntity();
+                        entity = result;
+                        entityLoader = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private EntityType loadEntity() {
+            EntityType result = entityLoader.get();
+            if (result == null) {
+                throw new IllegalStateException("Failed to load entity: " + id);
+            }
+            if (!id.equals(result.getId())) {
+                throw new IllegalStateException("Entity has an unexpected ID. Expected: "
+                        + id + ", Actual: " + result.getId());
+            }
+            return result;
+        }
     }
 
     private static final class Keywords {
@@ -106,8 +396,7 @@ public final class HearthStoneEntityDatabase<EntityType extends HearthStoneEntit
             ExceptionHelper.checkNotNullElements(this.keywords, "keywords");
         }
 
-        public boolean isApplicable(HearthStoneEntity entity) {
-            Set<Keyword> entityKeywords = entity.getKeywords();
+        public boolean isApplicable(Set<Keyword> entityKeywords) {
             for (Keyword keyword: keywords) {
                 if (!entityKeywords.contains(keyword)) {
                     return false;
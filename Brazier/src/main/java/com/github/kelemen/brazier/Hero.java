@@ -166,6 +166,10 @@ public final class Hero implements TargetableCharacter {
         return immune;
     }
 
+    public int getAttackCount() {
+        return attackTool.attackCount;
+    }
+
     public int getExtraAttackForThisTurn() {
         return attackTool.extraAttack;
     }
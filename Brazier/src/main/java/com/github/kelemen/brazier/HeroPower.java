@@ -56,6 +56,18 @@ public final class HeroPower implements PlayerProperty {
         return powerDef;
     }
 
+    public int getUseCount() {
+        return useCount;
+    }
+
+    public UndoAction setUseCount(int newUseCount) {
+        ExceptionHelper.checkArgumentInRange(newUseCount, 0, Integer.MAX_VALUE, "newUseCount");
+
+        int prevUseCount = useCount;
+        useCount = newUseCount;
+        return () -> useCount = prevUseCount;
+    }
+
     public int getManaCost() {
         return powerDef.getManaCost();
     }
@@ -0,0 +1,40 @@
+package com.github.kelemen.brazier;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+// Lists to temporarily collect entities into (e.g., when selecting targets), so
+// that frequently executed actions and auras do not have to allocate a new
+// list each time. Acquired lists must be released when they are no longer
+// needed (even if an exception is thrown), after which they must not be used.
+//
+// Lists may be acquired while others are in use (e.g., when an action applied
+// to the selected targets selects targets itself). Like the world owning it,
+// this class is not safe to be used by multiple threads concurrently.
+public final class ListPool {
+    private static final int DEFAULT_LIST_CAPACITY = 2 * (Player.MAX_BOARD_SIZE + 1);
+
+    private final List<List<?>> freeLists;
+
+    public ListPool() {
+        this.freeLists = new ArrayList<>();
+    }
+
+    // The returned list is always empty.
+    @SuppressWarnings("unchecked")
+    public <E> List<E> acquire() {
+        int freeCount = freeLists.size();
+        if (freeCount == 0) {
+            return new ArrayList<>(DEFAULT_LIST_CAPACITY);
+        }
+        return (List<E>)freeLists.remove(freeCount - 1);
+    }
+
+    public void release(List<?> list) {
+        ExceptionHelper.checkNotNullArgument(list, "list");
+
+        list.clear();
+        freeLists.add(list);
+    }
+}
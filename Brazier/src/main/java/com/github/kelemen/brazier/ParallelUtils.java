@@ -0,0 +1,103 @@
+package com.github.kelemen.brazier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import org.jtrim.concurrent.ExecutorsEx;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class ParallelUtils {
+    private static final Runnable NO_OP = () -> { };
+
+    public static void runOnThreads(int threadCount, String threadName, IntConsumer task) {
+        runOnThreads(threadCount, threadName, task, NO_OP);
+    }
+
+    // Executes the task on threadCount threads concurrently and waits until
+    // all of them complete. The argument of the task is the index of the
+    // thread, the calling thread having the index zero.
+    //
+    // The stopTask is called when the task fails on any of the threads, or
+    // when the calling thread is interrupted while waiting for the others, so
+    // that the other threads might return early. The first failure is
+    // rethrown with the other failures suppressed by it. Interrupts are never
+    // lost but are not reported by an exception either.
+    public static void runOnThreads(int threadCount, String threadName, IntConsumer task, Runnable stopTask) {
+        ExceptionHelper.checkArgumentInRange(threadCount, 1, Integer.MAX_VALUE, "threadCount");
+        ExceptionHelper.checkNotNullArgument(threadName, "threadName");
+        ExceptionHelper.checkNotNullArgument(task, "task");
+        ExceptionHelper.checkNotNullArgument(stopTask, "stopTask");
+
+        AtomicReference<Throwable> failureRef = new AtomicReference<>(null);
+        ExecutorsEx.NamedThreadFactory threadFactory = new ExecutorsEx.NamedThreadFactory(true, threadName);
+
+        List<Thread> threads = new ArrayList<>(threadCount - 1);
+        for (int i = 1; i < threadCount; i++) {
+            int threadIndex = i;
+            Thread thread = threadFactory.newThread(() -> runTask(task, threadIndex, stopTask, failureRef));
+            threads.add(thread);
+            thread.start();
+        }
+
+        runTask(task, 0, stopTask, failureRef);
+
+        boolean interrupted = false;
+        for (Thread thread: threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                    stopTask.run();
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        ExceptionHelper.rethrowIfNotNull(failureRef.get());
+    }
+
+    // Calls the action for each index in [0, indexCount) using at most
+    // threadCount threads. After a failure, no more indexes are started.
+    public static void forEachIndex(int threadCount, String threadName, int indexCount, IntConsumer action) {
+        ExceptionHelper.checkArgumentInRange(threadCount, 1, Integer.MAX_VALUE, "threadCount");
+        ExceptionHelper.checkArgumentInRange(indexCount, 0, Integer.MAX_VALUE, "indexCount");
+        ExceptionHelper.checkNotNullArgument(action, "action");
+
+        AtomicInteger nextIndex = new AtomicInteger(0);
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        int usedThreadCount = Math.max(1, Math.min(threadCount, indexCount));
+        runOnThreads(usedThreadCount, threadName, (threadIndex) -> {
+            int index = nextIndex.getAndIncrement();
+            while (index < indexCount && !stopped.get()) {
+                action.accept(index);
+                index = nextIndex.getAndIncrement();
+            }
+        }, () -> stopped.set(true));
+    }
+
+    private static void runTask(
+            IntConsumer task,
+            int threadIndex,
+            Runnable stopTask,
+            AtomicReference<Throwable> failureRef) {
+        try {
+            task.accept(threadIndex);
+        } catch (Throwable ex) {
+            if (!failureRef.compareAndSet(null, ex)) {
+                failureRef.get().addSuppressed(ex);
+            }
+            stopTask.run();
+        }
+    }
+
+    private ParallelUtils() {
+        throw new AssertionError();
+    }
+}
@@ -36,6 +36,7 @@ public final class Player implements PlayerProperty {
     private final BoardSide board;
     private final SecretContainer secrets;
     private final Hand hand;
+    private final PlayedCardPool playedCards;
 
     private final AuraAwareIntProperty deathRattleTriggerCount;
     private final AuraAwareIntProperty spellPower;
@@ -62,6 +63,7 @@ public final class Player implements PlayerProperty {
         this.hero = new Hero(this, 30, 0, Keywords.CLASS_BOSS, Collections.emptySet());
         this.board = new BoardSide(this, MAX_BOARD_SIZE);
         this.hand = new Hand(this, MAX_HAND_SIZE);
+        this.playedCards = new PlayedCardPool();
         this.manaResource = new ManaResource();
         this.fatique = 0;
         this.spellPower = new AuraAwareIntProperty(0);
@@ -149,6 +151,34 @@ public final class Player implements PlayerProperty {
         return minionsPlayedThisTurn;
     }
 
+    public UndoAction setPlayedThisTurn(int cardCount, int minionCount) {
+        ExceptionHelper.checkArgumentInRange(cardCount, 0, Integer.MAX_VALUE, "cardCount");
+        ExceptionHelper.checkArgumentInRange(minionCount, 0, Integer.MAX_VALUE, "minionCount");
+
+        int prevCardCount = cardsPlayedThisTurn;
+        int prevMinionCount = minionsPlayedThisTurn;
+
+        cardsPlayedThisTurn = cardCount;
+        minionsPlayedThisTurn = minionCount;
+
+        return () -> {
+            cardsPlayedThisTurn = prevCardCount;
+            minionsPlayedThisTurn = prevMinionCount;
+        };
+    }
+
+    public int getFatique() {
+        return fatique;
+    }
+
+    public UndoAction setFatique(int newFatique) {
+        ExceptionHelper.checkArgumentInRange(newFatique, 0, Integer.MAX_VALUE, "newFatique");
+
+        int prevFatique = fatique;
+        fatique = newFatique;
+        return () -> fatique = prevFatique;
+    }
+
     private void getOnPlayActions(
             CardDescr cardDescr,
             List<PlayAction<Card>> result) {
@@ -220,6 +250,10 @@ public final class Player implements PlayerProperty {
         cardsPlayedThisTurn++;
         result.addUndo(() -> cardsPlayedThisTurn--);
 
+        if (playCardEvents) {
+            result.addUndo(playedCards.addCard(card.getCardDescr()));
+        }
+
         WorldEvents events = world.getEvents();
 
         CardPlayEvent playEvent = new CardPlayEvent(originalCardPlayArg, manaCost);
@@ -414,6 +448,12 @@ public final class Player implements PlayerProperty {
         return hand;
     }
 
+    // The cards played by this player from the hand. These cards are visible
+    // to both players.
+    public PlayedCardPool getPlayedCards() {
+        return playedCards;
+    }
+
     public PlayerId getPlayerId() {
         return playerId;
     }
@@ -37,6 +37,7 @@ public final class World {
     private final ActiveAuraContainer activeAuras;
 
     private final WorldEvents events;
+    private final ListPool listPool;
 
     private final AtomicLong currentTime;
 
@@ -53,6 +54,7 @@ public final class World {
         this.gameResult = null;
 
         this.events = new WorldEvents(this);
+        this.listPool = new ListPool();
         this.randomProvider = DEFAULT_RANDOM_PROVIDER;
         this.currentPlayer = player1;
 
@@ -70,9 +72,9 @@ public final class World {
         // We wrap the random provider to avoid generating a random number
         // when there is only one possiblity. This helps test code and simplifies
         // AI.
-        this.randomProvider = (bound) -> {
-            return bound > 1 ? randomProvider.roll(bound) : 0;
-        };
+        this.randomProvider = randomProvider instanceof TrivialRollSkipper
+                ? randomProvider
+                : new TrivialRollSkipper(randomProvider);
     }
 
     public RandomProvider getRandomProvider() {
@@ -309,6 +311,14 @@ public final class World {
         });
     }
 
+    public boolean hasActiveAuras() {
+        return !activeAuras.isEmpty();
+    }
+
+    public int getActiveAuraCount() {
+        return activeAuras.getAuraCount();
+    }
+
     public UndoableUnregisterRef addAura(ActiveAura aura) {
         return activeAuras.addAura(aura);
     }
@@ -398,6 +408,10 @@ public final class World {
         return events;
     }
 
+    public ListPool getListPool() {
+        return listPool;
+    }
+
     public void setUserAgent(UserAgent userAgent) {
         ExceptionHelper.checkNotNullArgument(userAgent, "userAgent");
         this.userAgent = userAgent;
@@ -452,4 +466,18 @@ public final class World {
     public Player getPlayer2() {
         return player2;
     }
+
+    // Restoring a previously returned provider must not wrap it again.
+    private static final class TrivialRollSkipper implements RandomProvider {
+        private final RandomProvider wrapped;
+
+        public TrivialRollSkipper(RandomProvider wrapped) {
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public int roll(int bound) {
+            return bound > 1 ? wrapped.roll(bound) : 0;
+        }
+    }
 }
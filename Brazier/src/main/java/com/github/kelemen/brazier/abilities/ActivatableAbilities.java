@@ -62,6 +62,10 @@ public final class ActivatableAbilities<Self> {
         };
     }
 
+    public int getAbilityCount() {
+        return customAbilities.size();
+    }
+
     public UndoAction deactivate() {
         if (customAbilities.isEmpty()) {
             return UndoAction.DO_NOTHING;
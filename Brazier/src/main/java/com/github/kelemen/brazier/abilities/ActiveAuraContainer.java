@@ -25,6 +25,14 @@ public final class ActiveAuraContainer {
         return -1;
     }
 
+    public boolean isEmpty() {
+        return auras.isEmpty();
+    }
+
+    public int getAuraCount() {
+        return auras.size();
+    }
+
     public UndoableUnregisterRef addAura(ActiveAura aura) {
         // We wrap "aura" to ensure that we remove the one
         // added by this method call in the returned reference.
@@ -84,6 +84,12 @@ public final class AuraAwareIntProperty implements Silencable {
         return impl.silence();
     }
 
+    // Returns a different value if the buffs of this property might have
+    // changed since the last call.
+    public long getVersion() {
+        return impl.getVersion();
+    }
+
     public int getValue() {
         int result = impl.getCombinedView().buffProperty(baseValue);
         return result >= minValue ? result : minValue;
@@ -12,6 +12,9 @@ public final class AuraAwarePropertyBase<T> implements Silencable {
     private final BuffDef<T> buffDef;
     private final T combinedView;
     private final List<BuffRef<T>> buffRefs;
+    // Incremented whenever the list of buffs changes (including undos), so it
+    // never returns to a previous value.
+    private long version;
 
     public AuraAwarePropertyBase(BuffDef<T> buffDef) {
         this.buffDef = buffDef;
@@ -38,6 +41,7 @@ public final class AuraAwarePropertyBase<T> implements Silencable {
 
         BuffRef<T> buffRef = new BuffRef<>(priority, external, toAdd);
         buffRefs.add(buffPos, buffRef);
+        version++;
         return UndoableUnregisterRef.makeIdempotent(new UndoableUnregisterRef() {
             @Override
             public UndoAction unregister() {
@@ -46,7 +50,11 @@ public final class AuraAwarePropertyBase<T> implements Silencable {
                     if (candidate == buffRef) {
                         int candidateIndex = i;
                         buffRefs.remove(candidateIndex);
-                        return () -> buffRefs.add(candidateIndex, candidate);
+                        version++;
+                        return () -> {
+                            buffRefs.add(candidateIndex, candidate);
+                            version++;
+                        };
                     }
                 }
                 return UndoAction.DO_NOTHING;
@@ -58,6 +66,7 @@ public final class AuraAwarePropertyBase<T> implements Silencable {
                 if (removed != buffRef) {
                     throw new IllegalStateException("Undo was called in an illegal state.");
                 }
+                version++;
             }
         });
     }
@@ -98,12 +107,20 @@ public final class AuraAwarePropertyBase<T> implements Silencable {
                 buffRefs.add(buffRef);
             }
         }
+        version++;
         return () -> {
             buffRefs.clear();
             buffRefs.addAll(prevRefs);
+            version++;
         };
     }
 
+    // Returns a different value if the list of buffs might have changed since
+    // the last call.
+    public long getVersion() {
+        return version;
+    }
+
     public T getCombinedView() {
         return combinedView;
     }
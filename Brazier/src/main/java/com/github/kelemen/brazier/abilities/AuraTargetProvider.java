@@ -1,8 +1,37 @@
 package com.github.kelemen.brazier.abilities;
 
 import com.github.kelemen.brazier.World;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface AuraTargetProvider<Source, Target> {
     public List<Target> getPossibleTargets(World world, Source source);
+
+    // Adds the same targets to the given (empty) list as getPossibleTargets
+    // would return. Implementations should override this method if they can
+    // do so without allocating a new list.
+    public default void collectPossibleTargets(World world, Source source, List<? super Target> result) {
+        result.addAll(getPossibleTargets(world, source));
+    }
+
+    public static <Source, Target> AuraTargetProvider<Source, Target> fromCollector(
+            TargetCollector<Source, Target> collector) {
+        return new AuraTargetProvider<Source, Target>() {
+            @Override
+            public List<Target> getPossibleTargets(World world, Source source) {
+                List<Target> result = new ArrayList<>();
+                collector.collectPossibleTargets(world, source, result);
+                return result;
+            }
+
+            @Override
+            public void collectPossibleTargets(World world, Source source, List<? super Target> result) {
+                collector.collectPossibleTargets(world, source, result);
+            }
+        };
+    }
+
+    public interface TargetCollector<Source, Target> {
+        public void collectPossibleTargets(World world, Source source, List<? super Target> result);
+    }
 }
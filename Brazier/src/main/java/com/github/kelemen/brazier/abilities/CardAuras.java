@@ -1,5 +1,6 @@
 package com.github.kelemen.brazier.abilities;
 
+import com.github.kelemen.brazier.Hand;
 import com.github.kelemen.brazier.Keywords;
 import com.github.kelemen.brazier.LabeledEntity;
 import com.github.kelemen.brazier.Player;
@@ -10,6 +11,7 @@ import com.github.kelemen.brazier.cards.Card;
 import com.github.kelemen.brazier.parsing.NamedArg;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public final class CardAuras {
     public static final AuraFilter<PlayerProperty, PlayerProperty> SAME_OWNER = MinionAuras.SAME_OWNER;
@@ -19,20 +21,29 @@ public final class CardAuras {
     public static final AuraFilter<Object, LabeledEntity> TARGET_IS_SPELL = Auras.targetHasKeyword(Keywords.SPELL);
     public static final AuraFilter<Object, LabeledEntity> TARGET_HAS_BATTLE_CRY = Auras.targetHasKeyword(Keywords.BATTLE_CRY);
 
-    public static final AuraTargetProvider<Object, Card> CARD_PROVIDER = (World world, Object source) -> {
-        List<Card> result = new ArrayList<>(2 * Player.MAX_HAND_SIZE);
-        world.getPlayer1().getHand().collectCards(result);
-        world.getPlayer2().getHand().collectCards(result);
-        return result;
-    };
+    public static final HandAuraTargetProvider<Object> CARD_PROVIDER = new HandAuraTargetProvider<Object>() {
+        @Override
+        public List<Card> getPossibleTargets(World world, Object source) {
+            List<Card> result = new ArrayList<>(2 * Player.MAX_HAND_SIZE);
+            world.getPlayer1().getHand().collectCards(result);
+            world.getPlayer2().getHand().collectCards(result);
+            return result;
+        }
 
-    public static final AuraTargetProvider<PlayerProperty, Card> OWN_CARD_PROVIDER = (World world, PlayerProperty source) -> {
-        return source.getOwner().getHand().getCards();
+        @Override
+        public long getTargetsVersion(World world, Object source) {
+            // Versions never decrease, so their sum changes if any of them changes.
+            return world.getPlayer1().getHand().getVersion() + world.getPlayer2().getHand().getVersion();
+        }
     };
 
-    public static final AuraTargetProvider<PlayerProperty, Card> OPPONENT_CARD_PROVIDER = (World world, PlayerProperty source) -> {
-        return source.getOwner().getOpponent().getHand().getCards();
-    };
+    public static final HandAuraTargetProvider<PlayerProperty> OWN_CARD_PROVIDER = handProvider((source) -> {
+        return source.getOwner().getHand();
+    });
+
+    public static final HandAuraTargetProvider<PlayerProperty> OPPONENT_CARD_PROVIDER = handProvider((source) -> {
+        return source.getOwner().getOpponent().getHand();
+    });
 
     public static final AuraFilter<Object, Card> MINION_CARD = (world, source, target) -> {
         return target.getCardDescr().getMinion() != null;
@@ -65,6 +76,20 @@ public final class CardAuras {
         };
     }
 
+    private static <Source> HandAuraTargetProvider<Source> handProvider(Function<? super Source, Hand> handGetter) {
+        return new HandAuraTargetProvider<Source>() {
+            @Override
+            public List<Card> getPossibleTargets(World world, Source source) {
+                return handGetter.apply(source).getCards();
+            }
+
+            @Override
+            public long getTargetsVersion(World world, Source source) {
+                return handGetter.apply(source).getVersion();
+            }
+        };
+    }
+
     private CardAuras() {
         throw new AssertionError();
     }
@@ -0,0 +1,90 @@
+package com.github.kelemen.brazier.abilities;
+
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.minions.MinionDescr;
+import com.github.kelemen.brazier.weapons.WeaponDescr;
+import org.jtrim.utils.ExceptionHelper;
+
+// Computes the EffectClass of the descriptors when they are created (i.e.,
+// when the database is loaded). Only the definition of the analyzed object is
+// considered, not the objects it might refer to lazily (e.g., the cards of
+// choose one effects).
+public final class EffectAnalyzer {
+    public static EffectClass classifyMinion(MinionDescr minion) {
+        ExceptionHelper.checkNotNullArgument(minion, "minion");
+
+        if (minion.tryGetAbility() != null
+                || minion.getEventActionDefs().hasAnyActionDef()
+                || minion.tryGetDeathRattle() != null) {
+            return EffectClass.TRIGGERED;
+        }
+
+        if (!minion.getBattleCries().isEmpty()
+                || minion.getAttackFinalizer() != OwnedIntPropertyBuff.IDENTITY
+                || minion.isTaunt()
+                || minion.isDivineShield()
+                || minion.isCharge()
+                || minion.isStealth()
+                || !minion.isTargetable()
+                || !minion.isCanAttack()
+                || minion.getMaxAttackCount() != 1
+                || minion.isAttackLeft()
+                || minion.isAttackRight()) {
+            return EffectClass.STAT_ONLY;
+        }
+
+        return EffectClass.VANILLA;
+    }
+
+    public static EffectClass classifyWeapon(WeaponDescr weapon) {
+        ExceptionHelper.checkNotNullArgument(weapon, "weapon");
+
+        if (weapon.tryGetAbility() != null
+                || weapon.getEventActionDefs().hasAnyActionDef()
+                || weapon.tryGetDeathRattle() != null) {
+            return EffectClass.TRIGGERED;
+        }
+
+        if (weapon.getMaxAttackCount() != 1
+                || weapon.canRetaliateWith()
+                || !weapon.canTargetRetaliate()) {
+            return EffectClass.STAT_ONLY;
+        }
+
+        return EffectClass.VANILLA;
+    }
+
+    public static EffectClass classifyCard(CardDescr card) {
+        ExceptionHelper.checkNotNullArgument(card, "card");
+
+        EffectClass result = EffectClass.VANILLA;
+
+        MinionDescr minion = card.getMinion();
+        if (minion != null) {
+            result = result.combine(minion.getEffectClass());
+        }
+
+        WeaponDescr weapon = card.getWeapon();
+        if (weapon != null) {
+            result = result.combine(classifyWeapon(weapon));
+        }
+
+        if (card.tryGetInHandAbility() != null
+                || !card.getManaCostAdjusters().isEmpty()
+                || !card.getOnDrawActions().isEmpty()) {
+            return EffectClass.TRIGGERED;
+        }
+
+        if (!card.getOnPlayActions().isEmpty()
+                || card.hasChooseOneActions()
+                || card.getOverload() > 0) {
+            result = result.combine(EffectClass.STAT_ONLY);
+        }
+
+        return result;
+    }
+
+    private EffectAnalyzer() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.kelemen.brazier.abilities;
+
+// Classifies what a card, minion or weapon does besides having its stats.
+public enum EffectClass {
+    // Nothing but the basic stats (e.g., attack, hp, mana cost).
+    VANILLA,
+    // Has effects which are only applied when played (e.g., battle cries,
+    // spell effects) or by the stats themselves (e.g., taunt, charge) but
+    // nothing listening for the changes of the world.
+    STAT_ONLY,
+    // Has abilities which must be activated (e.g., auras, event handlers,
+    // death rattles, in hand abilities).
+    TRIGGERED;
+
+    public boolean isTriggered() {
+        return this == TRIGGERED;
+    }
+
+    public EffectClass combine(EffectClass other) {
+        return other.ordinal() > ordinal() ? other : this;
+    }
+}
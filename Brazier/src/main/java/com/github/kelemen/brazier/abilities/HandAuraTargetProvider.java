@@ -0,0 +1,13 @@
+package com.github.kelemen.brazier.abilities;
+
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.cards.Card;
+
+// A target provider selecting the cards of some hands. Auras using such a
+// provider only have to collect their targets again if the version of the
+// targets changes (i.e., if one of the hands changes).
+public interface HandAuraTargetProvider<Source> extends AuraTargetProvider<Source, Card> {
+    // Must return a different value if the list of possible targets might
+    // have changed since the last call.
+    public long getTargetsVersion(World world, Source source);
+}
@@ -14,9 +14,6 @@ import com.github.kelemen.brazier.actions.ActionUtils;
 import com.github.kelemen.brazier.events.UndoableUnregisterRefBuilder;
 import com.github.kelemen.brazier.minions.Minion;
 import com.github.kelemen.brazier.parsing.NamedArg;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 import org.jtrim.utils.ExceptionHelper;
@@ -38,40 +35,37 @@ public final class MinionAuras {
         return source.isDamaged();
     };
 
-    public static final AuraTargetProvider<Object, Minion> MINION_PROVIDER = (World world, Object source) -> {
-        List<Minion> result = new ArrayList<>(2 * Player.MAX_BOARD_SIZE);
-        world.getPlayer1().getBoard().collectMinions(result, Minion::notScheduledToDestroy);
-        world.getPlayer2().getBoard().collectMinions(result, Minion::notScheduledToDestroy);
-        BornEntity.sortEntities(result);
-        return result;
-    };
+    public static final AuraTargetProvider<Object, Minion> MINION_PROVIDER = AuraTargetProvider.fromCollector((world, source, result) -> {
+        List<Minion> minions = world.getListPool().acquire();
+        try {
+            world.getPlayer1().getBoard().collectMinions(minions, Minion::notScheduledToDestroy);
+            world.getPlayer2().getBoard().collectMinions(minions, Minion::notScheduledToDestroy);
+            BornEntity.sortEntities(minions);
+            for (int i = 0; i < minions.size(); i++) {
+                result.add(minions.get(i));
+            }
+        } finally {
+            world.getListPool().release(minions);
+        }
+    });
 
-    public static final AuraTargetProvider<PlayerProperty, Minion> SAME_BOARD_MINION_PROVIDER = (world, source) -> {
-        return source.getOwner().getBoard().getAllMinions();
-    };
+    public static final AuraTargetProvider<PlayerProperty, Minion> SAME_BOARD_MINION_PROVIDER = AuraTargetProvider.fromCollector((world, source, result) -> {
+        source.getOwner().getBoard().collectMinions(result);
+    });
 
-    public static final AuraTargetProvider<Minion, Minion> NEIGHBOURS_MINION_PROVIDER = (world, source) -> {
+    public static final AuraTargetProvider<Minion, Minion> NEIGHBOURS_MINION_PROVIDER = AuraTargetProvider.fromCollector((world, source, result) -> {
         SummonLocationRef locationRef = source.getLocationRef();
 
         BoardLocationRef left = locationRef.tryGetLeft();
-        BoardLocationRef right = locationRef.tryGetRight();
-        if (left == null) {
-            if (right == null) {
-                return Collections.emptyList();
-            }
-            else {
-                return Collections.singletonList(right.getMinion());
-            }
+        if (left != null) {
+            result.add(left.getMinion());
         }
-        else {
-            if (right == null) {
-                return Collections.singletonList(left.getMinion());
-            }
-            else {
-                return Arrays.asList(left.getMinion(), right.getMinion());
-            }
+
+        BoardLocationRef right = locationRef.tryGetRight();
+        if (right != null) {
+            result.add(right.getMinion());
         }
-    };
+    });
 
     public static final Aura<Object, Minion> UNTARGETABLE = (World world, Object source, Minion target) -> {
         return target.getProperties().getBody().getUntargetableProperty().setValueToExternal(true);
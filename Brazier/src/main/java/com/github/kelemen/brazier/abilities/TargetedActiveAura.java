@@ -1,11 +1,11 @@
 package com.github.kelemen.brazier.abilities;
 
+import com.github.kelemen.brazier.ListPool;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.World;
 import com.github.kelemen.brazier.actions.UndoAction;
 import com.github.kelemen.brazier.actions.UndoBuilder;
 import com.github.kelemen.brazier.events.UndoableUnregisterRef;
-import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,9 +17,15 @@ public final class TargetedActiveAura<Source, Target> implements ActiveAura {
     private final AuraTargetProvider<? super Source, ? extends Target> targetProvider;
     private final AuraFilter<? super Source, ? super Target> targetFilter;
     private final Aura<? super Source, ? super Target> aura;
+    private final HandAuraTargetProvider<? super Source> handTargetProvider;
 
     private Map<Target, UndoableUnregisterRef> currentlyApplied;
 
+    // The targets last returned by handTargetProvider and their version. The
+    // aura is only applied to (some of) these targets.
+    private List<? extends Target> lastTargets;
+    private long lastTargetsVersion;
+
     public TargetedActiveAura(
             Source source,
             AuraTargetProvider<? super Source, ? extends Target> targetProvider,
@@ -34,61 +40,132 @@ public final class TargetedActiveAura<Source, Target> implements ActiveAura {
         this.targetProvider = targetProvider;
         this.targetFilter = targetFilter;
         this.aura = aura;
+        this.handTargetProvider = tryGetHandTargetProvider(targetProvider);
         this.currentlyApplied = new IdentityHashMap<>(2 * Player.MAX_BOARD_SIZE);
+        this.lastTargets = null;
+        this.lastTargetsVersion = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Source> HandAuraTargetProvider<? super Source> tryGetHandTargetProvider(
+            AuraTargetProvider<? super Source, ?> targetProvider) {
+        if (targetProvider instanceof HandAuraTargetProvider) {
+            return (HandAuraTargetProvider<? super Source>)targetProvider;
+        }
+        else {
+            return null;
+        }
     }
 
     @Override
     public UndoAction updateAura(World world) {
         ExceptionHelper.checkNotNullArgument(world, "world");
 
-        List<? extends Target> targets = targetProvider.getPossibleTargets(world, source);
+        if (handTargetProvider == null) {
+            ListPool listPool = world.getListPool();
+            List<Target> targets = listPool.acquire();
+            try {
+                targetProvider.collectPossibleTargets(world, source, targets);
+                return updateTargets(world, targets);
+            } finally {
+                listPool.release(targets);
+            }
+        }
+
+        long targetsVersion = handTargetProvider.getTargetsVersion(world, source);
+        if (lastTargets != null && lastTargetsVersion == targetsVersion) {
+            return updateTargets(world, lastTargets);
+        }
 
-        Map<Target, UndoableUnregisterRef> newCurrentlyApplied = new IdentityHashMap<>();
+        List<? extends Target> prevLastTargets = lastTargets;
+        long prevLastTargetsVersion = lastTargetsVersion;
 
-        UndoBuilder result = new UndoBuilder();
+        lastTargets = targetProvider.getPossibleTargets(world, source);
+        lastTargetsVersion = targetsVersion;
+        UndoAction updateUndo = updateTargets(world, lastTargets);
+
+        return () -> {
+            updateUndo.undo();
+            lastTargets = prevLastTargets;
+            lastTargetsVersion = prevLastTargetsVersion;
+        };
+    }
+
+    // Applies the aura to the (distinct) targets accepted by the filter and
+    // removes it from every other entity. Usually the aura is already applied
+    // to exactly these targets, in which case nothing is allocated.
+    private UndoAction updateTargets(World world, List<? extends Target> targets) {
+        Map<Target, UndoableUnregisterRef> newCurrentlyApplied = null;
+        UndoBuilder result = null;
+
+        int listedAppliedCount = 0;
+        int targetCount = targets.size();
+        for (int i = 0; i < targetCount; i++) {
+            Target target = targets.get(i);
+            UndoableUnregisterRef ref = currentlyApplied.get(target);
+            if (ref != null) {
+                listedAppliedCount++;
+            }
 
-        boolean didAnything = false;
-        Map<Target, UndoableUnregisterRef> currentlyAppliedCopy = new HashMap<>(currentlyApplied);
-        for (Target target: targets) {
-            UndoableUnregisterRef ref = currentlyAppliedCopy.remove(target);
             boolean needAura = targetFilter.isApplicable(world, source, target);
+            if (needAura == (ref != null)) {
+                continue;
+            }
 
-            if (ref == null) {
-                if (needAura) {
-                    UndoableUnregisterRef newRef = aura.applyAura(world, source, target);
-                    Objects.requireNonNull(newRef, "Aura.applyAura");
+            if (newCurrentlyApplied == null) {
+                newCurrentlyApplied = new IdentityHashMap<>(currentlyApplied);
+                result = new UndoBuilder();
+            }
 
-                    result.addUndo(newRef);
+            if (needAura) {
+                UndoableUnregisterRef newRef = aura.applyAura(world, source, target);
+                Objects.requireNonNull(newRef, "Aura.applyAura");
 
-                    newCurrentlyApplied.put(target, newRef);
-                }
-                didAnything = true;
+                result.addUndo(newRef);
+                newCurrentlyApplied.put(target, newRef);
             }
             else {
-                if (needAura) {
-                    newCurrentlyApplied.put(target, ref);
-                }
-                else {
-                    result.addUndo(ref.unregister());
-                    didAnything = true;
-                }
+                result.addUndo(ref.unregister());
+                newCurrentlyApplied.remove(target);
             }
         }
 
-        for (UndoableUnregisterRef ref: currentlyAppliedCopy.values()) {
-            didAnything = true;
-            result.addUndo(ref.unregister());
+        if (listedAppliedCount < currentlyApplied.size()) {
+            // Some entities having the aura are no longer possible targets.
+            if (newCurrentlyApplied == null) {
+                newCurrentlyApplied = new IdentityHashMap<>(currentlyApplied);
+                result = new UndoBuilder();
+            }
+
+            for (Map.Entry<Target, UndoableUnregisterRef> entry: currentlyApplied.entrySet()) {
+                Target appliedTarget = entry.getKey();
+                if (!containsSame(targets, appliedTarget)) {
+                    result.addUndo(entry.getValue().unregister());
+                    newCurrentlyApplied.remove(appliedTarget);
+                }
+            }
         }
 
-        if (didAnything) {
-            Map<Target, UndoableUnregisterRef> prevCurrentlyApplied = currentlyApplied;
-            currentlyApplied = newCurrentlyApplied;
-            result.addUndo(() -> currentlyApplied = prevCurrentlyApplied);
+        if (newCurrentlyApplied == null) {
+            return UndoAction.DO_NOTHING;
         }
 
+        Map<Target, UndoableUnregisterRef> prevCurrentlyApplied = currentlyApplied;
+        currentlyApplied = newCurrentlyApplied;
+        result.addUndo(() -> currentlyApplied = prevCurrentlyApplied);
         return result;
     }
 
+    private static boolean containsSame(List<?> list, Object element) {
+        int count = list.size();
+        for (int i = 0; i < count; i++) {
+            if (list.get(i) == element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public UndoAction deactivate() {
         if (currentlyApplied.isEmpty()) {
@@ -98,8 +175,13 @@ public final class TargetedActiveAura<Source, Target> implements ActiveAura {
         UndoBuilder result = new UndoBuilder();
 
         Map<Target, UndoableUnregisterRef> prevCurrentlyApplied = currentlyApplied;
+        List<? extends Target> prevLastTargets = lastTargets;
         currentlyApplied = new IdentityHashMap<>();
-        result.addUndo(() -> currentlyApplied = prevCurrentlyApplied);
+        lastTargets = null;
+        result.addUndo(() -> {
+            currentlyApplied = prevCurrentlyApplied;
+            lastTargets = prevLastTargets;
+        });
 
         for (UndoableUnregisterRef ref: prevCurrentlyApplied.values()) {
             result.addUndo(ref.unregister());
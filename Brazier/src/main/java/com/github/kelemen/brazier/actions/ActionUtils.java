@@ -6,6 +6,7 @@ import com.github.kelemen.brazier.Hero;
 import com.github.kelemen.brazier.Keyword;
 import com.github.kelemen.brazier.Keywords;
 import com.github.kelemen.brazier.LabeledEntity;
+import com.github.kelemen.brazier.ListPool;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.PlayerProperty;
 import com.github.kelemen.brazier.RandomProvider;
@@ -114,21 +115,21 @@ public final class ActionUtils {
     }
 
     public static TargetableCharacter rollTarget(World world) {
-        List<TargetableCharacter> result = new ArrayList<>(2 * (Player.MAX_BOARD_SIZE + 1));
-        collectTargets(world.getPlayer1(), result);
-        collectTargets(world.getPlayer2(), result);
-
-        int roll = world.getRandomProvider().roll(result.size());
-        return result.get(roll);
+        return rollTarget(world, (target) -> true);
     }
 
     public static TargetableCharacter rollTarget(World world, Predicate<? super TargetableCharacter> filter) {
-        List<TargetableCharacter> result = new ArrayList<>(2 * (Player.MAX_BOARD_SIZE + 1));
-        collectTargets(world.getPlayer1(), result, filter);
-        collectTargets(world.getPlayer2(), result, filter);
-
-        int roll = world.getRandomProvider().roll(result.size());
-        return result.get(roll);
+        ListPool listPool = world.getListPool();
+        List<TargetableCharacter> candidates = listPool.acquire();
+        try {
+            collectTargets(world.getPlayer1(), candidates, filter);
+            collectTargets(world.getPlayer2(), candidates, filter);
+
+            int roll = world.getRandomProvider().roll(candidates.size());
+            return candidates.get(roll);
+        } finally {
+            listPool.release(candidates);
+        }
     }
 
     public static TargetableCharacter rollAlivePlayerTarget(World world, Player player) {
@@ -144,11 +145,16 @@ public final class ActionUtils {
             Player player,
             Predicate<? super TargetableCharacter> filter) {
 
-        List<TargetableCharacter> result = new ArrayList<>(Player.MAX_BOARD_SIZE + 1);
-        collectTargets(player, result, filter);
+        ListPool listPool = world.getListPool();
+        List<TargetableCharacter> candidates = listPool.acquire();
+        try {
+            collectTargets(player, candidates, filter);
 
-        int roll = world.getRandomProvider().roll(result.size());
-        return result.get(roll);
+            int roll = world.getRandomProvider().roll(candidates.size());
+            return candidates.get(roll);
+        } finally {
+            listPool.release(candidates);
+        }
     }
 
     public static void collectAliveTargets(Player player, List<TargetableCharacter> result) {
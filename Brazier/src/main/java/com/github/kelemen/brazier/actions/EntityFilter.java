@@ -4,12 +4,22 @@ import com.github.kelemen.brazier.World;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jtrim.utils.ExceptionHelper;
 
 public interface EntityFilter<Entity> {
     public Stream<? extends Entity> select(World world, Stream<? extends Entity> entities);
 
+    // Removes the entities from the list which would not be selected by the
+    // select method (keeping the order of the others). Filters should override
+    // this method if they can do so without creating a stream.
+    public default void filterList(World world, List<Entity> entities) {
+        List<? extends Entity> selected = select(world, entities.stream()).collect(Collectors.toList());
+        entities.clear();
+        entities.addAll(selected);
+    }
+
     public static <Entity> EntityFilter<Entity> merge(
             Collection<? extends EntityFilter<Entity>> filters) {
         List<EntityFilter<Entity>> filtersCopy = new ArrayList<>(filters);
@@ -23,12 +33,24 @@ public interface EntityFilter<Entity> {
             return filtersCopy.get(0);
         }
 
-        return (World world, Stream<? extends Entity> entities) -> {
-            Stream<? extends Entity> currentTargets = entities;
-            for (EntityFilter<Entity> filter: filtersCopy) {
-                currentTargets = filter.select(world, currentTargets);
+        return SelectionProgram.structuredFilter(new EntityFilter<Entity>() {
+            @Override
+            public Stream<? extends Entity> select(World world, Stream<? extends Entity> entities) {
+                Stream<? extends Entity> currentTargets = entities;
+                for (EntityFilter<Entity> filter: filtersCopy) {
+                    currentTargets = filter.select(world, currentTargets);
+                }
+                return currentTargets;
+            }
+
+            @Override
+            public void filterList(World world, List<Entity> entities) {
+                for (int i = 0; i < count; i++) {
+                    filtersCopy.get(i).filterList(world, entities);
+                }
             }
-            return currentTargets;
-        };
+        }, (compiler) -> {
+            filtersCopy.forEach(compiler::compileFilter);
+        });
     }
 }
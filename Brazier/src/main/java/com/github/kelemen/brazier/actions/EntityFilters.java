@@ -19,7 +19,17 @@ import org.jtrim.utils.ExceptionHelper;
 public final class EntityFilters {
 
     public static <Entity> EntityFilter<Entity> empty() {
-        return (world, entities) -> Stream.empty();
+        return SelectionProgram.structuredFilter(new EntityFilter<Entity>() {
+            @Override
+            public Stream<? extends Entity> select(World world, Stream<? extends Entity> entities) {
+                return Stream.empty();
+            }
+
+            @Override
+            public void filterList(World world, List<Entity> entities) {
+                entities.clear();
+            }
+        }, (compiler) -> compiler.clearRange());
     }
 
     public static <Entity> EntityFilter<Entity> random() {
@@ -129,9 +139,28 @@ public final class EntityFilters {
     public static <Entity> EntityFilter<Entity> fromPredicate(Predicate<? super Entity> filter) {
         ExceptionHelper.checkNotNullArgument(filter, "filter");
 
-        return (World world, Stream<? extends Entity> entities) -> {
-            return entities.filter(filter);
-        };
+        return SelectionProgram.structuredFilter(new EntityFilter<Entity>() {
+            @Override
+            public Stream<? extends Entity> select(World world, Stream<? extends Entity> entities) {
+                return entities.filter(filter);
+            }
+
+            @Override
+            public void filterList(World world, List<Entity> entities) {
+                int count = entities.size();
+                int keptCount = 0;
+                for (int i = 0; i < count; i++) {
+                    Entity entity = entities.get(i);
+                    if (filter.test(entity)) {
+                        entities.set(keptCount, entity);
+                        keptCount++;
+                    }
+                }
+                for (int i = count - 1; i >= keptCount; i--) {
+                    entities.remove(i);
+                }
+            }
+        }, (compiler) -> compiler.filter(filter));
     }
 
     public static <Entity extends TargetableCharacter> Predicate<Entity> attackIsLess(@NamedArg("attack") int attack) {
@@ -1,5 +1,6 @@
 package com.github.kelemen.brazier.actions;
 
+import com.github.kelemen.brazier.ListPool;
 import com.github.kelemen.brazier.World;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -11,24 +12,60 @@ import org.jtrim.utils.ExceptionHelper;
 public interface EntitySelector<Actor, Selection> {
     public Stream<? extends Selection> select(World world, Actor actor);
 
+    // Adds the entities returned by select to the given list in the same
+    // order. Selectors should override this method if they can collect the
+    // entities without creating a stream.
+    public default void collect(World world, Actor actor, List<? super Selection> result) {
+        select(world, actor).forEachOrdered(result::add);
+    }
+
+    // The entities are selected before the action is applied to any of them.
     public default UndoAction forEach(World world, Actor actor, Function<? super Selection, UndoAction> action) {
-        UndoBuilder result = new UndoBuilder();
-        select(world, actor).forEach((selection) -> {
-            result.addUndo(action.apply(selection));
-        });
-        return result;
+        ListPool listPool = world.getListPool();
+        List<Selection> selection = listPool.acquire();
+        try {
+            collect(world, actor, selection);
+
+            int selectionCount = selection.size();
+            UndoBuilder result = new UndoBuilder(selectionCount);
+            for (int i = 0; i < selectionCount; i++) {
+                result.addUndo(action.apply(selection.get(i)));
+            }
+            return result;
+        } finally {
+            listPool.release(selection);
+        }
     }
 
     public default TargetedEntitySelector<Actor, Object, Selection> toTargeted() {
         return (World world, Actor actor, Object target) -> select(world, actor);
     }
 
+    public static <Actor, Selection> EntitySelector<Actor, Selection> withCollector(
+            EntitySelector<Actor, Selection> selector,
+            SelectionCollector<Actor, Selection> collector) {
+        ExceptionHelper.checkNotNullArgument(selector, "selector");
+        ExceptionHelper.checkNotNullArgument(collector, "collector");
+
+        return new EntitySelector<Actor, Selection>() {
+            @Override
+            public Stream<? extends Selection> select(World world, Actor actor) {
+                return selector.select(world, actor);
+            }
+
+            @Override
+            public void collect(World world, Actor actor, List<? super Selection> result) {
+                collector.collect(world, actor, result);
+            }
+        };
+    }
+
     public static <Actor, Selection> EntitySelector<Actor, Selection> mergeToCommonBase(
             Collection<EntitySelector<Actor, ? extends Selection>> selectors) {
         List<EntitySelector<Actor, ? extends Selection>> selectorsCopy = new ArrayList<>(selectors);
         ExceptionHelper.checkNotNullElements(selectorsCopy, "selectors");
 
-        return (World world, Actor actor) -> {
+        return SelectionProgram.structured((World world, Actor actor) -> {
             Stream<? extends Selection> result = null;
             for (EntitySelector<Actor, ? extends Selection> selector: selectorsCopy) {
                 Stream<? extends Selection> selected = selector.select(world, actor);
@@ -37,7 +74,13 @@ public interface EntitySelector<Actor, Selection> {
                         : selected;
             }
             return result != null ? result : Stream.empty();
-        };
+        }, (World world, Actor actor, List<? super Selection> result) -> {
+            for (int i = 0; i < selectorsCopy.size(); i++) {
+                selectorsCopy.get(i).collect(world, actor, result);
+            }
+        }, (compiler) -> {
+            selectorsCopy.forEach(compiler::compileSelector);
+        });
     }
 
     public static <Actor, Selection> EntitySelector<Actor, Selection> merge(
@@ -53,7 +96,7 @@ public interface EntitySelector<Actor, Selection> {
             return selectorsCopy.get(0);
         }
 
-        return (World world, Actor actor) -> {
+        return SelectionProgram.structured((World world, Actor actor) -> {
             Stream<? extends Selection> result = null;
             for (EntitySelector<Actor, Selection> selector: selectorsCopy) {
                 Stream<? extends Selection> selected = selector.select(world, actor);
@@ -62,6 +105,16 @@ public interface EntitySelector<Actor, Selection> {
                         : selected;
             }
             return result != null ? result : Stream.empty();
-        };
+        }, (World world, Actor actor, List<? super Selection> result) -> {
+            for (int i = 0; i < count; i++) {
+                selectorsCopy.get(i).collect(world, actor, result);
+            }
+        }, (compiler) -> {
+            selectorsCopy.forEach(compiler::compileSelector);
+        });
+    }
+
+    public interface SelectionCollector<Actor, Selection> {
+        public void collect(World world, Actor actor, List<? super Selection> result);
     }
 }
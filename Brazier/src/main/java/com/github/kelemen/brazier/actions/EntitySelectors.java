@@ -2,6 +2,7 @@ package com.github.kelemen.brazier.actions;
 
 import com.github.kelemen.brazier.Hero;
 import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.ListPool;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.PlayerProperty;
 import com.github.kelemen.brazier.TargetableCharacter;
@@ -24,11 +25,17 @@ import static com.github.kelemen.brazier.actions.EntityFilters.*;
 
 public final class EntitySelectors {
     public static <Actor, Selection> EntitySelector<Actor, Selection> empty() {
-        return (World world, Actor actor) -> Stream.empty();
+        return SelectionProgram.structured(
+                (World world, Actor actor) -> Stream.empty(),
+                (World world, Actor actor, List<? super Selection> result) -> { },
+                (compiler) -> { });
     }
 
     public static <Actor, Target> EntitySelector<Actor, Actor> self() {
-        return (World world, Actor actor) -> Stream.of(actor);
+        return SelectionProgram.structured(
+                (World world, Actor actor) -> Stream.of(actor),
+                (World world, Actor actor, List<? super Actor> result) -> result.add(actor),
+                (compiler) -> compiler.addActor());
     }
 
     public static <Actor extends PlayerProperty> EntitySelector<Actor, CardDescr> opponentCardsWithKeywords(
@@ -90,10 +97,25 @@ public final class EntitySelectors {
         ExceptionHelper.checkNotNullArgument(selector, "selector");
         ExceptionHelper.checkNotNullArgument(cmp, "cmp");
 
-        return (World world, Actor actor) -> {
+        return SelectionProgram.structured((World world, Actor actor) -> {
             Stream<? extends Selection> selection = selector.select(world, actor);
             return selection.sorted(cmp);
-        };
+        }, (World world, Actor actor, List<? super Selection> result) -> {
+            ListPool listPool = world.getListPool();
+            List<Selection> selection = listPool.acquire();
+            try {
+                selector.collect(world, actor, selection);
+                selection.sort(cmp);
+                addAll(selection, result);
+            } finally {
+                listPool.release(selection);
+            }
+        }, (compiler) -> {
+            compiler.beginRange();
+            compiler.compileSelector(selector);
+            compiler.sort(cmp);
+            compiler.endRange();
+        });
     }
 
     public static <Actor, Selection> EntitySelector<Actor, Selection> filtered(
@@ -102,28 +124,69 @@ public final class EntitySelectors {
         ExceptionHelper.checkNotNullArgument(filter, "filter");
         ExceptionHelper.checkNotNullArgument(selector, "selector");
 
-        return (World world, Actor actor) -> {
+        return SelectionProgram.structured((World world, Actor actor) -> {
             Stream<? extends Selection> selection = selector.select(world, actor);
             return filter.select(world, selection);
-        };
+        }, (World world, Actor actor, List<? super Selection> result) -> {
+            ListPool listPool = world.getListPool();
+            List<Selection> selection = listPool.acquire();
+            try {
+                selector.collect(world, actor, selection);
+                filter.filterList(world, selection);
+                addAll(selection, result);
+            } finally {
+                listPool.release(selection);
+            }
+        }, (compiler) -> {
+            compiler.beginRange();
+            compiler.compileSelector(selector);
+            compiler.compileFilter(filter);
+            compiler.endRange();
+        });
     }
 
     public static <Actor, Selection> EntitySelector<Actor, Selection> notSelf(
             @NamedArg("selector") EntitySelector<? super Actor, ? extends Selection> selector) {
         ExceptionHelper.checkNotNullArgument(selector, "selector");
 
-        return (World world, Actor actor) -> {
+        return SelectionProgram.structured((World world, Actor actor) -> {
             Stream<? extends Selection> selection = selector.select(world, actor);
             return selection.filter((entity) -> entity != actor);
-        };
+        }, (World world, Actor actor, List<? super Selection> result) -> {
+            ListPool listPool = world.getListPool();
+            List<Selection> selection = listPool.acquire();
+            try {
+                selector.collect(world, actor, selection);
+                int selectionCount = selection.size();
+                for (int i = 0; i < selectionCount; i++) {
+                    Selection entity = selection.get(i);
+                    if (entity != actor) {
+                        result.add(entity);
+                    }
+                }
+            } finally {
+                listPool.release(selection);
+            }
+        }, (compiler) -> {
+            compiler.beginRange();
+            compiler.compileSelector(selector);
+            compiler.excludeActor();
+            compiler.endRange();
+        });
     }
 
     public static <Actor extends PlayerProperty, Selection> EntitySelector<Actor, Selection> fromOpponent(
             @NamedArg("selector") EntitySelector<? super Player, ? extends Selection> selector) {
         ExceptionHelper.checkNotNullArgument(selector, "selector");
-        return (World world, Actor actor) -> {
+        return SelectionProgram.structured((World world, Actor actor) -> {
             return selector.select(world, actor.getOwner().getOpponent());
-        };
+        }, (World world, Actor actor, List<? super Selection> result) -> {
+            selector.collect(world, actor.getOwner().getOpponent(), result);
+        }, (compiler) -> {
+            compiler.pushOpponent();
+            compiler.compileSelector(selector);
+            compiler.popActor();
+        });
     }
 
     public static EntitySelector<Card, Minion> cardsMinion() {
@@ -134,11 +197,15 @@ public final class EntitySelectors {
     }
 
     public static <Actor extends PlayerProperty> EntitySelector<Actor, Hero> friendlyHero() {
-        return (World world, Actor actor) -> Stream.of(actor.getOwner().getHero());
+        return EntitySelector.withCollector(
+                (World world, Actor actor) -> Stream.of(actor.getOwner().getHero()),
+                (World world, Actor actor, List<? super Hero> result) -> result.add(actor.getOwner().getHero()));
     }
 
     public static <Actor extends PlayerProperty> EntitySelector<Actor, Card> friendlyHand() {
-        return (World world, Actor actor) -> actor.getOwner().getHand().getCards().stream();
+        return EntitySelector.withCollector(
+                (World world, Actor actor) -> actor.getOwner().getHand().getCards().stream(),
+                (World world, Actor actor, List<? super Card> result) -> actor.getOwner().getHand().collectCards(result));
     }
 
     public static <Actor extends PlayerProperty> EntitySelector<Actor, Card> friendlyDeck() {
@@ -146,7 +213,9 @@ public final class EntitySelectors {
     }
 
     public static <Actor extends PlayerProperty> EntitySelector<Actor, Minion> friendlyBoard() {
-        return (World world, Actor actor) -> actor.getOwner().getBoard().getAllMinions().stream();
+        return EntitySelector.withCollector(
+                (World world, Actor actor) -> actor.getOwner().getBoard().getAllMinions().stream(),
+                (World world, Actor actor, List<? super Minion> result) -> actor.getOwner().getBoard().collectMinions(result));
     }
 
     public static <Actor extends PlayerProperty> EntitySelector<Actor, Minion> friendlyBoardBuffable() {
@@ -286,6 +355,13 @@ public final class EntitySelectors {
         };
     }
 
+    private static <E> void addAll(List<? extends E> src, List<? super E> dest) {
+        int count = src.size();
+        for (int i = 0; i < count; i++) {
+            dest.add(src.get(i));
+        }
+    }
+
     private EntitySelectors() {
         throw new AssertionError();
     }
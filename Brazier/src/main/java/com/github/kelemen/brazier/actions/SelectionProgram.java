@@ -0,0 +1,404 @@
+package com.github.kelemen.brazier.actions;
+
+import com.github.kelemen.brazier.ListPool;
+import com.github.kelemen.brazier.PlayerProperty;
+import com.github.kelemen.brazier.World;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.jtrim.utils.ExceptionHelper;
+
+// An entity selector compiled into a linear program. The selectors parsed from
+// the card definitions are trees of the combinators of EntitySelectors and
+// EntityFilters (merge, filtered, sorted, notSelf, fromOpponent, etc.). The
+// program is the flattened list of the operations of such a tree, which are
+// executed by a simple loop directly on the list of the caller instead of
+// calling through the nested selectors.
+//
+// Operations on the entities selected by a subtree (e.g., filtering) are
+// applied to a range of the list: The range starts where the list ended when
+// the subtree started (recorded by BEGIN_RANGE). Selectors not created by the
+// combinators above are called as they are (COLLECT).
+//
+// Programs without ranges (i.e., only merging selectors) are not executed but
+// call the original selector instead: Flattening saves nothing for them, and
+// the interpreter loop measurably slows them down (see
+// SelectionProgramBenchmark). Each nested range saves the copy of a pooled
+// list, so the program is faster for nested filters and sorts.
+public final class SelectionProgram<Actor, Selection> implements EntitySelector<Actor, Selection> {
+    private static final int OP_COLLECT = 0;
+    private static final int OP_ADD_ACTOR = 1;
+    private static final int OP_BEGIN_RANGE = 2;
+    private static final int OP_END_RANGE = 3;
+    private static final int OP_FILTER = 4;
+    private static final int OP_FILTER_LIST = 5;
+    private static final int OP_CLEAR_RANGE = 6;
+    private static final int OP_SORT = 7;
+    private static final int OP_EXCLUDE_ACTOR = 8;
+    private static final int OP_PUSH_OPPONENT = 9;
+    private static final int OP_POP_ACTOR = 10;
+
+    private final EntitySelector<? super Actor, ? extends Selection> selector;
+    private final int[] opCodes;
+    private final Object[] operands;
+    private final int maxRangeDepth;
+    private final int maxActorDepth;
+    private final boolean interpreted;
+    private final AtomicReference<Frame> freeFrame;
+
+    private SelectionProgram(EntitySelector<? super Actor, ? extends Selection> selector, Compiler compiler) {
+        this.selector = selector;
+        this.opCodes = new int[compiler.opCodes.size()];
+        for (int i = 0; i < opCodes.length; i++) {
+            this.opCodes[i] = compiler.opCodes.get(i);
+        }
+        this.operands = compiler.operands.toArray();
+        this.maxRangeDepth = compiler.maxRangeDepth;
+        this.maxActorDepth = compiler.maxActorDepth;
+        this.interpreted = maxRangeDepth > 0;
+        this.freeFrame = new AtomicReference<>(null);
+    }
+
+    public static <Actor, Selection> SelectionProgram<Actor, Selection> compile(
+            EntitySelector<? super Actor, ? extends Selection> selector) {
+        ExceptionHelper.checkNotNullArgument(selector, "selector");
+
+        Compiler compiler = new Compiler();
+        compiler.compileSelector(selector);
+        return new SelectionProgram<>(selector, compiler);
+    }
+
+    // The selector this program was compiled from.
+    public EntitySelector<? super Actor, ? extends Selection> getSource() {
+        return selector;
+    }
+
+    public int getInstructionCount() {
+        return opCodes.length;
+    }
+
+    public int getMaxRangeDepth() {
+        return maxRangeDepth;
+    }
+
+    // Returns false if the program calls the original selector.
+    public boolean isInterpreted() {
+        return interpreted;
+    }
+
+    @Override
+    public Stream<? extends Selection> select(World world, Actor actor) {
+        return selector.select(world, actor);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void collect(World world, Actor actor, List<? super Selection> result) {
+        if (!interpreted) {
+            selector.collect(world, actor, result);
+            return;
+        }
+
+        Frame frame = acquireFrame();
+        try {
+            run(world, actor, (List<Object>)result, frame);
+        } finally {
+            releaseFrame(frame);
+        }
+    }
+
+    private Frame acquireFrame() {
+        Frame result = freeFrame.getAndSet(null);
+        return result != null ? result : new Frame(maxRangeDepth, maxActorDepth);
+    }
+
+    private void releaseFrame(Frame frame) {
+        freeFrame.set(frame);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run(World world, Object actor, List<Object> entities, Frame frame) {
+        int[] rangeStarts = frame.rangeStarts;
+        Object[] actors = frame.actors;
+        int rangeDepth = 0;
+        int actorDepth = 0;
+        Object currentActor = actor;
+
+        int instructionCount = opCodes.length;
+        for (int pc = 0; pc < instructionCount; pc++) {
+            Object operand = operands[pc];
+            switch (opCodes[pc]) {
+                case OP_COLLECT:
+                    ((EntitySelector<Object, ?>)operand).collect(world, currentActor, entities);
+                    break;
+                case OP_ADD_ACTOR:
+                    entities.add(currentActor);
+                    break;
+                case OP_BEGIN_RANGE:
+                    rangeStarts[rangeDepth] = entities.size();
+                    rangeDepth++;
+                    break;
+                case OP_END_RANGE:
+                    rangeDepth--;
+                    break;
+                case OP_FILTER:
+                    filterRange(entities, rangeStarts[rangeDepth - 1], (Predicate<Object>)operand);
+                    break;
+                case OP_FILTER_LIST:
+                    filterRange(world, entities, rangeStarts[rangeDepth - 1], (EntityFilter<Object>)operand);
+                    break;
+                case OP_CLEAR_RANGE:
+                    removeFrom(entities, rangeStarts[rangeDepth - 1]);
+                    break;
+                case OP_SORT:
+                    sortRange(entities, rangeStarts[rangeDepth - 1], (Comparator<Object>)operand);
+                    break;
+                case OP_EXCLUDE_ACTOR:
+                    excludeFromRange(entities, rangeStarts[rangeDepth - 1], currentActor);
+                    break;
+                case OP_PUSH_OPPONENT:
+                    actors[actorDepth] = currentActor;
+                    actorDepth++;
+                    currentActor = ((PlayerProperty)currentActor).getOwner().getOpponent();
+                    break;
+                case OP_POP_ACTOR:
+                    actorDepth--;
+                    currentActor = actors[actorDepth];
+                    actors[actorDepth] = null;
+                    break;
+                default:
+                    throw new AssertionError("Unexpected instruction: " + opCodes[pc]);
+            }
+        }
+    }
+
+    private static void filterRange(List<Object> entities, int start, Predicate<Object> filter) {
+        int count = entities.size();
+        int keptCount = start;
+        for (int i = start; i < count; i++) {
+            Object entity = entities.get(i);
+            if (filter.test(entity)) {
+                entities.set(keptCount, entity);
+                keptCount++;
+            }
+        }
+        removeFrom(entities, keptCount);
+    }
+
+    private static void filterRange(World world, List<Object> entities, int start, EntityFilter<Object> filter) {
+        ListPool listPool = world.getListPool();
+        List<Object> range = listPool.acquire();
+        try {
+            int count = entities.size();
+            for (int i = start; i < count; i++) {
+                range.add(entities.get(i));
+            }
+            removeFrom(entities, start);
+
+            filter.filterList(world, range);
+
+            int rangeSize = range.size();
+            for (int i = 0; i < rangeSize; i++) {
+                entities.add(range.get(i));
+            }
+        } finally {
+            listPool.release(range);
+        }
+    }
+
+    private static void excludeFromRange(List<Object> entities, int start, Object actor) {
+        filterRange(entities, start, (entity) -> entity != actor);
+    }
+
+    // Insertion sort because ranges are short and sorting a sublist of an
+    // ArrayList would copy the elements into a new array.
+    private static void sortRange(List<Object> entities, int start, Comparator<Object> cmp) {
+        int count = entities.size();
+        for (int i = start + 1; i < count; i++) {
+            Object entity = entities.get(i);
+            int insertIndex = i;
+            while (insertIndex > start && cmp.compare(entities.get(insertIndex - 1), entity) > 0) {
+                entities.set(insertIndex, entities.get(insertIndex - 1));
+                insertIndex--;
+            }
+            entities.set(insertIndex, entity);
+        }
+    }
+
+    private static void removeFrom(List<Object> entities, int start) {
+        for (int i = entities.size() - 1; i >= start; i--) {
+            entities.remove(i);
+        }
+    }
+
+    // Marks a selector as a combination of other selectors, so that it can be
+    // compiled into the program of its parent.
+    static <Actor, Selection> EntitySelector<Actor, Selection> structured(
+            EntitySelector<Actor, Selection> selector,
+            EntitySelector.SelectionCollector<Actor, Selection> collector,
+            Compilable compilable) {
+        return new StructuredSelector<>(selector, collector, compilable);
+    }
+
+    static <Entity> EntityFilter<Entity> structuredFilter(
+            EntityFilter<Entity> filter,
+            Compilable compilable) {
+        return new StructuredFilter<>(filter, compilable);
+    }
+
+    interface Compilable {
+        public void compileTo(Compiler compiler);
+    }
+
+    static final class Compiler {
+        private final List<Integer> opCodes;
+        private final List<Object> operands;
+        private int rangeDepth;
+        private int actorDepth;
+        private int maxRangeDepth;
+        private int maxActorDepth;
+
+        private Compiler() {
+            this.opCodes = new ArrayList<>();
+            this.operands = new ArrayList<>();
+            this.rangeDepth = 0;
+            this.actorDepth = 0;
+            this.maxRangeDepth = 0;
+            this.maxActorDepth = 0;
+        }
+
+        private void add(int opCode, Object operand) {
+            opCodes.add(opCode);
+            operands.add(operand);
+        }
+
+        public void compileSelector(EntitySelector<?, ?> selector) {
+            if (selector instanceof StructuredSelector) {
+                ((StructuredSelector<?, ?>)selector).compilable.compileTo(this);
+            }
+            else if (selector instanceof SelectionProgram) {
+                compileSelector(((SelectionProgram<?, ?>)selector).selector);
+            }
+            else {
+                add(OP_COLLECT, selector);
+            }
+        }
+
+        // Must be called within a range.
+        public void compileFilter(EntityFilter<?> filter) {
+            if (filter instanceof StructuredFilter) {
+                ((StructuredFilter<?>)filter).compilable.compileTo(this);
+            }
+            else {
+                add(OP_FILTER_LIST, filter);
+            }
+        }
+
+        public void addActor() {
+            add(OP_ADD_ACTOR, null);
+        }
+
+        public void beginRange() {
+            add(OP_BEGIN_RANGE, null);
+            rangeDepth++;
+            maxRangeDepth = Math.max(maxRangeDepth, rangeDepth);
+        }
+
+        public void endRange() {
+            add(OP_END_RANGE, null);
+            rangeDepth--;
+        }
+
+        public void filter(Predicate<?> filter) {
+            add(OP_FILTER, filter);
+        }
+
+        public void clearRange() {
+            add(OP_CLEAR_RANGE, null);
+        }
+
+        public void sort(Comparator<?> cmp) {
+            add(OP_SORT, cmp);
+        }
+
+        public void excludeActor() {
+            add(OP_EXCLUDE_ACTOR, null);
+        }
+
+        public void pushOpponent() {
+            add(OP_PUSH_OPPONENT, null);
+            actorDepth++;
+            maxActorDepth = Math.max(maxActorDepth, actorDepth);
+        }
+
+        public void popActor() {
+            add(OP_POP_ACTOR, null);
+            actorDepth--;
+        }
+    }
+
+    private static final class Frame {
+        private final int[] rangeStarts;
+        private final Object[] actors;
+
+        public Frame(int maxRangeDepth, int maxActorDepth) {
+            this.rangeStarts = new int[maxRangeDepth];
+            this.actors = new Object[maxActorDepth];
+        }
+    }
+
+    private static final class StructuredSelector<Actor, Selection> implements EntitySelector<Actor, Selection> {
+        private final EntitySelector<Actor, Selection> selector;
+        private final EntitySelector.SelectionCollector<Actor, Selection> collector;
+        private final Compilable compilable;
+
+        public StructuredSelector(
+                EntitySelector<Actor, Selection> selector,
+                EntitySelector.SelectionCollector<Actor, Selection> collector,
+                Compilable compilable) {
+            ExceptionHelper.checkNotNullArgument(selector, "selector");
+            ExceptionHelper.checkNotNullArgument(collector, "collector");
+            ExceptionHelper.checkNotNullArgument(compilable, "compilable");
+
+            this.selector = selector;
+            this.collector = collector;
+            this.compilable = compilable;
+        }
+
+        @Override
+        public Stream<? extends Selection> select(World world, Actor actor) {
+            return selector.select(world, actor);
+        }
+
+        @Override
+        public void collect(World world, Actor actor, List<? super Selection> result) {
+            collector.collect(world, actor, result);
+        }
+    }
+
+    private static final class StructuredFilter<Entity> implements EntityFilter<Entity> {
+        private final EntityFilter<Entity> filter;
+        private final Compilable compilable;
+
+        public StructuredFilter(EntityFilter<Entity> filter, Compilable compilable) {
+            ExceptionHelper.checkNotNullArgument(filter, "filter");
+            ExceptionHelper.checkNotNullArgument(compilable, "compilable");
+
+            this.filter = filter;
+            this.compilable = compilable;
+        }
+
+        @Override
+        public Stream<? extends Entity> select(World world, Stream<? extends Entity> entities) {
+            return filter.select(world, entities);
+        }
+
+        @Override
+        public void filterList(World world, List<Entity> entities) {
+            filter.filterList(world, entities);
+        }
+    }
+}
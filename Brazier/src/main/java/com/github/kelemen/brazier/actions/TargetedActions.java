@@ -4,7 +4,6 @@ import com.github.kelemen.brazier.Damage;
 import com.github.kelemen.brazier.DamageSource;
 import com.github.kelemen.brazier.Deck;
 import com.github.kelemen.brazier.Hand;
-import com.github.kelemen.brazier.Keyword;
 import com.github.kelemen.brazier.Keywords;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.PlayerProperty;
@@ -22,6 +21,7 @@ import com.github.kelemen.brazier.abilities.BuffArg;
 import com.github.kelemen.brazier.abilities.HpProperty;
 import com.github.kelemen.brazier.abilities.PermanentBuff;
 import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.cards.CardAttributes;
 import com.github.kelemen.brazier.cards.CardDescr;
 import com.github.kelemen.brazier.events.SimpleEventType;
 import com.github.kelemen.brazier.events.UndoableUnregisterRef;
@@ -182,8 +182,10 @@ public final class TargetedActions {
         World world = target.getWorld();
 
         int manaCost = target.getBaseDescr().getBaseCard().getManaCost();
-        Keyword manaCostKeyword = Keywords.manaCost(manaCost);
-        List<CardDescr> possibleMinions = world.getDb().getCardDb().getByKeywords(Keywords.MINION, manaCostKeyword);
+        List<CardDescr> possibleMinions = world.getDb().getCardDb().query()
+                .withKeywords(Keywords.MINION)
+                .withValue(CardAttributes.MANA_COST, manaCost)
+                .find();
         CardDescr selected = ActionUtils.pickRandom(world, possibleMinions);
         if (selected == null) {
             return null;
@@ -11,6 +11,7 @@ import com.github.kelemen.brazier.Hand;
 import com.github.kelemen.brazier.Hero;
 import com.github.kelemen.brazier.Keyword;
 import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.ListPool;
 import com.github.kelemen.brazier.LabeledEntity;
 import com.github.kelemen.brazier.ManaResource;
 import com.github.kelemen.brazier.Player;
@@ -62,7 +63,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jtrim.utils.ExceptionHelper;
 
@@ -178,7 +178,10 @@ public final class TargetlessActions {
 
     public static final TargetlessAction<Minion> COPY_SELF = (world, actor) -> {
         Player owner = actor.getOwner();
-        if (owner.getBoard().isFull()) {
+        // The minion might have left the board since the copy was requested
+        // (e.g., returned to the hand), and then it has no location to summon
+        // the copy to.
+        if (owner.getBoard().isFull() || !actor.getLocationRef().isOnBoard()) {
             return UndoAction.DO_NOTHING;
         }
 
@@ -363,34 +366,50 @@ public final class TargetlessActions {
     };
 
     public static final TargetlessAction<Object> BRAWL = (world, actor) -> {
-        List<Minion> minions = new ArrayList<>(2 * Player.MAX_BOARD_SIZE);
-        world.getPlayer1().getBoard().collectMinions(minions);
-        world.getPlayer2().getBoard().collectMinions(minions);
-
-        // TODO: Brawler shouldn't be a keyword because keywords cannot be silenced.
-        List<Minion> brawlers = minions.stream()
-                .filter((minion) -> minion.getKeywords().contains(Keywords.BRAWLER))
-                .collect(Collectors.toList());
+        ListPool listPool = world.getListPool();
+        List<Minion> minions = listPool.acquire();
+        List<Minion> brawlers = listPool.acquire();
+        try {
+            world.getPlayer1().getBoard().collectMinions(minions);
+            world.getPlayer2().getBoard().collectMinions(minions);
+
+            // TODO: Brawler shouldn't be a keyword because keywords cannot be silenced.
+            int minionCount = minions.size();
+            for (int i = 0; i < minionCount; i++) {
+                Minion minion = minions.get(i);
+                if (minion.getKeywords().contains(Keywords.BRAWLER)) {
+                    brawlers.add(minion);
+                }
+            }
 
-        Minion winner = brawlers.isEmpty()
-                ? ActionUtils.pickRandom(world, minions)
-                : ActionUtils.pickRandom(world, brawlers);
+            Minion winner = brawlers.isEmpty()
+                    ? ActionUtils.pickRandom(world, minions)
+                    : ActionUtils.pickRandom(world, brawlers);
 
-        UndoBuilder result = new UndoBuilder();
-        for (Minion minion: minions) {
-            if (minion != winner) {
-                result.addUndo(minion.poison());
+            UndoBuilder result = new UndoBuilder(minionCount);
+            for (int i = 0; i < minionCount; i++) {
+                Minion minion = minions.get(i);
+                if (minion != winner) {
+                    result.addUndo(minion.poison());
+                }
             }
+            return result;
+        } finally {
+            listPool.release(brawlers);
+            listPool.release(minions);
         }
-        return result;
     };
 
     public static final TargetlessAction<Minion> SUMMON_COPY_FOR_OPPONENT = (World world, Minion minion) -> {
         Player receiver = minion.getOwner().getOpponent();
         Minion newMinion = new Minion(receiver, minion.getBaseDescr());
-        newMinion.copyOther(minion);
 
-        return receiver.summonMinion(newMinion);
+        UndoAction copyUndo = newMinion.copyOther(minion);
+        UndoAction summonUndo = receiver.summonMinion(newMinion);
+        return () -> {
+            summonUndo.undo();
+            copyUndo.undo();
+        };
     };
 
     public static final TargetlessAction<PlayerProperty> DIVINE_FAVOR = (world, actor) -> {
@@ -441,12 +460,9 @@ public final class TargetlessActions {
         ExceptionHelper.checkNotNullArgument(actors, "actors");
         ExceptionHelper.checkNotNullArgument(action, "action");
 
+        SelectionProgram<Actor, FinalActor> compiledActors = SelectionProgram.compile(actors);
         return (World world, Actor initialActor) -> {
-            UndoBuilder result = new UndoBuilder();
-            actors.select(world, initialActor).forEach((FinalActor actor) -> {
-                result.addUndo(action.alterWorld(world, actor));
-            });
-            return result;
+            return compiledActors.forEach(world, initialActor, (FinalActor actor) -> action.alterWorld(world, actor));
         };
     }
 
@@ -489,12 +505,9 @@ public final class TargetlessActions {
         ExceptionHelper.checkNotNullArgument(selector, "targets");
         ExceptionHelper.checkNotNullArgument(action, "action");
 
+        SelectionProgram<Actor, Target> compiledSelector = SelectionProgram.compile(selector);
         TargetlessAction<Actor> resultAction = (World world, Actor actor) -> {
-            UndoBuilder result = new UndoBuilder();
-            selector.select(world, actor).forEach((Target target) -> {
-                result.addUndo(action.alterWorld(world, actor, target));
-            });
-            return result;
+            return compiledSelector.forEach(world, actor, (Target target) -> action.alterWorld(world, actor, target));
         };
 
         if (atomic) {
@@ -935,12 +948,13 @@ public final class TargetlessActions {
                 return cardRef.getUndoAction();
             }
 
-            if (costReductionFilter.applies(world, player, card)) {
-                card.decreaseManaCost(costReduction);
-            }
+            UndoAction reductionUndo = costReductionFilter.applies(world, player, card)
+                    ? card.decreaseManaCost(costReduction)
+                    : UndoAction.DO_NOTHING;
             UndoAction addUndo = player.drawCardToHand(card);
             return () -> {
                 addUndo.undo();
+                reductionUndo.undo();
                 cardRef.undo();
             };
         };
@@ -21,6 +21,14 @@ public final class WorldActionList<T> {
         this.actions = new RefLinkedList<>();
     }
 
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    public int size() {
+        return actions.size();
+    }
+
     public UndoableUnregisterRef addAction(WorldObjectAction<T> action) {
         return addAction(Priorities.NORMAL_PRIORITY, (arg) -> true, action);
     }
@@ -0,0 +1,60 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.TargetableCharacter;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class AttackMove implements PlayMove {
+    private final CharacterRef attacker;
+    private final CharacterRef defender;
+
+    public AttackMove(CharacterRef attacker, CharacterRef defender) {
+        ExceptionHelper.checkNotNullArgument(attacker, "attacker");
+        ExceptionHelper.checkNotNullArgument(defender, "defender");
+
+        this.attacker = attacker;
+        this.defender = defender;
+    }
+
+    public CharacterRef getAttacker() {
+        return attacker;
+    }
+
+    public CharacterRef getDefender() {
+        return defender;
+    }
+
+    @Override
+    public UndoAction play(WorldPlayAgent playAgent) {
+        World world = playAgent.getWorld();
+        TargetableCharacter attackerCharacter = attacker.tryFind(world);
+        TargetableCharacter defenderCharacter = defender.tryFind(world);
+        if (attackerCharacter == null || defenderCharacter == null) {
+            throw new IllegalStateException("Invalid move: " + this);
+        }
+
+        return playAgent.attack(attackerCharacter.getTargetId(), defenderCharacter.getTargetId());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * attacker.hashCode() + defender.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final AttackMove other = (AttackMove)obj;
+        return attacker.equals(other.attacker) && defender.equals(other.defender);
+    }
+
+    @Override
+    public String toString() {
+        return "Attack " + defender + " with " + attacker;
+    }
+}
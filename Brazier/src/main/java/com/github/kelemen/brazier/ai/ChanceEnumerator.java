@@ -0,0 +1,82 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.RandomProvider;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.actions.WorldAction;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.jtrim.utils.ExceptionHelper;
+
+// Computes the exact distribution of the outcomes of an action by running
+// the action once for every possible sequence of random rolls (undoing it
+// after each run). Note that card choices of the UserAgent are not random
+// events, so they are not enumerated.
+public final class ChanceEnumerator {
+    public static final int DEFAULT_MAX_SEQUENCES = 100000;
+
+    private final int maxSequences;
+
+    public ChanceEnumerator() {
+        this(DEFAULT_MAX_SEQUENCES);
+    }
+
+    public ChanceEnumerator(int maxSequences) {
+        ExceptionHelper.checkArgumentInRange(maxSequences, 1, Integer.MAX_VALUE, "maxSequences");
+        this.maxSequences = maxSequences;
+    }
+
+    // Outcomes are merged by the hash of the resulting states.
+    public OutcomeDistribution<Long> enumerateStates(World world, WorldAction action) {
+        return enumerate(world, action, WorldStateHash::hash);
+    }
+
+    // Outcomes are merged by the keys returned by outcomeKey (which is
+    // evaluated right after the action completed). The world is left in its
+    // original state.
+    public <K> OutcomeDistribution<K> enumerate(
+            World world,
+            WorldAction action,
+            Function<? super World, ? extends K> outcomeKey) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(action, "action");
+        ExceptionHelper.checkNotNullArgument(outcomeKey, "outcomeKey");
+
+        Map<K, ChanceOutcome<K>> outcomes = new LinkedHashMap<>();
+        EnumeratingRandomProvider rolls = new EnumeratingRandomProvider();
+
+        RandomProvider prevRandomProvider = world.getRandomProvider();
+        world.setRandomProvider(rolls);
+
+        int sequenceCount = 0;
+        try {
+            do {
+                if (sequenceCount >= maxSequences) {
+                    throw new IllegalStateException("The action has more than " + maxSequences + " possible outcomes.");
+                }
+                sequenceCount++;
+
+                rolls.startRun();
+                K key;
+                UndoAction undo = action.alterWorld(world);
+                try {
+                    key = outcomeKey.apply(world);
+                } finally {
+                    undo.undo();
+                }
+
+                double probability = rolls.getProbability();
+                ChanceOutcome<K> prevOutcome = outcomes.get(key);
+                outcomes.put(key, prevOutcome != null
+                        ? prevOutcome.merge(probability)
+                        : new ChanceOutcome<>(key, probability, 1, rolls.getRolls()));
+            } while (rolls.advance());
+        } finally {
+            world.setRandomProvider(prevRandomProvider);
+        }
+
+        return new OutcomeDistribution<>(new ArrayList<>(outcomes.values()), sequenceCount);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.kelemen.brazier.ai;
+
+import java.util.Arrays;
+
+public final class ChanceOutcome<K> {
+    private final K key;
+    private final double probability;
+    private final int sequenceCount;
+    private final int[] exampleRolls;
+
+    public ChanceOutcome(K key, double probability, int sequenceCount, int[] exampleRolls) {
+        this.key = key;
+        this.probability = probability;
+        this.sequenceCount = sequenceCount;
+        this.exampleRolls = exampleRolls.clone();
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    // The number of different sequences of rolls leading to this outcome.
+    public int getSequenceCount() {
+        return sequenceCount;
+    }
+
+    // A sequence of rolls leading to this outcome. Replaying the action with
+    // these rolls reproduces the outcome.
+    public int[] getExampleRolls() {
+        return exampleRolls.clone();
+    }
+
+    ChanceOutcome<K> merge(double otherProbability) {
+        return new ChanceOutcome<>(key, probability + otherProbability, sequenceCount + 1, exampleRolls);
+    }
+
+    @Override
+    public String toString() {
+        return "ChanceOutcome{" + key
+                + ", p=" + probability
+                + ", sequences=" + sequenceCount
+                + ", rolls=" + Arrays.toString(exampleRolls) + '}';
+    }
+}
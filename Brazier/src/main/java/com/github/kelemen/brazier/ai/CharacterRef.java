@@ -0,0 +1,77 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.TargetableCharacter;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.minions.Minion;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+// Refers to a character relative to the current player, so that the same
+// reference can be used in different copies of the same world.
+public final class CharacterRef {
+    private static final int HERO_INDEX = -1;
+
+    private final boolean opponent;
+    private final int minionIndex;
+
+    private CharacterRef(boolean opponent, int minionIndex) {
+        this.opponent = opponent;
+        this.minionIndex = minionIndex;
+    }
+
+    public static CharacterRef hero(boolean opponent) {
+        return new CharacterRef(opponent, HERO_INDEX);
+    }
+
+    public static CharacterRef minion(boolean opponent, int minionIndex) {
+        ExceptionHelper.checkArgumentInRange(minionIndex, 0, Integer.MAX_VALUE, "minionIndex");
+        return new CharacterRef(opponent, minionIndex);
+    }
+
+    public boolean isOpponent() {
+        return opponent;
+    }
+
+    public boolean isHero() {
+        return minionIndex == HERO_INDEX;
+    }
+
+    public int getMinionIndex() {
+        return minionIndex;
+    }
+
+    public TargetableCharacter tryFind(World world) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+
+        Player currentPlayer = world.getCurrentPlayer();
+        Player player = opponent ? currentPlayer.getOpponent() : currentPlayer;
+        if (isHero()) {
+            return player.getHero();
+        }
+
+        List<Minion> minions = player.getBoard().getAllMinions();
+        return minionIndex < minions.size() ? minions.get(minionIndex) : null;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * minionIndex + (opponent ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final CharacterRef other = (CharacterRef)obj;
+        return this.opponent == other.opponent && this.minionIndex == other.minionIndex;
+    }
+
+    @Override
+    public String toString() {
+        String side = opponent ? "opponent" : "own";
+        return isHero() ? side + " hero" : side + " minion " + minionIndex;
+    }
+}
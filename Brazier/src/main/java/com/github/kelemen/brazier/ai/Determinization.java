@@ -0,0 +1,106 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Deck;
+import com.github.kelemen.brazier.Hand;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.actions.UndoBuilder;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import org.jtrim.utils.ExceptionHelper;
+
+// A possible assignment of the cards hidden from the observer.
+public final class Determinization {
+    private final PlayerId observerId;
+    private final PlayerId opponentId;
+    private final int[] opponentHandIndexes;
+    private final CardDescr[] opponentHandCards;
+    private final List<CardDescr> opponentDeck;
+    private final List<CardDescr> ownDeck;
+
+    Determinization(
+            PlayerId observerId,
+            PlayerId opponentId,
+            int[] opponentHandIndexes,
+            CardDescr[] opponentHandCards,
+            List<CardDescr> opponentDeck,
+            List<CardDescr> ownDeck) {
+        this.observerId = observerId;
+        this.opponentId = opponentId;
+        this.opponentHandIndexes = opponentHandIndexes;
+        this.opponentHandCards = opponentHandCards;
+        this.opponentDeck = Collections.unmodifiableList(opponentDeck);
+        this.ownDeck = Collections.unmodifiableList(ownDeck);
+    }
+
+    public PlayerId getObserverId() {
+        return observerId;
+    }
+
+    // The card which is assumed to be at the given index of the hand of the
+    // opponent or null if the card at the given index is known anyway.
+    public CardDescr tryGetOpponentHandCard(int cardIndex) {
+        for (int i = 0; i < opponentHandIndexes.length; i++) {
+            if (opponentHandIndexes[i] == cardIndex) {
+                return opponentHandCards[i];
+            }
+        }
+        return null;
+    }
+
+    // The top of the deck is the last element.
+    public List<CardDescr> getOpponentDeck() {
+        return opponentDeck;
+    }
+
+    // The top of the deck is the last element.
+    public List<CardDescr> getOwnDeck() {
+        return ownDeck;
+    }
+
+    // Replaces the hidden cards of the given world with the sampled ones. The
+    // world must have the same visible state as the world this determinization
+    // was sampled from.
+    public UndoAction apply(World world) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+
+        Player observer = world.getPlayer(observerId);
+        Player opponent = world.getPlayer(opponentId);
+
+        Hand opponentHand = opponent.getHand();
+        Deck opponentDeckZone = opponent.getBoard().getDeck();
+        Deck ownDeckZone = observer.getBoard().getDeck();
+
+        if (opponentHandIndexes.length > 0
+                && opponentHandIndexes[opponentHandIndexes.length - 1] >= opponentHand.getCardCount()) {
+            throw new IllegalStateException("The hand of the opponent has too few cards.");
+        }
+        if (opponentDeckZone.getNumberOfCards() != opponentDeck.size()
+                || ownDeckZone.getNumberOfCards() != ownDeck.size()) {
+            throw new IllegalStateException("The size of the decks do not match.");
+        }
+
+        UndoBuilder result = new UndoBuilder(opponentHandIndexes.length + 2);
+        for (int i = 0; i < opponentHandIndexes.length; i++) {
+            result.addUndo(opponentHand.replaceAtIndex(opponentHandIndexes[i], opponentHandCards[i]));
+        }
+        result.addUndo(opponentDeckZone.setCards(opponentDeck));
+        result.addUndo(ownDeckZone.setCards(ownDeck));
+        return result;
+    }
+
+    // Creates a new world with the hidden cards replaced. The engine cannot
+    // copy worlds, so the caller must provide a way to build a world with the
+    // same visible state (e.g., by replaying the game so far).
+    public World createWorld(Supplier<? extends World> worldForker) {
+        ExceptionHelper.checkNotNullArgument(worldForker, "worldForker");
+
+        World world = worldForker.get();
+        apply(world);
+        return world;
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.ParallelUtils;
+import com.github.kelemen.brazier.World;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.utils.ExceptionHelper;
+
+// Samples hidden states for information set search (e.g., ISMCTS) so that
+// the AI does not rely on cards it could not see.
+public final class Determinizer {
+    // Below this many samples, the overhead of parallel sampling is larger
+    // than what can be gained.
+    private static final int MIN_PARALLEL_BATCH = 64;
+
+    private final PlayerKnowledge knowledge;
+
+    public Determinizer(PlayerKnowledge knowledge) {
+        ExceptionHelper.checkNotNullArgument(knowledge, "knowledge");
+        this.knowledge = knowledge;
+    }
+
+    public PlayerKnowledge getKnowledge() {
+        return knowledge;
+    }
+
+    // Must be called from the thread owning the world.
+    public InformationSet observe(World world) {
+        return InformationSet.observe(world, knowledge);
+    }
+
+    public Determinization sample(World world, Random random) {
+        return observe(world).sample(random);
+    }
+
+    public List<Determinization> sampleBatch(World world, int count, long seed) {
+        return sampleBatch(Cancellation.UNCANCELABLE_TOKEN, world, count, seed);
+    }
+
+    // Samples count determinizations concurrently. The world is only read on
+    // the calling thread. The result only depends on the seed and not on the
+    // scheduling of the threads. If canceled, no more samples are started and
+    // OperationCanceledException is thrown.
+    public List<Determinization> sampleBatch(
+            CancellationToken cancelToken,
+            World world,
+            int count,
+            long seed) {
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+        ExceptionHelper.checkArgumentInRange(count, 0, Integer.MAX_VALUE, "count");
+
+        InformationSet informationSet = observe(world);
+
+        Determinization[] result = new Determinization[count];
+        int threadCount = count >= MIN_PARALLEL_BATCH
+                ? Runtime.getRuntime().availableProcessors()
+                : 1;
+        ParallelUtils.forEachIndex(threadCount, "Determinizer", count, (index) -> {
+            cancelToken.checkCanceled();
+            result[index] = informationSet.sample(new Random(sampleSeed(seed, index)));
+        });
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    private static long sampleSeed(long seed, int index) {
+        // The mixing step of SplittableRandom to decorrelate subsequent seeds.
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+
+public final class EndTurnMove implements PlayMove {
+    public static final EndTurnMove INSTANCE = new EndTurnMove();
+
+    private EndTurnMove() {
+    }
+
+    @Override
+    public UndoAction play(WorldPlayAgent playAgent) {
+        return playAgent.endTurn();
+    }
+
+    @Override
+    public boolean isEndTurn() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "End turn";
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.RandomProvider;
+import java.util.Arrays;
+
+// Walks through every possible sequence of rolls in depth-first order: Each
+// run of an action returns the rolls of the current sequence and then zero
+// for rolls beyond the sequence. After the run, advance() moves to the next
+// sequence. This requires the action to be deterministic given the rolls.
+public final class EnumeratingRandomProvider implements RandomProvider {
+    private int[] rolls;
+    private int[] bounds;
+    private int length;
+    private int position;
+
+    public EnumeratingRandomProvider() {
+        this.rolls = new int[8];
+        this.bounds = new int[8];
+        this.length = 0;
+        this.position = 0;
+    }
+
+    @Override
+    public int roll(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+
+        if (position < length) {
+            if (bounds[position] != bound) {
+                throw new IllegalStateException("The action rolled differently for the same previous rolls.");
+            }
+            return rolls[position++];
+        }
+
+        if (length >= rolls.length) {
+            rolls = Arrays.copyOf(rolls, 2 * length);
+            bounds = Arrays.copyOf(bounds, 2 * length);
+        }
+
+        rolls[length] = 0;
+        bounds[length] = bound;
+        length++;
+        position++;
+        return 0;
+    }
+
+    // Must be called before running the action again.
+    public void startRun() {
+        position = 0;
+    }
+
+    // Returns the probability of the sequence of rolls of the last run.
+    public double getProbability() {
+        double result = 1.0;
+        for (int i = 0; i < position; i++) {
+            result /= bounds[i];
+        }
+        return result;
+    }
+
+    public int getRollCount() {
+        return position;
+    }
+
+    public int[] getRolls() {
+        return Arrays.copyOf(rolls, position);
+    }
+
+    // Returns false if all the sequences have been enumerated.
+    public boolean advance() {
+        length = position;
+        while (length > 0) {
+            int last = length - 1;
+            if (rolls[last] + 1 < bounds[last]) {
+                rolls[last]++;
+                return true;
+            }
+            length--;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.kelemen.brazier.ai;
+
+public enum EvaluationFeature {
+    // Health and armor of the hero.
+    HERO_HEALTH,
+    MINION_COUNT,
+    MINION_ATTACK,
+    MINION_HEALTH,
+    TAUNT_COUNT,
+    // Attack times the remaining charges of the weapon.
+    WEAPON_DAMAGE,
+    HAND_SIZE,
+    // The number of cards in hand not costing more than the mana crystals.
+    PLAYABLE_CARDS,
+    MANA_CRYSTALS,
+    DECK_SIZE,
+    SECRET_COUNT;
+
+    static final EvaluationFeature[] VALUES = values();
+    static final int COUNT = VALUES.length;
+}
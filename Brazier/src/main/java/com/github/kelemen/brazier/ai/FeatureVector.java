@@ -0,0 +1,126 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Hero;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.weapons.Weapon;
+import java.util.Arrays;
+import org.jtrim.utils.ExceptionHelper;
+
+// The values of the evaluation features of both players from the perspective
+// of one of them.
+public final class FeatureVector {
+    private final double[] own;
+    private final double[] opponent;
+
+    FeatureVector(double[] own, double[] opponent) {
+        this.own = own.clone();
+        this.opponent = opponent.clone();
+    }
+
+    // Computes every feature from scratch.
+    public static FeatureVector extract(World world, PlayerId playerId) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(playerId, "playerId");
+
+        Player player = world.getPlayer(playerId);
+        return new FeatureVector(extract(player), extract(player.getOpponent()));
+    }
+
+    private static double[] extract(Player player) {
+        double[] result = new double[EvaluationFeature.COUNT];
+        setPlayerFeatures(player, result);
+        for (Minion minion: player.getBoard().getAliveMinions()) {
+            addMinionFeatures(
+                    minion.getAttackTool().getAttack(),
+                    minion.getBody().getCurrentHp(),
+                    minion.getBody().isTaunt(),
+                    1.0,
+                    result);
+        }
+        return result;
+    }
+
+    // Sets every feature not depending on the minions of the player.
+    static void setPlayerFeatures(Player player, double[] features) {
+        Hero hero = player.getHero();
+        features[EvaluationFeature.HERO_HEALTH.ordinal()] = hero.getCurrentHp() + hero.getCurrentArmor();
+
+        Weapon weapon = player.tryGetWeapon();
+        features[EvaluationFeature.WEAPON_DAMAGE.ordinal()] = weapon != null
+                ? weapon.getAttack() * weapon.getCharges()
+                : 0;
+
+        int manaCrystals = player.getManaResource().getManaCrystals();
+        int playableCards = 0;
+        for (Card card: player.getHand().getCards()) {
+            if (card.getActiveManaCost() <= manaCrystals) {
+                playableCards++;
+            }
+        }
+
+        features[EvaluationFeature.HAND_SIZE.ordinal()] = player.getHand().getCardCount();
+        features[EvaluationFeature.PLAYABLE_CARDS.ordinal()] = playableCards;
+        features[EvaluationFeature.MANA_CRYSTALS.ordinal()] = manaCrystals;
+        features[EvaluationFeature.DECK_SIZE.ordinal()] = player.getBoard().getDeck().getNumberOfCards();
+        features[EvaluationFeature.SECRET_COUNT.ordinal()] = player.getSecrets().getSecrets().size();
+    }
+
+    // Adds the features of a minion multiplied by sign (which should be
+    // either 1 or -1).
+    static void addMinionFeatures(int attack, int hp, boolean taunt, double sign, double[] features) {
+        features[EvaluationFeature.MINION_COUNT.ordinal()] += sign;
+        features[EvaluationFeature.MINION_ATTACK.ordinal()] += sign * attack;
+        features[EvaluationFeature.MINION_HEALTH.ordinal()] += sign * hp;
+        if (taunt) {
+            features[EvaluationFeature.TAUNT_COUNT.ordinal()] += sign;
+        }
+    }
+
+    public double getOwn(EvaluationFeature feature) {
+        return own[feature.ordinal()];
+    }
+
+    public double getOpponent(EvaluationFeature feature) {
+        return opponent[feature.ordinal()];
+    }
+
+    double getDifference(int featureIndex) {
+        return own[featureIndex] - opponent[featureIndex];
+    }
+
+    @Override
+    public int hashCode() {
+        return 59 * Arrays.hashCode(own) + Arrays.hashCode(opponent);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final FeatureVector other = (FeatureVector)obj;
+        return Arrays.equals(own, other.own) && Arrays.equals(opponent, other.opponent);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("FeatureVector{");
+        for (EvaluationFeature feature: EvaluationFeature.VALUES) {
+            if (feature.ordinal() > 0) {
+                result.append(", ");
+            }
+            result.append(feature);
+            result.append('=');
+            result.append(getOwn(feature));
+            result.append('/');
+            result.append(getOpponent(feature));
+        }
+        result.append('}');
+        return result.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.TargetId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.PlayTargetRequest;
+import com.github.kelemen.brazier.actions.UndoAction;
+import java.util.Objects;
+
+public final class HeroPowerMove implements PlayMove {
+    private final CharacterRef target;
+
+    // The target might be null if the hero power does not need a target.
+    public HeroPowerMove(CharacterRef target) {
+        this.target = target;
+    }
+
+    public CharacterRef getTarget() {
+        return target;
+    }
+
+    @Override
+    public UndoAction play(WorldPlayAgent playAgent) {
+        World world = playAgent.getWorld();
+        TargetId targetId = PlayCardMove.resolveTarget(world, target);
+        return playAgent.playHeroPower(new PlayTargetRequest(playAgent.getCurrentPlayerId(), -1, targetId));
+    }
+
+    @Override
+    public int hashCode() {
+        return 59 + Objects.hashCode(target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final HeroPowerMove other = (HeroPowerMove)obj;
+        return Objects.equals(target, other.target);
+    }
+
+    @Override
+    public String toString() {
+        return target != null ? "Hero power on " + target : "Hero power";
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.minions.Minion;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.jtrim.utils.ExceptionHelper;
+
+// Maintains the evaluation features of a world while a search executes and
+// undoes moves. Reading the stats of minions is relatively expensive, so
+// after a move not affecting everything (see TurnPlanner), only the minions
+// in the footprint of the move are reevaluated. Features not depending on
+// minions are always recomputed because they are cheap.
+//
+// The features must be updated after each move, and the returned undo
+// action must be called before undoing the move.
+public final class IncrementalFeatures {
+    private final World world;
+    private final TurnPlanner turnPlanner;
+    private final Player player1;
+    private final Player player2;
+
+    private final double[] features1;
+    private final double[] features2;
+    private final Map<Minion, MinionFeatures> minionFeatures;
+
+    public IncrementalFeatures(World world) {
+        this(world, TurnPlanner.DEFAULT);
+    }
+
+    public IncrementalFeatures(World world, TurnPlanner turnPlanner) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(turnPlanner, "turnPlanner");
+
+        this.world = world;
+        this.turnPlanner = turnPlanner;
+        this.player1 = world.getPlayer1();
+        this.player2 = world.getPlayer2();
+        this.features1 = new double[EvaluationFeature.COUNT];
+        this.features2 = new double[EvaluationFeature.COUNT];
+        this.minionFeatures = new IdentityHashMap<>();
+
+        recomputeAll();
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public FeatureVector getFeatures(PlayerId playerId) {
+        ExceptionHelper.checkNotNullArgument(playerId, "playerId");
+
+        Player player = world.getPlayer(playerId);
+        return player == player1
+                ? new FeatureVector(features1, features2)
+                : new FeatureVector(features2, features1);
+    }
+
+    // Executes the move and updates the features. The returned action undoes
+    // both.
+    public UndoAction play(WorldPlayAgent playAgent, PlayMove move) {
+        ExceptionHelper.checkNotNullArgument(playAgent, "playAgent");
+        ExceptionHelper.checkNotNullArgument(move, "move");
+
+        PlannedMove plannedMove = turnPlanner.plan(world, move);
+        UndoAction moveUndo = move.play(playAgent);
+        UndoAction featuresUndo = update(plannedMove);
+        return () -> {
+            featuresUndo.undo();
+            moveUndo.undo();
+        };
+    }
+
+    // Must be called after the planned move was executed.
+    public UndoAction update(PlannedMove executedMove) {
+        ExceptionHelper.checkNotNullArgument(executedMove, "executedMove");
+
+        double[] prevFeatures1 = features1.clone();
+        double[] prevFeatures2 = features2.clone();
+
+        MoveFootprint footprint = executedMove.getFootprint();
+        if (footprint.isGlobal()) {
+            Map<Minion, MinionFeatures> prevMinionFeatures = new IdentityHashMap<>(minionFeatures);
+            recomputeAll();
+            return () -> {
+                minionFeatures.clear();
+                minionFeatures.putAll(prevMinionFeatures);
+                restoreFeatures(prevFeatures1, prevFeatures2);
+            };
+        }
+
+        Map<Minion, MinionFeatures> replaced = new HashMap<>();
+        for (Object entity: footprint.getEntities()) {
+            if (entity instanceof Minion) {
+                Minion minion = (Minion)entity;
+                replaced.put(minion, updateMinion(minion));
+            }
+        }
+        FeatureVector.setPlayerFeatures(player1, features1);
+        FeatureVector.setPlayerFeatures(player2, features2);
+
+        return () -> {
+            for (Map.Entry<Minion, MinionFeatures> entry: replaced.entrySet()) {
+                MinionFeatures prevFeatures = entry.getValue();
+                if (prevFeatures != null) {
+                    minionFeatures.put(entry.getKey(), prevFeatures);
+                }
+                else {
+                    minionFeatures.remove(entry.getKey());
+                }
+            }
+            restoreFeatures(prevFeatures1, prevFeatures2);
+        };
+    }
+
+    private void restoreFeatures(double[] prevFeatures1, double[] prevFeatures2) {
+        System.arraycopy(prevFeatures1, 0, features1, 0, features1.length);
+        System.arraycopy(prevFeatures2, 0, features2, 0, features2.length);
+    }
+
+    // Returns the previously stored features of the minion.
+    private MinionFeatures updateMinion(Minion minion) {
+        MinionFeatures prevFeatures = minionFeatures.remove(minion);
+        if (prevFeatures != null) {
+            prevFeatures.addTo(-1.0, getFeatures(prevFeatures.owner));
+        }
+
+        if (isOnBoard(minion)) {
+            MinionFeatures newFeatures = new MinionFeatures(minion);
+            newFeatures.addTo(1.0, getFeatures(newFeatures.owner));
+            minionFeatures.put(minion, newFeatures);
+        }
+        return prevFeatures;
+    }
+
+    private static boolean isOnBoard(Minion minion) {
+        if (minion.isDead() || minion.isScheduledToDestroy()) {
+            return false;
+        }
+        return minion.getOwner().getBoard().findMinion(minion.getTargetId()) == minion;
+    }
+
+    private double[] getFeatures(Player player) {
+        return player == player1 ? features1 : features2;
+    }
+
+    private void recomputeAll() {
+        minionFeatures.clear();
+        recomputeAll(player1, features1);
+        recomputeAll(player2, features2);
+    }
+
+    private void recomputeAll(Player player, double[] features) {
+        for (int i = 0; i < features.length; i++) {
+            features[i] = 0.0;
+        }
+
+        FeatureVector.setPlayerFeatures(player, features);
+        for (Minion minion: player.getBoard().getAliveMinions()) {
+            MinionFeatures currentFeatures = new MinionFeatures(minion);
+            currentFeatures.addTo(1.0, features);
+            minionFeatures.put(minion, currentFeatures);
+        }
+    }
+
+    // The features of a minion when it was last evaluated, so that they can
+    // be removed from the totals even after the minion changed.
+    private static final class MinionFeatures {
+        private final Player owner;
+        private final int attack;
+        private final int hp;
+        private final boolean taunt;
+
+        public MinionFeatures(Minion minion) {
+            this.owner = minion.getOwner();
+            this.attack = minion.getAttackTool().getAttack();
+            this.hp = minion.getBody().getCurrentHp();
+            this.taunt = minion.getBody().isTaunt();
+        }
+
+        public void addTo(double sign, double[] features) {
+            FeatureVector.addMinionFeatures(attack, hp, taunt, sign, features);
+        }
+    }
+}
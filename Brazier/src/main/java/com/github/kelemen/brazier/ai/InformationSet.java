@@ -0,0 +1,255 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.HearthStoneEntityDatabase;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.minions.Minion;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.jtrim.utils.ExceptionHelper;
+
+// An immutable snapshot of everything a player can know about the hidden
+// parts of a world. Once created, it no longer references the world, so it
+// can be sampled concurrently from any thread.
+public final class InformationSet {
+    private final PlayerId observerId;
+    private final PlayerId opponentId;
+
+    // A null element means that the card is hidden from the observer.
+    private final CardDescr[] opponentHand;
+    private final CardDescr[] opponentDeck;
+    private final CardDescr[] ownDeck;
+
+    private final CardDescr[] ownHiddenDeckCards;
+    private final CardDescr[] opponentCandidates;
+    private final CardDescr[] opponentFallbackCandidates;
+
+    private InformationSet(
+            PlayerId observerId,
+            PlayerId opponentId,
+            CardDescr[] opponentHand,
+            CardDescr[] opponentDeck,
+            CardDescr[] ownDeck,
+            CardDescr[] ownHiddenDeckCards,
+            CardDescr[] opponentCandidates,
+            CardDescr[] opponentFallbackCandidates) {
+        this.observerId = observerId;
+        this.opponentId = opponentId;
+        this.opponentHand = opponentHand;
+        this.opponentDeck = opponentDeck;
+        this.ownDeck = ownDeck;
+        this.ownHiddenDeckCards = ownHiddenDeckCards;
+        this.opponentCandidates = opponentCandidates;
+        this.opponentFallbackCandidates = opponentFallbackCandidates;
+    }
+
+    public static InformationSet observe(World world, PlayerKnowledge knowledge) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(knowledge, "knowledge");
+
+        Player observer = world.getPlayer(knowledge.getObserverId());
+        Player opponent = observer.getOpponent();
+
+        CardDescr[] opponentHand = toVisibleCards(opponent.getHand().getCards(), knowledge);
+        CardDescr[] opponentDeck = toVisibleCards(opponent.getBoard().getDeck().getCards(), knowledge);
+
+        List<Card> ownDeckCards = observer.getBoard().getDeck().getCards();
+        CardDescr[] ownDeck = toVisibleCards(ownDeckCards, knowledge);
+        List<CardDescr> ownHiddenDeckCards = new ArrayList<>();
+        for (Card card: ownDeckCards) {
+            if (!knowledge.isRevealed(card)) {
+                ownHiddenDeckCards.add(card.getCardDescr());
+            }
+        }
+
+        List<CardDescr> fullPool = knowledge.tryGetOpponentDeckList();
+        if (fullPool == null) {
+            fullPool = getClassCards(world, opponent.getHero().getHeroClass());
+        }
+
+        Map<CardDescr, Integer> usedCounts = getUsedCounts(opponent);
+        addCounts(Arrays.asList(opponentHand), usedCounts);
+        addCounts(Arrays.asList(opponentDeck), usedCounts);
+
+        List<CardDescr> candidates = new ArrayList<>(fullPool.size());
+        for (CardDescr card: fullPool) {
+            Integer usedCount = usedCounts.get(card);
+            if (usedCount != null && usedCount > 0) {
+                usedCounts.put(card, usedCount - 1);
+            }
+            else {
+                candidates.add(card);
+            }
+        }
+
+        return new InformationSet(
+                observer.getPlayerId(),
+                opponent.getPlayerId(),
+                opponentHand,
+                opponentDeck,
+                ownDeck,
+                ownHiddenDeckCards.toArray(new CardDescr[ownHiddenDeckCards.size()]),
+                candidates.toArray(new CardDescr[candidates.size()]),
+                fullPool.toArray(new CardDescr[fullPool.size()]));
+    }
+
+    // The collectible cards a deck of the given class might contain.
+    private static List<CardDescr> getClassCards(World world, Keyword heroClass) {
+        HearthStoneEntityDatabase<CardDescr> cardDb = world.getDb().getCardDb();
+        List<CardDescr> neutralCards = cardDb.getByKeywords(Keywords.COLLECTIBLE, Keywords.CLASS_NEUTRAL);
+        if (Keywords.CLASS_NEUTRAL.equals(heroClass)) {
+            return neutralCards;
+        }
+
+        List<CardDescr> classCards = cardDb.getByKeywords(Keywords.COLLECTIBLE, heroClass);
+        List<CardDescr> result = new ArrayList<>(classCards.size() + neutralCards.size());
+        result.addAll(classCards);
+        result.addAll(neutralCards);
+        return result;
+    }
+
+    private static CardDescr[] toVisibleCards(List<Card> cards, PlayerKnowledge knowledge) {
+        CardDescr[] result = new CardDescr[cards.size()];
+        for (int i = 0; i < result.length; i++) {
+            Card card = cards.get(i);
+            if (knowledge.isRevealed(card)) {
+                result[i] = card.getCardDescr();
+            }
+        }
+        return result;
+    }
+
+    // Every card the opponent played or which died or is on the board has
+    // left the hidden zones. Minions are usually both played and on the board
+    // (or in the graveyard), so we only count the larger number for them.
+    private static Map<CardDescr, Integer> getUsedCounts(Player opponent) {
+        Map<CardDescr, Integer> playedCounts = new HashMap<>();
+        addCounts(opponent.getPlayedCards().getCards(), playedCounts);
+
+        List<CardDescr> boardCards = new ArrayList<>();
+        for (Minion minion: opponent.getBoard().getGraveyard().getDeadMinions()) {
+            boardCards.add(minion.getBaseDescr().getBaseCard());
+        }
+        for (Minion minion: opponent.getBoard().getAllMinions()) {
+            boardCards.add(minion.getBaseDescr().getBaseCard());
+        }
+        Map<CardDescr, Integer> boardCounts = new HashMap<>();
+        addCounts(boardCards, boardCounts);
+
+        Map<CardDescr, Integer> result = new HashMap<>(playedCounts);
+        boardCounts.forEach((card, count) -> result.merge(card, count, Math::max));
+        return result;
+    }
+
+    private static void addCounts(Collection<CardDescr> cards, Map<CardDescr, Integer> counts) {
+        for (CardDescr card: cards) {
+            if (card != null) {
+                counts.merge(card, 1, Integer::sum);
+            }
+        }
+    }
+
+    public PlayerId getObserverId() {
+        return observerId;
+    }
+
+    public PlayerId getOpponentId() {
+        return opponentId;
+    }
+
+    public int getOpponentHandSize() {
+        return opponentHand.length;
+    }
+
+    // Returns the cards which might still be in the hand or the deck of the
+    // opponent (without the cards the observer knows about).
+    public List<CardDescr> getOpponentCandidates() {
+        return Collections.unmodifiableList(Arrays.asList(opponentCandidates));
+    }
+
+    // Samples a hidden state consistent with this information set. The hidden
+    // cards of the opponent are drawn from the candidates without replacement
+    // as long as possible. If there are not enough candidates (because the
+    // opponent has generated cards), the rest is drawn from the full deck list.
+    public Determinization sample(Random random) {
+        ExceptionHelper.checkNotNullArgument(random, "random");
+
+        CardDescr[] pool = opponentCandidates.clone();
+        int[] poolSize = {pool.length};
+
+        int hiddenHandCount = 0;
+        for (CardDescr card: opponentHand) {
+            if (card == null) {
+                hiddenHandCount++;
+            }
+        }
+
+        int[] handIndexes = new int[hiddenHandCount];
+        CardDescr[] handCards = new CardDescr[hiddenHandCount];
+        int handPos = 0;
+        for (int i = 0; i < opponentHand.length; i++) {
+            if (opponentHand[i] == null) {
+                handIndexes[handPos] = i;
+                handCards[handPos] = drawCandidate(pool, poolSize, random);
+                handPos++;
+            }
+        }
+
+        List<CardDescr> sampledOpponentDeck = new ArrayList<>(opponentDeck.length);
+        for (CardDescr card: opponentDeck) {
+            sampledOpponentDeck.add(card != null ? card : drawCandidate(pool, poolSize, random));
+        }
+
+        CardDescr[] shuffled = ownHiddenDeckCards.clone();
+        shuffle(shuffled, random);
+        List<CardDescr> sampledOwnDeck = new ArrayList<>(ownDeck.length);
+        int shuffledPos = 0;
+        for (CardDescr card: ownDeck) {
+            sampledOwnDeck.add(card != null ? card : shuffled[shuffledPos++]);
+        }
+
+        return new Determinization(
+                observerId,
+                opponentId,
+                handIndexes,
+                handCards,
+                sampledOpponentDeck,
+                sampledOwnDeck);
+    }
+
+    private CardDescr drawCandidate(CardDescr[] pool, int[] poolSize, Random random) {
+        int size = poolSize[0];
+        if (size == 0) {
+            if (opponentFallbackCandidates.length == 0) {
+                throw new IllegalStateException("There are no candidate cards for the opponent.");
+            }
+            return opponentFallbackCandidates[random.nextInt(opponentFallbackCandidates.length)];
+        }
+
+        int index = random.nextInt(size);
+        CardDescr result = pool[index];
+        pool[index] = pool[size - 1];
+        poolSize[0] = size - 1;
+        return result;
+    }
+
+    private static void shuffle(CardDescr[] cards, Random random) {
+        for (int i = cards.length - 1; i > 0; i--) {
+            int otherIndex = random.nextInt(i + 1);
+            CardDescr tmp = cards[i];
+            cards[i] = cards[otherIndex];
+            cards[otherIndex] = tmp;
+        }
+    }
+}
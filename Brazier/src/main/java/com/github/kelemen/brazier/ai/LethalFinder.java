@@ -0,0 +1,501 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.GameResult;
+import com.github.kelemen.brazier.Hero;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.ParallelUtils;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.weapons.Weapon;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.utils.ExceptionHelper;
+
+// Searches every line of play of the current player within the current turn
+// for the one dealing the most damage to the enemy hero. Random effects are
+// resolved by the RandomProvider of the world, so lines relying on them are
+// only valid for the rolls made during the search. Identical minions next to
+// each other on the board are considered interchangeable, because removing
+// either of them leaves the same board behind.
+// Commuting moves are only searched in a single order (see TurnPlanner).
+public final class LethalFinder {
+    public static final class Builder {
+        private MoveGenerator moveGenerator;
+        private TurnPlanner turnPlanner;
+        private long maxNodes;
+        private int threadCount;
+
+        public Builder() {
+            this.moveGenerator = MoveGenerator.DEFAULT;
+            this.turnPlanner = TurnPlanner.DEFAULT;
+            this.maxNodes = Long.MAX_VALUE;
+            this.threadCount = 1;
+        }
+
+        public void setMoveGenerator(MoveGenerator moveGenerator) {
+            ExceptionHelper.checkNotNullArgument(moveGenerator, "moveGenerator");
+            this.moveGenerator = moveGenerator;
+        }
+
+        public void setTurnPlanner(TurnPlanner turnPlanner) {
+            ExceptionHelper.checkNotNullArgument(turnPlanner, "turnPlanner");
+            this.turnPlanner = turnPlanner;
+        }
+
+        public void setMaxNodes(long maxNodes) {
+            ExceptionHelper.checkArgumentInRange(maxNodes, 1, Long.MAX_VALUE, "maxNodes");
+            this.maxNodes = maxNodes;
+        }
+
+        public void setThreadCount(int threadCount) {
+            ExceptionHelper.checkArgumentInRange(threadCount, 1, Integer.MAX_VALUE, "threadCount");
+            this.threadCount = threadCount;
+        }
+
+        public LethalFinder create() {
+            return new LethalFinder(this);
+        }
+    }
+
+    private final MoveGenerator moveGenerator;
+    private final TurnPlanner turnPlanner;
+    private final long maxNodes;
+    private final int threadCount;
+
+    private LethalFinder(Builder builder) {
+        this.moveGenerator = builder.moveGenerator;
+        this.turnPlanner = builder.turnPlanner;
+        this.maxNodes = builder.maxNodes;
+        this.threadCount = builder.threadCount;
+    }
+
+    public LethalResult find(World world) {
+        return find(Cancellation.UNCANCELABLE_TOKEN, world);
+    }
+
+    // Searches on the calling thread ignoring the configured thread count.
+    // The world is restored to its original state before returning.
+    public LethalResult find(CancellationToken cancelToken, World world) {
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+        ExceptionHelper.checkNotNullArgument(world, "world");
+
+        SharedSearchState state = new SharedSearchState(cancelToken, world);
+        new TreeSearch(world, state).searchFromRoot();
+        return state.toResult();
+    }
+
+    public LethalResult findParallel(Supplier<? extends World> worldForker) {
+        return findParallel(Cancellation.UNCANCELABLE_TOKEN, worldForker);
+    }
+
+    // The subtrees of the first moves are distributed between the threads,
+    // each searching on its own copy of the world. The engine cannot copy
+    // worlds, so worldForker must create a new world in the same state on each
+    // call. States already searched by any of the threads are skipped.
+    public LethalResult findParallel(CancellationToken cancelToken, Supplier<? extends World> worldForker) {
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+        ExceptionHelper.checkNotNullArgument(worldForker, "worldForker");
+
+        List<TreeSearch> searches = new ArrayList<>(threadCount);
+        SharedSearchState state = null;
+        for (int i = 0; i < threadCount; i++) {
+            World world = worldForker.get();
+            ExceptionHelper.checkNotNullArgument(world, "worldForker.get()");
+            if (state == null) {
+                state = new SharedSearchState(cancelToken, world);
+            }
+            searches.add(new TreeSearch(world, state));
+        }
+
+        TreeSearch rootSearch = searches.get(0);
+        List<PlayMove> rootMoves = rootSearch.startRoot();
+        if (rootMoves.isEmpty()) {
+            return state.toResult();
+        }
+
+        AtomicInteger nextRootMove = new AtomicInteger(0);
+        SharedSearchState sharedState = state;
+        ParallelUtils.runOnThreads(threadCount, "Lethal-Finder", (threadIndex) -> {
+            TreeSearch search = searches.get(threadIndex);
+            int moveIndex = nextRootMove.getAndIncrement();
+            while (moveIndex < rootMoves.size() && !sharedState.isStopped()) {
+                search.searchSubtree(rootMoves.get(moveIndex));
+                moveIndex = nextRootMove.getAndIncrement();
+            }
+        }, sharedState::stop);
+        return state.toResult();
+    }
+
+    private static int getHealth(Hero hero) {
+        return hero.getCurrentHp() + hero.getCurrentArmor();
+    }
+
+    private final class SharedSearchState {
+        private final CancellationToken cancelToken;
+        private final int initialOpponentHealth;
+
+        private final Set<Long> visitedStates;
+        private final AtomicLong nodeCount;
+
+        private final Object bestLock;
+        private volatile int bestDamage;
+        private List<PlayMove> bestMoves;
+
+        private volatile boolean lethalFound;
+        private volatile boolean stopped;
+
+        public SharedSearchState(CancellationToken cancelToken, World world) {
+            Player player = world.getCurrentPlayer();
+
+            this.cancelToken = cancelToken;
+            this.initialOpponentHealth = getHealth(player.getOpponent().getHero());
+            this.visitedStates = ConcurrentHashMap.newKeySet();
+            this.nodeCount = new AtomicLong(0);
+            this.bestLock = new Object();
+            this.bestDamage = 0;
+            this.bestMoves = Collections.emptyList();
+            this.lethalFound = false;
+            this.stopped = false;
+        }
+
+        public void stop() {
+            stopped = true;
+        }
+
+        public boolean isStopped() {
+            return lethalFound || stopped || cancelToken.isCanceled();
+        }
+
+        // The moves searched from a state depend on the previous move as
+        // well, so states reached through different last moves are searched
+        // separately (unless the last move commutes with nothing).
+        public boolean tryVisitNode(World world, PlannedMove previousMove) {
+            if (nodeCount.incrementAndGet() > maxNodes) {
+                stopped = true;
+                return false;
+            }
+
+            long hash = WorldStateHash.hash(world);
+            if (previousMove != null && !previousMove.getFootprint().isGlobal()) {
+                hash = 31 * hash + previousMove.getOrderHash();
+            }
+            return visitedStates.add(hash);
+        }
+
+        public int getBestDamage() {
+            return bestDamage;
+        }
+
+        public void offer(int damage, boolean lethal, List<PlayMove> moves) {
+            if (damage <= bestDamage && !lethal) {
+                return;
+            }
+
+            synchronized (bestLock) {
+                if (lethalFound) {
+                    return;
+                }
+                if (damage > bestDamage || lethal) {
+                    bestDamage = damage;
+                    bestMoves = new ArrayList<>(moves);
+                    lethalFound = lethal;
+                }
+            }
+        }
+
+        public LethalResult toResult() {
+            synchronized (bestLock) {
+                boolean complete = lethalFound || !(stopped || cancelToken.isCanceled());
+                return new LethalResult(bestMoves, bestDamage, lethalFound, complete, nodeCount.get());
+            }
+        }
+    }
+
+    private final class TreeSearch {
+        private final World world;
+        private final WorldPlayAgent playAgent;
+        private final SharedSearchState state;
+        private final Player player;
+        private final Player opponent;
+        private final List<PlayMove> path;
+        private PlannedMove previousMove;
+
+        public TreeSearch(World world, SharedSearchState state) {
+            this.world = world;
+            this.state = state;
+            this.player = world.getCurrentPlayer();
+            this.opponent = player.getOpponent();
+            this.playAgent = new WorldPlayAgent(world, player.getPlayerId());
+            this.path = new ArrayList<>();
+            this.previousMove = null;
+        }
+
+        public void searchFromRoot() {
+            for (PlayMove move: startRoot()) {
+                if (state.isStopped()) {
+                    break;
+                }
+                searchSubtree(move);
+            }
+        }
+
+        public List<PlayMove> startRoot() {
+            if (!visitNode()) {
+                return Collections.emptyList();
+            }
+            return getTurnMoves();
+        }
+
+        public void searchSubtree(PlayMove move) {
+            PlannedMove prevPreviousMove = previousMove;
+            PlannedMove plannedMove = turnPlanner.plan(world, move);
+
+            UndoAction undo = move.play(playAgent);
+            path.add(move);
+            previousMove = plannedMove;
+            try {
+                search();
+            } finally {
+                previousMove = prevPreviousMove;
+                path.remove(path.size() - 1);
+                undo.undo();
+            }
+        }
+
+        private void search() {
+            if (!visitNode()) {
+                return;
+            }
+
+            List<PlayMove> moves = getTurnMoves();
+            if (moves.isEmpty()) {
+                return;
+            }
+
+            if (!hasNonAttackMove(moves)
+                    && hasQuietBoards()
+                    && getDamage() + getAttackBudget() <= state.getBestDamage()) {
+                return;
+            }
+
+            for (PlayMove move: moves) {
+                if (state.isStopped()) {
+                    return;
+                }
+                searchSubtree(move);
+            }
+        }
+
+        // Returns true if the children of the current node need to be searched.
+        private boolean visitNode() {
+            if (state.isStopped() || !state.tryVisitNode(world, previousMove)) {
+                return false;
+            }
+
+            GameResult gameResult = world.tryGetGameResult();
+            if (gameResult != null) {
+                List<PlayerId> deadPlayers = gameResult.getDeadPlayers();
+                if (!deadPlayers.contains(player.getPlayerId()) && deadPlayers.contains(opponent.getPlayerId())) {
+                    state.offer(state.initialOpponentHealth, true, path);
+                }
+                return false;
+            }
+
+            state.offer(getDamage(), false, path);
+            return true;
+        }
+
+        private int getDamage() {
+            return state.initialOpponentHealth - getHealth(opponent.getHero());
+        }
+
+        // Attacks might trigger abilities increasing the attack of minions
+        // (e.g., Frothing Berserker) or dealing damage (e.g., death rattles),
+        // so the attack budget is only an upper bound if there is nothing to
+        // trigger.
+        private boolean hasQuietBoards() {
+            if (!TurnPlanner.isQuiet(world)) {
+                return false;
+            }
+            return isQuietSide(player) && isQuietSide(opponent);
+        }
+
+        private boolean isQuietSide(Player side) {
+            Weapon weapon = side.tryGetWeapon();
+            if (weapon != null && !TurnPlanner.isSimpleWeapon(weapon)) {
+                return false;
+            }
+            for (Minion minion: side.getBoard().getAllMinions()) {
+                if (!TurnPlanner.isSimpleMinion(minion)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // An upper bound for the damage attacks can deal to the enemy hero
+        // (see hasQuietBoards).
+        private int getAttackBudget() {
+            int result = 0;
+
+            Hero hero = player.getHero();
+            if (hero.getAttackTool().canAttackWith()) {
+                Weapon weapon = player.tryGetWeapon();
+                int attackCount = weapon != null ? weapon.getBaseDescr().getMaxAttackCount() : 1;
+                result += attackCount * hero.getAttackTool().getAttack();
+            }
+
+            for (Minion minion: player.getBoard().getAllMinions()) {
+                if (!minion.isDead() && minion.getAttackTool().canAttackWith()) {
+                    int attackCount = minion.getProperties().getMaxAttackCountProperty().getValue();
+                    result += attackCount * minion.getAttackTool().getAttack();
+                }
+            }
+            return result;
+        }
+
+        private List<PlayMove> getTurnMoves() {
+            List<PlayMove> moves = turnPlanner.filterMoves(world, moveGenerator.getMoves(world), previousMove);
+            List<PlayMove> result = new ArrayList<>(moves.size());
+
+            // Using one of two identical minions (or cards) leads to the same
+            // state, so we only consider the oldest of them. Minions are only
+            // considered identical if they are next to each other, otherwise
+            // their neighbours (e.g., Dire Wolf Alpha) might make a
+            // difference. The order must be the same as the one of the
+            // TurnPlanner, otherwise the two might together skip every order
+            // of playing two identical minions.
+            int[] ownMinions = getFirstEquivalentMinions(player);
+            int[] enemyMinions = getFirstEquivalentMinions(opponent);
+            int[] cards = getFirstEquivalentCards(player);
+
+            // Try going face first, so that we find lethal (and a good lower
+            // bound for pruning) as soon as possible.
+            for (PlayMove move: moves) {
+                if (isFaceAttack(move) && isCanonical(move, ownMinions, enemyMinions, cards)) {
+                    result.add(move);
+                }
+            }
+            for (PlayMove move: moves) {
+                if (!move.isEndTurn() && !isFaceAttack(move) && isCanonical(move, ownMinions, enemyMinions, cards)) {
+                    result.add(move);
+                }
+            }
+            return result;
+        }
+
+        private int[] getFirstEquivalentMinions(Player owner) {
+            List<Minion> minions = owner.getBoard().getAllMinions();
+            int minionCount = minions.size();
+
+            long[] hashes = new long[minionCount];
+            int[] result = new int[minionCount];
+            for (int i = 0; i < minionCount; i++) {
+                hashes[i] = WorldStateHash.hashMinion(minions.get(i));
+                result[i] = i;
+                if (i > 0 && hashes[i - 1] == hashes[i]) {
+                    int first = result[i - 1];
+                    if (minions.get(i).getBirthDate() < minions.get(first).getBirthDate()) {
+                        updateFirst(result, first, i);
+                    }
+                    else {
+                        result[i] = first;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private int[] getFirstEquivalentCards(Player owner) {
+            List<Card> cards = owner.getHand().getCards();
+            int cardCount = cards.size();
+
+            int[] result = new int[cardCount];
+            for (int i = 0; i < cardCount; i++) {
+                Card card = cards.get(i);
+                result[i] = i;
+                for (int j = 0; j < i; j++) {
+                    Card other = cards.get(j);
+                    if (other.getCardDescr() == card.getCardDescr()
+                            && other.getActiveManaCost() == card.getActiveManaCost()) {
+                        int first = result[j];
+                        if (card.isMinionCard()
+                                && card.getMinion().getBirthDate() < cards.get(first).getMinion().getBirthDate()) {
+                            updateFirst(result, first, i);
+                        }
+                        else {
+                            result[i] = first;
+                        }
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void updateFirst(int[] firstEquivalents, int prevFirst, int newFirst) {
+            for (int i = 0; i < newFirst; i++) {
+                if (firstEquivalents[i] == prevFirst) {
+                    firstEquivalents[i] = newFirst;
+                }
+            }
+            firstEquivalents[newFirst] = newFirst;
+        }
+
+        private boolean isCanonical(PlayMove move, int[] ownMinions, int[] enemyMinions, int[] cards) {
+            if (move instanceof AttackMove) {
+                AttackMove attack = (AttackMove)move;
+                return isCanonical(attack.getAttacker(), ownMinions, enemyMinions)
+                        && isCanonical(attack.getDefender(), ownMinions, enemyMinions);
+            }
+            if (move instanceof PlayCardMove) {
+                PlayCardMove cardPlay = (PlayCardMove)move;
+                int cardIndex = cardPlay.getCardIndex();
+                return cards[cardIndex] == cardIndex
+                        && isCanonical(cardPlay.getTarget(), ownMinions, enemyMinions);
+            }
+            if (move instanceof HeroPowerMove) {
+                return isCanonical(((HeroPowerMove)move).getTarget(), ownMinions, enemyMinions);
+            }
+            return true;
+        }
+
+        private boolean isCanonical(CharacterRef character, int[] ownMinions, int[] enemyMinions) {
+            if (character == null || character.isHero()) {
+                return true;
+            }
+
+            int minionIndex = character.getMinionIndex();
+            int[] firstEquivalent = character.isOpponent() ? enemyMinions : ownMinions;
+            return firstEquivalent[minionIndex] == minionIndex;
+        }
+
+        private boolean isFaceAttack(PlayMove move) {
+            return move instanceof AttackMove && ((AttackMove)move).getDefender().equals(CharacterRef.hero(true));
+        }
+
+        // Spells, battlecries and hero powers might deal any amount of
+        // damage, so we can only prune when there is not enough mana left to
+        // do anything else but attacking.
+        private boolean hasNonAttackMove(List<PlayMove> moves) {
+            for (PlayMove move: moves) {
+                if (!(move instanceof AttackMove)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.kelemen.brazier.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class LethalResult {
+    private final List<PlayMove> moves;
+    private final int damage;
+    private final boolean lethal;
+    private final boolean complete;
+    private final long nodeCount;
+
+    public LethalResult(List<? extends PlayMove> moves, int damage, boolean lethal, boolean complete, long nodeCount) {
+        ExceptionHelper.checkNotNullElements(moves, "moves");
+
+        this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+        this.damage = damage;
+        this.lethal = lethal;
+        this.complete = complete;
+        this.nodeCount = nodeCount;
+    }
+
+    // The moves of the current player leading to the most damage (not
+    // including ending the turn).
+    public List<PlayMove> getMoves() {
+        return moves;
+    }
+
+    // The damage dealt to the opponent hero (including armor) by the moves.
+    public int getDamage() {
+        return damage;
+    }
+
+    public boolean isLethal() {
+        return lethal;
+    }
+
+    // Returns false if the search was stopped before exploring every line of
+    // play. In this case, the result might not be optimal and the absence of
+    // lethal is not proven.
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "LethalResult{" + "damage=" + damage
+                + ", lethal=" + lethal
+                + ", complete=" + complete
+                + ", nodes=" + nodeCount
+                + ", moves=" + moves + '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.ParallelUtils;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+// Scores the weighted sum of the differences between the features of the
+// player and the opponent, then maps the score to a winning probability with
+// the logistic function.
+public final class LinearEvaluator implements StateEvaluator {
+    public static final LinearEvaluator DEFAULT = new Builder().create();
+
+    private static final int MIN_PARALLEL_BATCH_SIZE = 4096;
+    private static final int PARALLEL_CHUNK_SIZE = 1024;
+
+    public static final class Builder {
+        private final double[] weights;
+
+        public Builder() {
+            this.weights = new double[EvaluationFeature.COUNT];
+            setWeight(EvaluationFeature.HERO_HEALTH, 0.04);
+            setWeight(EvaluationFeature.MINION_COUNT, 0.1);
+            setWeight(EvaluationFeature.MINION_ATTACK, 0.08);
+            setWeight(EvaluationFeature.MINION_HEALTH, 0.06);
+            setWeight(EvaluationFeature.TAUNT_COUNT, 0.05);
+            setWeight(EvaluationFeature.WEAPON_DAMAGE, 0.04);
+            setWeight(EvaluationFeature.HAND_SIZE, 0.08);
+            setWeight(EvaluationFeature.PLAYABLE_CARDS, 0.03);
+            setWeight(EvaluationFeature.MANA_CRYSTALS, 0.1);
+            setWeight(EvaluationFeature.DECK_SIZE, 0.01);
+            setWeight(EvaluationFeature.SECRET_COUNT, 0.1);
+        }
+
+        public void setWeight(EvaluationFeature feature, double weight) {
+            ExceptionHelper.checkNotNullArgument(feature, "feature");
+            if (Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("weight must be finite: " + weight);
+            }
+            weights[feature.ordinal()] = weight;
+        }
+
+        public LinearEvaluator create() {
+            return new LinearEvaluator(this);
+        }
+    }
+
+    private final double[] weights;
+
+    private LinearEvaluator(Builder builder) {
+        this.weights = builder.weights.clone();
+    }
+
+    public double getWeight(EvaluationFeature feature) {
+        ExceptionHelper.checkNotNullArgument(feature, "feature");
+        return weights[feature.ordinal()];
+    }
+
+    @Override
+    public double evaluate(World world, PlayerId playerId) {
+        return evaluate(FeatureVector.extract(world, playerId));
+    }
+
+    public double evaluate(FeatureVector features) {
+        ExceptionHelper.checkNotNullArgument(features, "features");
+        return toProbability(getScore(features));
+    }
+
+    // The score before mapping it to a probability.
+    public double getScore(FeatureVector features) {
+        ExceptionHelper.checkNotNullArgument(features, "features");
+
+        double result = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            result += weights[i] * features.getDifference(i);
+        }
+        return result;
+    }
+
+    // Evaluates the leaves collected by a search in a single call. Large
+    // batches are evaluated on multiple threads.
+    public double[] evaluateAll(List<? extends FeatureVector> batch) {
+        ExceptionHelper.checkNotNullElements(batch, "batch");
+
+        int count = batch.size();
+        double[] result = new double[count];
+
+        if (count < MIN_PARALLEL_BATCH_SIZE) {
+            evaluateRange(batch, 0, count, result);
+            return result;
+        }
+
+        int chunkCount = (count + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        ParallelUtils.forEachIndex(threadCount, "Batch-Evaluator", chunkCount, (chunkIndex) -> {
+            int startIndex = chunkIndex * PARALLEL_CHUNK_SIZE;
+            int endIndex = Math.min(count, startIndex + PARALLEL_CHUNK_SIZE);
+            evaluateRange(batch, startIndex, endIndex, result);
+        });
+        return result;
+    }
+
+    private void evaluateRange(List<? extends FeatureVector> batch, int startIndex, int endIndex, double[] result) {
+        for (int i = startIndex; i < endIndex; i++) {
+            result[i] = toProbability(getScore(batch.get(i)));
+        }
+    }
+
+    private static double toProbability(double score) {
+        return 1.0 / (1.0 + Math.exp(-score));
+    }
+}
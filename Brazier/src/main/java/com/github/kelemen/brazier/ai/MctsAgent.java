@@ -0,0 +1,395 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.GameResult;
+import com.github.kelemen.brazier.ParallelUtils;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.RandomProvider;
+import com.github.kelemen.brazier.UserAgent;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class MctsAgent {
+    // Protects against rollouts never ending due to some strange card
+    // combination.
+    private static final int MAX_ROLLOUT_MOVES = 1000;
+
+    // Moves visited less are too uncertain to be shown as part of the best line.
+    private static final int MIN_BEST_LINE_VISITS = 2;
+
+    private static final Runnable NO_PROGRESS = () -> { };
+
+    private final MctsConfig config;
+
+    public MctsAgent(MctsConfig config) {
+        ExceptionHelper.checkNotNullArgument(config, "config");
+        this.config = config;
+    }
+
+    public MctsConfig getConfig() {
+        return config;
+    }
+
+    public MctsResult search(World world) {
+        return search(Cancellation.UNCANCELABLE_TOKEN, world);
+    }
+
+    // Searches on the calling thread ignoring the configured thread count.
+    // The world is restored to its original state before returning.
+    public MctsResult search(CancellationToken cancelToken, World world) {
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+        ExceptionHelper.checkNotNullArgument(world, "world");
+
+        long startTime = System.nanoTime();
+        SearchLimits limits = new SearchLimits(cancelToken, startTime);
+
+        TreeSearch search = new TreeSearch(world, newRandom());
+        search.run(limits, NO_PROGRESS);
+
+        return createResult(Collections.singletonList(search), startTime);
+    }
+
+    public MctsResult searchParallel(Supplier<? extends World> worldForker) {
+        return searchParallel(Cancellation.UNCANCELABLE_TOKEN, worldForker);
+    }
+
+    // Root parallelization: Every thread builds its own tree on its own copy
+    // of the world, so threads never have to synchronize except for merging
+    // the statistics of the root moves (at the end and when reporting
+    // progress). The worldForker must
+    // return a new, independent copy of the current state on each call.
+    public MctsResult searchParallel(CancellationToken cancelToken, Supplier<? extends World> worldForker) {
+        return searchParallel(cancelToken, worldForker, Long.MAX_VALUE, TimeUnit.NANOSECONDS, (result) -> { });
+    }
+
+    // Same as searchParallel(CancellationToken, Supplier) but also reports the
+    // merged statistics of the trees searched so far after every elapsed
+    // reportInterval. The progress listener is called on one of the search
+    // threads (stalling it), so it should return quickly.
+    public MctsResult searchParallel(
+            CancellationToken cancelToken,
+            Supplier<? extends World> worldForker,
+            long reportInterval,
+            TimeUnit reportIntervalUnit,
+            Consumer<? super MctsResult> progressListener) {
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+        ExceptionHelper.checkNotNullArgument(worldForker, "worldForker");
+        ExceptionHelper.checkArgumentInRange(reportInterval, 1, Long.MAX_VALUE, "reportInterval");
+        ExceptionHelper.checkNotNullArgument(reportIntervalUnit, "reportIntervalUnit");
+        ExceptionHelper.checkNotNullArgument(progressListener, "progressListener");
+
+        int threadCount = config.getThreadCount();
+        List<TreeSearch> searches = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            World world = worldForker.get();
+            ExceptionHelper.checkNotNullArgument(world, "worldForker.get()");
+            searches.add(new TreeSearch(world, newRandom()));
+        }
+
+        long startTime = System.nanoTime();
+        SearchLimits limits = new SearchLimits(cancelToken, startTime);
+
+        ProgressReporter progressReporter = new ProgressReporter(
+                searches, startTime, reportIntervalUnit.toNanos(reportInterval), progressListener);
+        ParallelUtils.runOnThreads(threadCount, "MCTS-Search", (threadIndex) -> {
+            searches.get(threadIndex).run(limits, threadIndex == 0 ? progressReporter : NO_PROGRESS);
+        }, limits::stop);
+
+        return createResult(searches, startTime);
+    }
+
+    // The trees might still be searched by other threads.
+    private static MctsResult createResult(List<TreeSearch> searches, long startTime) {
+        long iterationCount = 0;
+        Map<PlayMove, MoveStatistics> mergedStatistics = new LinkedHashMap<>();
+        for (TreeSearch search: searches) {
+            synchronized (search.treeLock) {
+                iterationCount += search.iterationCount;
+                for (MoveStatistics moveStatistics: search.root.getChildStatistics()) {
+                    mergedStatistics.merge(moveStatistics.getMove(), moveStatistics, MoveStatistics::merge);
+                }
+            }
+        }
+
+        List<MoveStatistics> statistics = sortStatistics(new ArrayList<>(mergedStatistics.values()));
+        return new MctsResult(
+                statistics,
+                getBestLine(searches, statistics),
+                iterationCount,
+                System.nanoTime() - startTime,
+                searches.size());
+    }
+
+    // The line is taken from the tree which explored the best move the most.
+    private static List<PlayMove> getBestLine(List<TreeSearch> searches, List<MoveStatistics> sortedStatistics) {
+        if (sortedStatistics.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        PlayMove bestMove = sortedStatistics.get(0).getMove();
+        List<PlayMove> result = Collections.singletonList(bestMove);
+        long bestVisitCount = -1;
+        for (TreeSearch search: searches) {
+            synchronized (search.treeLock) {
+                MctsNode node = search.root.tryGetChild(bestMove);
+                if (node != null && node.getVisitCount() > bestVisitCount) {
+                    bestVisitCount = node.getVisitCount();
+                    result = getLine(node);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<PlayMove> getLine(MctsNode firstNode) {
+        List<PlayMove> result = new ArrayList<>();
+        result.add(firstNode.getMove());
+
+        MctsNode node = firstNode;
+        while (!node.getMove().isEndTurn()) {
+            node = node.tryGetMostVisitedChild();
+            if (node == null || !node.isRootPlayerMove() || node.getVisitCount() < MIN_BEST_LINE_VISITS) {
+                break;
+            }
+            result.add(node.getMove());
+        }
+        return result;
+    }
+
+    private static Random newRandom() {
+        return new Random(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static List<MoveStatistics> sortStatistics(List<MoveStatistics> statistics) {
+        List<MoveStatistics> result = new ArrayList<>(statistics);
+        result.sort((stat1, stat2) -> {
+            int visitCmp = Long.compare(stat2.getVisitCount(), stat1.getVisitCount());
+            if (visitCmp != 0) {
+                return visitCmp;
+            }
+            return Double.compare(stat2.getAverageReward(), stat1.getAverageReward());
+        });
+        return result;
+    }
+
+    private static final class ProgressReporter implements Runnable {
+        private final List<TreeSearch> searches;
+        private final long startTime;
+        private final long reportIntervalNanos;
+        private final Consumer<? super MctsResult> progressListener;
+        private long nextReportTime;
+
+        public ProgressReporter(
+                List<TreeSearch> searches,
+                long startTime,
+                long reportIntervalNanos,
+                Consumer<? super MctsResult> progressListener) {
+            this.searches = searches;
+            this.startTime = startTime;
+            this.reportIntervalNanos = reportIntervalNanos;
+            this.progressListener = progressListener;
+            this.nextReportTime = reportIntervalNanos != Long.MAX_VALUE
+                    ? startTime + reportIntervalNanos
+                    : Long.MAX_VALUE;
+        }
+
+        // Called after every iteration, so it must be cheap unless reporting.
+        @Override
+        public void run() {
+            if (nextReportTime == Long.MAX_VALUE) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            if (now - nextReportTime >= 0) {
+                progressListener.accept(createResult(searches, startTime));
+                nextReportTime = System.nanoTime() + reportIntervalNanos;
+            }
+        }
+    }
+
+    private final class SearchLimits {
+        private final CancellationToken cancelToken;
+        private final long deadline;
+        private final boolean timeLimited;
+        private final AtomicLong remainingIterations;
+        private volatile boolean stopped;
+
+        public SearchLimits(CancellationToken cancelToken, long startTime) {
+            long maxTimeNanos = config.getMaxTimeNanos();
+
+            this.cancelToken = cancelToken;
+            this.timeLimited = maxTimeNanos != Long.MAX_VALUE;
+            this.deadline = timeLimited ? startTime + maxTimeNanos : 0;
+            this.remainingIterations = new AtomicLong(config.getMaxIterations());
+            this.stopped = false;
+        }
+
+        public void stop() {
+            stopped = true;
+        }
+
+        public boolean tryStartIteration() {
+            if (stopped || cancelToken.isCanceled()) {
+                return false;
+            }
+            if (timeLimited && System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            return remainingIterations.getAndDecrement() > 0;
+        }
+    }
+
+    private final class TreeSearch {
+        private final World world;
+        private final WorldPlayAgent playAgent;
+        private final Random random;
+        private final PlayerId rootPlayerId;
+        private final MctsNode root;
+
+        private final List<UndoAction> undos;
+        private final List<MctsNode> path;
+
+        // Guards the tree and the iteration count, so that the progress of
+        // the search can be reported while other threads are searching.
+        private final Object treeLock;
+        private long iterationCount;
+
+        public TreeSearch(World world, Random random) {
+            this.world = world;
+            this.rootPlayerId = world.getCurrentPlayer().getPlayerId();
+            this.playAgent = new WorldPlayAgent(world, rootPlayerId);
+            this.random = random;
+            this.root = new MctsNode(null, false);
+            this.undos = new ArrayList<>();
+            this.path = new ArrayList<>();
+            this.treeLock = new Object();
+            this.iterationCount = 0;
+        }
+
+        public void run(SearchLimits limits, Runnable afterIteration) {
+            if (world.isGameOver()) {
+                return;
+            }
+
+            // We must not share the random number generator with other
+            // threads, otherwise threads would contend for it.
+            RandomProvider prevRandomProvider = world.getRandomProvider();
+            UserAgent prevUserAgent = world.getUserAgent();
+            world.setRandomProvider((bound) -> random.nextInt(bound));
+            world.setUserAgent((boolean allowCancel, List<? extends CardDescr> cards) -> {
+                return cards.get(random.nextInt(cards.size()));
+            });
+
+            try {
+                while (limits.tryStartIteration()) {
+                    synchronized (treeLock) {
+                        runIteration();
+                        iterationCount++;
+                    }
+                    afterIteration.run();
+                }
+            } finally {
+                world.setUserAgent(prevUserAgent);
+                world.setRandomProvider(prevRandomProvider);
+            }
+        }
+
+        private boolean isRootPlayerToMove() {
+            return world.getCurrentPlayer().getPlayerId() == rootPlayerId;
+        }
+
+        private void playMove(PlayMove move) {
+            undos.add(move.play(playAgent));
+        }
+
+        private void runIteration() {
+            MoveGenerator moveGenerator = config.getMoveGenerator();
+            TurnPlanner turnPlanner = config.getTurnPlanner();
+            double explorationConstant = config.getExplorationConstant();
+
+            path.clear();
+            path.add(root);
+
+            double reward;
+            try {
+                MctsNode node = root;
+                PlannedMove previousMove = null;
+                while (!world.isGameOver()) {
+                    List<PlayMove> moves = turnPlanner.filterMoves(world, moveGenerator.getMoves(world), previousMove);
+                    MctsNode child = node.selectChild(moves, isRootPlayerToMove(), explorationConstant, random);
+                    boolean expanded = child.isUnvisited();
+
+                    previousMove = turnPlanner.plan(world, child.getMove());
+                    playMove(child.getMove());
+                    path.add(child);
+                    node = child;
+
+                    if (expanded) {
+                        break;
+                    }
+                }
+
+                rollout();
+                reward = getRootPlayerReward();
+            } finally {
+                for (int i = undos.size() - 1; i >= 0; i--) {
+                    undos.get(i).undo();
+                }
+                undos.clear();
+            }
+
+            for (MctsNode node: path) {
+                node.addResult(reward);
+            }
+        }
+
+        private void rollout() {
+            MoveGenerator moveGenerator = config.getMoveGenerator();
+            RolloutPolicy rolloutPolicy = config.getRolloutPolicy();
+            int maxTurns = config.getMaxRolloutTurns();
+
+            int turnCount = 0;
+            int moveCount = 0;
+            while (turnCount < maxTurns && moveCount < MAX_ROLLOUT_MOVES && !world.isGameOver()) {
+                List<PlayMove> moves = moveGenerator.getMoves(world);
+                PlayMove move = rolloutPolicy.selectMove(world, moves, random);
+                playMove(move);
+
+                if (move.isEndTurn()) {
+                    turnCount++;
+                }
+                moveCount++;
+            }
+        }
+
+        private double getRootPlayerReward() {
+            GameResult gameResult = world.tryGetGameResult();
+            if (gameResult == null) {
+                return config.getStateEvaluator().evaluate(world, rootPlayerId);
+            }
+
+            List<PlayerId> deadPlayers = gameResult.getDeadPlayers();
+            boolean rootPlayerDead = deadPlayers.contains(rootPlayerId);
+            if (rootPlayerDead) {
+                return deadPlayers.size() > 1 ? 0.5 : 0.0;
+            }
+            return 1.0;
+        }
+    }
+}
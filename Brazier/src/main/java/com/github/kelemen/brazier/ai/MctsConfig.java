@@ -0,0 +1,152 @@
+package com.github.kelemen.brazier.ai;
+
+import java.util.concurrent.TimeUnit;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class MctsConfig {
+    public static final class Builder {
+        private double explorationConstant;
+        private long maxIterations;
+        private long maxTimeNanos;
+        private int threadCount;
+        private int maxRolloutTurns;
+        private RolloutPolicy rolloutPolicy;
+        private StateEvaluator stateEvaluator;
+        private MoveGenerator moveGenerator;
+        private TurnPlanner turnPlanner;
+
+        public Builder() {
+            this.explorationConstant = Math.sqrt(2.0);
+            this.maxIterations = Long.MAX_VALUE;
+            this.maxTimeNanos = TimeUnit.SECONDS.toNanos(1);
+            this.threadCount = 1;
+            this.maxRolloutTurns = 6;
+            this.rolloutPolicy = RolloutPolicies.preferActions(0.1);
+            this.stateEvaluator = StateEvaluators.BOARD_AND_HEALTH;
+            this.moveGenerator = MoveGenerator.DEFAULT;
+            this.turnPlanner = TurnPlanner.DEFAULT;
+        }
+
+        public void setExplorationConstant(double explorationConstant) {
+            if (!(explorationConstant >= 0.0)) {
+                throw new IllegalArgumentException("explorationConstant must be non-negative: " + explorationConstant);
+            }
+            this.explorationConstant = explorationConstant;
+        }
+
+        // The iteration count is the total number of playouts of all threads.
+        public void setMaxIterations(long maxIterations) {
+            ExceptionHelper.checkArgumentInRange(maxIterations, 1, Long.MAX_VALUE, "maxIterations");
+            this.maxIterations = maxIterations;
+        }
+
+        public void setMaxTime(long maxTime, TimeUnit unit) {
+            ExceptionHelper.checkArgumentInRange(maxTime, 0, Long.MAX_VALUE, "maxTime");
+            ExceptionHelper.checkNotNullArgument(unit, "unit");
+            this.maxTimeNanos = unit.toNanos(maxTime);
+        }
+
+        public void setNoTimeLimit() {
+            this.maxTimeNanos = Long.MAX_VALUE;
+        }
+
+        public void setThreadCount(int threadCount) {
+            ExceptionHelper.checkArgumentInRange(threadCount, 1, Integer.MAX_VALUE, "threadCount");
+            this.threadCount = threadCount;
+        }
+
+        // Rollouts are stopped after the given number of turns and the state
+        // is then scored by the StateEvaluator.
+        public void setMaxRolloutTurns(int maxRolloutTurns) {
+            ExceptionHelper.checkArgumentInRange(maxRolloutTurns, 0, Integer.MAX_VALUE, "maxRolloutTurns");
+            this.maxRolloutTurns = maxRolloutTurns;
+        }
+
+        public void setRolloutPolicy(RolloutPolicy rolloutPolicy) {
+            ExceptionHelper.checkNotNullArgument(rolloutPolicy, "rolloutPolicy");
+            this.rolloutPolicy = rolloutPolicy;
+        }
+
+        public void setStateEvaluator(StateEvaluator stateEvaluator) {
+            ExceptionHelper.checkNotNullArgument(stateEvaluator, "stateEvaluator");
+            this.stateEvaluator = stateEvaluator;
+        }
+
+        public void setMoveGenerator(MoveGenerator moveGenerator) {
+            ExceptionHelper.checkNotNullArgument(moveGenerator, "moveGenerator");
+            this.moveGenerator = moveGenerator;
+        }
+
+        public void setTurnPlanner(TurnPlanner turnPlanner) {
+            ExceptionHelper.checkNotNullArgument(turnPlanner, "turnPlanner");
+            this.turnPlanner = turnPlanner;
+        }
+
+        public MctsConfig create() {
+            if (maxIterations == Long.MAX_VALUE && maxTimeNanos == Long.MAX_VALUE) {
+                throw new IllegalStateException("Either the iteration count or the time must be limited.");
+            }
+            return new MctsConfig(this);
+        }
+    }
+
+    private final double explorationConstant;
+    private final long maxIterations;
+    private final long maxTimeNanos;
+    private final int threadCount;
+    private final int maxRolloutTurns;
+    private final RolloutPolicy rolloutPolicy;
+    private final StateEvaluator stateEvaluator;
+    private final MoveGenerator moveGenerator;
+    private final TurnPlanner turnPlanner;
+
+    private MctsConfig(Builder builder) {
+        this.explorationConstant = builder.explorationConstant;
+        this.maxIterations = builder.maxIterations;
+        this.maxTimeNanos = builder.maxTimeNanos;
+        this.threadCount = builder.threadCount;
+        this.maxRolloutTurns = builder.maxRolloutTurns;
+        this.rolloutPolicy = builder.rolloutPolicy;
+        this.stateEvaluator = builder.stateEvaluator;
+        this.moveGenerator = builder.moveGenerator;
+        this.turnPlanner = builder.turnPlanner;
+    }
+
+    public double getExplorationConstant() {
+        return explorationConstant;
+    }
+
+    public long getMaxIterations() {
+        return maxIterations;
+    }
+
+    public long getMaxTimeNanos() {
+        return maxTimeNanos;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public int getMaxRolloutTurns() {
+        return maxRolloutTurns;
+    }
+
+    public RolloutPolicy getRolloutPolicy() {
+        return rolloutPolicy;
+    }
+
+    public StateEvaluator getStateEvaluator() {
+        return stateEvaluator;
+    }
+
+    public MoveGenerator getMoveGenerator() {
+        return moveGenerator;
+    }
+
+    // Used to skip the orders of commuting moves within the tree (but not
+    // during rollouts).
+    public TurnPlanner getTurnPlanner() {
+        return turnPlanner;
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.kelemen.brazier.ai;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// The tree is open-loop: a node represents a sequence of moves and not a
+// particular state because random effects might lead to different states.
+// Therefore, only the currently possible moves are considered in each node.
+final class MctsNode {
+    private final PlayMove move;
+    private final boolean rootPlayerMove;
+    private final Map<PlayMove, MctsNode> children;
+
+    private long visitCount;
+    // The reward is from the perspective of the player making the move
+    // leading to this node.
+    private double totalReward;
+
+    public MctsNode(PlayMove move, boolean rootPlayerMove) {
+        this.move = move;
+        this.rootPlayerMove = rootPlayerMove;
+        this.children = new HashMap<>();
+        this.visitCount = 0;
+        this.totalReward = 0.0;
+    }
+
+    public PlayMove getMove() {
+        return move;
+    }
+
+    public long getVisitCount() {
+        return visitCount;
+    }
+
+    public boolean isRootPlayerMove() {
+        return rootPlayerMove;
+    }
+
+    public MctsNode tryGetChild(PlayMove childMove) {
+        return children.get(childMove);
+    }
+
+    // Returns null if there are no children.
+    public MctsNode tryGetMostVisitedChild() {
+        MctsNode result = null;
+        for (MctsNode child: children.values()) {
+            if (result == null || child.visitCount > result.visitCount) {
+                result = child;
+            }
+        }
+        return result;
+    }
+
+    public boolean isUnvisited() {
+        return visitCount == 0;
+    }
+
+    // The reward must be from the perspective of the root player.
+    public void addResult(double rootPlayerReward) {
+        visitCount++;
+        totalReward += rootPlayerMove ? rootPlayerReward : 1.0 - rootPlayerReward;
+    }
+
+    public MctsNode selectChild(
+            List<PlayMove> moves,
+            boolean rootPlayerToMove,
+            double explorationConstant,
+            Random random) {
+
+        List<PlayMove> untriedMoves = null;
+        for (PlayMove candidate: moves) {
+            if (!children.containsKey(candidate)) {
+                if (untriedMoves == null) {
+                    untriedMoves = new ArrayList<>();
+                }
+                untriedMoves.add(candidate);
+            }
+        }
+
+        if (untriedMoves != null) {
+            PlayMove selected = untriedMoves.get(random.nextInt(untriedMoves.size()));
+            MctsNode child = new MctsNode(selected, rootPlayerToMove);
+            children.put(selected, child);
+            return child;
+        }
+
+        double logVisits = Math.log(Math.max(1, visitCount));
+        MctsNode best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (PlayMove candidate: moves) {
+            MctsNode child = children.get(candidate);
+            double value = child.getAverageReward()
+                    + explorationConstant * Math.sqrt(logVisits / child.visitCount);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    public double getAverageReward() {
+        return visitCount > 0 ? totalReward / visitCount : 0.0;
+    }
+
+    // The statistics are always from the perspective of the root player.
+    public List<MoveStatistics> getChildStatistics() {
+        List<MoveStatistics> result = new ArrayList<>(children.size());
+        for (MctsNode child: children.values()) {
+            double rootReward = child.rootPlayerMove
+                    ? child.totalReward
+                    : child.visitCount - child.totalReward;
+            result.add(new MoveStatistics(child.move, child.visitCount, rootReward));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.kelemen.brazier.ai;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jtrim.collections.CollectionsEx;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class MctsResult {
+    private final List<MoveStatistics> moveStatistics;
+    private final List<PlayMove> bestLine;
+    private final long iterationCount;
+    private final long elapsedNanos;
+    private final int threadCount;
+
+    // The statistics must be ordered so that the best move is the first one.
+    public MctsResult(
+            List<MoveStatistics> moveStatistics,
+            long iterationCount,
+            long elapsedNanos,
+            int threadCount) {
+        this(moveStatistics, getFirstMove(moveStatistics), iterationCount, elapsedNanos, threadCount);
+    }
+
+    // The best line must start with the best move (unless it is empty).
+    public MctsResult(
+            List<MoveStatistics> moveStatistics,
+            List<? extends PlayMove> bestLine,
+            long iterationCount,
+            long elapsedNanos,
+            int threadCount) {
+        this.moveStatistics = CollectionsEx.readOnlyCopy(moveStatistics);
+        this.bestLine = CollectionsEx.readOnlyCopy(bestLine);
+        this.iterationCount = iterationCount;
+        this.elapsedNanos = elapsedNanos;
+        this.threadCount = threadCount;
+
+        ExceptionHelper.checkNotNullElements(this.moveStatistics, "moveStatistics");
+        ExceptionHelper.checkNotNullElements(this.bestLine, "bestLine");
+    }
+
+    private static List<PlayMove> getFirstMove(List<MoveStatistics> moveStatistics) {
+        return moveStatistics.isEmpty()
+                ? Collections.emptyList()
+                : Collections.singletonList(moveStatistics.get(0).getMove());
+    }
+
+    // Returns null if there was no possible move (i.e., the game is over).
+    public PlayMove getBestMove() {
+        return moveStatistics.isEmpty() ? null : moveStatistics.get(0).getMove();
+    }
+
+    // The most visited moves of the current player starting with the best
+    // move, up to the end of the turn (or as far as the search got).
+    public List<PlayMove> getBestLine() {
+        return bestLine;
+    }
+
+    // The estimated probability of the current player winning by playing the
+    // best move. Returns NaN if there was no possible move.
+    public double getWinProbability() {
+        return moveStatistics.isEmpty() ? Double.NaN : moveStatistics.get(0).getAverageReward();
+    }
+
+    public List<MoveStatistics> getMoveStatistics() {
+        return moveStatistics;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public double getPlayoutsPerSecond() {
+        return elapsedNanos > 0 ? iterationCount * 1e9 / elapsedNanos : 0.0;
+    }
+
+    public double getPlayoutsPerSecondPerThread() {
+        return getPlayoutsPerSecond() / threadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "MctsResult{" + "bestMove=" + getBestMove()
+                + ", iterations=" + iterationCount
+                + ", threads=" + threadCount
+                + ", playouts/s=" + Math.round(getPlayoutsPerSecond()) + '}';
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.kelemen.brazier.ai;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.jtrim.utils.ExceptionHelper;
+
+// The parts of the world a move reads or changes. Entities are compared by
+// identity, so a footprint is only meaningful within the world it was
+// created for. A global footprint might affect anything (spells, triggered
+// listeners, auras, etc.) and does not commute with any other move.
+public final class MoveFootprint {
+    public static final MoveFootprint GLOBAL = new MoveFootprint(true, Collections.emptyMap());
+
+    private enum Access {
+        READ,
+        // Damage without any side effect: damaging something twice has the
+        // same result regardless of the order.
+        DAMAGE,
+        WRITE;
+
+        public Access combine(Access other) {
+            if (this == other) {
+                return this;
+            }
+            return WRITE;
+        }
+
+        public boolean conflicts(Access other) {
+            if (this == WRITE || other == WRITE) {
+                return true;
+            }
+            return this != other;
+        }
+    }
+
+    public static final class Builder {
+        private final Map<Object, Access> accesses;
+
+        public Builder() {
+            this.accesses = new HashMap<>();
+        }
+
+        public void addRead(Object entity) {
+            add(entity, Access.READ);
+        }
+
+        public void addDamage(Object entity) {
+            add(entity, Access.DAMAGE);
+        }
+
+        public void addWrite(Object entity) {
+            add(entity, Access.WRITE);
+        }
+
+        private void add(Object entity, Access access) {
+            ExceptionHelper.checkNotNullArgument(entity, "entity");
+            accesses.merge(entity, access, Access::combine);
+        }
+
+        public MoveFootprint create() {
+            return new MoveFootprint(false, new HashMap<>(accesses));
+        }
+    }
+
+    private final boolean global;
+    private final Map<Object, Access> accesses;
+
+    private MoveFootprint(boolean global, Map<Object, Access> accesses) {
+        this.global = global;
+        this.accesses = accesses;
+    }
+
+    public boolean isGlobal() {
+        return global;
+    }
+
+    // The entities (and other resources) read or changed by the move. This
+    // is empty for global footprints.
+    Set<Object> getEntities() {
+        return Collections.unmodifiableSet(accesses.keySet());
+    }
+
+    // Two moves commute if executing them in either order is possible and
+    // leads to the same state.
+    public boolean commutesWith(MoveFootprint other) {
+        ExceptionHelper.checkNotNullArgument(other, "other");
+
+        if (global || other.global) {
+            return false;
+        }
+
+        Map<Object, Access> smaller = accesses.size() <= other.accesses.size() ? accesses : other.accesses;
+        Map<Object, Access> larger = smaller == accesses ? other.accesses : accesses;
+        for (Map.Entry<Object, Access> entry: smaller.entrySet()) {
+            Access otherAccess = larger.get(entry.getKey());
+            if (otherAccess != null && entry.getValue().conflicts(otherAccess)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return global ? "MoveFootprint{GLOBAL}" : "MoveFootprint{" + accesses + '}';
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Hand;
+import com.github.kelemen.brazier.Hero;
+import com.github.kelemen.brazier.HeroPower;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.TargetableCharacter;
+import com.github.kelemen.brazier.TargeterDef;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.actions.TargetNeed;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.minions.Minion;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class MoveGenerator {
+    public static final MoveGenerator DEFAULT = new MoveGenerator(false);
+    public static final MoveGenerator ALL_MINION_LOCATIONS = new MoveGenerator(true);
+
+    private final boolean allMinionLocations;
+
+    // If allMinionLocations is false, minions are only played to the right
+    // end of the board which greatly reduces the number of possible moves.
+    public MoveGenerator(boolean allMinionLocations) {
+        this.allMinionLocations = allMinionLocations;
+    }
+
+    // Returns the possible moves of the current player. The returned list
+    // always contains the end turn move unless the game is over.
+    public List<PlayMove> getMoves(World world) {
+        if (world.isGameOver()) {
+            return Collections.emptyList();
+        }
+
+        List<PlayMove> result = new ArrayList<>();
+        Player player = world.getCurrentPlayer();
+
+        addCardPlays(player, result);
+        addHeroPower(player, result);
+        addAttacks(player, result);
+        result.add(EndTurnMove.INSTANCE);
+
+        return result;
+    }
+
+    private void addCardPlays(Player player, List<PlayMove> result) {
+        Hand hand = player.getHand();
+        int cardCount = hand.getCardCount();
+        int mana = player.getMana();
+
+        for (int cardIndex = 0; cardIndex < cardCount; cardIndex++) {
+            Card card = hand.getCard(cardIndex);
+            if (card.getActiveManaCost() > mana) {
+                continue;
+            }
+
+            CardDescr cardDescr = card.getCardDescr();
+            if (!cardDescr.doesSomethingWhenPlayed(player)) {
+                continue;
+            }
+
+            List<CardDescr> chooseOneActions = cardDescr.getChooseOneActions();
+            if (chooseOneActions.isEmpty()) {
+                addCardPlays(player, cardIndex, cardDescr, null, result);
+            }
+            else {
+                for (CardDescr choice: chooseOneActions) {
+                    addCardPlays(player, cardIndex, cardDescr, choice, result);
+                }
+            }
+        }
+    }
+
+    private void addCardPlays(
+            Player player,
+            int cardIndex,
+            CardDescr cardDescr,
+            CardDescr chooseOneChoice,
+            List<PlayMove> result) {
+
+        TargetNeed targetNeed = cardDescr.getCombinedTargetNeed(player);
+        if (chooseOneChoice != null) {
+            targetNeed = targetNeed.combine(chooseOneChoice.getCombinedTargetNeed(player));
+        }
+
+        if (cardDescr.getMinion() == null) {
+            if (!targetNeed.hasTarget()) {
+                result.add(new PlayCardMove(cardIndex, -1, null, chooseOneChoice));
+                return;
+            }
+
+            TargeterDef targeterDef = new TargeterDef(player.getPlayerId(), true, false);
+            for (CharacterRef target: getAllowedTargets(player, targeterDef, targetNeed)) {
+                result.add(new PlayCardMove(cardIndex, -1, target, chooseOneChoice));
+            }
+            return;
+        }
+
+        if (player.getBoard().isFull()) {
+            return;
+        }
+
+        List<CharacterRef> targets;
+        if (targetNeed.hasTarget()) {
+            TargeterDef targeterDef = new TargeterDef(player.getPlayerId(), false, false);
+            targets = getAllowedTargets(player, targeterDef, targetNeed);
+        }
+        else {
+            targets = Collections.emptyList();
+        }
+
+        int minionCount = player.getBoard().getMinionCount();
+        int firstLocation = allMinionLocations ? 0 : minionCount;
+        for (int location = firstLocation; location <= minionCount; location++) {
+            if (targets.isEmpty()) {
+                // Battle cries without a valid target are simply not executed.
+                result.add(new PlayCardMove(cardIndex, location, null, chooseOneChoice));
+            }
+            else {
+                for (CharacterRef target: targets) {
+                    result.add(new PlayCardMove(cardIndex, location, target, chooseOneChoice));
+                }
+            }
+        }
+    }
+
+    private static void addHeroPower(Player player, List<PlayMove> result) {
+        HeroPower heroPower = player.getHero().getHeroPower();
+        if (!heroPower.isPlayable(player)) {
+            return;
+        }
+
+        TargetNeed targetNeed = heroPower.getTargetNeed(player);
+        if (!targetNeed.hasTarget()) {
+            result.add(new HeroPowerMove(null));
+            return;
+        }
+
+        TargeterDef targeterDef = new TargeterDef(player.getPlayerId(), true, false);
+        for (CharacterRef target: getAllowedTargets(player, targeterDef, targetNeed)) {
+            result.add(new HeroPowerMove(target));
+        }
+    }
+
+    private static void addAttacks(Player player, List<PlayMove> result) {
+        PlayerId playerId = player.getPlayerId();
+        Player opponent = player.getOpponent();
+
+        Hero hero = player.getHero();
+        if (hero.getAttackTool().canAttackWith()) {
+            addAttacks(CharacterRef.hero(false), new TargeterDef(playerId, true, true), opponent, result);
+        }
+
+        List<Minion> minions = player.getBoard().getAllMinions();
+        int minionCount = minions.size();
+        for (int i = 0; i < minionCount; i++) {
+            Minion minion = minions.get(i);
+            if (!minion.isDead() && minion.getAttackTool().canAttackWith()) {
+                addAttacks(CharacterRef.minion(false, i), new TargeterDef(playerId, false, true), opponent, result);
+            }
+        }
+    }
+
+    private static void addAttacks(
+            CharacterRef attacker,
+            TargeterDef targeterDef,
+            Player opponent,
+            List<PlayMove> result) {
+
+        if (opponent.getHero().isTargetable(targeterDef)) {
+            result.add(new AttackMove(attacker, CharacterRef.hero(true)));
+        }
+
+        List<Minion> minions = opponent.getBoard().getAllMinions();
+        int minionCount = minions.size();
+        for (int i = 0; i < minionCount; i++) {
+            Minion minion = minions.get(i);
+            if (!minion.isDead() && minion.isTargetable(targeterDef)) {
+                result.add(new AttackMove(attacker, CharacterRef.minion(true, i)));
+            }
+        }
+    }
+
+    private static List<CharacterRef> getAllowedTargets(
+            Player player,
+            TargeterDef targeterDef,
+            TargetNeed targetNeed) {
+        List<CharacterRef> result = new ArrayList<>();
+        addAllowedTargets(player, false, targeterDef, targetNeed, result);
+        addAllowedTargets(player.getOpponent(), true, targeterDef, targetNeed, result);
+        return result;
+    }
+
+    private static void addAllowedTargets(
+            Player targetOwner,
+            boolean opponent,
+            TargeterDef targeterDef,
+            TargetNeed targetNeed,
+            List<CharacterRef> result) {
+        PlayerId playerId = targeterDef.getPlayerId();
+
+        Hero hero = targetOwner.getHero();
+        if (isTargetable(hero, targeterDef) && targetNeed.getAllowHeroCondition().test(playerId, hero)) {
+            result.add(CharacterRef.hero(opponent));
+        }
+
+        List<Minion> minions = targetOwner.getBoard().getAllMinions();
+        int minionCount = minions.size();
+        for (int i = 0; i < minionCount; i++) {
+            Minion minion = minions.get(i);
+            if (isTargetable(minion, targeterDef) && targetNeed.getAllowMinionCondition().test(playerId, minion)) {
+                result.add(CharacterRef.minion(opponent, i));
+            }
+        }
+    }
+
+    private static boolean isTargetable(TargetableCharacter character, TargeterDef targeterDef) {
+        return !character.isDead() && character.isTargetable(targeterDef);
+    }
+}
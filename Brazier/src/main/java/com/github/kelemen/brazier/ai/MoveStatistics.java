@@ -0,0 +1,44 @@
+package com.github.kelemen.brazier.ai;
+
+import org.jtrim.utils.ExceptionHelper;
+
+public final class MoveStatistics {
+    private final PlayMove move;
+    private final long visitCount;
+    private final double totalReward;
+
+    public MoveStatistics(PlayMove move, long visitCount, double totalReward) {
+        ExceptionHelper.checkNotNullArgument(move, "move");
+
+        this.move = move;
+        this.visitCount = visitCount;
+        this.totalReward = totalReward;
+    }
+
+    public PlayMove getMove() {
+        return move;
+    }
+
+    public long getVisitCount() {
+        return visitCount;
+    }
+
+    public double getTotalReward() {
+        return totalReward;
+    }
+
+    // The average reward is the estimated win rate of the searching player.
+    public double getAverageReward() {
+        return visitCount > 0 ? totalReward / visitCount : 0.0;
+    }
+
+    public MoveStatistics merge(MoveStatistics other) {
+        ExceptionHelper.checkNotNullArgument(other, "other");
+        return new MoveStatistics(move, visitCount + other.visitCount, totalReward + other.totalReward);
+    }
+
+    @Override
+    public String toString() {
+        return move + ": visits = " + visitCount + ", reward = " + getAverageReward();
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.kelemen.brazier.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class OutcomeDistribution<K> {
+    private final List<ChanceOutcome<K>> outcomes;
+    private final int sequenceCount;
+
+    public OutcomeDistribution(List<ChanceOutcome<K>> outcomes, int sequenceCount) {
+        ExceptionHelper.checkNotNullElements(outcomes, "outcomes");
+
+        this.outcomes = Collections.unmodifiableList(new ArrayList<>(outcomes));
+        this.sequenceCount = sequenceCount;
+    }
+
+    // The outcomes are distinct by their keys.
+    public List<ChanceOutcome<K>> getOutcomes() {
+        return outcomes;
+    }
+
+    // The number of sequences of rolls evaluated (before merging).
+    public int getSequenceCount() {
+        return sequenceCount;
+    }
+
+    public double getProbability(Predicate<? super K> condition) {
+        ExceptionHelper.checkNotNullArgument(condition, "condition");
+
+        double result = 0.0;
+        for (ChanceOutcome<K> outcome: outcomes) {
+            if (condition.test(outcome.getKey())) {
+                result += outcome.getProbability();
+            }
+        }
+        return result;
+    }
+
+    public double getExpectedValue(ToDoubleFunction<? super K> valueFunction) {
+        ExceptionHelper.checkNotNullArgument(valueFunction, "valueFunction");
+
+        double result = 0.0;
+        for (ChanceOutcome<K> outcome: outcomes) {
+            result += outcome.getProbability() * valueFunction.applyAsDouble(outcome.getKey());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "OutcomeDistribution{" + "outcomes=" + outcomes.size() + ", sequences=" + sequenceCount + '}';
+    }
+}
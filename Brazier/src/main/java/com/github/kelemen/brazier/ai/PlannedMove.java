@@ -0,0 +1,49 @@
+package com.github.kelemen.brazier.ai;
+
+import org.jtrim.utils.ExceptionHelper;
+
+// A move together with its footprint and canonical order, both determined
+// in the state before executing the move. The order is based on the birth
+// date of the entities involved, so it does not change when other moves
+// shift the indexes of the minions or cards.
+public final class PlannedMove {
+    private final PlayMove move;
+    private final MoveFootprint footprint;
+    private final long primaryOrder;
+    private final long secondaryOrder;
+
+    PlannedMove(PlayMove move, MoveFootprint footprint, long primaryOrder, long secondaryOrder) {
+        ExceptionHelper.checkNotNullArgument(move, "move");
+        ExceptionHelper.checkNotNullArgument(footprint, "footprint");
+
+        this.move = move;
+        this.footprint = footprint;
+        this.primaryOrder = primaryOrder;
+        this.secondaryOrder = secondaryOrder;
+    }
+
+    public PlayMove getMove() {
+        return move;
+    }
+
+    public MoveFootprint getFootprint() {
+        return footprint;
+    }
+
+    int compareOrder(PlannedMove other) {
+        int result = Long.compare(primaryOrder, other.primaryOrder);
+        if (result != 0) {
+            return result;
+        }
+        return Long.compare(secondaryOrder, other.secondaryOrder);
+    }
+
+    long getOrderHash() {
+        return 31 * primaryOrder + secondaryOrder;
+    }
+
+    @Override
+    public String toString() {
+        return "PlannedMove{" + move + ", footprint=" + footprint + '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.TargetId;
+import com.github.kelemen.brazier.TargetableCharacter;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.PlayTargetRequest;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.Objects;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class PlayCardMove implements PlayMove {
+    private final int cardIndex;
+    private final int minionLocation;
+    private final CharacterRef target;
+    private final CardDescr chooseOneChoice;
+
+    // The minionLocation is -1 for non-minion cards and the target and the
+    // chooseOneChoice might be null.
+    public PlayCardMove(int cardIndex, int minionLocation, CharacterRef target, CardDescr chooseOneChoice) {
+        ExceptionHelper.checkArgumentInRange(cardIndex, 0, Integer.MAX_VALUE, "cardIndex");
+        ExceptionHelper.checkArgumentInRange(minionLocation, -1, Integer.MAX_VALUE, "minionLocation");
+
+        this.cardIndex = cardIndex;
+        this.minionLocation = minionLocation;
+        this.target = target;
+        this.chooseOneChoice = chooseOneChoice;
+    }
+
+    public int getCardIndex() {
+        return cardIndex;
+    }
+
+    public int getMinionLocation() {
+        return minionLocation;
+    }
+
+    public CharacterRef getTarget() {
+        return target;
+    }
+
+    public CardDescr getChooseOneChoice() {
+        return chooseOneChoice;
+    }
+
+    static TargetId resolveTarget(World world, CharacterRef target) {
+        if (target == null) {
+            return null;
+        }
+
+        TargetableCharacter character = target.tryFind(world);
+        if (character == null) {
+            throw new IllegalStateException("Invalid target: " + target);
+        }
+        return character.getTargetId();
+    }
+
+    @Override
+    public UndoAction play(WorldPlayAgent playAgent) {
+        World world = playAgent.getWorld();
+        PlayTargetRequest playTarget = new PlayTargetRequest(
+                playAgent.getCurrentPlayerId(),
+                minionLocation,
+                resolveTarget(world, target),
+                chooseOneChoice);
+        return playAgent.playCard(cardIndex, playTarget);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 37 * hash + cardIndex;
+        hash = 37 * hash + minionLocation;
+        hash = 37 * hash + Objects.hashCode(target);
+        hash = 37 * hash + Objects.hashCode(chooseOneChoice);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final PlayCardMove other = (PlayCardMove)obj;
+        return this.cardIndex == other.cardIndex
+                && this.minionLocation == other.minionLocation
+                && Objects.equals(this.target, other.target)
+                && this.chooseOneChoice == other.chooseOneChoice;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("Play card ");
+        result.append(cardIndex);
+        if (minionLocation >= 0) {
+            result.append(" to ");
+            result.append(minionLocation);
+        }
+        if (chooseOneChoice != null) {
+            result.append(" choosing ");
+            result.append(chooseOneChoice.getDisplayName());
+        }
+        if (target != null) {
+            result.append(" on ");
+            result.append(target);
+        }
+        return result.toString();
+    }
+}
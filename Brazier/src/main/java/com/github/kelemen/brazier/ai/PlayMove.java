@@ -0,0 +1,14 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+
+// Moves must not refer to objects of a particular world, so that moves found
+// in copies of the same world can be compared with equals.
+public interface PlayMove {
+    public UndoAction play(WorldPlayAgent playAgent);
+
+    public default boolean isEndTurn() {
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.jtrim.utils.ExceptionHelper;
+
+// What a player knows about the hidden cards beyond what is public anyway
+// (board, graveyard, played cards). This object is not thread-safe, it is
+// expected to be updated by the game loop and read only when observing
+// an InformationSet.
+public final class PlayerKnowledge {
+    private final PlayerId observerId;
+    private final Set<Card> revealedCards;
+    private List<CardDescr> opponentDeckList;
+
+    public PlayerKnowledge(PlayerId observerId) {
+        ExceptionHelper.checkNotNullArgument(observerId, "observerId");
+
+        this.observerId = observerId;
+        this.revealedCards = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.opponentDeckList = null;
+    }
+
+    public PlayerId getObserverId() {
+        return observerId;
+    }
+
+    // The cards the opponent started the game with (or a guess of them).
+    // If not set, any collectible card might be in the hidden zones of the
+    // opponent.
+    public void setOpponentDeckList(Collection<? extends CardDescr> deckList) {
+        ExceptionHelper.checkNotNullElements(deckList, "deckList");
+        this.opponentDeckList = Collections.unmodifiableList(new ArrayList<>(deckList));
+    }
+
+    public List<CardDescr> tryGetOpponentDeckList() {
+        return opponentDeckList;
+    }
+
+    // Marks a card in a hand or a deck as known by the observer. For example,
+    // when the card was drawn by an effect revealing it.
+    public void revealCard(Card card) {
+        ExceptionHelper.checkNotNullArgument(card, "card");
+        revealedCards.add(card);
+    }
+
+    public void forgetCard(Card card) {
+        revealedCards.remove(card);
+    }
+
+    public boolean isRevealed(Card card) {
+        return revealedCards.contains(card);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.World;
+import java.util.List;
+import java.util.Random;
+
+public final class RolloutPolicies {
+    public static final RolloutPolicy UNIFORM_RANDOM = (World world, List<PlayMove> moves, Random random) -> {
+        return moves.get(random.nextInt(moves.size()));
+    };
+
+    // Ends the turn with the given probability if there are other moves, so
+    // that the random playouts do not end their turns too early.
+    public static RolloutPolicy preferActions(double endTurnProbability) {
+        if (!(endTurnProbability >= 0.0 && endTurnProbability <= 1.0)) {
+            throw new IllegalArgumentException("endTurnProbability must be within [0, 1]: " + endTurnProbability);
+        }
+
+        return (World world, List<PlayMove> moves, Random random) -> {
+            int moveCount = moves.size();
+            if (moveCount == 1 || random.nextDouble() < endTurnProbability) {
+                for (PlayMove move: moves) {
+                    if (move.isEndTurn()) {
+                        return move;
+                    }
+                }
+            }
+
+            int endTurnIndex = -1;
+            for (int i = 0; i < moveCount; i++) {
+                if (moves.get(i).isEndTurn()) {
+                    endTurnIndex = i;
+                    break;
+                }
+            }
+
+            if (endTurnIndex < 0) {
+                return moves.get(random.nextInt(moveCount));
+            }
+
+            int index = random.nextInt(moveCount - 1);
+            return moves.get(index >= endTurnIndex ? index + 1 : index);
+        };
+    }
+
+    private RolloutPolicies() {
+        throw new AssertionError();
+    }
+}
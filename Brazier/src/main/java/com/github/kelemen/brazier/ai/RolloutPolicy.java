@@ -0,0 +1,11 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.World;
+import java.util.List;
+import java.util.Random;
+
+public interface RolloutPolicy {
+    // The moves are never empty and the random number generator must be used
+    // for random decisions because it is not shared with other threads.
+    public PlayMove selectMove(World world, List<PlayMove> moves, Random random);
+}
@@ -0,0 +1,10 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+
+public interface StateEvaluator {
+    // Returns the estimated probability (between 0 and 1) that the given
+    // player wins the game. This is only called for unfinished games.
+    public double evaluate(World world, PlayerId playerId);
+}
@@ -0,0 +1,30 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Hero;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.minions.Minion;
+
+public final class StateEvaluators {
+    public static final StateEvaluator BOARD_AND_HEALTH = (World world, PlayerId playerId) -> {
+        Player player = world.getPlayer(playerId);
+        double ownScore = getScore(player);
+        double opponentScore = getScore(player.getOpponent());
+        return 0.5 + 0.5 * (ownScore - opponentScore) / (ownScore + opponentScore + 1.0);
+    };
+
+    private static double getScore(Player player) {
+        Hero hero = player.getHero();
+        double result = hero.getCurrentHp() + hero.getCurrentArmor();
+        for (Minion minion: player.getBoard().getAliveMinions()) {
+            result += minion.getAttackTool().getAttack() + minion.getBody().getCurrentHp();
+        }
+        result += player.getHand().getCardCount();
+        return result;
+    }
+
+    private StateEvaluators() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,326 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Hero;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoBuilder;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.events.SimpleEventType;
+import com.github.kelemen.brazier.events.WorldEvents;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.minions.MinionDescr;
+import com.github.kelemen.brazier.weapons.Weapon;
+import com.github.kelemen.brazier.weapons.WeaponDescr;
+import java.util.ArrayList;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+// Recognizes moves within a turn which commute (e.g., two minions attacking
+// different targets), so that searches only need to consider one order of
+// them. A sequence of moves is canonical if no two consecutive moves commute
+// while being in decreasing order. Every sequence can be reordered into a
+// canonical one leading to the same state, so a search may skip moves which
+// would make the sequence non-canonical.
+//
+// Only attacks and playing minions without any effect are analyzed; every
+// other move (spells, hero powers, ending the turn) and every move while
+// there are listeners which might be triggered, auras or secrets in the world
+// is considered to affect everything. The order of minions in the graveyard
+// is not considered to be part of the state.
+public final class TurnPlanner {
+    // Considers two minions played to the right end of the board commuting,
+    // though they will be placed in a different order.
+    public static final TurnPlanner DEFAULT = new TurnPlanner(true, true);
+    public static final TurnPlanner KEEP_MINION_ORDER = new TurnPlanner(true, false);
+    // Never considers moves commuting.
+    public static final TurnPlanner NONE = new TurnPlanner(false, false);
+
+    private static final SimpleEventType[] ATTACK_EVENTS = {
+        SimpleEventType.ATTACK_INITIATED,
+        SimpleEventType.PREPARE_DAMAGE,
+        SimpleEventType.HERO_DAMAGED,
+        SimpleEventType.MINION_DAMAGED,
+        SimpleEventType.MINION_KILLED,
+        SimpleEventType.WEAPON_DESTROYED,
+        SimpleEventType.ARMOR_GAINED,
+        SimpleEventType.SECRET_REVEALED,
+    };
+
+    private static final SimpleEventType[] PLAY_CARD_EVENTS = {
+        SimpleEventType.START_PLAY_CARD,
+        SimpleEventType.DONE_PLAY_CARD,
+    };
+
+    private final boolean enabled;
+    private final boolean ignoreMinionOrder;
+
+    private TurnPlanner(boolean enabled, boolean ignoreMinionOrder) {
+        this.enabled = enabled;
+        this.ignoreMinionOrder = ignoreMinionOrder;
+    }
+
+    // Must be called before the move is executed.
+    public PlannedMove plan(World world, PlayMove move) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(move, "move");
+
+        if (!enabled || !isQuiet(world)) {
+            return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+        }
+
+        if (move instanceof AttackMove) {
+            return planAttack(world, (AttackMove)move);
+        }
+        if (move instanceof PlayCardMove) {
+            return planCardPlay(world, (PlayCardMove)move);
+        }
+        return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+    }
+
+    // Returns true if executing next right after previous makes the sequence
+    // non-canonical.
+    public boolean isRedundant(PlannedMove previous, PlannedMove next) {
+        ExceptionHelper.checkNotNullArgument(previous, "previous");
+        ExceptionHelper.checkNotNullArgument(next, "next");
+
+        return next.compareOrder(previous) < 0
+                && previous.getFootprint().commutesWith(next.getFootprint());
+    }
+
+    // Removes the moves which are redundant after the previous move. The
+    // previous move might be null at the start of the search.
+    public List<PlayMove> filterMoves(World world, List<PlayMove> moves, PlannedMove previous) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullElements(moves, "moves");
+
+        if (previous == null || previous.getFootprint().isGlobal()) {
+            return moves;
+        }
+
+        List<PlayMove> result = new ArrayList<>(moves.size());
+        for (PlayMove move: moves) {
+            if (!isRedundant(previous, plan(world, move))) {
+                result.add(move);
+            }
+        }
+        return result;
+    }
+
+    // Executes the moves to check them, then restores the world.
+    public boolean isCanonical(World world, List<? extends PlayMove> moves) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullElements(moves, "moves");
+
+        WorldPlayAgent playAgent = new WorldPlayAgent(world, world.getCurrentPlayer().getPlayerId());
+        UndoBuilder undos = new UndoBuilder(moves.size());
+        try {
+            PlannedMove previous = null;
+            for (PlayMove move: moves) {
+                PlannedMove current = plan(world, move);
+                if (previous != null && isRedundant(previous, current)) {
+                    return false;
+                }
+                undos.addUndo(move.play(playAgent));
+                previous = current;
+            }
+            return true;
+        } finally {
+            undos.undo();
+        }
+    }
+
+    static boolean isQuiet(World world) {
+        if (world.hasActiveAuras()) {
+            return false;
+        }
+        if (world.getPlayer1().getSecrets().hasSecret() || world.getPlayer2().getSecrets().hasSecret()) {
+            return false;
+        }
+
+        WorldEvents events = world.getEvents();
+        for (SimpleEventType eventType: ATTACK_EVENTS) {
+            if (events.hasListeners(eventType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private PlannedMove planAttack(World world, AttackMove move) {
+        Object attacker = move.getAttacker().tryFind(world);
+        Object defender = move.getDefender().tryFind(world);
+        if (attacker == null || defender == null) {
+            return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+        }
+
+        Player player = world.getCurrentPlayer();
+        Player opponent = player.getOpponent();
+
+        MoveFootprint.Builder footprint = new MoveFootprint.Builder();
+        footprint.addWrite(attacker);
+        footprint.addRead(new SideResource(opponent, SideResource.TAUNT));
+
+        long attackerOrder;
+        if (attacker instanceof Minion) {
+            Minion minion = (Minion)attacker;
+            if (!isSimpleMinion(minion)) {
+                return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+            }
+            // If the attacker dies, there will be room for another minion.
+            if (player.getBoard().isFull()) {
+                footprint.addWrite(new SideResource(player, SideResource.BOARD));
+            }
+            attackerOrder = minion.getBirthDate();
+        }
+        else {
+            Weapon weapon = player.tryGetWeapon();
+            if (weapon != null) {
+                if (!isSimpleWeapon(weapon)) {
+                    return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+                }
+                footprint.addWrite(weapon);
+            }
+            attackerOrder = ((Hero)attacker).getBirthDate();
+        }
+
+        long defenderOrder;
+        if (defender instanceof Minion) {
+            Minion minion = (Minion)defender;
+            if (!isSimpleMinion(minion)) {
+                return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+            }
+
+            // Divine Shield absorbs only the first damage, so the order of the
+            // damage matters.
+            if (minion.getBody().isDivineShield()) {
+                footprint.addWrite(minion);
+            }
+            else {
+                footprint.addDamage(minion);
+            }
+            if (minion.getBody().isTaunt()) {
+                footprint.addWrite(new SideResource(opponent, SideResource.TAUNT));
+            }
+            defenderOrder = minion.getBirthDate();
+        }
+        else {
+            Hero hero = (Hero)defender;
+            if (hero.getAttackTool().canRetaliateWith()) {
+                footprint.addWrite(hero);
+            }
+            else {
+                footprint.addDamage(hero);
+            }
+            defenderOrder = hero.getBirthDate();
+        }
+
+        return new PlannedMove(move, footprint.create(), attackerOrder, defenderOrder);
+    }
+
+    private PlannedMove planCardPlay(World world, PlayCardMove move) {
+        if (move.getTarget() != null || move.getChooseOneChoice() != null) {
+            return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+        }
+
+        WorldEvents events = world.getEvents();
+        if (events.hasSummoningListeners()) {
+            return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+        }
+        for (SimpleEventType eventType: PLAY_CARD_EVENTS) {
+            if (events.hasListeners(eventType)) {
+                return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+            }
+        }
+
+        Player player = world.getCurrentPlayer();
+        Card card = player.getHand().getCard(move.getCardIndex());
+        if (!isSimpleMinionCard(card.getCardDescr())) {
+            return new PlannedMove(move, MoveFootprint.GLOBAL, 0, 0);
+        }
+
+        Minion minion = card.getMinion();
+
+        MoveFootprint.Builder footprint = new MoveFootprint.Builder();
+        footprint.addWrite(card);
+        footprint.addWrite(minion);
+
+        SideResource board = new SideResource(player, SideResource.BOARD);
+        boolean rightEnd = move.getMinionLocation() >= player.getBoard().getMinionCount();
+        if (ignoreMinionOrder && rightEnd) {
+            footprint.addRead(board);
+        }
+        else {
+            footprint.addWrite(board);
+        }
+
+        return new PlannedMove(move, footprint.create(), minion.getBirthDate(), 0);
+    }
+
+    static boolean isSimpleMinion(Minion minion) {
+        MinionDescr descr = minion.getBaseDescr();
+        return descr.tryGetAbility() == null
+                && !descr.getEventActionDefs().hasAnyActionDef()
+                && !descr.isAttackLeft()
+                && !descr.isAttackRight()
+                && !minion.getProperties().isDeathRattle();
+    }
+
+    static boolean isSimpleWeapon(Weapon weapon) {
+        WeaponDescr descr = weapon.getBaseDescr();
+        return descr.tryGetAbility() == null
+                && descr.tryGetDeathRattle() == null
+                && !descr.getEventActionDefs().hasAnyActionDef();
+    }
+
+    private static boolean isSimpleMinionCard(CardDescr card) {
+        MinionDescr minion = card.getMinion();
+        if (minion == null) {
+            return false;
+        }
+
+        return card.getOnPlayActions().isEmpty()
+                && card.getChooseOneActions().isEmpty()
+                && card.getManaCostAdjusters().isEmpty()
+                && card.tryGetInHandAbility() == null
+                && card.getOverload() == 0
+                && minion.tryGetAbility() == null
+                && minion.tryGetDeathRattle() == null
+                && minion.getBattleCries().isEmpty()
+                && !minion.getEventActionDefs().hasAnyActionDef();
+    }
+
+    private static final class SideResource {
+        public static final int BOARD = 0;
+        public static final int TAUNT = 1;
+
+        private final Player player;
+        private final int kind;
+
+        public SideResource(Player player, int kind) {
+            this.player = player;
+            this.kind = kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(player) + kind;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final SideResource other = (SideResource)obj;
+            return player == other.player && kind == other.kind;
+        }
+
+        @Override
+        public String toString() {
+            return (kind == BOARD ? "Board of " : "Taunts of ") + player.getPlayerId();
+        }
+    }
+}
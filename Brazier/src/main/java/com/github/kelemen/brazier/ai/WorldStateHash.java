@@ -0,0 +1,137 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Hero;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.Secret;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.events.SimpleEventType;
+import com.github.kelemen.brazier.events.WorldEvents;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.minions.MinionBody;
+import com.github.kelemen.brazier.minions.MinionProperties;
+import com.github.kelemen.brazier.weapons.Weapon;
+import java.util.List;
+
+// Hashes the parts of the state relevant for the outcome of a game (including
+// what the current player can still do in this turn): it ignores the identity
+// of objects and birth dates, so two states reached through different random
+// rolls or move orders hash the same if they look the same.
+//
+// Abilities, death rattles, auras and event listeners are only counted, so two
+// states only differing in which (but not how many) of these were granted
+// (e.g., by different buffs) hash the same. The contents of the decks and the
+// graveyards are not hashed either, only the number of cards in the decks.
+public final class WorldStateHash {
+    private static final long PRIME = 0x100000001B3L;
+
+    private long hash;
+
+    private WorldStateHash() {
+        this.hash = 0xCBF29CE484222325L;
+    }
+
+    public static long hash(World world) {
+        WorldStateHash result = new WorldStateHash();
+        result.add(world.isGameOver());
+        result.add(world.getCurrentPlayer() == world.getPlayer1());
+        result.add(world.getPlayer1());
+        result.add(world.getPlayer2());
+        result.add(world.getActiveAuraCount());
+        result.add(world.getEvents());
+        return result.hash;
+    }
+
+    // Minions with the same hash are interchangeable, except for their
+    // position on the board.
+    public static long hashMinion(Minion minion) {
+        WorldStateHash result = new WorldStateHash();
+        result.add(minion);
+        return result.hash;
+    }
+
+    private void add(long value) {
+        hash = (hash ^ value) * PRIME;
+    }
+
+    private void add(boolean value) {
+        add(value ? 1 : 0);
+    }
+
+    private void add(String value) {
+        add(value.hashCode());
+    }
+
+    private void add(WorldEvents events) {
+        for (SimpleEventType eventType: SimpleEventType.values()) {
+            add(events.getListenerCount(eventType));
+        }
+        add(events.getSummoningListenerCount());
+    }
+
+    private void add(Player player) {
+        Hero hero = player.getHero();
+        add(hero.getCurrentHp());
+        add(hero.getMaxHp());
+        add(hero.getCurrentArmor());
+        add(hero.getAttackTool().getAttack());
+        add(hero.getAttackTool().canAttackWith());
+        add(hero.getAttackTool().isFrozen());
+        add(hero.getHeroPower().isPlayable(player));
+
+        Weapon weapon = player.tryGetWeapon();
+        if (weapon != null) {
+            add(weapon.getBaseDescr().getId().getName());
+            add(weapon.getAttack());
+            add(weapon.getCharges());
+        }
+        else {
+            add(-1);
+        }
+
+        add(player.getMana());
+        add(player.getManaResource().getManaCrystals());
+        add(player.getManaResource().getNextTurnOverload());
+        add(player.getCardsPlayedThisTurn());
+        add(player.getMinionsPlayedThisTurn());
+        add(player.getSpellPower().getValue());
+
+        List<Card> handCards = player.getHand().getCards();
+        add(handCards.size());
+        for (Card card: handCards) {
+            add(card.getCardDescr().getId().getName());
+            add(card.getActiveManaCost());
+        }
+
+        add(player.getBoard().getDeck().getNumberOfCards());
+
+        List<Minion> minions = player.getBoard().getAllMinions();
+        add(minions.size());
+        for (Minion minion: minions) {
+            add(minion);
+        }
+
+        List<Secret> secrets = player.getSecrets().getSecrets();
+        add(secrets.size());
+        for (Secret secret: secrets) {
+            add(secret.getBaseCard().getId().getName());
+        }
+    }
+
+    private void add(Minion minion) {
+        MinionProperties properties = minion.getProperties();
+        MinionBody body = minion.getBody();
+        add(minion.getBaseDescr().getId().getName());
+        add(minion.getAttackTool().getAttack());
+        add(minion.getAttackTool().canAttackWith());
+        add(body.getCurrentHp());
+        add(body.getMaxHp());
+        add(body.isDivineShield());
+        add(body.isTaunt());
+        add(body.isStealth());
+        add(properties.isFrozen());
+        add(properties.isSilenced());
+        add(properties.getAbilityCount());
+        add(properties.getDeathRattleCount());
+    }
+}
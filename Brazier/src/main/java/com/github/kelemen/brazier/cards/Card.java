@@ -20,9 +20,21 @@ import org.jtrim.utils.ExceptionHelper;
 public final class Card implements PlayerProperty, LabeledEntity, CardRef, DamageSource {
     private final Player owner;
     private final CardDescr cardDescr;
-    private final Minion minion;
+
+    // The minion of the card is only created when it is first needed because
+    // creating a minion is relatively expensive and most cards never need it.
+    // Like the rest of the world, cards are only accessed from the thread
+    // owning the world, so no synchronization is needed.
+    private final long minionBirthDate;
+    private Minion minion;
 
     private final AuraAwareIntProperty manaCost;
+    // Only used for cards without mana cost adjusters: Adjusters depend on the
+    // state of the world but every other buff of the mana cost (decreaseManaCost
+    // and the auras of CardAuras) only depends on the previous value. Auras
+    // affecting the card add or remove their buffs when they are updated,
+    // which changes the version of the mana cost.
+    private CachedManaCost cachedManaCost;
 
     public Card(Player owner, CardDescr cardDescr) {
         ExceptionHelper.checkNotNullArgument(cardDescr, "cardDescr");
@@ -30,24 +42,38 @@ public final class Card implements PlayerProperty, LabeledEntity, CardRef, Damag
         this.owner = owner;
         this.cardDescr = cardDescr;
         this.manaCost = new AuraAwareIntProperty(cardDescr.getManaCost());
-        this.manaCost.addRemovableBuff(this::adjustManaCost);
+        if (!cardDescr.getManaCostAdjusters().isEmpty()) {
+            this.manaCost.addRemovableBuff(this::adjustManaCost);
+        }
+        this.cachedManaCost = null;
 
         MinionDescr minionDescr = cardDescr.getMinion();
-        this.minion = minionDescr != null ? new Minion(owner, cardDescr.getMinion()) : null;
+        if (minionDescr != null) {
+            ExceptionHelper.checkNotNullArgument(owner, "owner");
+            this.minionBirthDate = owner.getWorld().getCurrentTime();
+        }
+        else {
+            this.minionBirthDate = 0;
+        }
+        this.minion = null;
     }
 
     private int adjustManaCost(int baseCost) {
         List<ManaCostAdjuster> costAdjusters = cardDescr.getManaCostAdjusters();
         int result = baseCost;
-        if (!costAdjusters.isEmpty()) {
-            for (ManaCostAdjuster adjuster: costAdjusters) {
-                result = adjuster.adjustCost(this, result);
-            }
+        for (ManaCostAdjuster adjuster: costAdjusters) {
+            result = adjuster.adjustCost(this, result);
         }
         return result;
     }
 
     public Minion getMinion() {
+        if (minion == null) {
+            MinionDescr minionDescr = cardDescr.getMinion();
+            if (minionDescr != null) {
+                minion = new Minion(owner, minionDescr, minionBirthDate);
+            }
+        }
         return minion;
     }
 
@@ -68,8 +94,8 @@ public final class Card implements PlayerProperty, LabeledEntity, CardRef, Damag
 
     @Override
     public UndoableResult<Damage> createDamage(int damage) {
-        if (minion != null) {
-            return minion.createDamage(damage);
+        if (isMinionCard()) {
+            return getMinion().createDamage(damage);
         }
 
         if (cardDescr.getCardType() == CardType.SPELL) {
@@ -93,6 +119,18 @@ public final class Card implements PlayerProperty, LabeledEntity, CardRef, Damag
     }
 
     public int getActiveManaCost() {
+        if (!cardDescr.getManaCostAdjusters().isEmpty()) {
+            return computeActiveManaCost();
+        }
+
+        long version = manaCost.getVersion();
+        if (cachedManaCost == null || cachedManaCost.version != version) {
+            cachedManaCost = new CachedManaCost(version, computeActiveManaCost());
+        }
+        return cachedManaCost.manaCost;
+    }
+
+    private int computeActiveManaCost() {
         return Math.max(0, manaCost.getValue());
     }
 
@@ -104,4 +142,14 @@ public final class Card implements PlayerProperty, LabeledEntity, CardRef, Damag
     public String toString() {
         return cardDescr.toString();
     }
+
+    private static final class CachedManaCost {
+        private final long version;
+        private final int manaCost;
+
+        public CachedManaCost(long version, int manaCost) {
+            this.version = version;
+            this.manaCost = manaCost;
+        }
+    }
 }
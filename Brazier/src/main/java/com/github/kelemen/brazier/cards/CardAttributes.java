@@ -0,0 +1,67 @@
+package com.github.kelemen.brazier.cards;
+
+import com.github.kelemen.brazier.EntityIntAttribute;
+import com.github.kelemen.brazier.minions.MinionDescr;
+import com.github.kelemen.brazier.weapons.WeaponDescr;
+
+public final class CardAttributes {
+    public static final EntityIntAttribute<CardDescr> MANA_COST = new EntityIntAttribute<CardDescr>() {
+        @Override
+        public boolean hasValue(CardDescr entity) {
+            return true;
+        }
+
+        @Override
+        public int getValue(CardDescr entity) {
+            return entity.getManaCost();
+        }
+    };
+
+    public static final EntityIntAttribute<CardDescr> ATTACK = new EntityIntAttribute<CardDescr>() {
+        @Override
+        public boolean hasValue(CardDescr entity) {
+            return entity.getMinion() != null || entity.getWeapon() != null;
+        }
+
+        @Override
+        public int getValue(CardDescr entity) {
+            MinionDescr minion = entity.getMinion();
+            if (minion != null) {
+                return minion.getAttack();
+            }
+
+            WeaponDescr weapon = entity.getWeapon();
+            return weapon != null ? weapon.getAttack() : 0;
+        }
+    };
+
+    public static final EntityIntAttribute<CardDescr> HP = new EntityIntAttribute<CardDescr>() {
+        @Override
+        public boolean hasValue(CardDescr entity) {
+            return entity.getMinion() != null;
+        }
+
+        @Override
+        public int getValue(CardDescr entity) {
+            MinionDescr minion = entity.getMinion();
+            return minion != null ? minion.getHp() : 0;
+        }
+    };
+
+    public static final EntityIntAttribute<CardDescr> DURABILITY = new EntityIntAttribute<CardDescr>() {
+        @Override
+        public boolean hasValue(CardDescr entity) {
+            return entity.getWeapon() != null;
+        }
+
+        @Override
+        public int getValue(CardDescr entity) {
+            WeaponDescr weapon = entity.getWeapon();
+            return weapon != null ? weapon.getCharges() : 0;
+        }
+    };
+
+    private CardAttributes() {
+        throw new AssertionError();
+    }
+}
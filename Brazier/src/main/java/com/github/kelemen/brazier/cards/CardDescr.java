@@ -5,6 +5,8 @@ import com.github.kelemen.brazier.Keyword;
 import com.github.kelemen.brazier.Keywords;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.abilities.ActivatableAbility;
+import com.github.kelemen.brazier.abilities.EffectAnalyzer;
+import com.github.kelemen.brazier.abilities.EffectClass;
 import com.github.kelemen.brazier.actions.ManaCostAdjuster;
 import com.github.kelemen.brazier.actions.PlayActionDef;
 import com.github.kelemen.brazier.actions.TargetNeed;
@@ -172,6 +174,8 @@ public final class CardDescr implements HearthStoneEntity {
 
     private final AtomicReference<List<CardDescr>> chooseOneActions;
 
+    private final EffectClass effectClass;
+
     private CardDescr(Builder builder) {
         this.manaCost = builder.manaCost;
         this.overload = builder.overload;
@@ -197,6 +201,8 @@ public final class CardDescr implements HearthStoneEntity {
         if (this.cardType != CardType.MINION && this.minion != null) {
             throw new IllegalStateException("May not have a minion when the card tpye is not MINION.");
         }
+
+        this.effectClass = EffectAnalyzer.classifyCard(this);
     }
 
     private <T> Set<T> readOnlyCopySet(Collection<? extends T> src) {
@@ -276,6 +282,14 @@ public final class CardDescr implements HearthStoneEntity {
         return onPlayActions;
     }
 
+    public EffectClass getEffectClass() {
+        return effectClass;
+    }
+
+    public boolean hasChooseOneActions() {
+        return !chooseOneActionsRef.isEmpty();
+    }
+
     public List<CardDescr> getChooseOneActions() {
         List<CardDescr> result = chooseOneActions.get();
         if (result == null) {
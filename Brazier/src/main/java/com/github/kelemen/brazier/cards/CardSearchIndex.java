@@ -0,0 +1,257 @@
+package com.github.kelemen.brazier.cards;
+
+import com.github.kelemen.brazier.HearthStoneEntityDatabase;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.Keywords;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class CardSearchIndex {
+    private static final int FIELD_DESCRIPTION = 1;
+    private static final int FIELD_KEYWORD = 2;
+    private static final int FIELD_NAME = 4;
+
+    private final CardDescr[] cards;
+    private final BitSet collectibleCards;
+    private final List<CardDescr> allCards;
+    private final List<CardDescr> allCollectibleCards;
+
+    // The terms are sorted, so the terms starting with the same prefix are
+    // next to each other. The postings of a term contain the indexes of the
+    // cards in increasing order with the fields containing the term.
+    private final String[] terms;
+    private final int[][] postingCards;
+    private final byte[][] postingFields;
+
+    public CardSearchIndex(HearthStoneEntityDatabase<CardDescr> cardDb) {
+        ExceptionHelper.checkNotNullArgument(cardDb, "cardDb");
+
+        List<CardDescr> cardList = cardDb.getAll();
+        this.cards = cardList.toArray(new CardDescr[cardList.size()]);
+        this.collectibleCards = new BitSet(cards.length);
+
+        Map<String, PostingBuilder> postings = new TreeMap<>();
+        for (int cardIndex = 0; cardIndex < cards.length; cardIndex++) {
+            CardDescr card = cards[cardIndex];
+            if (card.getKeywords().contains(Keywords.COLLECTIBLE)) {
+                collectibleCards.set(cardIndex);
+            }
+
+            int currentCardIndex = cardIndex;
+            toWords(card.getDescription(), (term) -> {
+                getPostingBuilder(postings, term).add(currentCardIndex, FIELD_DESCRIPTION);
+            });
+            toWords(card.getDisplayName(), (term) -> {
+                getPostingBuilder(postings, term).add(currentCardIndex, FIELD_NAME);
+            });
+            for (Keyword keyword: card.getKeywords()) {
+                getPostingBuilder(postings, keyword.getName().toLowerCase(Locale.ROOT))
+                        .add(currentCardIndex, FIELD_KEYWORD);
+            }
+        }
+
+        this.terms = new String[postings.size()];
+        this.postingCards = new int[terms.length][];
+        this.postingFields = new byte[terms.length][];
+
+        int termIndex = 0;
+        for (Map.Entry<String, PostingBuilder> entry: postings.entrySet()) {
+            PostingBuilder posting = entry.getValue();
+            terms[termIndex] = entry.getKey();
+            postingCards[termIndex] = Arrays.copyOf(posting.cardIndexes, posting.count);
+            postingFields[termIndex] = Arrays.copyOf(posting.fields, posting.count);
+            termIndex++;
+        }
+
+        this.allCards = Collections.unmodifiableList(Arrays.asList(cards.clone()));
+        this.allCollectibleCards = Collections.unmodifiableList(filterCards(collectibleCards));
+    }
+
+    private static PostingBuilder getPostingBuilder(Map<String, PostingBuilder> postings, String term) {
+        PostingBuilder result = postings.get(term);
+        if (result == null) {
+            result = new PostingBuilder();
+            postings.put(term, result);
+        }
+        return result;
+    }
+
+    private static boolean isWordChar(char ch) {
+        return ch == '-' || Character.isDigit(ch) || Character.isLetter(ch);
+    }
+
+    public static void toWords(String str, Consumer<? super String> wordConsumer) {
+        ExceptionHelper.checkNotNullArgument(str, "str");
+        ExceptionHelper.checkNotNullArgument(wordConsumer, "wordConsumer");
+
+        StringBuilder currentWord = new StringBuilder();
+        for (int i = 0; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            if (isWordChar(ch)) {
+                currentWord.append(ch);
+            }
+            else {
+                if (currentWord.length() > 0) {
+                    wordConsumer.accept(currentWord.toString().toLowerCase(Locale.ROOT));
+                    currentWord.setLength(0);
+                }
+            }
+        }
+
+        if (currentWord.length() > 0) {
+            wordConsumer.accept(currentWord.toString().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private List<CardDescr> filterCards(BitSet cardIndexes) {
+        List<CardDescr> result = new ArrayList<>(cardIndexes.cardinality());
+        for (int i = cardIndexes.nextSetBit(0); i >= 0; i = cardIndexes.nextSetBit(i + 1)) {
+            result.add(cards[i]);
+        }
+        return result;
+    }
+
+    private int findFirstTerm(String prefix) {
+        int index = Arrays.binarySearch(terms, prefix);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    private static int getFieldScore(int fields, boolean exactMatch) {
+        int score;
+        if ((fields & FIELD_NAME) != 0) {
+            score = 4;
+        }
+        else if ((fields & FIELD_KEYWORD) != 0) {
+            score = 2;
+        }
+        else {
+            score = 1;
+        }
+        return exactMatch ? 2 * score : score;
+    }
+
+    // Sets the cards having a word starting with the given prefix and updates
+    // the best score of the matching cards for this prefix.
+    private void findPrefix(String prefix, BitSet matches, int[] bestScores) {
+        for (int termIndex = findFirstTerm(prefix); termIndex < terms.length; termIndex++) {
+            String term = terms[termIndex];
+            if (!term.startsWith(prefix)) {
+                break;
+            }
+
+            boolean exactMatch = term.length() == prefix.length();
+            int[] termCards = postingCards[termIndex];
+            byte[] termFields = postingFields[termIndex];
+            for (int i = 0; i < termCards.length; i++) {
+                int cardIndex = termCards[i];
+                int score = getFieldScore(termFields[i], exactMatch);
+                matches.set(cardIndex);
+                if (bestScores[cardIndex] < score) {
+                    bestScores[cardIndex] = score;
+                }
+            }
+        }
+    }
+
+    public List<CardDescr> getAllCards(boolean collectibleOnly) {
+        return collectibleOnly ? allCollectibleCards : allCards;
+    }
+
+    // Returns the cards having a word (in their name, description or keywords)
+    // starting with each word of the pattern. The better matching cards are
+    // returned first, otherwise the cards are in the order of the database.
+    public List<CardDescr> find(String pattern, boolean collectibleOnly) {
+        ExceptionHelper.checkNotNullArgument(pattern, "pattern");
+
+        Set<String> patternWords = new LinkedHashSet<>();
+        toWords(pattern, patternWords::add);
+        if (patternWords.isEmpty()) {
+            return getAllCards(collectibleOnly);
+        }
+
+        BitSet candidates = null;
+        int[] totalScores = new int[cards.length];
+        int[] bestScores = new int[cards.length];
+        BitSet wordMatches = new BitSet(cards.length);
+
+        for (String patternWord: patternWords) {
+            wordMatches.clear();
+            findPrefix(patternWord, wordMatches, bestScores);
+
+            if (candidates == null) {
+                candidates = (BitSet)wordMatches.clone();
+                if (collectibleOnly) {
+                    candidates.and(collectibleCards);
+                }
+            }
+            else {
+                candidates.and(wordMatches);
+            }
+
+            for (int i = wordMatches.nextSetBit(0); i >= 0; i = wordMatches.nextSetBit(i + 1)) {
+                totalScores[i] += bestScores[i];
+                bestScores[i] = 0;
+            }
+
+            if (candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        return rankCards(candidates, totalScores);
+    }
+
+    private List<CardDescr> rankCards(BitSet cardIndexes, int[] scores) {
+        int count = cardIndexes.cardinality();
+
+        // The score is in the upper bits and the card index in the lower bits,
+        // so sorting in ascending order puts the best cards first and keeps
+        // the database order between cards with the same score.
+        long[] rankKeys = new long[count];
+        int keyIndex = 0;
+        for (int i = cardIndexes.nextSetBit(0); i >= 0; i = cardIndexes.nextSetBit(i + 1)) {
+            rankKeys[keyIndex] = ((long)-scores[i] << 32) | i;
+            keyIndex++;
+        }
+        Arrays.sort(rankKeys);
+
+        List<CardDescr> result = new ArrayList<>(count);
+        for (long rankKey: rankKeys) {
+            result.add(cards[(int)rankKey]);
+        }
+        return result;
+    }
+
+    private static final class PostingBuilder {
+        private int[] cardIndexes = new int[4];
+        private byte[] fields = new byte[4];
+        private int count = 0;
+
+        public void add(int cardIndex, int field) {
+            // Cards are added in increasing index order, so duplicates can only
+            // be the last element.
+            if (count > 0 && cardIndexes[count - 1] == cardIndex) {
+                fields[count - 1] |= field;
+                return;
+            }
+
+            if (count >= cardIndexes.length) {
+                cardIndexes = Arrays.copyOf(cardIndexes, 2 * count);
+                fields = Arrays.copyOf(fields, 2 * count);
+            }
+            cardIndexes[count] = cardIndex;
+            fields[count] = (byte)field;
+            count++;
+        }
+    }
+}
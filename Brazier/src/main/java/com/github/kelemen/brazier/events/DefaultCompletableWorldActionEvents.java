@@ -24,6 +24,14 @@ implements
         this.listeners = new RefLinkedList<>();
     }
 
+    public boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    public int size() {
+        return listeners.size();
+    }
+
     private static <T> int getPriority(RefList.ElementRef<ListenerWrapper<? super T>> ref) {
         return ref.getElement().priority;
     }
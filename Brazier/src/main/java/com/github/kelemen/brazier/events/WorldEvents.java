@@ -18,6 +18,8 @@ public final class WorldEvents {
     private final World world;
 
     private final Map<SimpleEventType, WorldActionEvents<?>> simpleListeners;
+    private final Map<SimpleEventType, WorldActionList<?>> simpleListenerLists;
+    private final DefaultCompletableWorldActionEvents<Minion> summoningListenerList;
     private final CompletableWorldActionEvents<Minion> summoningListeners;
 
     private final AtomicReference<WorldActionList<Void>> pauseCollectorRef;
@@ -34,7 +36,9 @@ public final class WorldEvents {
         this.pauseCollectorRef = new AtomicReference<>(null);
 
         this.simpleListeners = new EnumMap<>(SimpleEventType.class);
-        this.summoningListeners = createCompletableWorldActionEvents();
+        this.simpleListenerLists = new EnumMap<>(SimpleEventType.class);
+        this.summoningListenerList = new DefaultCompletableWorldActionEvents<>(world);
+        this.summoningListeners = createCompletableWorldActionEvents(summoningListenerList);
 
         this.startSummoningListeners = (int priority, Predicate<? super Minion> condition, WorldObjectAction<? super Minion> action) -> {
             return summoningListeners.addListener(priority, (World eventWorld, Minion minion) -> {
@@ -78,6 +82,28 @@ public final class WorldEvents {
         return result;
     }
 
+    public boolean hasListeners(SimpleEventType eventType) {
+        ExceptionHelper.checkNotNullArgument(eventType, "eventType");
+
+        WorldActionList<?> actionList = simpleListenerLists.get(eventType);
+        return actionList != null && !actionList.isEmpty();
+    }
+
+    public boolean hasSummoningListeners() {
+        return !summoningListenerList.isEmpty();
+    }
+
+    public int getListenerCount(SimpleEventType eventType) {
+        ExceptionHelper.checkNotNullArgument(eventType, "eventType");
+
+        WorldActionList<?> actionList = simpleListenerLists.get(eventType);
+        return actionList != null ? actionList.size() : 0;
+    }
+
+    public int getSummoningListenerCount() {
+        return summoningListenerList.size();
+    }
+
     public <T> UndoAction triggerEventNow(SimpleEventType eventType, T arg) {
         return triggerEvent(eventType, arg, false);
     }
@@ -165,6 +191,7 @@ public final class WorldEvents {
     private <T> WorldActionEvents<T> createEventContainer(SimpleEventType eventType) {
         boolean greedyEvent = eventType.isGreedyEvent();
         WorldActionList<T> actionList = new WorldActionList<>();
+        simpleListenerLists.put(eventType, actionList);
 
         return new WorldActionEvents<T>() {
             @Override
@@ -190,9 +217,8 @@ public final class WorldEvents {
         };
     }
 
-    private <T> CompletableWorldActionEvents<T> createCompletableWorldActionEvents() {
-        CompletableWorldActionEvents<T> wrapped = new DefaultCompletableWorldActionEvents<>(world);
-
+    private <T> CompletableWorldActionEvents<T> createCompletableWorldActionEvents(
+            CompletableWorldActionEvents<T> wrapped) {
         return new CompletableWorldActionEvents<T>() {
             @Override
             public UndoableUnregisterRef addListener(int priority, CompletableWorldObjectAction<? super T> listener) {
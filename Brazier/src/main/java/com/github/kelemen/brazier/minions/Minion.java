@@ -39,6 +39,10 @@ public final class Minion implements TargetableCharacter, DestroyableEntity, Sil
     private final AtomicBoolean destroyed;
 
     public Minion(Player owner, MinionDescr baseDescr) {
+        this(owner, baseDescr, owner.getWorld().getCurrentTime());
+    }
+
+    public Minion(Player owner, MinionDescr baseDescr, long birthDate) {
         ExceptionHelper.checkNotNullArgument(owner, "owner");
         ExceptionHelper.checkNotNullArgument(baseDescr, "baseDescr");
 
@@ -46,7 +50,7 @@ public final class Minion implements TargetableCharacter, DestroyableEntity, Sil
         this.minionId = new TargetId();
         this.properties = new MinionProperties(this, baseDescr);
         this.locationRef = null;
-        this.birthDate = owner.getWorld().getCurrentTime();
+        this.birthDate = birthDate;
         this.destroyed = new AtomicBoolean(false);
         this.scheduledToDestroy = new AtomicBoolean(false);
     }
@@ -66,6 +70,9 @@ public final class Minion implements TargetableCharacter, DestroyableEntity, Sil
 
     @Override
     public Card getCard() {
+        // A new card is returned every time because callers may put the card
+        // into a hand or a deck, and the same card must not appear twice.
+        // This is cheap because the minion of the card is created lazily.
         return new Card(owner, getBaseDescr().getBaseCard());
     }
 
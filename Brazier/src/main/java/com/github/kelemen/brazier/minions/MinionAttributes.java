@@ -0,0 +1,28 @@
+package com.github.kelemen.brazier.minions;
+
+import com.github.kelemen.brazier.EntityIntAttribute;
+import java.util.function.ToIntFunction;
+
+public final class MinionAttributes {
+    public static final EntityIntAttribute<MinionDescr> MANA_COST = attribute((minion) -> minion.getBaseCard().getManaCost());
+    public static final EntityIntAttribute<MinionDescr> ATTACK = attribute(MinionDescr::getAttack);
+    public static final EntityIntAttribute<MinionDescr> HP = attribute(MinionDescr::getHp);
+
+    private static EntityIntAttribute<MinionDescr> attribute(ToIntFunction<? super MinionDescr> valueGetter) {
+        return new EntityIntAttribute<MinionDescr>() {
+            @Override
+            public boolean hasValue(MinionDescr entity) {
+                return true;
+            }
+
+            @Override
+            public int getValue(MinionDescr entity) {
+                return valueGetter.applyAsInt(entity);
+            }
+        };
+    }
+
+    private MinionAttributes() {
+        throw new AssertionError();
+    }
+}
@@ -5,6 +5,8 @@ import com.github.kelemen.brazier.Keyword;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.World;
 import com.github.kelemen.brazier.abilities.ActivatableAbility;
+import com.github.kelemen.brazier.abilities.EffectAnalyzer;
+import com.github.kelemen.brazier.abilities.EffectClass;
 import com.github.kelemen.brazier.abilities.LivingEntitiesAbilities;
 import com.github.kelemen.brazier.abilities.OwnedIntPropertyBuff;
 import com.github.kelemen.brazier.actions.PlayActionDef;
@@ -157,6 +159,7 @@ public final class MinionDescr implements HearthStoneEntity {
     private final boolean attackLeft;
     private final boolean attackRight;
     private final OwnedIntPropertyBuff<? super Minion> attackFinalizer;
+    private final EffectClass effectClass;
 
     private MinionDescr(Builder builder) {
         this.minionId = builder.minionId;
@@ -177,6 +180,11 @@ public final class MinionDescr implements HearthStoneEntity {
         this.stealth = builder.stealth;
         this.attackLeft = builder.attackLeft;
         this.attackRight = builder.attackRight;
+        this.effectClass = EffectAnalyzer.classifyMinion(this);
+    }
+
+    public EffectClass getEffectClass() {
+        return effectClass;
     }
 
     public ActivatableAbility<? super Minion> tryGetAbility() {
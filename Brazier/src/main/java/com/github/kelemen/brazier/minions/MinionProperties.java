@@ -14,6 +14,7 @@ import com.github.kelemen.brazier.actions.UndoBuilder;
 import com.github.kelemen.brazier.events.WorldEventAction;
 import com.github.kelemen.brazier.weapons.AttackTool;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.jtrim.utils.ExceptionHelper;
 
@@ -21,9 +22,13 @@ public final class MinionProperties implements Silencable {
     private final Minion minion;
     private final MinionAttackTool attackTool;
     private final MinionBody body;
-    private final CharacterAbilities<Minion> abilities;
+    // The abilities and the death rattles are only allocated when needed,
+    // so that minions without abilities (the majority) are cheap to summon
+    // and destroy.
+    private CharacterAbilities<Minion> abilities;
     private List<WorldEventAction<? super Minion, ? super Minion>> deathRattles;
     private boolean activated;
+    private boolean silenced;
 
     public MinionProperties(Minion minion, MinionDescr baseDescr) {
         ExceptionHelper.checkNotNullArgument(minion, "minion");
@@ -32,16 +37,19 @@ public final class MinionProperties implements Silencable {
         this.minion = minion;
         this.attackTool = new MinionAttackTool(baseDescr);
         this.body = new MinionBody(minion, baseDescr);
-        this.abilities = new CharacterAbilities<>(minion);
-        this.deathRattles = new ArrayList<>();
+        this.abilities = baseDescr.getEffectClass().isTriggered()
+                ? new CharacterAbilities<>(minion)
+                : null;
         this.activated = false;
+        this.silenced = false;
 
         WorldEventAction<? super Minion, ? super Minion> baseDeathRattle = baseDescr.tryGetDeathRattle();
-        if (baseDeathRattle != null) {
-            this.deathRattles.add(baseDeathRattle);
-        }
+        this.deathRattles = baseDeathRattle != null
+                ? new ArrayList<>(Collections.singletonList(baseDeathRattle))
+                : Collections.emptyList();
     }
 
+    // The abilities might be null if they are not needed yet.
     private MinionProperties(
             Minion minion,
             MinionProperties baseProperties,
@@ -49,21 +57,30 @@ public final class MinionProperties implements Silencable {
 
         ExceptionHelper.checkNotNullArgument(minion, "minion");
         ExceptionHelper.checkNotNullArgument(baseProperties, "baseProperties");
-        ExceptionHelper.checkNotNullArgument(abilities, "abilities");
 
         this.minion = minion;
         this.attackTool = new MinionAttackTool(baseProperties.attackTool);
         this.body = baseProperties.body.copyFor(minion);
         this.abilities = abilities;
-        this.deathRattles = new ArrayList<>(baseProperties.deathRattles);
+        this.deathRattles = baseProperties.deathRattles.isEmpty()
+                ? Collections.emptyList()
+                : new ArrayList<>(baseProperties.deathRattles);
         this.activated = false;
+        this.silenced = baseProperties.silenced;
     }
 
     public PreparedResult<MinionProperties> copyFor(Minion other) {
-        PreparedResult<CharacterAbilities<Minion>> newAbilities = abilities.copyFor(other);
-        MinionProperties result = new MinionProperties(other, this, newAbilities.getResult());
+        PreparedResult<CharacterAbilities<Minion>> newAbilities = abilities != null
+                ? abilities.copyFor(other)
+                : null;
+        MinionProperties result = new MinionProperties(
+                other,
+                this,
+                newAbilities != null ? newAbilities.getResult() : null);
         return new PreparedResult<>(result, () -> {
-            UndoAction activateUndo = newAbilities.activate();
+            UndoAction activateUndo = newAbilities != null
+                    ? newAbilities.activate()
+                    : UndoAction.DO_NOTHING;
             boolean prevActivated = activated;
             result.activated = true;
             return () -> {
@@ -83,15 +100,20 @@ public final class MinionProperties implements Silencable {
     }
 
     public UndoAction activatePassiveAbilities() {
-        UndoBuilder result = new UndoBuilder();
         if (activated) {
             return UndoAction.DO_NOTHING;
         }
 
         activated = true;
-        result.addUndo(() -> activated = false);
 
         MinionDescr baseStats = body.getBaseStats();
+        if (!baseStats.getEffectClass().isTriggered()) {
+            return () -> activated = false;
+        }
+
+        UndoBuilder result = new UndoBuilder();
+        result.addUndo(() -> activated = false);
+
         result.addUndo(addAndActivateAbility(baseStats.getEventActionDefs()));
 
         ActivatableAbility<? super Minion> ability = baseStats.tryGetAbility();
@@ -103,7 +125,9 @@ public final class MinionProperties implements Silencable {
     }
 
     public UndoAction deactivateAllAbilities() {
-        return abilities.deactivateAll();
+        return abilities != null
+                ? abilities.deactivateAll()
+                : UndoAction.DO_NOTHING;
     }
 
     public UndoAction refresh() {
@@ -147,20 +171,39 @@ public final class MinionProperties implements Silencable {
         }
 
         List<WorldEventAction<? super Minion, ? super Minion>> prevDeathRattles = deathRattles;
-        deathRattles = new ArrayList<>();
+        deathRattles = Collections.emptyList();
         return () -> deathRattles = prevDeathRattles;
     }
 
     @Override
     public UndoAction silence() {
         UndoBuilder result = new UndoBuilder();
-        result.addUndo(abilities.silence());
+        if (abilities != null) {
+            result.addUndo(abilities.silence());
+        }
         result.addUndo(attackTool.silence());
         result.addUndo(body.silence());
         result.addUndo(removeDeathRattles());
+
+        if (!silenced) {
+            silenced = true;
+            result.addUndo(() -> silenced = false);
+        }
         return result;
     }
 
+    public boolean isSilenced() {
+        return silenced;
+    }
+
+    public boolean isExhausted() {
+        return attackTool.exhausted;
+    }
+
+    public int getAttackCount() {
+        return attackTool.attackCount;
+    }
+
     public boolean isFrozen() {
         return attackTool.isFrozen();
     }
@@ -186,6 +229,11 @@ public final class MinionProperties implements Silencable {
             return UndoAction.DO_NOTHING;
         }
 
+        if (abilities == null) {
+            // Creating the abilities need not be undone because having no
+            // abilities is equivalent to having empty abilities.
+            abilities = new CharacterAbilities<>(minion);
+        }
         return abilities.getOwned().addAndActivateAbility(abilityRegisterTask);
     }
 
@@ -209,9 +257,23 @@ public final class MinionProperties implements Silencable {
         return !deathRattles.isEmpty();
     }
 
+    public int getDeathRattleCount() {
+        return deathRattles.size();
+    }
+
+    // The number of active abilities (including the ones of the minion
+    // itself but not the auras affecting it).
+    public int getAbilityCount() {
+        return abilities != null ? abilities.getOwned().getAbilityCount() : 0;
+    }
+
     public UndoAction addDeathRattle(WorldEventAction<? super Minion, ? super Minion> deathRattle) {
         ExceptionHelper.checkNotNullArgument(deathRattle, "deathRattle");
 
+        if (deathRattles.isEmpty()) {
+            // The empty list might be immutable.
+            deathRattles = new ArrayList<>();
+        }
         deathRattles.add(deathRattle);
         return () -> {
             deathRattles.remove(deathRattles.size() - 1);
@@ -0,0 +1,85 @@
+package com.github.kelemen.brazier.parsing;
+
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.cards.CardRarity;
+import com.github.kelemen.brazier.cards.CardType;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.jtrim.utils.ExceptionHelper;
+
+public final class CardHeader {
+    private final CardId cardId;
+    private final CardType cardType;
+    private final int manaCost;
+    private final CardRarity rarity;
+    private final Keyword cardClass;
+    private final Set<Keyword> keywords;
+    private final boolean hasMinion;
+    private final boolean hasWeapon;
+
+    public CardHeader(
+            CardId cardId,
+            CardType cardType,
+            int manaCost,
+            CardRarity rarity,
+            Keyword cardClass,
+            Set<Keyword> keywords,
+            boolean hasMinion,
+            boolean hasWeapon) {
+        ExceptionHelper.checkNotNullArgument(cardId, "cardId");
+        ExceptionHelper.checkNotNullArgument(cardType, "cardType");
+        ExceptionHelper.checkNotNullArgument(rarity, "rarity");
+        ExceptionHelper.checkNotNullArgument(cardClass, "cardClass");
+        ExceptionHelper.checkNotNullArgument(keywords, "keywords");
+
+        this.cardId = cardId;
+        this.cardType = cardType;
+        this.manaCost = manaCost;
+        this.rarity = rarity;
+        this.cardClass = cardClass;
+        this.keywords = Collections.unmodifiableSet(new HashSet<>(keywords));
+        this.hasMinion = hasMinion;
+        this.hasWeapon = hasWeapon;
+
+        ExceptionHelper.checkNotNullElements(this.keywords, "keywords");
+    }
+
+    public CardId getId() {
+        return cardId;
+    }
+
+    public CardType getCardType() {
+        return cardType;
+    }
+
+    public int getManaCost() {
+        return manaCost;
+    }
+
+    public CardRarity getRarity() {
+        return rarity;
+    }
+
+    public Keyword getCardClass() {
+        return cardClass;
+    }
+
+    public Set<Keyword> getKeywords() {
+        return keywords;
+    }
+
+    public boolean hasMinion() {
+        return hasMinion;
+    }
+
+    public boolean hasWeapon() {
+        return hasWeapon;
+    }
+
+    @Override
+    public String toString() {
+        return "CardHeader: " + cardId;
+    }
+}
@@ -134,14 +134,14 @@ public final class CardParser implements EntityParser<CardDescr> {
         };
     }
 
-    private boolean parseSecretPlayAction(
+    private void parseSecretPlayAction(
             JsonTree secretElement,
             EntityId secretId,
             Supplier<CardDescr> cardRef,
             CardDescr.Builder result) throws ObjectParsingException {
 
         if (secretElement == null) {
-            return false;
+            return;
         }
 
         WorldEventActionDefs<Secret> secretActionDef = secretParser.fromJson(secretElement);
@@ -150,7 +150,6 @@ public final class CardParser implements EntityParser<CardDescr> {
                 TargetNeed.NO_NEED,
                 secretRequirement(secretId),
                 secretAction(cardRef, secretActionDef)));
-        return true;
     }
 
     @Override
@@ -163,10 +162,43 @@ public final class CardParser implements EntityParser<CardDescr> {
         return fromJsonWithCardType(root, predefinedCardType);
     }
 
-    private CardDescr fromJsonWithCardType(JsonTree root, CardType predefinedCardType) throws ObjectParsingException {
+    public CardHeader parseHeader(JsonTree root) throws ObjectParsingException {
+        return parseHeaderWithCardType(root, null);
+    }
+
+    public CardHeader parseHeader(JsonTree root, CardType predefinedCardType) throws ObjectParsingException {
+        ExceptionHelper.checkNotNullArgument(predefinedCardType, "predefinedCardType");
+        return parseHeaderWithCardType(root, predefinedCardType);
+    }
+
+    private CardHeader parseHeaderWithCardType(JsonTree root, CardType predefinedCardType) throws ObjectParsingException {
         String name = ParserUtils.getStringField(root, "name");
         int manaCost = ParserUtils.getIntField(root, "manaCost");
-        Set<Keyword> keywords = new HashSet<>();
+        CardType cardType = resolveCardType(root, predefinedCardType);
+        CardRarity rarity = parseRarity(root);
+        Keyword cardClass = parseCardClass(root, name);
+
+        JsonTree minionElement = root.getChild("minion");
+        JsonTree weaponElement = root.getChild("weapon");
+
+        Set<Keyword> keywords = parseCardKeywords(root, cardType, manaCost, rarity, cardClass);
+        // The minion (and so the card) inherits the battle cry keyword.
+        if (minionElement != null && ParserUtils.hasPlayActionDefs(minionElement.getChild("battleCries"))) {
+            keywords.add(Keywords.BATTLE_CRY);
+        }
+
+        return new CardHeader(
+                new CardId(name),
+                cardType,
+                manaCost,
+                rarity,
+                cardClass,
+                keywords,
+                minionElement != null,
+                weaponElement != null);
+    }
+
+    private static CardType resolveCardType(JsonTree root, CardType predefinedCardType) throws ObjectParsingException {
         CardType cardType = predefinedCardType != null
                 ? predefinedCardType
                 : parseCardType(root.getChild("type"));
@@ -187,19 +219,36 @@ public final class CardParser implements EntityParser<CardDescr> {
             cardType = CardType.WEAPON;
         }
 
-        keywords.add(cardType.getKeyword());
+        return cardType;
+    }
 
-        CardId cardId = new CardId(name);
-        CardDescr.Builder result = new CardDescr.Builder(cardId, cardType, manaCost);
+    private CardRarity parseRarity(JsonTree root) throws ObjectParsingException {
+        JsonTree rarityElement = root.getChild("rarity");
+        if (rarityElement == null) {
+            return CardRarity.COMMON;
+        }
+        return objectParser.toJavaObject(rarityElement, CardRarity.class);
+    }
+
+    private static Keyword parseCardClass(JsonTree root, String name) throws ObjectParsingException {
+        JsonTree classElement = root.getChild("class");
+        if (classElement == null) {
+            throw new ObjectParsingException("Class of card is unspecified for " + name);
+        }
+        return Keyword.create(classElement.getAsString());
+    }
 
+    private static Set<Keyword> parseCardKeywords(
+            JsonTree root,
+            CardType cardType,
+            int manaCost,
+            CardRarity rarity,
+            Keyword cardClass) {
+
+        Set<Keyword> keywords = new HashSet<>();
         keywords.add(cardType.getKeyword());
         keywords.add(Keywords.manaCost(manaCost));
 
-        String description = ParserUtils.tryGetStringField(root, "description");
-        if (description != null) {
-            result.setDescription(description);
-        }
-
         keywords.add(isCollectible(root.getChild("collectible"))
                 ? Keywords.COLLECTIBLE
                 : Keywords.NON_COLLECTIBLE);
@@ -209,14 +258,44 @@ public final class CardParser implements EntityParser<CardDescr> {
             ParserUtils.parseKeywords(keywordsElement, keywords::add);
         }
 
-        JsonTree rarityElement = root.getChild("rarity");
-        CardRarity rarity = CardRarity.COMMON;
-        if (rarityElement != null) {
-            rarity = objectParser.toJavaObject(rarityElement, CardRarity.class);
+        keywords.add(Keyword.create(rarity.name()));
+
+        JsonTree overloadElement = root.getChild("overload");
+        if (overloadElement != null && overloadElement.getAsInt() > 0) {
+            keywords.add(Keywords.OVERLOAD);
+        }
+
+        keywords.add(cardClass);
+
+        if (root.getChild("secret") != null) {
+            keywords.add(Keywords.SECRET);
+        }
+
+        return keywords;
+    }
+
+    private CardDescr fromJsonWithCardType(JsonTree root, CardType predefinedCardType) throws ObjectParsingException {
+        String name = ParserUtils.getStringField(root, "name");
+        int manaCost = ParserUtils.getIntField(root, "manaCost");
+        CardType cardType = resolveCardType(root, predefinedCardType);
+        CardRarity rarity = parseRarity(root);
+        Keyword cardClass = parseCardClass(root, name);
+
+        JsonTree minionElement = root.getChild("minion");
+        JsonTree weaponElement = root.getChild("weapon");
+
+        Set<Keyword> keywords = parseCardKeywords(root, cardType, manaCost, rarity, cardClass);
+
+        CardId cardId = new CardId(name);
+        CardDescr.Builder result = new CardDescr.Builder(cardId, cardType, manaCost);
+
+        String description = ParserUtils.tryGetStringField(root, "description");
+        if (description != null) {
+            result.setDescription(description);
         }
 
         result.setRarity(rarity);
-        keywords.add(Keyword.create(rarity.name()));
+        result.setCardClass(cardClass);
 
         JsonTree displayName = root.getChild("displayName");
         if (displayName != null) {
@@ -225,11 +304,7 @@ public final class CardParser implements EntityParser<CardDescr> {
 
         JsonTree overloadElement = root.getChild("overload");
         if (overloadElement != null) {
-            int overload = overloadElement.getAsInt();
-            if (overload > 0) {
-                keywords.add(Keywords.OVERLOAD);
-            }
-            result.setOverload(overload);
+            result.setOverload(overloadElement.getAsInt());
         }
 
         JsonTree drawActions = root.getChild("drawActions");
@@ -250,21 +325,11 @@ public final class CardParser implements EntityParser<CardDescr> {
             }
         }
 
-        JsonTree classElement = root.getChild("class");
-        if (classElement == null) {
-            throw new ObjectParsingException("Class of card is unspecified for " + name);
-        }
-        Keyword cardClass = Keyword.create(classElement.getAsString());
-        result.setCardClass(cardClass);
-        keywords.add(cardClass);
-
         ParserUtils.parsePlayActionDefs(objectParser, root.getChild("playActions"), Card.class, result::addOnPlayAction);
         parseCardAdjusters(root.getChild("manaCostAdjusters"), result);
 
         AtomicReference<CardDescr> cardRef = new AtomicReference<>();
-        if (parseSecretPlayAction(root.getChild("secret"), cardId, cardRef::get, result)) {
-            keywords.add(Keywords.SECRET);
-        }
+        parseSecretPlayAction(root.getChild("secret"), cardId, cardRef::get, result);
 
         parseAbility(root.getChild("inHandAbility"), result);
 
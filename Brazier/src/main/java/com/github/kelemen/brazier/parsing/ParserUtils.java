@@ -628,6 +628,14 @@ public final class ParserUtils {
         return new PlayActionDef<>(targetNeed, requirement, action);
     }
 
+    public static boolean hasPlayActionDefs(JsonTree actionDefsElement) {
+        if (actionDefsElement == null) {
+            return false;
+        }
+
+        return !actionDefsElement.isJsonArray() || actionDefsElement.getChildCount() > 0;
+    }
+
     public static <Actor extends PlayerProperty> boolean parsePlayActionDefs(
             JsonDeserializer objectParser,
             JsonTree actionDefsElement,
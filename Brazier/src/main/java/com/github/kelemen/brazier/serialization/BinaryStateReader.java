@@ -0,0 +1,100 @@
+package com.github.kelemen.brazier.serialization;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BinaryStateReader implements StateReader {
+    private final DataInputStream input;
+    private final List<String> strings;
+
+    public BinaryStateReader(DataInputStream input) {
+        this.input = input;
+        this.strings = new ArrayList<>();
+    }
+
+    private int readVarInt() throws IOException {
+        int encoded = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int currentByte = input.readUnsignedByte();
+            encoded |= (currentByte & 0x7F) << shift;
+            if ((currentByte & 0x80) == 0) {
+                return (encoded >>> 1) ^ -(encoded & 1);
+            }
+        }
+        throw new IOException("Malformed variable length integer.");
+    }
+
+    private long readVarLong() throws IOException {
+        long encoded = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            long currentByte = input.readUnsignedByte();
+            encoded |= (currentByte & 0x7F) << shift;
+            if ((currentByte & 0x80) == 0) {
+                return (encoded >>> 1) ^ -(encoded & 1);
+            }
+        }
+        throw new IOException("Malformed variable length integer.");
+    }
+
+    @Override
+    public int readInt(String key) throws IOException {
+        return readVarInt();
+    }
+
+    @Override
+    public long readLong(String key) throws IOException {
+        return readVarLong();
+    }
+
+    @Override
+    public boolean readBoolean(String key) throws IOException {
+        return input.readBoolean();
+    }
+
+    @Override
+    public String readString(String key) throws IOException {
+        int code = readVarInt();
+        if (code == 0) {
+            return null;
+        }
+        if (code == 1) {
+            String result = input.readUTF();
+            strings.add(result);
+            return result;
+        }
+
+        int index = code - 2;
+        if (index < 0 || index >= strings.size()) {
+            throw new IOException("Invalid string reference: " + index);
+        }
+        return strings.get(index);
+    }
+
+    @Override
+    public void beginObject(String key) {
+    }
+
+    @Override
+    public void endObject() {
+    }
+
+    @Override
+    public boolean beginOptionalObject(String key) throws IOException {
+        return input.readBoolean();
+    }
+
+    @Override
+    public int beginList(String key) throws IOException {
+        int size = readVarInt();
+        if (size < 0) {
+            throw new IOException("Invalid list size: " + size);
+        }
+        return size;
+    }
+
+    @Override
+    public void endList() {
+    }
+}
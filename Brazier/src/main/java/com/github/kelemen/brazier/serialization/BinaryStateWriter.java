@@ -0,0 +1,94 @@
+package com.github.kelemen.brazier.serialization;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Field names are not stored, integers are stored as variable length
+// integers and repeated strings (e.g., card IDs) are stored as references
+// to their first occurrence.
+final class BinaryStateWriter implements StateWriter {
+    private final DataOutputStream output;
+    private final Map<String, Integer> stringIndexes;
+
+    public BinaryStateWriter(DataOutputStream output) {
+        this.output = output;
+        this.stringIndexes = new HashMap<>();
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        int remaining = (value << 1) ^ (value >> 31);
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        long remaining = (value << 1) ^ (value >> 63);
+        while ((remaining & ~0x7FL) != 0) {
+            output.writeByte((int)((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        output.writeByte((int)remaining);
+    }
+
+    @Override
+    public void writeInt(String key, int value) throws IOException {
+        writeVarInt(value);
+    }
+
+    @Override
+    public void writeLong(String key, long value) throws IOException {
+        writeVarLong(value);
+    }
+
+    @Override
+    public void writeBoolean(String key, boolean value) throws IOException {
+        output.writeBoolean(value);
+    }
+
+    // 0 is null, 1 is a new string and other values refer to a
+    // previously written string.
+    @Override
+    public void writeString(String key, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        Integer index = stringIndexes.get(value);
+        if (index != null) {
+            writeVarInt(index + 2);
+            return;
+        }
+
+        stringIndexes.put(value, stringIndexes.size());
+        writeVarInt(1);
+        output.writeUTF(value);
+    }
+
+    @Override
+    public void beginObject(String key) {
+    }
+
+    @Override
+    public void endObject() {
+    }
+
+    @Override
+    public void beginOptionalObject(String key, boolean present) throws IOException {
+        output.writeBoolean(present);
+    }
+
+    @Override
+    public void beginList(String key, int size) throws IOException {
+        writeVarInt(size);
+    }
+
+    @Override
+    public void endList() {
+    }
+}
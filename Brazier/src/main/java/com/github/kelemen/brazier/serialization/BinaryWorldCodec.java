@@ -0,0 +1,112 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.World;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.jtrim.utils.ExceptionHelper;
+
+// A compact binary format for storing many worlds.
+public final class BinaryWorldCodec {
+    private static final int MAGIC = 0x42525a57; // "BRZW"
+    private static final int VERSION = 1;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    public static byte[] encode(World world) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(512);
+        try {
+            write(world, result);
+        } catch (IOException ex) {
+            throw new AssertionError("Unexpected IO error while writing to memory.", ex);
+        }
+        return result.toByteArray();
+    }
+
+    // Encodes the world even if the abilities and death rattles granted to
+    // its minions cannot be stored, dropping them. The decoded world is only
+    // suitable for displaying the stats of the original world.
+    public static byte[] encodeObservable(World world) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(512);
+        try {
+            write(WorldState.captureObservable(world), result);
+        } catch (IOException ex) {
+            throw new AssertionError("Unexpected IO error while writing to memory.", ex);
+        }
+        return result.toByteArray();
+    }
+
+    // Returns false if the world has minions with granted abilities or death
+    // rattles, in which case encode and write fail.
+    public static boolean canEncode(World world) {
+        return WorldState.canCapture(world);
+    }
+
+    // A hash of everything stored by the binary format. Unlike WorldStateHash,
+    // this is meant to detect any change in the stored state (e.g., to verify
+    // that replaying a game still produces the same world). The format does not
+    // store the registered abilities, death rattles, auras and event listeners,
+    // so changes only affecting these are not detected.
+    public static long digest(World world) {
+        return digest(encodeObservable(world));
+    }
+
+    // The digest of a world already encoded by this codec.
+    public static long digest(byte[] encoded) {
+        ExceptionHelper.checkNotNullArgument(encoded, "encoded");
+
+        long result = FNV_OFFSET;
+        for (byte value: encoded) {
+            result = (result ^ (value & 0xFF)) * FNV_PRIME;
+        }
+        return result;
+    }
+
+    public static World decode(HearthStoneDb db, byte[] encoded) throws IOException {
+        ExceptionHelper.checkNotNullArgument(encoded, "encoded");
+        return read(db, new ByteArrayInputStream(encoded));
+    }
+
+    public static void write(World world, OutputStream output) throws IOException {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(output, "output");
+
+        write(WorldState.capture(world), output);
+    }
+
+    private static void write(WorldState state, OutputStream output) throws IOException {
+        DataOutputStream dataOutput = new DataOutputStream(output);
+        dataOutput.writeInt(MAGIC);
+        dataOutput.writeByte(VERSION);
+        state.write(new BinaryStateWriter(dataOutput));
+        dataOutput.flush();
+    }
+
+    public static World read(HearthStoneDb db, InputStream input) throws IOException {
+        ExceptionHelper.checkNotNullArgument(db, "db");
+        ExceptionHelper.checkNotNullArgument(input, "input");
+
+        DataInputStream dataInput = new DataInputStream(input);
+        if (dataInput.readInt() != MAGIC) {
+            throw new IOException("Not a serialized world.");
+        }
+        int version = dataInput.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported world format version: " + version);
+        }
+
+        return WorldState.read(new BinaryStateReader(dataInput)).restore(db);
+    }
+
+    private BinaryWorldCodec() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+final class JsonStateReader implements StateReader {
+    private final Deque<Container> containers;
+
+    public JsonStateReader(JsonObject root) {
+        this.containers = new ArrayDeque<>();
+        this.containers.push(new Container(root));
+    }
+
+    private JsonElement next(String key) throws IOException {
+        Container container = containers.peek();
+        JsonElement result;
+        if (container.element.isJsonArray()) {
+            JsonArray array = container.element.getAsJsonArray();
+            if (container.index >= array.size()) {
+                throw new IOException("Missing element of " + key);
+            }
+            result = array.get(container.index);
+            container.index++;
+        }
+        else {
+            result = container.element.getAsJsonObject().get(key);
+            if (result == null) {
+                throw new IOException("Missing field: " + key);
+            }
+        }
+        return result;
+    }
+
+    private JsonPrimitive nextPrimitive(String key) throws IOException {
+        JsonElement element = next(key);
+        if (!element.isJsonPrimitive()) {
+            throw new IOException("Expected a primitive for " + key + " but found " + element);
+        }
+        return element.getAsJsonPrimitive();
+    }
+
+    @Override
+    public int readInt(String key) throws IOException {
+        JsonPrimitive element = nextPrimitive(key);
+        if (!element.isNumber()) {
+            throw new IOException("Expected a number for " + key + " but found " + element);
+        }
+        try {
+            return element.getAsInt();
+        } catch (NumberFormatException ex) {
+            throw new IOException("Expected an integer for " + key + " but found " + element, ex);
+        }
+    }
+
+    @Override
+    public long readLong(String key) throws IOException {
+        JsonPrimitive element = nextPrimitive(key);
+        if (!element.isNumber()) {
+            throw new IOException("Expected a number for " + key + " but found " + element);
+        }
+        try {
+            return element.getAsLong();
+        } catch (NumberFormatException ex) {
+            throw new IOException("Expected an integer for " + key + " but found " + element, ex);
+        }
+    }
+
+    @Override
+    public boolean readBoolean(String key) throws IOException {
+        JsonPrimitive element = nextPrimitive(key);
+        if (!element.isBoolean()) {
+            throw new IOException("Expected a boolean for " + key + " but found " + element);
+        }
+        return element.getAsBoolean();
+    }
+
+    @Override
+    public String readString(String key) throws IOException {
+        JsonElement element = next(key);
+        if (element.isJsonNull()) {
+            return null;
+        }
+        if (!element.isJsonPrimitive() || !element.getAsJsonPrimitive().isString()) {
+            throw new IOException("Expected a string for " + key + " but found " + element);
+        }
+        return element.getAsString();
+    }
+
+    @Override
+    public void beginObject(String key) throws IOException {
+        JsonElement element = next(key);
+        if (!element.isJsonObject()) {
+            throw new IOException("Expected an object for " + key + " but found " + element);
+        }
+        containers.push(new Container(element));
+    }
+
+    @Override
+    public void endObject() {
+        containers.pop();
+    }
+
+    @Override
+    public boolean beginOptionalObject(String key) throws IOException {
+        JsonElement element = next(key);
+        if (element.isJsonNull()) {
+            return false;
+        }
+        if (!element.isJsonObject()) {
+            throw new IOException("Expected an object for " + key + " but found " + element);
+        }
+        containers.push(new Container(element));
+        return true;
+    }
+
+    @Override
+    public int beginList(String key) throws IOException {
+        JsonElement element = next(key);
+        if (!element.isJsonArray()) {
+            throw new IOException("Expected an array for " + key + " but found " + element);
+        }
+        containers.push(new Container(element));
+        return element.getAsJsonArray().size();
+    }
+
+    @Override
+    public void endList() {
+        containers.pop();
+    }
+
+    private static final class Container {
+        private final JsonElement element;
+        private int index;
+
+        public Container(JsonElement element) {
+            this.element = element;
+            this.index = 0;
+        }
+    }
+}
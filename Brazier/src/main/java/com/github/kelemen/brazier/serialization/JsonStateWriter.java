@@ -0,0 +1,82 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+final class JsonStateWriter implements StateWriter {
+    private final Deque<JsonElement> containers;
+
+    public JsonStateWriter(JsonObject root) {
+        this.containers = new ArrayDeque<>();
+        this.containers.push(root);
+    }
+
+    private void add(String key, JsonElement element) {
+        JsonElement container = containers.peek();
+        if (container.isJsonArray()) {
+            container.getAsJsonArray().add(element);
+        }
+        else {
+            container.getAsJsonObject().add(key, element);
+        }
+    }
+
+    @Override
+    public void writeInt(String key, int value) {
+        add(key, new JsonPrimitive(value));
+    }
+
+    @Override
+    public void writeLong(String key, long value) {
+        add(key, new JsonPrimitive(value));
+    }
+
+    @Override
+    public void writeBoolean(String key, boolean value) {
+        add(key, new JsonPrimitive(value));
+    }
+
+    @Override
+    public void writeString(String key, String value) {
+        add(key, value != null ? new JsonPrimitive(value) : JsonNull.INSTANCE);
+    }
+
+    @Override
+    public void beginObject(String key) {
+        JsonObject object = new JsonObject();
+        add(key, object);
+        containers.push(object);
+    }
+
+    @Override
+    public void endObject() {
+        containers.pop();
+    }
+
+    @Override
+    public void beginOptionalObject(String key, boolean present) {
+        if (present) {
+            beginObject(key);
+        }
+        else {
+            add(key, JsonNull.INSTANCE);
+        }
+    }
+
+    @Override
+    public void beginList(String key, int size) {
+        JsonArray array = new JsonArray();
+        add(key, array);
+        containers.push(array);
+    }
+
+    @Override
+    public void endList() {
+        containers.pop();
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.World;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import org.jtrim.utils.ExceptionHelper;
+
+// A human readable format of worlds. Unlike the binary format, the fields are
+// named and the order of the fields of objects does not matter.
+public final class JsonWorldCodec {
+    private static final Gson GSON = new GsonBuilder().serializeNulls().setPrettyPrinting().create();
+
+    public static String encode(World world) {
+        StringWriter result = new StringWriter();
+        try {
+            write(world, result);
+        } catch (IOException ex) {
+            throw new AssertionError("Unexpected IO error while writing to memory.", ex);
+        }
+        return result.toString();
+    }
+
+    public static World decode(HearthStoneDb db, String encoded) throws IOException {
+        ExceptionHelper.checkNotNullArgument(encoded, "encoded");
+        return read(db, new StringReader(encoded));
+    }
+
+    public static void write(World world, Writer output) throws IOException {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(output, "output");
+
+        JsonObject root = new JsonObject();
+        WorldState.capture(world).write(new JsonStateWriter(root));
+        output.write(GSON.toJson(root));
+        output.flush();
+    }
+
+    public static World read(HearthStoneDb db, Reader input) throws IOException {
+        ExceptionHelper.checkNotNullArgument(db, "db");
+        ExceptionHelper.checkNotNullArgument(input, "input");
+
+        JsonElement root;
+        try {
+            root = new JsonParser().parse(input);
+        } catch (JsonParseException ex) {
+            throw new IOException("Invalid JSON.", ex);
+        }
+
+        if (!root.isJsonObject()) {
+            throw new IOException("The serialized world must be a JSON object.");
+        }
+        return WorldState.read(new JsonStateReader(root.getAsJsonObject())).restore(db);
+    }
+
+    private JsonWorldCodec() {
+        throw new AssertionError();
+    }
+}
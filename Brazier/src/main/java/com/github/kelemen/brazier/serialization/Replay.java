@@ -0,0 +1,194 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.RandomProvider;
+import com.github.kelemen.brazier.UserAgent;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.jtrim.utils.ExceptionHelper;
+
+// A recorded game: the seed of the random provider, the starting setup of the
+// players, the moves and the cards selected by the players (see UserAgent).
+// The game is fully determined by these, so replaying the moves must produce
+// a world with the recorded final digest (see BinaryWorldCodec.digest).
+//
+// The game starts by setting up the decks and hands of the players, then the
+// first player starts its turn.
+public final class Replay {
+    public static final class Builder {
+        private final long seed;
+        private final ReplayPlayer player1;
+        private final ReplayPlayer player2;
+        private final List<PlayMove> moves;
+        private final List<CardDescr> choices;
+        private long finalDigest;
+        private boolean hasFinalDigest;
+
+        public Builder(long seed, ReplayPlayer player1, ReplayPlayer player2) {
+            ExceptionHelper.checkNotNullArgument(player1, "player1");
+            ExceptionHelper.checkNotNullArgument(player2, "player2");
+
+            this.seed = seed;
+            this.player1 = player1;
+            this.player2 = player2;
+            this.moves = new ArrayList<>();
+            this.choices = new ArrayList<>();
+            this.finalDigest = 0;
+            this.hasFinalDigest = false;
+        }
+
+        public void addMove(PlayMove move) {
+            ExceptionHelper.checkNotNullArgument(move, "move");
+            moves.add(move);
+        }
+
+        // The choice is null if the player cancelled the selection.
+        public void addChoice(CardDescr choice) {
+            choices.add(choice);
+        }
+
+        public void setFinalDigest(long finalDigest) {
+            this.finalDigest = finalDigest;
+            this.hasFinalDigest = true;
+        }
+
+        public Replay create() {
+            if (!hasFinalDigest) {
+                throw new IllegalStateException("The digest of the final state must be set.");
+            }
+            return new Replay(this);
+        }
+    }
+
+    private final long seed;
+    private final ReplayPlayer player1;
+    private final ReplayPlayer player2;
+    private final List<PlayMove> moves;
+    private final List<CardDescr> choices;
+    private final long finalDigest;
+
+    private Replay(Builder builder) {
+        this.seed = builder.seed;
+        this.player1 = builder.player1;
+        this.player2 = builder.player2;
+        this.moves = Collections.unmodifiableList(new ArrayList<>(builder.moves));
+        this.choices = Collections.unmodifiableList(new ArrayList<>(builder.choices));
+        this.finalDigest = builder.finalDigest;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public ReplayPlayer getPlayer1() {
+        return player1;
+    }
+
+    public ReplayPlayer getPlayer2() {
+        return player2;
+    }
+
+    public List<PlayMove> getMoves() {
+        return moves;
+    }
+
+    public List<CardDescr> getChoices() {
+        return choices;
+    }
+
+    public long getFinalDigest() {
+        return finalDigest;
+    }
+
+    // Executes the recorded moves and returns the final world. Throws an
+    // IllegalStateException if the game did not follow the recording.
+    public World replay(HearthStoneDb db) {
+        World world = createWorld(db, seed, player1, player2);
+
+        ReplayedUserAgent userAgent = new ReplayedUserAgent(choices);
+        world.setUserAgent(userAgent);
+        startGame(world);
+
+        WorldPlayAgent playAgent = new WorldPlayAgent(world);
+        int moveIndex = 0;
+        for (PlayMove move: moves) {
+            if (world.isGameOver()) {
+                throw new IllegalStateException("The game ended before move " + moveIndex + ": " + move);
+            }
+            move.play(playAgent);
+            moveIndex++;
+        }
+
+        if (userAgent.nextIndex != choices.size()) {
+            throw new IllegalStateException("Only " + userAgent.nextIndex + " of the "
+                    + choices.size() + " recorded card choices were requested.");
+        }
+        return world;
+    }
+
+    static World createWorld(HearthStoneDb db, long seed, ReplayPlayer player1, ReplayPlayer player2) {
+        return createWorld(db, new Random(seed)::nextInt, player1, player2);
+    }
+
+    static World createWorld(
+            HearthStoneDb db,
+            RandomProvider randomProvider,
+            ReplayPlayer player1,
+            ReplayPlayer player2) {
+        ExceptionHelper.checkNotNullArgument(db, "db");
+
+        World world = new World(db, new PlayerId(player1.getName()), new PlayerId(player2.getName()));
+        world.setRandomProvider(randomProvider);
+
+        player1.setup(world.getPlayer1());
+        player2.setup(world.getPlayer2());
+        return world;
+    }
+
+    static void startGame(World world) {
+        world.getPlayer1().startNewTurn();
+        world.endPhase();
+    }
+
+    private static final class ReplayedUserAgent implements UserAgent {
+        private final List<CardDescr> choices;
+        private int nextIndex;
+
+        public ReplayedUserAgent(List<CardDescr> choices) {
+            this.choices = choices;
+            this.nextIndex = 0;
+        }
+
+        @Override
+        public CardDescr selectCard(boolean allowCancel, List<? extends CardDescr> cards) {
+            if (nextIndex >= choices.size()) {
+                throw new IllegalStateException("The game requested more card choices than recorded.");
+            }
+
+            CardDescr choice = choices.get(nextIndex);
+            nextIndex++;
+
+            if (choice == null) {
+                if (!allowCancel) {
+                    throw new IllegalStateException("The recorded choice " + (nextIndex - 1) + " cannot be cancelled.");
+                }
+                return null;
+            }
+
+            for (CardDescr card: cards) {
+                if (card.getId().equals(choice.getId())) {
+                    return card;
+                }
+            }
+            throw new IllegalStateException("The recorded choice " + choice.getId()
+                    + " was not offered: " + cards);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.ai.AttackMove;
+import com.github.kelemen.brazier.ai.CharacterRef;
+import com.github.kelemen.brazier.ai.EndTurnMove;
+import com.github.kelemen.brazier.ai.HeroPowerMove;
+import com.github.kelemen.brazier.ai.PlayCardMove;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.cards.CardId;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+// Stores replays either in a compact binary format or as JSON. Decoding
+// detects the format, so replay files might be in either of them.
+public final class ReplayCodec {
+    private static final int MAGIC = 0x42525a52; // "BRZR"
+    private static final int VERSION = 1;
+
+    private static final Gson GSON = new GsonBuilder().serializeNulls().setPrettyPrinting().create();
+
+    private static final String MOVE_END_TURN = "endTurn";
+    private static final String MOVE_ATTACK = "attack";
+    private static final String MOVE_PLAY_CARD = "card";
+    private static final String MOVE_HERO_POWER = "heroPower";
+
+    public static byte[] encodeBinary(Replay replay) {
+        ExceptionHelper.checkNotNullArgument(replay, "replay");
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(1024);
+        try {
+            DataOutputStream output = new DataOutputStream(result);
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            writeReplay(replay, new BinaryStateWriter(output));
+            output.flush();
+        } catch (IOException ex) {
+            throw new AssertionError("Unexpected IO error while writing to memory.", ex);
+        }
+        return result.toByteArray();
+    }
+
+    public static String encodeJson(Replay replay) {
+        ExceptionHelper.checkNotNullArgument(replay, "replay");
+
+        JsonObject root = new JsonObject();
+        try {
+            writeReplay(replay, new JsonStateWriter(root));
+        } catch (IOException ex) {
+            throw new AssertionError("Unexpected IO error while writing to memory.", ex);
+        }
+        return GSON.toJson(root);
+    }
+
+    public static Replay readFile(HearthStoneDb db, Path file) throws IOException {
+        ExceptionHelper.checkNotNullArgument(file, "file");
+        return decode(db, Files.readAllBytes(file));
+    }
+
+    // The encoded replay might be in either the binary or the JSON (UTF-8)
+    // format.
+    public static Replay decode(HearthStoneDb db, byte[] encoded) throws IOException {
+        ExceptionHelper.checkNotNullArgument(db, "db");
+        ExceptionHelper.checkNotNullArgument(encoded, "encoded");
+
+        if (isBinary(encoded)) {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(encoded));
+            input.readInt();
+            int version = input.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported replay format version: " + version);
+            }
+            return readReplay(db, new BinaryStateReader(input));
+        }
+        else {
+            return decodeJson(db, new String(encoded, StandardCharsets.UTF_8));
+        }
+    }
+
+    public static Replay decodeJson(HearthStoneDb db, String encoded) throws IOException {
+        ExceptionHelper.checkNotNullArgument(db, "db");
+        ExceptionHelper.checkNotNullArgument(encoded, "encoded");
+
+        JsonElement root;
+        try {
+            root = new JsonParser().parse(encoded);
+        } catch (JsonParseException ex) {
+            throw new IOException("Invalid JSON.", ex);
+        }
+
+        if (root == null || !root.isJsonObject()) {
+            throw new IOException("The replay must be a JSON object.");
+        }
+        return readReplay(db, new JsonStateReader(root.getAsJsonObject()));
+    }
+
+    private static boolean isBinary(byte[] encoded) {
+        if (encoded.length < 4) {
+            return false;
+        }
+        int magic = ((encoded[0] & 0xFF) << 24)
+                | ((encoded[1] & 0xFF) << 16)
+                | ((encoded[2] & 0xFF) << 8)
+                | (encoded[3] & 0xFF);
+        return magic == MAGIC;
+    }
+
+    private static void writeReplay(Replay replay, StateWriter out) throws IOException {
+        out.writeLong("seed", replay.getSeed());
+        writePlayer(replay.getPlayer1(), "player1", out);
+        writePlayer(replay.getPlayer2(), "player2", out);
+
+        List<PlayMove> moves = replay.getMoves();
+        out.beginList("moves", moves.size());
+        for (PlayMove move: moves) {
+            writeMove(move, out);
+        }
+        out.endList();
+
+        List<CardDescr> choices = replay.getChoices();
+        out.beginList("choices", choices.size());
+        for (CardDescr choice: choices) {
+            out.writeString("choices", choice != null ? choice.getId().getName() : null);
+        }
+        out.endList();
+
+        out.writeLong("finalDigest", replay.getFinalDigest());
+    }
+
+    private static Replay readReplay(HearthStoneDb db, StateReader in) throws IOException {
+        try {
+            long seed = in.readLong("seed");
+            ReplayPlayer player1 = readPlayer(db, "player1", in);
+            ReplayPlayer player2 = readPlayer(db, "player2", in);
+
+            Replay.Builder result = new Replay.Builder(seed, player1, player2);
+
+            int moveCount = in.beginList("moves");
+            for (int i = 0; i < moveCount; i++) {
+                result.addMove(readMove(db, in));
+            }
+            in.endList();
+
+            int choiceCount = in.beginList("choices");
+            for (int i = 0; i < choiceCount; i++) {
+                String choiceId = in.readString("choices");
+                result.addChoice(choiceId != null ? WorldState.getCard(db, choiceId) : null);
+            }
+            in.endList();
+
+            result.setFinalDigest(in.readLong("finalDigest"));
+            return result.create();
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid replay.", ex);
+        }
+    }
+
+    private static void writePlayer(ReplayPlayer player, String key, StateWriter out) throws IOException {
+        out.beginObject(key);
+        out.writeString("name", player.getName());
+        out.writeString("class", player.getHeroClass().getName());
+
+        CardDescr heroPower = player.tryGetHeroPower();
+        out.writeString("heroPower", heroPower != null ? heroPower.getId().getName() : null);
+
+        WorldState.writeStrings(out, "deck", toIds(player.getDeck()));
+        WorldState.writeStrings(out, "hand", toIds(player.getHand()));
+        out.endObject();
+    }
+
+    private static ReplayPlayer readPlayer(HearthStoneDb db, String key, StateReader in) throws IOException {
+        in.beginObject(key);
+        String name = in.readString("name");
+        String heroClass = in.readString("class");
+        String heroPower = in.readString("heroPower");
+        List<CardDescr> deck = toCards(db, WorldState.readStrings(in, "deck"));
+        List<CardDescr> hand = toCards(db, WorldState.readStrings(in, "hand"));
+        in.endObject();
+
+        if (name == null || heroClass == null) {
+            throw new IOException("The name and the class of the player must be specified.");
+        }
+
+        ReplayPlayer.Builder result = new ReplayPlayer.Builder(name);
+        result.setHeroClass(Keyword.create(heroClass));
+        if (heroPower != null) {
+            result.setHeroPower(db.getHeroPowerDb().getById(new CardId(heroPower)));
+        }
+        result.setDeck(deck);
+        result.setHand(hand);
+        return result.create();
+    }
+
+    private static List<String> toIds(List<CardDescr> cards) {
+        List<String> result = new ArrayList<>(cards.size());
+        for (CardDescr card: cards) {
+            result.add(card.getId().getName());
+        }
+        return result;
+    }
+
+    private static List<CardDescr> toCards(HearthStoneDb db, List<String> ids) {
+        List<CardDescr> result = new ArrayList<>(ids.size());
+        for (String id: ids) {
+            result.add(WorldState.getCard(db, id));
+        }
+        return result;
+    }
+
+    private static void writeMove(PlayMove move, StateWriter out) throws IOException {
+        out.beginObject("move");
+        if (move instanceof EndTurnMove) {
+            out.writeString("type", MOVE_END_TURN);
+        }
+        else if (move instanceof AttackMove) {
+            AttackMove attackMove = (AttackMove)move;
+            out.writeString("type", MOVE_ATTACK);
+            writeCharacterRef(attackMove.getAttacker(), "attacker", out);
+            writeCharacterRef(attackMove.getDefender(), "defender", out);
+        }
+        else if (move instanceof PlayCardMove) {
+            PlayCardMove cardMove = (PlayCardMove)move;
+            CardDescr chooseOneChoice = cardMove.getChooseOneChoice();
+
+            out.writeString("type", MOVE_PLAY_CARD);
+            out.writeInt("cardIndex", cardMove.getCardIndex());
+            out.writeInt("minionLocation", cardMove.getMinionLocation());
+            writeCharacterRef(cardMove.getTarget(), "target", out);
+            out.writeString("chooseOne", chooseOneChoice != null ? chooseOneChoice.getId().getName() : null);
+        }
+        else if (move instanceof HeroPowerMove) {
+            out.writeString("type", MOVE_HERO_POWER);
+            writeCharacterRef(((HeroPowerMove)move).getTarget(), "target", out);
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported move: " + move);
+        }
+        out.endObject();
+    }
+
+    private static PlayMove readMove(HearthStoneDb db, StateReader in) throws IOException {
+        in.beginObject("move");
+        String type = in.readString("type");
+
+        PlayMove result;
+        if (MOVE_END_TURN.equals(type)) {
+            result = EndTurnMove.INSTANCE;
+        }
+        else if (MOVE_ATTACK.equals(type)) {
+            CharacterRef attacker = readCharacterRef("attacker", in);
+            CharacterRef defender = readCharacterRef("defender", in);
+            if (attacker == null || defender == null) {
+                throw new IOException("Attacks must specify both the attacker and the defender.");
+            }
+            result = new AttackMove(attacker, defender);
+        }
+        else if (MOVE_PLAY_CARD.equals(type)) {
+            int cardIndex = in.readInt("cardIndex");
+            int minionLocation = in.readInt("minionLocation");
+            CharacterRef target = readCharacterRef("target", in);
+            String chooseOne = in.readString("chooseOne");
+            result = new PlayCardMove(cardIndex, minionLocation, target,
+                    chooseOne != null ? WorldState.getCard(db, chooseOne) : null);
+        }
+        else if (MOVE_HERO_POWER.equals(type)) {
+            result = new HeroPowerMove(readCharacterRef("target", in));
+        }
+        else {
+            throw new IOException("Unknown move type: " + type);
+        }
+
+        in.endObject();
+        return result;
+    }
+
+    private static void writeCharacterRef(CharacterRef character, String key, StateWriter out) throws IOException {
+        out.beginOptionalObject(key, character != null);
+        if (character != null) {
+            out.writeBoolean("opponent", character.isOpponent());
+            out.writeInt("minion", character.isHero() ? -1 : character.getMinionIndex());
+            out.endObject();
+        }
+    }
+
+    private static CharacterRef readCharacterRef(String key, StateReader in) throws IOException {
+        if (!in.beginOptionalObject(key)) {
+            return null;
+        }
+
+        boolean opponent = in.readBoolean("opponent");
+        int minionIndex = in.readInt("minion");
+        in.endObject();
+
+        return minionIndex < 0
+                ? CharacterRef.hero(opponent)
+                : CharacterRef.minion(opponent, minionIndex);
+    }
+
+    private ReplayCodec() {
+        throw new AssertionError();
+    }
+}
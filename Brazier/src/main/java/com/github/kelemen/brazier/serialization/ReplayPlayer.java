@@ -0,0 +1,102 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.Collections;
+import java.util.List;
+import org.jtrim.collections.CollectionsEx;
+import org.jtrim.utils.ExceptionHelper;
+
+// The starting setup of a player of a recorded game.
+public final class ReplayPlayer {
+    public static final class Builder {
+        private final String name;
+        private Keyword heroClass;
+        private CardDescr heroPower;
+        private List<CardDescr> deck;
+        private List<CardDescr> hand;
+
+        public Builder(String name) {
+            ExceptionHelper.checkNotNullArgument(name, "name");
+
+            this.name = name;
+            this.heroClass = Keywords.CLASS_BOSS;
+            this.heroPower = null;
+            this.deck = Collections.emptyList();
+            this.hand = Collections.emptyList();
+        }
+
+        public void setHeroClass(Keyword heroClass) {
+            ExceptionHelper.checkNotNullArgument(heroClass, "heroClass");
+            this.heroClass = heroClass;
+        }
+
+        // The hero power might be null if the hero has no hero power.
+        public void setHeroPower(CardDescr heroPower) {
+            this.heroPower = heroPower;
+        }
+
+        // The last card is on the top of the deck.
+        public void setDeck(List<? extends CardDescr> deck) {
+            this.deck = CollectionsEx.readOnlyCopy(deck);
+            ExceptionHelper.checkNotNullElements(this.deck, "deck");
+        }
+
+        // The cards in the starting hand (after the mulligan).
+        public void setHand(List<? extends CardDescr> hand) {
+            this.hand = CollectionsEx.readOnlyCopy(hand);
+            ExceptionHelper.checkNotNullElements(this.hand, "hand");
+        }
+
+        public ReplayPlayer create() {
+            return new ReplayPlayer(this);
+        }
+    }
+
+    private final String name;
+    private final Keyword heroClass;
+    private final CardDescr heroPower;
+    private final List<CardDescr> deck;
+    private final List<CardDescr> hand;
+
+    private ReplayPlayer(Builder builder) {
+        this.name = builder.name;
+        this.heroClass = builder.heroClass;
+        this.heroPower = builder.heroPower;
+        this.deck = builder.deck;
+        this.hand = builder.hand;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Keyword getHeroClass() {
+        return heroClass;
+    }
+
+    public CardDescr tryGetHeroPower() {
+        return heroPower;
+    }
+
+    public List<CardDescr> getDeck() {
+        return deck;
+    }
+
+    public List<CardDescr> getHand() {
+        return hand;
+    }
+
+    void setup(Player player) {
+        player.getHero().setHeroClass(heroClass);
+        if (heroPower != null) {
+            player.getHero().setHeroPower(heroPower);
+        }
+        player.getBoard().getDeck().setCards(deck);
+        for (CardDescr card: hand) {
+            player.getHand().addCard(card);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.UserAgent;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.ArrayList;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+// Starts a new game and records the moves played in it along with the cards
+// selected by the user agent, so that the game can be saved as a Replay.
+public final class ReplayRecorder {
+    private final long seed;
+    private final ReplayPlayer player1;
+    private final ReplayPlayer player2;
+    private final World world;
+    private final WorldPlayAgent playAgent;
+    private final RecordingUserAgent userAgent;
+
+    private final List<PlayMove> moves;
+    private final List<CardDescr> choices;
+
+    public ReplayRecorder(HearthStoneDb db, long seed, ReplayPlayer player1, ReplayPlayer player2) {
+        ExceptionHelper.checkNotNullArgument(player1, "player1");
+        ExceptionHelper.checkNotNullArgument(player2, "player2");
+
+        this.seed = seed;
+        this.player1 = player1;
+        this.player2 = player2;
+        this.world = Replay.createWorld(db, seed, player1, player2);
+        this.playAgent = new WorldPlayAgent(world);
+        this.moves = new ArrayList<>();
+        this.choices = new ArrayList<>();
+        this.userAgent = new RecordingUserAgent(world.getUserAgent());
+
+        world.setUserAgent(userAgent);
+        Replay.startGame(world);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    // Sets the user agent making the choices recorded in the replay.
+    public void setUserAgent(UserAgent userAgent) {
+        ExceptionHelper.checkNotNullArgument(userAgent, "userAgent");
+        this.userAgent.wrapped = userAgent;
+    }
+
+    public UndoAction play(PlayMove move) {
+        ExceptionHelper.checkNotNullArgument(move, "move");
+
+        int prevMoveCount = moves.size();
+        int prevChoiceCount = choices.size();
+
+        moves.add(move);
+        UndoAction moveUndo = move.play(playAgent);
+        return () -> {
+            moveUndo.undo();
+            truncate(choices, prevChoiceCount);
+            truncate(moves, prevMoveCount);
+        };
+    }
+
+    private static void truncate(List<?> list, int size) {
+        list.subList(size, list.size()).clear();
+    }
+
+    public Replay toReplay() {
+        Replay.Builder result = new Replay.Builder(seed, player1, player2);
+        moves.forEach(result::addMove);
+        choices.forEach(result::addChoice);
+        result.setFinalDigest(BinaryWorldCodec.digest(world));
+        return result.create();
+    }
+
+    private final class RecordingUserAgent implements UserAgent {
+        private UserAgent wrapped;
+
+        public RecordingUserAgent(UserAgent wrapped) {
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public CardDescr selectCard(boolean allowCancel, List<? extends CardDescr> cards) {
+            CardDescr result = wrapped.selectCard(allowCancel, cards);
+            choices.add(result);
+            return result;
+        }
+    }
+}
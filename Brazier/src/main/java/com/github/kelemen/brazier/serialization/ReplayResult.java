@@ -0,0 +1,80 @@
+package com.github.kelemen.brazier.serialization;
+
+import org.jtrim.utils.ExceptionHelper;
+
+// The outcome of replaying a recorded game (see ReplayRunner).
+public final class ReplayResult {
+    private final String name;
+    private final long expectedDigest;
+    private final long actualDigest;
+    private final int moveCount;
+    private final long durationNanos;
+    private final Exception failure;
+
+    ReplayResult(String name, long expectedDigest, long actualDigest, int moveCount, long durationNanos) {
+        ExceptionHelper.checkNotNullArgument(name, "name");
+
+        this.name = name;
+        this.expectedDigest = expectedDigest;
+        this.actualDigest = actualDigest;
+        this.moveCount = moveCount;
+        this.durationNanos = durationNanos;
+        this.failure = null;
+    }
+
+    ReplayResult(String name, Exception failure, long durationNanos) {
+        ExceptionHelper.checkNotNullArgument(name, "name");
+        ExceptionHelper.checkNotNullArgument(failure, "failure");
+
+        this.name = name;
+        this.expectedDigest = 0;
+        this.actualDigest = 0;
+        this.moveCount = 0;
+        this.durationNanos = durationNanos;
+        this.failure = failure;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // True if the replay could be executed and it produced the recorded
+    // final state.
+    public boolean isSuccessful() {
+        return failure == null && expectedDigest == actualDigest;
+    }
+
+    public long getExpectedDigest() {
+        return expectedDigest;
+    }
+
+    public long getActualDigest() {
+        return actualDigest;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    // The error preventing to read or execute the replay, or null if it
+    // could be executed.
+    public Exception tryGetFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        if (failure != null) {
+            return name + ": FAILED (" + failure + ")";
+        }
+        return name + ": " + (isSuccessful() ? "OK" : "MISMATCH")
+                + " (" + moveCount + " moves"
+                + ", digest=" + Long.toHexString(actualDigest)
+                + (isSuccessful() ? "" : ", expected=" + Long.toHexString(expectedDigest))
+                + ", " + (durationNanos / 1000) + " us)";
+    }
+}
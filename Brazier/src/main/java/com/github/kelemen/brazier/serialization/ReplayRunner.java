@@ -0,0 +1,86 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.ParallelUtils;
+import com.github.kelemen.brazier.World;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+
+// Executes recorded games without any UI and verifies that they produce the
+// recorded final state. Replay files are distributed between the threads,
+// each game being executed on a single thread.
+public final class ReplayRunner {
+    public static final class Builder {
+        private final HearthStoneDb db;
+        private int threadCount;
+
+        public Builder(HearthStoneDb db) {
+            ExceptionHelper.checkNotNullArgument(db, "db");
+
+            this.db = db;
+            this.threadCount = Runtime.getRuntime().availableProcessors();
+        }
+
+        public void setThreadCount(int threadCount) {
+            ExceptionHelper.checkArgumentInRange(threadCount, 1, Integer.MAX_VALUE, "threadCount");
+            this.threadCount = threadCount;
+        }
+
+        public ReplayRunner create() {
+            return new ReplayRunner(this);
+        }
+    }
+
+    private final HearthStoneDb db;
+    private final int threadCount;
+
+    private ReplayRunner(Builder builder) {
+        this.db = builder.db;
+        this.threadCount = builder.threadCount;
+    }
+
+    public ReplayResult run(String name, Replay replay) {
+        ExceptionHelper.checkNotNullArgument(name, "name");
+        ExceptionHelper.checkNotNullArgument(replay, "replay");
+
+        long startTime = System.nanoTime();
+        try {
+            World world = replay.replay(db);
+            long actualDigest = BinaryWorldCodec.digest(world);
+            return new ReplayResult(name, replay.getFinalDigest(), actualDigest,
+                    replay.getMoves().size(), System.nanoTime() - startTime);
+        } catch (Exception ex) {
+            return new ReplayResult(name, ex, System.nanoTime() - startTime);
+        }
+    }
+
+    // Reads and executes the replay files. The results are in the order of
+    // the files, and files which cannot be read are reported as failures.
+    public List<ReplayResult> runFiles(List<? extends Path> files) {
+        ExceptionHelper.checkNotNullElements(files, "files");
+
+        List<Path> fileList = new ArrayList<>(files);
+        ReplayResult[] results = new ReplayResult[fileList.size()];
+
+        ParallelUtils.forEachIndex(threadCount, "Replay-Runner", fileList.size(), (fileIndex) -> {
+            results[fileIndex] = runFile(fileList.get(fileIndex));
+        });
+        return Arrays.asList(results);
+    }
+
+    private ReplayResult runFile(Path file) {
+        String name = file.toString();
+
+        Replay replay;
+        long startTime = System.nanoTime();
+        try {
+            replay = ReplayCodec.readFile(db, file);
+        } catch (Exception ex) {
+            return new ReplayResult(name, ex, System.nanoTime() - startTime);
+        }
+        return run(name, replay);
+    }
+}
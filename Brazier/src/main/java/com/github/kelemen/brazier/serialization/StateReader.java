@@ -0,0 +1,21 @@
+package com.github.kelemen.brazier.serialization;
+
+import java.io.IOException;
+
+// Reads the fields written by a StateWriter in the same order.
+interface StateReader {
+    public int readInt(String key) throws IOException;
+    public long readLong(String key) throws IOException;
+    public boolean readBoolean(String key) throws IOException;
+    public String readString(String key) throws IOException;
+
+    public void beginObject(String key) throws IOException;
+    public void endObject() throws IOException;
+
+    // Returns false without beginning an object if the object is missing.
+    public boolean beginOptionalObject(String key) throws IOException;
+
+    // Returns the number of elements in the list.
+    public int beginList(String key) throws IOException;
+    public void endList() throws IOException;
+}
@@ -0,0 +1,22 @@
+package com.github.kelemen.brazier.serialization;
+
+import java.io.IOException;
+
+// Writes the fields of a world state in order. Keys are used by formats
+// storing named fields, and are ignored for the elements of lists.
+interface StateWriter {
+    public void writeInt(String key, int value) throws IOException;
+    public void writeLong(String key, long value) throws IOException;
+    public void writeBoolean(String key, boolean value) throws IOException;
+    public void writeString(String key, String value) throws IOException;
+
+    public void beginObject(String key) throws IOException;
+    public void endObject() throws IOException;
+
+    // Begins an object if present is true, otherwise only records that the
+    // object is missing (and endObject must not be called).
+    public void beginOptionalObject(String key, boolean present) throws IOException;
+
+    public void beginList(String key, int size) throws IOException;
+    public void endList() throws IOException;
+}
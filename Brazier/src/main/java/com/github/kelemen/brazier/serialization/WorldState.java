@@ -0,0 +1,834 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.Graveyard;
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Hero;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.ManaResource;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.Secret;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.abilities.HpProperty;
+import com.github.kelemen.brazier.actions.PlayActionDef;
+import com.github.kelemen.brazier.actions.PlayArg;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.minions.MinionBody;
+import com.github.kelemen.brazier.minions.MinionDescr;
+import com.github.kelemen.brazier.minions.MinionId;
+import com.github.kelemen.brazier.minions.MinionProperties;
+import com.github.kelemen.brazier.weapons.Weapon;
+import com.github.kelemen.brazier.weapons.WeaponId;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.jtrim.utils.ExceptionHelper;
+
+// The state of a world in a form which can be written by any StateWriter.
+//
+// Buffs and auras are arbitrary functions, so they are not stored directly.
+// Instead, the observable stats are stored, and when restoring, entities are
+// recreated from their descriptions (reactivating their own abilities and
+// auras) and then their stats are adjusted to the stored values. Abilities
+// and death rattles granted to minions by other cards cannot be restored, so
+// capture refuses to store them.
+final class WorldState {
+    private final String player1Name;
+    private final String player2Name;
+    private final String currentPlayerName;
+    private final PlayerState player1;
+    private final PlayerState player2;
+
+    private WorldState(World world) {
+        Player worldPlayer1 = world.getPlayer1();
+        Player worldPlayer2 = world.getPlayer2();
+
+        Map<Minion, Integer> birthRanks = getBirthRanks(worldPlayer1, worldPlayer2);
+
+        this.player1Name = worldPlayer1.getPlayerId().getName();
+        this.player2Name = worldPlayer2.getPlayerId().getName();
+        this.currentPlayerName = world.getCurrentPlayer().getPlayerId().getName();
+        this.player1 = new PlayerState(worldPlayer1, birthRanks);
+        this.player2 = new PlayerState(worldPlayer2, birthRanks);
+    }
+
+    private WorldState(StateReader in) throws IOException {
+        this.player1Name = in.readString("player1Name");
+        this.player2Name = in.readString("player2Name");
+        this.currentPlayerName = in.readString("currentPlayer");
+
+        in.beginObject("player1");
+        this.player1 = new PlayerState(in);
+        in.endObject();
+
+        in.beginObject("player2");
+        this.player2 = new PlayerState(in);
+        in.endObject();
+
+        if (currentPlayerName == null
+                || (!currentPlayerName.equals(player1Name) && !currentPlayerName.equals(player2Name))) {
+            throw new IOException("Unknown current player: " + currentPlayerName);
+        }
+        checkBirthRanks();
+    }
+
+    public static WorldState capture(World world) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+
+        Minion minion = tryGetMinionWithGrantedEffects(world);
+        if (minion != null) {
+            throw new IllegalStateException("Cannot store the abilities or death rattles granted to "
+                    + minion.getBaseDescr().getId().getName());
+        }
+        return new WorldState(world);
+    }
+
+    // Captures the world even if it cannot be restored exactly, dropping the
+    // abilities and death rattles granted to minions.
+    public static WorldState captureObservable(World world) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        return new WorldState(world);
+    }
+
+    public static boolean canCapture(World world) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        return tryGetMinionWithGrantedEffects(world) == null;
+    }
+
+    private static Minion tryGetMinionWithGrantedEffects(World world) {
+        for (Player player: new Player[]{world.getPlayer1(), world.getPlayer2()}) {
+            for (Minion minion: player.getBoard().getAllMinions()) {
+                if (hasGrantedEffects(minion)) {
+                    return minion;
+                }
+            }
+        }
+        return null;
+    }
+
+    // The effects of the minion itself are recreated when restoring, so we
+    // only have to detect if the minion has more of them than its
+    // description provides.
+    private static boolean hasGrantedEffects(Minion minion) {
+        MinionProperties properties = minion.getProperties();
+
+        int ownAbilityCount = 0;
+        int ownDeathRattleCount = 0;
+        if (!properties.isSilenced()) {
+            MinionDescr descr = minion.getBaseDescr();
+            if (descr.getEffectClass().isTriggered()) {
+                // The event actions are activated as a single ability.
+                ownAbilityCount = descr.tryGetAbility() != null ? 2 : 1;
+            }
+            ownDeathRattleCount = descr.tryGetDeathRattle() != null ? 1 : 0;
+        }
+
+        return properties.getAbilityCount() > ownAbilityCount
+                || properties.getDeathRattleCount() > ownDeathRattleCount;
+    }
+
+    public static WorldState read(StateReader in) throws IOException {
+        ExceptionHelper.checkNotNullArgument(in, "in");
+        return new WorldState(in);
+    }
+
+    // The relative order of birth dates of the minions on the board matters
+    // (e.g., the order of triggering events), so it is preserved.
+    private static Map<Minion, Integer> getBirthRanks(Player player1, Player player2) {
+        List<Minion> minions = new ArrayList<>();
+        minions.addAll(player1.getBoard().getAllMinions());
+        minions.addAll(player2.getBoard().getAllMinions());
+        minions.sort(Comparator.comparingLong(Minion::getBirthDate));
+
+        Map<Minion, Integer> result = new IdentityHashMap<>();
+        for (int i = 0; i < minions.size(); i++) {
+            result.put(minions.get(i), i);
+        }
+        return result;
+    }
+
+    private void checkBirthRanks() throws IOException {
+        int minionCount = player1.board.size() + player2.board.size();
+        boolean[] usedRanks = new boolean[minionCount];
+        for (PlayerState player: new PlayerState[]{player1, player2}) {
+            for (MinionState minion: player.board) {
+                int rank = minion.birthRank;
+                if (rank < 0 || rank >= minionCount || usedRanks[rank]) {
+                    throw new IOException("Invalid birth order of minion: " + minion.id);
+                }
+                usedRanks[rank] = true;
+            }
+        }
+    }
+
+    public void write(StateWriter out) throws IOException {
+        ExceptionHelper.checkNotNullArgument(out, "out");
+
+        out.writeString("player1Name", player1Name);
+        out.writeString("player2Name", player2Name);
+        out.writeString("currentPlayer", currentPlayerName);
+
+        out.beginObject("player1");
+        player1.write(out);
+        out.endObject();
+
+        out.beginObject("player2");
+        player2.write(out);
+        out.endObject();
+    }
+
+    public World restore(HearthStoneDb db) {
+        ExceptionHelper.checkNotNullArgument(db, "db");
+
+        World world = new World(db, new PlayerId(player1Name), new PlayerId(player2Name));
+        Player worldPlayer1 = world.getPlayer1();
+        Player worldPlayer2 = world.getPlayer2();
+
+        player1.restoreHero(worldPlayer1);
+        player2.restoreHero(worldPlayer2);
+
+        Minion[] minions = createMinions(db, worldPlayer1, worldPlayer2);
+        player1.restoreBoard(worldPlayer1, minions);
+        player2.restoreBoard(worldPlayer2, minions);
+
+        player1.restoreCards(worldPlayer1);
+        player2.restoreCards(worldPlayer2);
+
+        world.setCurrentPlayerId(worldPlayer1.getPlayerId().getName().equals(currentPlayerName)
+                ? worldPlayer1.getPlayerId()
+                : worldPlayer2.getPlayerId());
+
+        // Let the restored auras take effect before adjusting the stats to
+        // the stored values.
+        world.endPhase();
+
+        player1.restoreStats(worldPlayer1, minions);
+        player2.restoreStats(worldPlayer2, minions);
+
+        return world;
+    }
+
+    // Creates the minions of the boards in the order of their original birth
+    // dates. The returned array is indexed by the birth ranks.
+    private Minion[] createMinions(HearthStoneDb db, Player worldPlayer1, Player worldPlayer2) {
+        int minionCount = player1.board.size() + player2.board.size();
+        Player[] owners = new Player[minionCount];
+        MinionState[] states = new MinionState[minionCount];
+        for (MinionState minion: player1.board) {
+            owners[minion.birthRank] = worldPlayer1;
+            states[minion.birthRank] = minion;
+        }
+        for (MinionState minion: player2.board) {
+            owners[minion.birthRank] = worldPlayer2;
+            states[minion.birthRank] = minion;
+        }
+
+        Minion[] result = new Minion[minionCount];
+        for (int i = 0; i < minionCount; i++) {
+            result[i] = new Minion(owners[i], db.getMinionDb().getById(new MinionId(states[i].id)));
+        }
+        return result;
+    }
+
+    static CardDescr getCard(HearthStoneDb db, String id) {
+        return db.getCardDb().getById(new CardId(id));
+    }
+
+    static List<String> readStrings(StateReader in, String key) throws IOException {
+        int size = in.beginList(key);
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            result.add(in.readString(key));
+        }
+        in.endList();
+        return Collections.unmodifiableList(result);
+    }
+
+    static void writeStrings(StateWriter out, String key, List<String> values) throws IOException {
+        out.beginList(key, values.size());
+        for (String value: values) {
+            out.writeString(key, value);
+        }
+        out.endList();
+    }
+
+    private static void restoreHp(HpProperty hp, int maxHp, int currentHp) {
+        int maxHpDelta = maxHp - hp.getMaxHp();
+        if (maxHpDelta != 0) {
+            hp.buffHp(maxHpDelta);
+            hp.applyAura();
+        }
+        hp.setCurrentHp(currentHp);
+    }
+
+    private static final class PlayerState {
+        private final HeroState hero;
+        private final WeaponState weapon;
+
+        private final int manaCrystals;
+        private final int mana;
+        private final int overloadedMana;
+        private final int nextTurnOverload;
+        private final int fatique;
+        private final int cardsPlayedThisTurn;
+        private final int minionsPlayedThisTurn;
+
+        private final List<MinionState> board;
+        private final List<HandCardState> hand;
+        private final List<String> deck;
+        private final List<String> secrets;
+        private final List<String> graveyard;
+        private final int minionsDiedThisTurn;
+        private final List<String> playedCards;
+
+        public PlayerState(Player player, Map<Minion, Integer> birthRanks) {
+            this.hero = new HeroState(player.getHero());
+
+            Weapon currentWeapon = player.tryGetWeapon();
+            this.weapon = currentWeapon != null ? new WeaponState(currentWeapon) : null;
+
+            ManaResource manaResource = player.getManaResource();
+            this.manaCrystals = manaResource.getManaCrystals();
+            this.mana = manaResource.getMana();
+            this.overloadedMana = manaResource.getOverloadedMana();
+            this.nextTurnOverload = manaResource.getNextTurnOverload();
+            this.fatique = player.getFatique();
+            this.cardsPlayedThisTurn = player.getCardsPlayedThisTurn();
+            this.minionsPlayedThisTurn = player.getMinionsPlayedThisTurn();
+
+            List<MinionState> boardStates = new ArrayList<>();
+            for (Minion minion: player.getBoard().getAllMinions()) {
+                boardStates.add(new MinionState(minion, birthRanks.get(minion)));
+            }
+            this.board = Collections.unmodifiableList(boardStates);
+
+            List<HandCardState> handStates = new ArrayList<>();
+            for (Card card: player.getHand().getCards()) {
+                handStates.add(new HandCardState(card));
+            }
+            this.hand = Collections.unmodifiableList(handStates);
+
+            List<String> deckIds = new ArrayList<>();
+            for (Card card: player.getBoard().getDeck().getCards()) {
+                deckIds.add(card.getCardDescr().getId().getName());
+            }
+            this.deck = Collections.unmodifiableList(deckIds);
+
+            List<String> secretIds = new ArrayList<>();
+            for (Secret secret: player.getSecrets().getSecrets()) {
+                secretIds.add(secret.getBaseCard().getId().getName());
+            }
+            this.secrets = Collections.unmodifiableList(secretIds);
+
+            Graveyard currentGraveyard = player.getBoard().getGraveyard();
+            List<String> deadMinionIds = new ArrayList<>();
+            for (Minion minion: currentGraveyard.getDeadMinions()) {
+                deadMinionIds.add(minion.getBaseDescr().getId().getName());
+            }
+            this.graveyard = Collections.unmodifiableList(deadMinionIds);
+            this.minionsDiedThisTurn = currentGraveyard.getNumberOfMinionsDiedThisTurn();
+
+            List<String> playedCardIds = new ArrayList<>();
+            for (CardDescr card: player.getPlayedCards().getCards()) {
+                playedCardIds.add(card.getId().getName());
+            }
+            this.playedCards = Collections.unmodifiableList(playedCardIds);
+        }
+
+        public PlayerState(StateReader in) throws IOException {
+            in.beginObject("hero");
+            this.hero = new HeroState(in);
+            in.endObject();
+
+            if (in.beginOptionalObject("weapon")) {
+                this.weapon = new WeaponState(in);
+                in.endObject();
+            }
+            else {
+                this.weapon = null;
+            }
+
+            this.manaCrystals = in.readInt("manaCrystals");
+            this.mana = in.readInt("mana");
+            this.overloadedMana = in.readInt("overloadedMana");
+            this.nextTurnOverload = in.readInt("nextTurnOverload");
+            this.fatique = in.readInt("fatique");
+            this.cardsPlayedThisTurn = in.readInt("cardsPlayedThisTurn");
+            this.minionsPlayedThisTurn = in.readInt("minionsPlayedThisTurn");
+
+            int minionCount = in.beginList("board");
+            List<MinionState> boardStates = new ArrayList<>();
+            for (int i = 0; i < minionCount; i++) {
+                in.beginObject("minion");
+                boardStates.add(new MinionState(in));
+                in.endObject();
+            }
+            in.endList();
+            this.board = Collections.unmodifiableList(boardStates);
+
+            int cardCount = in.beginList("hand");
+            List<HandCardState> handStates = new ArrayList<>();
+            for (int i = 0; i < cardCount; i++) {
+                in.beginObject("card");
+                handStates.add(new HandCardState(in));
+                in.endObject();
+            }
+            in.endList();
+            this.hand = Collections.unmodifiableList(handStates);
+
+            this.deck = readStrings(in, "deck");
+            this.secrets = readStrings(in, "secrets");
+            this.graveyard = readStrings(in, "graveyard");
+            this.minionsDiedThisTurn = in.readInt("minionsDiedThisTurn");
+            this.playedCards = readStrings(in, "playedCards");
+
+            if (minionsDiedThisTurn < 0 || minionsDiedThisTurn > graveyard.size()) {
+                throw new IOException("Invalid number of minions died this turn: " + minionsDiedThisTurn);
+            }
+        }
+
+        public void write(StateWriter out) throws IOException {
+            out.beginObject("hero");
+            hero.write(out);
+            out.endObject();
+
+            out.beginOptionalObject("weapon", weapon != null);
+            if (weapon != null) {
+                weapon.write(out);
+                out.endObject();
+            }
+
+            out.writeInt("manaCrystals", manaCrystals);
+            out.writeInt("mana", mana);
+            out.writeInt("overloadedMana", overloadedMana);
+            out.writeInt("nextTurnOverload", nextTurnOverload);
+            out.writeInt("fatique", fatique);
+            out.writeInt("cardsPlayedThisTurn", cardsPlayedThisTurn);
+            out.writeInt("minionsPlayedThisTurn", minionsPlayedThisTurn);
+
+            out.beginList("board", board.size());
+            for (MinionState minion: board) {
+                out.beginObject("minion");
+                minion.write(out);
+                out.endObject();
+            }
+            out.endList();
+
+            out.beginList("hand", hand.size());
+            for (HandCardState card: hand) {
+                out.beginObject("card");
+                card.write(out);
+                out.endObject();
+            }
+            out.endList();
+
+            writeStrings(out, "deck", deck);
+            writeStrings(out, "secrets", secrets);
+            writeStrings(out, "graveyard", graveyard);
+            out.writeInt("minionsDiedThisTurn", minionsDiedThisTurn);
+            writeStrings(out, "playedCards", playedCards);
+        }
+
+        public void restoreHero(Player player) {
+            hero.restore(player);
+        }
+
+        public void restoreBoard(Player player, Minion[] minions) {
+            for (MinionState minionState: board) {
+                Minion minion = minions[minionState.birthRank];
+                player.getBoard().tryAddToBoard(minion);
+                if (minionState.silenced) {
+                    minion.silence();
+                }
+            }
+        }
+
+        public void restoreCards(Player player) {
+            World world = player.getWorld();
+            HearthStoneDb db = world.getDb();
+
+            if (weapon != null) {
+                weapon.restore(player);
+            }
+
+            for (HandCardState card: hand) {
+                player.getHand().addCard(getCard(db, card.id));
+            }
+
+            List<CardDescr> deckCards = new ArrayList<>(deck.size());
+            for (String cardId: deck) {
+                deckCards.add(getCard(db, cardId));
+            }
+            player.getBoard().getDeck().setCards(deckCards);
+
+            // Playing the secrets would trigger card play events, so we only
+            // execute their play actions which add them.
+            for (String secretId: secrets) {
+                Card card = new Card(player, getCard(db, secretId));
+                PlayArg<Card> playArg = new PlayArg<>(card, Optional.empty());
+                for (PlayActionDef<Card> action: card.getCardDescr().getOnPlayActions()) {
+                    if (action.getRequirement().meetsRequirement(player)) {
+                        action.doPlay(world, playArg);
+                    }
+                }
+            }
+
+            Graveyard currentGraveyard = player.getBoard().getGraveyard();
+            int earlierDeathCount = graveyard.size() - minionsDiedThisTurn;
+            for (int i = 0; i < graveyard.size(); i++) {
+                if (i == earlierDeathCount) {
+                    currentGraveyard.refresh();
+                }
+                Minion deadMinion = new Minion(player, db.getMinionDb().getById(new MinionId(graveyard.get(i))));
+                currentGraveyard.addDeadMinion(deadMinion);
+            }
+            if (minionsDiedThisTurn == 0) {
+                currentGraveyard.refresh();
+            }
+
+            for (String cardId: playedCards) {
+                player.getPlayedCards().addCard(getCard(db, cardId));
+            }
+
+            ManaResource manaResource = player.getManaResource();
+            manaResource.setManaCrystals(manaCrystals);
+            manaResource.setMana(mana);
+            manaResource.setOverloadedMana(overloadedMana);
+            manaResource.setNextTurnOverload(nextTurnOverload);
+
+            player.setFatique(fatique);
+            player.setPlayedThisTurn(cardsPlayedThisTurn, minionsPlayedThisTurn);
+        }
+
+        public void restoreStats(Player player, Minion[] minions) {
+            hero.restoreStats(player.getHero());
+            if (weapon != null) {
+                weapon.restoreStats(player.tryGetWeapon());
+            }
+
+            for (MinionState minion: board) {
+                minion.restoreStats(minions[minion.birthRank]);
+            }
+
+            List<Card> cards = player.getHand().getCards();
+            for (int i = 0; i < cards.size(); i++) {
+                hand.get(i).restoreStats(cards.get(i));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "PlayerState{" + "hero=" + hero + ", board=" + board + ", hand=" + hand + '}';
+        }
+    }
+
+    private static final class HeroState {
+        private final String heroClass;
+        private final List<String> keywords;
+        private final int maxHp;
+        private final int currentHp;
+        private final int armor;
+        private final String heroPower;
+        private final int heroPowerUseCount;
+        private final int attackCount;
+        private final int extraAttack;
+        private final boolean frozen;
+
+        public HeroState(Hero hero) {
+            this.heroClass = hero.getHeroClass().getName();
+
+            List<String> keywordNames = new ArrayList<>();
+            for (Keyword keyword: hero.getKeywords()) {
+                keywordNames.add(keyword.getName());
+            }
+            keywordNames.sort(null);
+            this.keywords = Collections.unmodifiableList(keywordNames);
+
+            this.maxHp = hero.getMaxHp();
+            this.currentHp = hero.getCurrentHp();
+            this.armor = hero.getCurrentArmor();
+
+            CardDescr powerDef = hero.getHeroPower().getPowerDef();
+            this.heroPower = powerDef != CardDescr.DO_NOTHING ? powerDef.getId().getName() : null;
+            this.heroPowerUseCount = hero.getHeroPower().getUseCount();
+            this.attackCount = hero.getAttackCount();
+            this.extraAttack = hero.getExtraAttackForThisTurn();
+            this.frozen = hero.getAttackTool().isFrozen();
+        }
+
+        public HeroState(StateReader in) throws IOException {
+            this.heroClass = in.readString("class");
+            this.keywords = readStrings(in, "keywords");
+            this.maxHp = in.readInt("maxHp");
+            this.currentHp = in.readInt("hp");
+            this.armor = in.readInt("armor");
+            this.heroPower = in.readString("heroPower");
+            this.heroPowerUseCount = in.readInt("heroPowerUseCount");
+            this.attackCount = in.readInt("attackCount");
+            this.extraAttack = in.readInt("extraAttack");
+            this.frozen = in.readBoolean("frozen");
+
+            if (heroClass == null) {
+                throw new IOException("Missing hero class.");
+            }
+            if (armor < 0 || heroPowerUseCount < 0 || attackCount < 0) {
+                throw new IOException("Invalid hero state: " + this);
+            }
+        }
+
+        public void write(StateWriter out) throws IOException {
+            out.writeString("class", heroClass);
+            writeStrings(out, "keywords", keywords);
+            out.writeInt("maxHp", maxHp);
+            out.writeInt("hp", currentHp);
+            out.writeInt("armor", armor);
+            out.writeString("heroPower", heroPower);
+            out.writeInt("heroPowerUseCount", heroPowerUseCount);
+            out.writeInt("attackCount", attackCount);
+            out.writeInt("extraAttack", extraAttack);
+            out.writeBoolean("frozen", frozen);
+        }
+
+        public void restore(Player player) {
+            List<Keyword> heroKeywords = new ArrayList<>(keywords.size());
+            for (String keyword: keywords) {
+                heroKeywords.add(Keyword.create(keyword));
+            }
+
+            Hero hero = new Hero(player, maxHp, armor, Keyword.create(heroClass), heroKeywords);
+            player.setHero(hero);
+
+            if (heroPower != null) {
+                HearthStoneDb db = player.getWorld().getDb();
+                hero.setHeroPower(db.getHeroPowerDb().getById(new CardId(heroPower)));
+            }
+            hero.getHeroPower().setUseCount(heroPowerUseCount);
+
+            // There is no weapon yet, so this does not spend weapon charges.
+            for (int i = 0; i < attackCount; i++) {
+                hero.getAttackTool().incUseCount();
+            }
+            if (extraAttack != 0) {
+                hero.addExtraAttackForThisTurn(extraAttack);
+            }
+            if (frozen) {
+                hero.getAttackTool().freeze();
+            }
+        }
+
+        public void restoreStats(Hero hero) {
+            restoreHp(hero.getHp(), maxHp, currentHp);
+        }
+
+        @Override
+        public String toString() {
+            return "HeroState{" + "class=" + heroClass + ", hp=" + currentHp + '/' + maxHp + ", armor=" + armor + '}';
+        }
+    }
+
+    private static final class WeaponState {
+        private final String id;
+        private final int attack;
+        private final int charges;
+
+        public WeaponState(Weapon weapon) {
+            this.id = weapon.getBaseDescr().getId().getName();
+            this.attack = weapon.getAttack();
+            this.charges = weapon.getCharges();
+        }
+
+        public WeaponState(StateReader in) throws IOException {
+            this.id = in.readString("id");
+            this.attack = in.readInt("attack");
+            this.charges = in.readInt("charges");
+
+            if (id == null) {
+                throw new IOException("Missing weapon ID.");
+            }
+        }
+
+        public void write(StateWriter out) throws IOException {
+            out.writeString("id", id);
+            out.writeInt("attack", attack);
+            out.writeInt("charges", charges);
+        }
+
+        public void restore(Player player) {
+            HearthStoneDb db = player.getWorld().getDb();
+            player.equipWeapon(db.getWeaponDb().getById(new WeaponId(id)));
+
+            Weapon weapon = player.tryGetWeapon();
+            weapon.increaseCharges(charges - weapon.getCharges());
+        }
+
+        public void restoreStats(Weapon weapon) {
+            int attackDelta = attack - weapon.getAttack();
+            if (attackDelta != 0) {
+                weapon.getBuffableAttack().addBuff(attackDelta);
+            }
+        }
+    }
+
+    private static final class MinionState {
+        private final String id;
+        private final int birthRank;
+        private final int attack;
+        private final int maxHp;
+        private final int currentHp;
+        private final int maxAttackCount;
+        private final int attackCount;
+        private final boolean exhausted;
+        private final boolean frozen;
+        private final boolean charge;
+        private final boolean taunt;
+        private final boolean divineShield;
+        private final boolean stealth;
+        private final boolean silenced;
+
+        public MinionState(Minion minion, int birthRank) {
+            MinionProperties properties = minion.getProperties();
+            MinionBody body = minion.getBody();
+
+            this.id = minion.getBaseDescr().getId().getName();
+            this.birthRank = birthRank;
+            this.attack = minion.getAttackTool().getAttack();
+            this.maxHp = body.getMaxHp();
+            this.currentHp = body.getCurrentHp();
+            this.maxAttackCount = properties.getMaxAttackCountProperty().getValue();
+            this.attackCount = properties.getAttackCount();
+            this.exhausted = properties.isExhausted();
+            this.frozen = properties.isFrozen();
+            this.charge = properties.isCharge();
+            this.taunt = body.isTaunt();
+            this.divineShield = body.isDivineShield();
+            this.stealth = body.isStealth();
+            this.silenced = properties.isSilenced();
+        }
+
+        public MinionState(StateReader in) throws IOException {
+            this.id = in.readString("id");
+            this.birthRank = in.readInt("birthRank");
+            this.attack = in.readInt("attack");
+            this.maxHp = in.readInt("maxHp");
+            this.currentHp = in.readInt("hp");
+            this.maxAttackCount = in.readInt("maxAttackCount");
+            this.attackCount = in.readInt("attackCount");
+            this.exhausted = in.readBoolean("exhausted");
+            this.frozen = in.readBoolean("frozen");
+            this.charge = in.readBoolean("charge");
+            this.taunt = in.readBoolean("taunt");
+            this.divineShield = in.readBoolean("divineShield");
+            this.stealth = in.readBoolean("stealth");
+            this.silenced = in.readBoolean("silenced");
+
+            if (id == null) {
+                throw new IOException("Missing minion ID.");
+            }
+            if (attackCount < 0) {
+                throw new IOException("Invalid attack count of minion " + id + ": " + attackCount);
+            }
+        }
+
+        public void write(StateWriter out) throws IOException {
+            out.writeString("id", id);
+            out.writeInt("birthRank", birthRank);
+            out.writeInt("attack", attack);
+            out.writeInt("maxHp", maxHp);
+            out.writeInt("hp", currentHp);
+            out.writeInt("maxAttackCount", maxAttackCount);
+            out.writeInt("attackCount", attackCount);
+            out.writeBoolean("exhausted", exhausted);
+            out.writeBoolean("frozen", frozen);
+            out.writeBoolean("charge", charge);
+            out.writeBoolean("taunt", taunt);
+            out.writeBoolean("divineShield", divineShield);
+            out.writeBoolean("stealth", stealth);
+            out.writeBoolean("silenced", silenced);
+        }
+
+        public void restoreStats(Minion minion) {
+            MinionProperties properties = minion.getProperties();
+            MinionBody body = minion.getBody();
+
+            int attackDelta = attack - minion.getAttackTool().getAttack();
+            if (attackDelta != 0) {
+                minion.getBuffableAttack().addBuff(attackDelta);
+            }
+
+            int maxAttackCountDelta = maxAttackCount - properties.getMaxAttackCountProperty().getValue();
+            if (maxAttackCountDelta != 0) {
+                properties.getMaxAttackCountProperty().addBuff(maxAttackCountDelta);
+            }
+
+            restoreHp(body.getHp(), maxHp, currentHp);
+
+            if (properties.isCharge() != charge) {
+                minion.setCharge(charge);
+            }
+            if (body.isStealth() != stealth) {
+                body.setStealth(stealth);
+            }
+            body.setTaunt(taunt);
+            body.setDivineShield(divineShield);
+
+            if (!exhausted) {
+                minion.refresh();
+            }
+            for (int i = 0; i < attackCount; i++) {
+                minion.getAttackTool().incUseCount();
+            }
+            if (frozen) {
+                minion.getAttackTool().freeze();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return id + " " + attack + "/" + currentHp;
+        }
+    }
+
+    private static final class HandCardState {
+        private final String id;
+        private final int manaCost;
+
+        public HandCardState(Card card) {
+            this.id = card.getCardDescr().getId().getName();
+            this.manaCost = card.getRawManaCost().getValue();
+        }
+
+        public HandCardState(StateReader in) throws IOException {
+            this.id = in.readString("id");
+            this.manaCost = in.readInt("manaCost");
+
+            if (id == null) {
+                throw new IOException("Missing card ID.");
+            }
+        }
+
+        public void write(StateWriter out) throws IOException {
+            out.writeString("id", id);
+            out.writeInt("manaCost", manaCost);
+        }
+
+        public void restoreStats(Card card) {
+            int manaCostDelta = manaCost - card.getRawManaCost().getValue();
+            if (manaCostDelta != 0) {
+                card.getRawManaCost().addBuff(manaCostDelta);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+}
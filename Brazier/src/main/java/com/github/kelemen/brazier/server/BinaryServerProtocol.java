@@ -0,0 +1,210 @@
+package com.github.kelemen.brazier.server;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.ai.LethalResult;
+import com.github.kelemen.brazier.ai.MctsResult;
+import com.github.kelemen.brazier.ai.MoveStatistics;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.serialization.BinaryWorldCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The client starts the connection with the magic "BRZQ", then every request
+// and response is a frame: the length of the payload (int) and the payload.
+//
+// Request payload: id (long), type (byte, the ordinal of RequestType),
+// position (boolean present, int length, bytes in the format of
+// BinaryWorldCodec), count (int), seed (long), maxTurns (int),
+// maxNodes (long).
+//
+// Response payload: id (long), type (byte, -1 if unknown), success (boolean),
+// then either the error message (UTF) or the queue time and the latency in
+// nanoseconds (longs) followed by the result.
+final class BinaryServerProtocol implements ServerProtocol {
+    public static final int MAGIC = 0x42525a51; // "BRZQ"
+    public static final int MAGIC_FIRST_BYTE = MAGIC >>> 24;
+
+    private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private final HearthStoneDb db;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private boolean magicRead;
+
+    public BinaryServerProtocol(HearthStoneDb db, InputStream input, OutputStream output) {
+        this.db = db;
+        this.input = new DataInputStream(input);
+        this.output = new DataOutputStream(output);
+        this.magicRead = false;
+    }
+
+    @Override
+    public SimulationRequest readRequest() throws IOException, InvalidRequestException {
+        if (!magicRead) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Invalid protocol header.");
+            }
+            magicRead = true;
+        }
+
+        int length;
+        try {
+            length = input.readInt();
+        } catch (EOFException ex) {
+            return null;
+        }
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+
+        byte[] payload = new byte[length];
+        input.readFully(payload);
+
+        DataInputStream frame = new DataInputStream(new ByteArrayInputStream(payload));
+        long id = 0;
+        try {
+            id = frame.readLong();
+            return parseRequest(id, frame);
+        } catch (RuntimeException | IOException ex) {
+            throw new InvalidRequestException(id, "Invalid request: " + ex.getMessage(), ex);
+        }
+    }
+
+    private SimulationRequest parseRequest(long id, DataInputStream frame) throws IOException, InvalidRequestException {
+        int typeIndex = frame.readUnsignedByte();
+        if (typeIndex >= RequestType.VALUES.length) {
+            throw new InvalidRequestException(id, "Unknown request type: " + typeIndex);
+        }
+        RequestType type = RequestType.VALUES[typeIndex];
+
+        byte[] position = null;
+        if (frame.readBoolean()) {
+            int positionLength = frame.readInt();
+            if (positionLength < 0 || positionLength > frame.available()) {
+                throw new InvalidRequestException(id, "Invalid position length: " + positionLength);
+            }
+            byte[] encodedPosition = new byte[positionLength];
+            frame.readFully(encodedPosition);
+            // Decoding validates the position and also converts it to the
+            // current version of the format.
+            position = BinaryWorldCodec.encode(BinaryWorldCodec.decode(db, encodedPosition));
+        }
+        else if (type == RequestType.SET_POSITION) {
+            throw new InvalidRequestException(id, "Missing position.");
+        }
+
+        int count = frame.readInt();
+        long seed = frame.readLong();
+        int maxTurns = frame.readInt();
+        long maxNodes = frame.readLong();
+        return new SimulationRequest(id, type, position, count, seed, maxTurns, maxNodes);
+    }
+
+    @Override
+    public void writeResponse(SimulationResponse response) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(256);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+
+        RequestType type = response.tryGetType();
+        payload.writeLong(response.getRequestId());
+        payload.writeByte(type != null ? type.ordinal() : -1);
+        payload.writeBoolean(response.isSuccessful());
+        if (response.isSuccessful()) {
+            payload.writeLong(response.getQueueNanos());
+            payload.writeLong(response.getLatencyNanos());
+            writeResult(type, response.getResult(), payload);
+        }
+        else {
+            payload.writeUTF(response.getErrorMessage());
+        }
+        payload.flush();
+
+        synchronized (output) {
+            output.writeInt(payloadBytes.size());
+            payloadBytes.writeTo(output);
+            output.flush();
+        }
+    }
+
+    private static void writeResult(RequestType type, Object result, DataOutputStream output) throws IOException {
+        switch (type) {
+            case SET_POSITION:
+                output.writeLong((Long)result);
+                break;
+            case SIMULATE:
+                writePlayoutStats((PlayoutStats)result, output);
+                break;
+            case FIND_LETHAL:
+                writeLethalResult((LethalResult)result, output);
+                break;
+            case BEST_MOVE:
+                writeMctsResult((MctsResult)result, output);
+                break;
+            case GET_METRICS:
+                writeMetrics((ServerMetrics)result, output);
+                break;
+            default:
+                throw new AssertionError(type.name());
+        }
+    }
+
+    private static void writePlayoutStats(PlayoutStats stats, DataOutputStream output) throws IOException {
+        output.writeInt(stats.getPlayer1Wins());
+        output.writeInt(stats.getPlayer2Wins());
+        output.writeInt(stats.getDraws());
+        output.writeInt(stats.getUnfinished());
+        output.writeLong(stats.getMoveCount());
+    }
+
+    private static void writeLethalResult(LethalResult lethal, DataOutputStream output) throws IOException {
+        output.writeBoolean(lethal.isLethal());
+        output.writeBoolean(lethal.isComplete());
+        output.writeInt(lethal.getDamage());
+        output.writeLong(lethal.getNodeCount());
+
+        List<PlayMove> moves = lethal.getMoves();
+        output.writeInt(moves.size());
+        for (PlayMove move: moves) {
+            MoveEncoding.write(move, output);
+        }
+    }
+
+    private static void writeMctsResult(MctsResult search, DataOutputStream output) throws IOException {
+        MoveEncoding.write(search.getBestMove(), output);
+        output.writeLong(search.getIterationCount());
+
+        List<MoveStatistics> moves = search.getMoveStatistics();
+        output.writeInt(moves.size());
+        for (MoveStatistics stats: moves) {
+            MoveEncoding.write(stats.getMove(), output);
+            output.writeLong(stats.getVisitCount());
+            output.writeDouble(stats.getAverageReward());
+        }
+    }
+
+    private static void writeMetrics(ServerMetrics metrics, DataOutputStream output) throws IOException {
+        output.writeInt(metrics.getQueuedRequests());
+        output.writeInt(metrics.getMaxQueuedRequests());
+        output.writeInt(metrics.getActiveRequests());
+        output.writeInt(metrics.getQueueCapacity());
+        output.writeInt(metrics.getOpenConnections());
+
+        output.writeByte(RequestType.VALUES.length);
+        for (RequestType type: RequestType.VALUES) {
+            RequestMetrics requestMetrics = metrics.getRequestMetrics(type);
+            output.writeLong(requestMetrics.getCount());
+            output.writeLong(requestMetrics.getFailedCount());
+            output.writeLong(requestMetrics.getAverageLatency(TimeUnit.NANOSECONDS));
+            output.writeLong(requestMetrics.getMaxLatency(TimeUnit.NANOSECONDS));
+            output.writeLong(requestMetrics.getAverageQueueTime(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.kelemen.brazier.server;
+
+// Thrown if a request was received but it is invalid. The connection can
+// still be used after such a request.
+final class InvalidRequestException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final long requestId;
+
+    public InvalidRequestException(long requestId, String message) {
+        super(message);
+        this.requestId = requestId;
+    }
+
+    public InvalidRequestException(long requestId, String message, Throwable cause) {
+        super(message, cause);
+        this.requestId = requestId;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.kelemen.brazier.server;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.ai.LethalResult;
+import com.github.kelemen.brazier.ai.MctsResult;
+import com.github.kelemen.brazier.ai.MoveStatistics;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.serialization.BinaryWorldCodec;
+import com.github.kelemen.brazier.serialization.JsonWorldCodec;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Every request and response is a JSON object on a single line. The position
+// of a request is a world in the format of JsonWorldCodec.
+final class JsonServerProtocol implements ServerProtocol {
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    private final HearthStoneDb db;
+    private final BufferedReader input;
+    private final Writer output;
+    private final JsonParser parser;
+
+    public JsonServerProtocol(HearthStoneDb db, InputStream input, OutputStream output) {
+        this.db = db;
+        this.input = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.output = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        this.parser = new JsonParser();
+    }
+
+    @Override
+    public SimulationRequest readRequest() throws IOException, InvalidRequestException {
+        String line;
+        do {
+            line = input.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.trim().isEmpty());
+
+        JsonObject request;
+        try {
+            JsonElement element = parser.parse(line);
+            if (!element.isJsonObject()) {
+                throw new InvalidRequestException(0, "Requests must be JSON objects.");
+            }
+            request = element.getAsJsonObject();
+        } catch (JsonParseException ex) {
+            throw new InvalidRequestException(0, "Invalid JSON.", ex);
+        }
+
+        long id = getLong(request, "id", 0);
+        try {
+            return parseRequest(id, request);
+        } catch (RuntimeException | IOException ex) {
+            throw new InvalidRequestException(id, ex.getMessage(), ex);
+        }
+    }
+
+    private SimulationRequest parseRequest(long id, JsonObject request) throws IOException, InvalidRequestException {
+        String typeName = getString(request, "type");
+        RequestType type = RequestType.tryParse(typeName);
+        if (type == null) {
+            throw new InvalidRequestException(id, "Unknown request type: " + typeName);
+        }
+
+        byte[] position = null;
+        JsonElement world = request.get("world");
+        if (world != null && !world.isJsonNull()) {
+            position = BinaryWorldCodec.encode(JsonWorldCodec.decode(db, world.toString()));
+        }
+        else if (type == RequestType.SET_POSITION) {
+            throw new InvalidRequestException(id, "Missing world.");
+        }
+
+        return new SimulationRequest(
+                id,
+                type,
+                position,
+                (int)getLong(request, "count", SimulationRequest.DEFAULT_COUNT),
+                getLong(request, "seed", 0),
+                (int)getLong(request, "maxTurns", SimulationRequest.DEFAULT_MAX_TURNS),
+                getLong(request, "maxNodes", SimulationRequest.DEFAULT_MAX_NODES));
+    }
+
+    private static String getString(JsonObject obj, String key) {
+        JsonElement element = obj.get(key);
+        return element != null && !element.isJsonNull() ? element.getAsString() : null;
+    }
+
+    private static long getLong(JsonObject obj, String key, long defaultValue) {
+        JsonElement element = obj.get(key);
+        if (element == null || element.isJsonNull()) {
+            return defaultValue;
+        }
+        try {
+            return element.getAsLong();
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + element, ex);
+        }
+    }
+
+    @Override
+    public void writeResponse(SimulationResponse response) throws IOException {
+        JsonObject result = new JsonObject();
+        result.addProperty("id", response.getRequestId());
+
+        RequestType type = response.tryGetType();
+        result.addProperty("type", type != null ? type.getProtocolName() : null);
+        result.addProperty("ok", response.isSuccessful());
+        if (response.isSuccessful()) {
+            result.addProperty("queueMicros", TimeUnit.NANOSECONDS.toMicros(response.getQueueNanos()));
+            result.addProperty("latencyMicros", TimeUnit.NANOSECONDS.toMicros(response.getLatencyNanos()));
+            result.add("result", toJson(type, response.getResult()));
+        }
+        else {
+            result.addProperty("error", response.getErrorMessage());
+        }
+
+        String line = GSON.toJson(result);
+        synchronized (output) {
+            output.write(line);
+            output.write('\n');
+            output.flush();
+        }
+    }
+
+    private static JsonElement toJson(RequestType type, Object result) {
+        switch (type) {
+            case SET_POSITION:
+                return toJson((Long)result);
+            case SIMULATE:
+                return toJson((PlayoutStats)result);
+            case FIND_LETHAL:
+                return toJson((LethalResult)result);
+            case BEST_MOVE:
+                return toJson((MctsResult)result);
+            case GET_METRICS:
+                return toJson((ServerMetrics)result);
+            default:
+                throw new AssertionError(type.name());
+        }
+    }
+
+    private static JsonElement toJson(Long digest) {
+        JsonObject result = new JsonObject();
+        // Hex string, because many JSON parsers cannot store 64 bit integers.
+        result.addProperty("digest", Long.toHexString(digest));
+        return result;
+    }
+
+    private static JsonElement toJson(PlayoutStats stats) {
+        JsonObject result = new JsonObject();
+        result.addProperty("player1Wins", stats.getPlayer1Wins());
+        result.addProperty("player2Wins", stats.getPlayer2Wins());
+        result.addProperty("draws", stats.getDraws());
+        result.addProperty("unfinished", stats.getUnfinished());
+        result.addProperty("moves", stats.getMoveCount());
+        return result;
+    }
+
+    private static JsonElement toJson(LethalResult lethal) {
+        JsonObject result = new JsonObject();
+        result.addProperty("lethal", lethal.isLethal());
+        result.addProperty("complete", lethal.isComplete());
+        result.addProperty("damage", lethal.getDamage());
+        result.addProperty("nodes", lethal.getNodeCount());
+
+        JsonArray moves = new JsonArray();
+        for (PlayMove move: lethal.getMoves()) {
+            moves.add(MoveEncoding.toJson(move));
+        }
+        result.add("moves", moves);
+        return result;
+    }
+
+    private static JsonElement toJson(MctsResult search) {
+        JsonObject result = new JsonObject();
+        result.add("move", MoveEncoding.toJson(search.getBestMove()));
+        result.addProperty("iterations", search.getIterationCount());
+
+        JsonArray moves = new JsonArray();
+        for (MoveStatistics stats: search.getMoveStatistics()) {
+            JsonObject moveStats = new JsonObject();
+            moveStats.add("move", MoveEncoding.toJson(stats.getMove()));
+            moveStats.addProperty("visits", stats.getVisitCount());
+            moveStats.addProperty("averageReward", stats.getAverageReward());
+            moves.add(moveStats);
+        }
+        result.add("moves", moves);
+        return result;
+    }
+
+    private static JsonElement toJson(ServerMetrics metrics) {
+        JsonObject result = new JsonObject();
+        result.addProperty("queued", metrics.getQueuedRequests());
+        result.addProperty("maxQueued", metrics.getMaxQueuedRequests());
+        result.addProperty("active", metrics.getActiveRequests());
+        result.addProperty("queueCapacity", metrics.getQueueCapacity());
+        result.addProperty("connections", metrics.getOpenConnections());
+
+        JsonObject requests = new JsonObject();
+        for (RequestType type: RequestType.VALUES) {
+            RequestMetrics requestMetrics = metrics.getRequestMetrics(type);
+            JsonObject typeMetrics = new JsonObject();
+            typeMetrics.addProperty("count", requestMetrics.getCount());
+            typeMetrics.addProperty("failed", requestMetrics.getFailedCount());
+            typeMetrics.addProperty("avgLatencyMicros", requestMetrics.getAverageLatency(TimeUnit.MICROSECONDS));
+            typeMetrics.addProperty("maxLatencyMicros", requestMetrics.getMaxLatency(TimeUnit.MICROSECONDS));
+            typeMetrics.addProperty("avgQueueMicros", requestMetrics.getAverageQueueTime(TimeUnit.MICROSECONDS));
+            requests.add(type.getProtocolName(), typeMetrics);
+        }
+        result.add("requests", requests);
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.kelemen.brazier.server;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class MetricsCollector {
+    private final int queueCapacity;
+    private final AtomicInteger queuedRequests;
+    private final AtomicInteger activeRequests;
+    private final AtomicInteger openConnections;
+    private final TypeMetrics[] typeMetrics;
+    private int maxQueuedRequests;
+
+    public MetricsCollector(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        this.queuedRequests = new AtomicInteger(0);
+        this.activeRequests = new AtomicInteger(0);
+        this.openConnections = new AtomicInteger(0);
+        this.typeMetrics = new TypeMetrics[RequestType.VALUES.length];
+        for (int i = 0; i < typeMetrics.length; i++) {
+            typeMetrics[i] = new TypeMetrics();
+        }
+        this.maxQueuedRequests = 0;
+    }
+
+    public void connectionOpened() {
+        openConnections.incrementAndGet();
+    }
+
+    public void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    public void requestQueued() {
+        int queued = queuedRequests.incrementAndGet();
+        synchronized (this) {
+            if (queued > maxQueuedRequests) {
+                maxQueuedRequests = queued;
+            }
+        }
+    }
+
+    public void requestStarted() {
+        queuedRequests.decrementAndGet();
+        activeRequests.incrementAndGet();
+    }
+
+    // Called instead of requestStarted if a queued request will never start.
+    public void requestCancelled() {
+        queuedRequests.decrementAndGet();
+    }
+
+    public void requestFinished() {
+        activeRequests.decrementAndGet();
+    }
+
+    public void requestCompleted(RequestType type, boolean failed, long latencyNanos, long queueNanos) {
+        typeMetrics[type.ordinal()].add(failed, latencyNanos, queueNanos);
+    }
+
+    public ServerMetrics getMetrics() {
+        Map<RequestType, RequestMetrics> requestMetrics = new EnumMap<>(RequestType.class);
+        for (RequestType type: RequestType.VALUES) {
+            requestMetrics.put(type, typeMetrics[type.ordinal()].getMetrics());
+        }
+
+        int currentMaxQueued;
+        synchronized (this) {
+            currentMaxQueued = maxQueuedRequests;
+        }
+
+        return new ServerMetrics(
+                requestMetrics,
+                queuedRequests.get(),
+                currentMaxQueued,
+                activeRequests.get(),
+                queueCapacity,
+                openConnections.get());
+    }
+
+    private static final class TypeMetrics {
+        private long count;
+        private long failedCount;
+        private long totalLatencyNanos;
+        private long maxLatencyNanos;
+        private long totalQueueNanos;
+
+        public synchronized void add(boolean failed, long latencyNanos, long queueNanos) {
+            count++;
+            if (failed) {
+                failedCount++;
+            }
+            totalLatencyNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+            totalQueueNanos += queueNanos;
+        }
+
+        public synchronized RequestMetrics getMetrics() {
+            return new RequestMetrics(count, failedCount, totalLatencyNanos, maxLatencyNanos, totalQueueNanos);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.kelemen.brazier.server;
+
+import com.github.kelemen.brazier.ai.AttackMove;
+import com.github.kelemen.brazier.ai.CharacterRef;
+import com.github.kelemen.brazier.ai.EndTurnMove;
+import com.github.kelemen.brazier.ai.HeroPowerMove;
+import com.github.kelemen.brazier.ai.PlayCardMove;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Writes moves in the same structure as replays do (see ReplayCodec).
+final class MoveEncoding {
+    private static final int KIND_END_TURN = 0;
+    private static final int KIND_ATTACK = 1;
+    private static final int KIND_PLAY_CARD = 2;
+    private static final int KIND_HERO_POWER = 3;
+
+    private static final String[] KIND_NAMES = {"endTurn", "attack", "card", "heroPower"};
+
+    public static JsonElement toJson(PlayMove move) {
+        if (move == null) {
+            return JsonNull.INSTANCE;
+        }
+
+        JsonObject result = new JsonObject();
+        int kind = getKind(move);
+        result.addProperty("type", KIND_NAMES[kind]);
+        switch (kind) {
+            case KIND_ATTACK:
+                AttackMove attackMove = (AttackMove)move;
+                result.add("attacker", toJson(attackMove.getAttacker()));
+                result.add("defender", toJson(attackMove.getDefender()));
+                break;
+            case KIND_PLAY_CARD:
+                PlayCardMove cardMove = (PlayCardMove)move;
+                result.addProperty("cardIndex", cardMove.getCardIndex());
+                result.addProperty("minionLocation", cardMove.getMinionLocation());
+                result.add("target", toJson(cardMove.getTarget()));
+                result.addProperty("chooseOne", getId(cardMove.getChooseOneChoice()));
+                break;
+            case KIND_HERO_POWER:
+                result.add("target", toJson(((HeroPowerMove)move).getTarget()));
+                break;
+            default:
+                break;
+        }
+        return result;
+    }
+
+    private static JsonElement toJson(CharacterRef character) {
+        if (character == null) {
+            return JsonNull.INSTANCE;
+        }
+
+        JsonObject result = new JsonObject();
+        result.addProperty("opponent", character.isOpponent());
+        result.addProperty("minion", character.isHero() ? -1 : character.getMinionIndex());
+        return result;
+    }
+
+    public static void write(PlayMove move, DataOutput output) throws IOException {
+        output.writeBoolean(move != null);
+        if (move == null) {
+            return;
+        }
+
+        int kind = getKind(move);
+        output.writeByte(kind);
+        switch (kind) {
+            case KIND_ATTACK:
+                AttackMove attackMove = (AttackMove)move;
+                write(attackMove.getAttacker(), output);
+                write(attackMove.getDefender(), output);
+                break;
+            case KIND_PLAY_CARD:
+                PlayCardMove cardMove = (PlayCardMove)move;
+                String chooseOne = getId(cardMove.getChooseOneChoice());
+                output.writeInt(cardMove.getCardIndex());
+                output.writeInt(cardMove.getMinionLocation());
+                write(cardMove.getTarget(), output);
+                output.writeBoolean(chooseOne != null);
+                if (chooseOne != null) {
+                    output.writeUTF(chooseOne);
+                }
+                break;
+            case KIND_HERO_POWER:
+                write(((HeroPowerMove)move).getTarget(), output);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void write(CharacterRef character, DataOutput output) throws IOException {
+        output.writeBoolean(character != null);
+        if (character != null) {
+            output.writeBoolean(character.isOpponent());
+            output.writeInt(character.isHero() ? -1 : character.getMinionIndex());
+        }
+    }
+
+    private static String getId(CardDescr card) {
+        return card != null ? card.getId().getName() : null;
+    }
+
+    private static int getKind(PlayMove move) {
+        if (move instanceof EndTurnMove) {
+            return KIND_END_TURN;
+        }
+        if (move instanceof AttackMove) {
+            return KIND_ATTACK;
+        }
+        if (move instanceof PlayCardMove) {
+            return KIND_PLAY_CARD;
+        }
+        if (move instanceof HeroPowerMove) {
+            return KIND_HERO_POWER;
+        }
+        throw new IllegalArgumentException("Unsupported move: " + move);
+    }
+
+    private MoveEncoding() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.kelemen.brazier.server;
+
+// The outcomes of random games played from a position. Games not finished
+// within the turn limit are counted as unfinished.
+public final class PlayoutStats {
+    private final int player1Wins;
+    private final int player2Wins;
+    private final int draws;
+    private final int unfinished;
+    private final long moveCount;
+
+    public PlayoutStats(int player1Wins, int player2Wins, int draws, int unfinished, long moveCount) {
+        this.player1Wins = player1Wins;
+        this.player2Wins = player2Wins;
+        this.draws = draws;
+        this.unfinished = unfinished;
+        this.moveCount = moveCount;
+    }
+
+    public int getPlayer1Wins() {
+        return player1Wins;
+    }
+
+    public int getPlayer2Wins() {
+        return player2Wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getUnfinished() {
+        return unfinished;
+    }
+
+    public int getGameCount() {
+        return player1Wins + player2Wins + draws + unfinished;
+    }
+
+    // The total number of moves played in all games.
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PlayoutStats{" + "player1Wins=" + player1Wins
+                + ", player2Wins=" + player2Wins
+                + ", draws=" + draws
+                + ", unfinished=" + unfinished + '}';
+    }
+}
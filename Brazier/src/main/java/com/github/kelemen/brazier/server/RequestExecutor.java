@@ -0,0 +1,133 @@
+package com.github.kelemen.brazier.server;
+
+import com.github.kelemen.brazier.GameResult;
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.ai.LethalFinder;
+import com.github.kelemen.brazier.ai.MctsAgent;
+import com.github.kelemen.brazier.ai.MctsConfig;
+import com.github.kelemen.brazier.ai.MoveGenerator;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.ai.RolloutPolicies;
+import com.github.kelemen.brazier.ai.RolloutPolicy;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.serialization.BinaryWorldCodec;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.jtrim.utils.ExceptionHelper;
+
+// Executes the requests needing a worker thread. Every request decodes its
+// own world from the position, because worlds cannot be shared between
+// threads.
+final class RequestExecutor {
+    // Protects against games never ending due to some strange card
+    // combination.
+    private static final int MAX_MOVES_PER_TURN = 100;
+
+    private static final RolloutPolicy PLAYOUT_POLICY = RolloutPolicies.preferActions(0.1);
+
+    private final HearthStoneDb db;
+
+    public RequestExecutor(HearthStoneDb db) {
+        ExceptionHelper.checkNotNullArgument(db, "db");
+        this.db = db;
+    }
+
+    public Object execute(SimulationRequest request) throws IOException {
+        byte[] position = request.tryGetPosition();
+        if (position == null) {
+            throw new IllegalStateException("The position was not set.");
+        }
+
+        World world = BinaryWorldCodec.decode(db, position);
+        switch (request.getType()) {
+            case SIMULATE:
+                return simulate(world, request);
+            case FIND_LETHAL:
+                return findLethal(world, request);
+            case BEST_MOVE:
+                return findBestMove(world, request);
+            default:
+                throw new IllegalArgumentException("Unexpected request type: " + request.getType());
+        }
+    }
+
+    private static PlayoutStats simulate(World world, SimulationRequest request) {
+        Random random = new Random(request.getSeed());
+        world.setRandomProvider((bound) -> random.nextInt(bound));
+        world.setUserAgent((boolean allowCancel, List<? extends CardDescr> cards) -> {
+            return cards.get(random.nextInt(cards.size()));
+        });
+
+        PlayerId player1 = world.getPlayer1().getPlayerId();
+        PlayerId player2 = world.getPlayer2().getPlayerId();
+        WorldPlayAgent playAgent = new WorldPlayAgent(world, world.getCurrentPlayer().getPlayerId());
+
+        int player1Wins = 0;
+        int player2Wins = 0;
+        int draws = 0;
+        int unfinished = 0;
+        long moveCount = 0;
+
+        int maxMoves = request.getMaxTurns() * MAX_MOVES_PER_TURN;
+        List<UndoAction> undos = new ArrayList<>();
+        for (int game = 0; game < request.getCount(); game++) {
+            int turnCount = 0;
+            try {
+                while (!world.isGameOver() && turnCount < request.getMaxTurns() && undos.size() < maxMoves) {
+                    List<PlayMove> moves = MoveGenerator.DEFAULT.getMoves(world);
+                    PlayMove move = PLAYOUT_POLICY.selectMove(world, moves, random);
+                    undos.add(move.play(playAgent));
+                    if (move.isEndTurn()) {
+                        turnCount++;
+                    }
+                }
+
+                moveCount += undos.size();
+                GameResult result = world.tryGetGameResult();
+                if (result == null) {
+                    unfinished++;
+                }
+                else {
+                    List<PlayerId> deadPlayers = result.getDeadPlayers();
+                    boolean player1Dead = deadPlayers.contains(player1);
+                    boolean player2Dead = deadPlayers.contains(player2);
+                    if (player1Dead && player2Dead) {
+                        draws++;
+                    }
+                    else if (player2Dead) {
+                        player1Wins++;
+                    }
+                    else {
+                        player2Wins++;
+                    }
+                }
+            } finally {
+                for (int i = undos.size() - 1; i >= 0; i--) {
+                    undos.get(i).undo();
+                }
+                undos.clear();
+            }
+        }
+
+        return new PlayoutStats(player1Wins, player2Wins, draws, unfinished, moveCount);
+    }
+
+    private static Object findLethal(World world, SimulationRequest request) {
+        LethalFinder.Builder finder = new LethalFinder.Builder();
+        finder.setMaxNodes(request.getMaxNodes());
+        return finder.create().find(world);
+    }
+
+    private static Object findBestMove(World world, SimulationRequest request) {
+        MctsConfig.Builder config = new MctsConfig.Builder();
+        config.setMaxIterations(request.getCount());
+        config.setNoTimeLimit();
+        return new MctsAgent(config.create()).search(world);
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.kelemen.brazier.server;
+
+import java.util.concurrent.TimeUnit;
+
+// The statistics of the completed requests of a single type. The latency is
+// measured from receiving the request until its response is ready, so it
+// includes the time spent in the queue.
+public final class RequestMetrics {
+    private final long count;
+    private final long failedCount;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+    private final long totalQueueNanos;
+
+    public RequestMetrics(long count, long failedCount, long totalLatencyNanos, long maxLatencyNanos, long totalQueueNanos) {
+        this.count = count;
+        this.failedCount = failedCount;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.totalQueueNanos = totalQueueNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getTotalLatency(TimeUnit unit) {
+        return unit.convert(totalLatencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxLatency(TimeUnit unit) {
+        return unit.convert(maxLatencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getAverageLatency(TimeUnit unit) {
+        return count > 0 ? unit.convert(totalLatencyNanos / count, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    public long getAverageQueueTime(TimeUnit unit) {
+        return count > 0 ? unit.convert(totalQueueNanos / count, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{" + "count=" + count
+                + ", failed=" + failedCount
+                + ", avgLatency=" + getAverageLatency(TimeUnit.MICROSECONDS) + " us"
+                + ", maxLatency=" + getMaxLatency(TimeUnit.MICROSECONDS) + " us}";
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.kelemen.brazier.server;
+
+public enum RequestType {
+    // Sets the position used by the subsequent requests of the connection.
+    SET_POSITION("setPosition"),
+    // Plays random games from the position.
+    SIMULATE("simulate"),
+    FIND_LETHAL("findLethal"),
+    BEST_MOVE("bestMove"),
+    GET_METRICS("metrics");
+
+    static final RequestType[] VALUES = values();
+
+    private final String protocolName;
+
+    private RequestType(String protocolName) {
+        this.protocolName = protocolName;
+    }
+
+    public String getProtocolName() {
+        return protocolName;
+    }
+
+    // Returns null if there is no such request type.
+    public static RequestType tryParse(String protocolName) {
+        for (RequestType type: VALUES) {
+            if (type.protocolName.equals(protocolName)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
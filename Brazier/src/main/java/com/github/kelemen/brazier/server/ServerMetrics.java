@@ -0,0 +1,72 @@
+package com.github.kelemen.brazier.server;
+
+import java.util.EnumMap;
+import java.util.Map;
+import org.jtrim.utils.ExceptionHelper;
+
+// A snapshot of the statistics of a SimulationServer.
+public final class ServerMetrics {
+    private final Map<RequestType, RequestMetrics> requestMetrics;
+    private final int queuedRequests;
+    private final int maxQueuedRequests;
+    private final int activeRequests;
+    private final int queueCapacity;
+    private final int openConnections;
+
+    ServerMetrics(
+            Map<RequestType, RequestMetrics> requestMetrics,
+            int queuedRequests,
+            int maxQueuedRequests,
+            int activeRequests,
+            int queueCapacity,
+            int openConnections) {
+        this.requestMetrics = new EnumMap<>(requestMetrics);
+        this.queuedRequests = queuedRequests;
+        this.maxQueuedRequests = maxQueuedRequests;
+        this.activeRequests = activeRequests;
+        this.queueCapacity = queueCapacity;
+        this.openConnections = openConnections;
+    }
+
+    public RequestMetrics getRequestMetrics(RequestType type) {
+        ExceptionHelper.checkNotNullArgument(type, "type");
+        return requestMetrics.get(type);
+    }
+
+    // The number of requests waiting for a worker thread.
+    public int getQueuedRequests() {
+        return queuedRequests;
+    }
+
+    // The largest number of requests waiting for a worker at the same time.
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    // The number of requests being executed by the worker threads.
+    public int getActiveRequests() {
+        return activeRequests;
+    }
+
+    // The number of requests which might wait for a worker in addition to
+    // the requests being executed. When there are more requests, the server
+    // stops reading the requests of the connections. Since a worker might
+    // finish a request before starting the next one, the number of queued
+    // requests might briefly exceed this limit by the number of workers.
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getOpenConnections() {
+        return openConnections;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerMetrics{" + "queued=" + queuedRequests + '/' + queueCapacity
+                + ", maxQueued=" + maxQueuedRequests
+                + ", active=" + activeRequests
+                + ", connections=" + openConnections
+                + ", requests=" + requestMetrics + '}';
+    }
+}
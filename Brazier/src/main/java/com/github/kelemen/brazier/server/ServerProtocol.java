@@ -0,0 +1,12 @@
+package com.github.kelemen.brazier.server;
+
+import java.io.IOException;
+
+// The format of the messages of a connection. Requests are read by a single
+// thread, but responses might be written concurrently by the workers.
+interface ServerProtocol {
+    // Returns null if the client closed the connection.
+    public SimulationRequest readRequest() throws IOException, InvalidRequestException;
+
+    public void writeResponse(SimulationResponse response) throws IOException;
+}
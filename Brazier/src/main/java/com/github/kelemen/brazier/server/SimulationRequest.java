@@ -0,0 +1,82 @@
+package com.github.kelemen.brazier.server;
+
+import org.jtrim.utils.ExceptionHelper;
+
+// A request received by the SimulationServer. The position is stored in the
+// binary world format, so that each request can decode its own copy.
+final class SimulationRequest {
+    public static final int DEFAULT_COUNT = 100;
+    public static final int DEFAULT_MAX_TURNS = 50;
+    public static final long DEFAULT_MAX_NODES = 1000000;
+
+    private final long id;
+    private final RequestType type;
+    private final byte[] position;
+    private final int count;
+    private final long seed;
+    private final int maxTurns;
+    private final long maxNodes;
+
+    // The position might be null if the position of the connection is to be
+    // used.
+    public SimulationRequest(
+            long id,
+            RequestType type,
+            byte[] position,
+            int count,
+            long seed,
+            int maxTurns,
+            long maxNodes) {
+        ExceptionHelper.checkNotNullArgument(type, "type");
+        ExceptionHelper.checkArgumentInRange(count, 1, Integer.MAX_VALUE, "count");
+        ExceptionHelper.checkArgumentInRange(maxTurns, 1, Integer.MAX_VALUE, "maxTurns");
+        ExceptionHelper.checkArgumentInRange(maxNodes, 1, Long.MAX_VALUE, "maxNodes");
+
+        this.id = id;
+        this.type = type;
+        this.position = position;
+        this.count = count;
+        this.seed = seed;
+        this.maxTurns = maxTurns;
+        this.maxNodes = maxNodes;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public RequestType getType() {
+        return type;
+    }
+
+    public byte[] tryGetPosition() {
+        return position;
+    }
+
+    public SimulationRequest withPosition(byte[] newPosition) {
+        return new SimulationRequest(id, type, newPosition, count, seed, maxTurns, maxNodes);
+    }
+
+    // The number of games for SIMULATE and the number of iterations for
+    // BEST_MOVE.
+    public int getCount() {
+        return count;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationRequest{" + "id=" + id + ", type=" + type + ", count=" + count + '}';
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.kelemen.brazier.server;
+
+import org.jtrim.utils.ExceptionHelper;
+
+// The result of a request, or the reason it failed. The type of the result
+// depends on the type of the request:
+//
+// - SET_POSITION: Long (the digest of the position)
+// - SIMULATE: PlayoutStats
+// - FIND_LETHAL: LethalResult
+// - BEST_MOVE: MctsResult
+// - GET_METRICS: ServerMetrics
+final class SimulationResponse {
+    private final long requestId;
+    private final RequestType type;
+    private final Object result;
+    private final String errorMessage;
+    private final long queueNanos;
+    private final long latencyNanos;
+
+    private SimulationResponse(
+            long requestId,
+            RequestType type,
+            Object result,
+            String errorMessage,
+            long queueNanos,
+            long latencyNanos) {
+        this.requestId = requestId;
+        this.type = type;
+        this.result = result;
+        this.errorMessage = errorMessage;
+        this.queueNanos = queueNanos;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public static SimulationResponse success(SimulationRequest request, Object result, long queueNanos, long latencyNanos) {
+        ExceptionHelper.checkNotNullArgument(request, "request");
+        ExceptionHelper.checkNotNullArgument(result, "result");
+        return new SimulationResponse(request.getId(), request.getType(), result, null, queueNanos, latencyNanos);
+    }
+
+    // The type might be null if the request could not be parsed.
+    public static SimulationResponse failure(long requestId, RequestType type, String errorMessage) {
+        ExceptionHelper.checkNotNullArgument(errorMessage, "errorMessage");
+        return new SimulationResponse(requestId, type, null, errorMessage, 0, 0);
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public RequestType tryGetType() {
+        return type;
+    }
+
+    public boolean isSuccessful() {
+        return errorMessage == null;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public long getQueueNanos() {
+        return queueNanos;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+}
@@ -0,0 +1,337 @@
+package com.github.kelemen.brazier.server;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.serialization.BinaryWorldCodec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.concurrent.ExecutorsEx;
+import org.jtrim.utils.ExceptionHelper;
+
+// Serves simulation requests over TCP, so that clients do not have to load
+// the database for each request. Each connection sets its own position, then
+// the requests are executed on a fixed number of worker threads. When too many
+// requests are waiting for a worker, the server stops reading the requests of
+// the connections until a worker becomes available.
+//
+// A connection uses the binary protocol if it starts with the magic of
+// BinaryServerProtocol, otherwise it uses the JSON protocol.
+public final class SimulationServer implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(SimulationServer.class.getName());
+
+    public static final int DEFAULT_PORT = 7370;
+
+    public static final class Builder {
+        private final HearthStoneDb db;
+        private InetAddress bindAddress;
+        private int port;
+        private int workerCount;
+        private int queueCapacity;
+
+        public Builder(HearthStoneDb db) {
+            ExceptionHelper.checkNotNullArgument(db, "db");
+
+            this.db = db;
+            this.bindAddress = InetAddress.getLoopbackAddress();
+            this.port = DEFAULT_PORT;
+            this.workerCount = Runtime.getRuntime().availableProcessors();
+            this.queueCapacity = 64;
+        }
+
+        public void setBindAddress(InetAddress bindAddress) {
+            ExceptionHelper.checkNotNullArgument(bindAddress, "bindAddress");
+            this.bindAddress = bindAddress;
+        }
+
+        // Zero selects an arbitrary free port (see getPort).
+        public void setPort(int port) {
+            ExceptionHelper.checkArgumentInRange(port, 0, 0xFFFF, "port");
+            this.port = port;
+        }
+
+        public void setWorkerCount(int workerCount) {
+            ExceptionHelper.checkArgumentInRange(workerCount, 1, Integer.MAX_VALUE, "workerCount");
+            this.workerCount = workerCount;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            ExceptionHelper.checkArgumentInRange(queueCapacity, 0, Integer.MAX_VALUE - workerCount, "queueCapacity");
+            this.queueCapacity = queueCapacity;
+        }
+
+        // Binds the server socket and starts accepting connections.
+        public SimulationServer start() throws IOException {
+            SimulationServer result = new SimulationServer(this);
+            result.start();
+            return result;
+        }
+    }
+
+    private final HearthStoneDb db;
+    private final InetAddress bindAddress;
+    private final int requestedPort;
+
+    private final RequestExecutor requestExecutor;
+    private final MetricsCollector metrics;
+    private final Semaphore requestPermits;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorsEx.NamedThreadFactory connectionThreadFactory;
+    private final Set<Socket> connections;
+
+    private ServerSocket serverSocket;
+    private volatile boolean closed;
+
+    private SimulationServer(Builder builder) {
+        this.db = builder.db;
+        this.bindAddress = builder.bindAddress;
+        this.requestedPort = builder.port;
+
+        this.requestExecutor = new RequestExecutor(db);
+        this.metrics = new MetricsCollector(builder.queueCapacity);
+        this.requestPermits = new Semaphore(builder.workerCount + builder.queueCapacity);
+        this.workers = new ThreadPoolExecutor(
+                builder.workerCount,
+                builder.workerCount,
+                1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(),
+                new ExecutorsEx.NamedThreadFactory(true, "Simulation-Worker"));
+        this.connectionThreadFactory = new ExecutorsEx.NamedThreadFactory(true, "Simulation-Connection");
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.serverSocket = null;
+        this.closed = false;
+    }
+
+    private void start() throws IOException {
+        serverSocket = new ServerSocket(requestedPort, 50, bindAddress);
+
+        // The acceptor thread is not a daemon, so that the server keeps the
+        // JVM alive until it is closed.
+        Thread acceptor = new Thread(this::acceptConnections, "Simulation-Server-Acceptor");
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics.getMetrics();
+    }
+
+    private void acceptConnections() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException ex) {
+                if (!closed) {
+                    LOGGER.log(Level.SEVERE, "Failed to accept connection.", ex);
+                }
+                continue;
+            }
+
+            connections.add(socket);
+            if (closed) {
+                closeQuietly(socket);
+                break;
+            }
+            connectionThreadFactory.newThread(() -> serveConnection(socket)).start();
+        }
+    }
+
+    private void serveConnection(Socket socket) {
+        metrics.connectionOpened();
+        try {
+            socket.setTcpNoDelay(true);
+            new Connection(socket).serve();
+        } catch (SocketException ex) {
+            // The connection was closed.
+        } catch (IOException | RuntimeException ex) {
+            if (!closed) {
+                LOGGER.log(Level.WARNING, "Connection failed.", ex);
+            }
+        } finally {
+            connections.remove(socket);
+            closeQuietly(socket);
+            metrics.connectionClosed();
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Failed to close socket.", ex);
+        }
+    }
+
+    // Stops accepting connections, closes the open connections and cancels
+    // the queued requests.
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            serverSocket.close();
+        } finally {
+            for (Socket socket: connections) {
+                closeQuietly(socket);
+            }
+            workers.shutdownNow();
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final ServerProtocol protocol;
+        private final Semaphore pendingResponses;
+        private byte[] position;
+        private int submittedCount;
+
+        public Connection(Socket socket) throws IOException {
+            this.socket = socket;
+
+            PushbackInputStream input = new PushbackInputStream(socket.getInputStream(), 1);
+            OutputStream output = socket.getOutputStream();
+            this.protocol = createProtocol(input, output);
+            this.pendingResponses = new Semaphore(0);
+            this.position = null;
+            this.submittedCount = 0;
+        }
+
+        private ServerProtocol createProtocol(PushbackInputStream input, OutputStream output) throws IOException {
+            int firstByte = input.read();
+            if (firstByte >= 0) {
+                input.unread(firstByte);
+            }
+
+            InputStream bufferedInput = new BufferedInputStream(input);
+            return firstByte == BinaryServerProtocol.MAGIC_FIRST_BYTE
+                    ? new BinaryServerProtocol(db, bufferedInput, new BufferedOutputStream(output))
+                    : new JsonServerProtocol(db, bufferedInput, output);
+        }
+
+        public void serve() throws IOException {
+            try {
+                while (!closed) {
+                    SimulationRequest request;
+                    try {
+                        request = protocol.readRequest();
+                    } catch (InvalidRequestException ex) {
+                        protocol.writeResponse(SimulationResponse.failure(ex.getRequestId(), null, ex.getMessage()));
+                        continue;
+                    }
+
+                    if (request == null) {
+                        break;
+                    }
+                    handleRequest(request, System.nanoTime());
+                }
+            } finally {
+                // Responses of already received requests are still sent if the
+                // client only closed its output.
+                awaitPendingResponses();
+            }
+        }
+
+        // Keeps the interrupted status of the thread.
+        private void awaitPendingResponses() {
+            pendingResponses.acquireUninterruptibly(submittedCount);
+        }
+
+        private void handleRequest(SimulationRequest request, long receiveTime) throws IOException {
+            switch (request.getType()) {
+                case SET_POSITION:
+                    position = request.tryGetPosition();
+                    respond(request, BinaryWorldCodec.digest(position), receiveTime, receiveTime);
+                    break;
+                case GET_METRICS:
+                    // Executed on the connection thread, so that metrics can be
+                    // queried even if the workers are busy.
+                    respond(request, metrics.getMetrics(), receiveTime, receiveTime);
+                    break;
+                default:
+                    if (request.tryGetPosition() == null) {
+                        request = request.withPosition(position);
+                    }
+                    submit(request, receiveTime);
+                    break;
+            }
+        }
+
+        private void submit(SimulationRequest request, long receiveTime) throws IOException {
+            try {
+                requestPermits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a worker.", ex);
+            }
+
+            metrics.requestQueued();
+            submittedCount++;
+            try {
+                workers.execute(() -> {
+                    long startTime = System.nanoTime();
+                    metrics.requestStarted();
+                    try {
+                        executeRequest(request, receiveTime, startTime);
+                    } finally {
+                        metrics.requestFinished();
+                        requestPermits.release();
+                        pendingResponses.release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                metrics.requestCancelled();
+                requestPermits.release();
+                pendingResponses.release();
+                throw new SocketException("The server was closed.");
+            }
+        }
+
+        private void executeRequest(SimulationRequest request, long receiveTime, long startTime) {
+            SimulationResponse response;
+            try {
+                Object result = requestExecutor.execute(request);
+                response = createResponse(request, result, receiveTime, startTime);
+            } catch (Exception ex) {
+                response = SimulationResponse.failure(request.getId(), request.getType(), String.valueOf(ex.getMessage()));
+                metrics.requestCompleted(request.getType(), true, System.nanoTime() - receiveTime, startTime - receiveTime);
+            }
+
+            try {
+                protocol.writeResponse(response);
+            } catch (IOException ex) {
+                if (!closed && !socket.isClosed()) {
+                    LOGGER.log(Level.WARNING, "Failed to send response.", ex);
+                }
+            }
+        }
+
+        private SimulationResponse createResponse(SimulationRequest request, Object result, long receiveTime, long startTime) {
+            long latency = System.nanoTime() - receiveTime;
+            long queueTime = startTime - receiveTime;
+            metrics.requestCompleted(request.getType(), false, latency, queueTime);
+            return SimulationResponse.success(request, result, queueTime, latency);
+        }
+
+        private void respond(SimulationRequest request, Object result, long receiveTime, long startTime) throws IOException {
+            protocol.writeResponse(createResponse(request, result, receiveTime, startTime));
+        }
+    }
+}
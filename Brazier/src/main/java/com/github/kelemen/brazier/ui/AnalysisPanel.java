@@ -0,0 +1,93 @@
+package com.github.kelemen.brazier.ui;
+
+import com.github.kelemen.brazier.ai.MctsResult;
+import com.github.kelemen.brazier.ai.PlayMove;
+import java.awt.FlowLayout;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import javax.swing.JToggleButton;
+import org.jtrim.utils.ExceptionHelper;
+
+// Shows the best line of the current player found by a background search
+// while the "Analyze" button is selected. The analysis restarts after every
+// change of the world, and stops after the time limit of the analyzer.
+@SuppressWarnings("serial")
+public class AnalysisPanel extends javax.swing.JPanel {
+    private final WorldPlayUiAgent uiAgent;
+    private final WorldAnalyzer analyzer;
+    private final JToggleButton analyzeButton;
+    private final JLabel resultLabel;
+
+    public AnalysisPanel(WorldPlayUiAgent uiAgent) {
+        ExceptionHelper.checkNotNullArgument(uiAgent, "uiAgent");
+
+        this.uiAgent = uiAgent;
+        this.analyzer = new WorldAnalyzer(this::showResult);
+        this.analyzeButton = new JToggleButton("Analyze");
+        this.resultLabel = new JLabel();
+
+        setLayout(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        add(resultLabel);
+        add(analyzeButton);
+
+        analyzeButton.addActionListener((e) -> {
+            if (analyzeButton.isSelected()) {
+                startAnalysis();
+            }
+            else {
+                analyzer.stop();
+                resultLabel.setText("");
+            }
+        });
+
+        uiAgent.addActionStartedAction(() -> {
+            if (analyzeButton.isSelected()) {
+                analyzer.stop();
+                resultLabel.setText("Waiting for the move ...");
+            }
+        });
+        uiAgent.addRefreshWorldAction(() -> {
+            if (analyzeButton.isSelected()) {
+                startAnalysis();
+            }
+        });
+    }
+
+    private void startAnalysis() {
+        resultLabel.setText("Analyzing ...");
+        analyzer.analyze(uiAgent.getSnapshot());
+    }
+
+    private void showResult(MctsResult result, boolean finished) {
+        if (!analyzeButton.isSelected()) {
+            return;
+        }
+
+        List<PlayMove> bestLine = result.getBestLine();
+        if (bestLine.isEmpty()) {
+            resultLabel.setText("Game over");
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Win: %.1f%%", 100.0 * result.getWinProbability()));
+        text.append(" (");
+        text.append(result.getIterationCount());
+        if (finished) {
+            long maxSeconds = analyzer.getMaxAnalysisTime(TimeUnit.SECONDS);
+            text.append(" playouts, stopped after ").append(maxSeconds).append(" s): ");
+        }
+        else {
+            text.append(" playouts, analyzing): ");
+        }
+        for (int i = 0; i < bestLine.size(); i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(bestLine.get(i));
+        }
+        resultLabel.setText(text.toString());
+    }
+}
@@ -6,16 +6,22 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.swing.JComponent;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.utils.ExceptionHelper;
 
 public final class AttackTargetNeed {
+    private final Supplier<? extends WorldSnapshot> snapshotRef;
     private final TargeterDef targeterDef;
 
-    public AttackTargetNeed(TargeterDef targeterDef) {
+    // The snapshot is requested on each check, so that targets of the
+    // currently displayed snapshot are checked against its flags.
+    public AttackTargetNeed(Supplier<? extends WorldSnapshot> snapshotRef, TargeterDef targeterDef) {
+        ExceptionHelper.checkNotNullArgument(snapshotRef, "snapshotRef");
         ExceptionHelper.checkNotNullArgument(targeterDef, "targeterDef");
 
+        this.snapshotRef = snapshotRef;
         this.targeterDef = targeterDef;
     }
 
@@ -28,14 +34,25 @@ public final class AttackTargetNeed {
             JComponent component,
             TargetableCharacter target,
             Consumer<Boolean> highlightSetter) {
+        ExceptionHelper.checkNotNullArgument(target, "target");
+        return trackForTarget(targetManager, component, () -> target, highlightSetter);
+    }
+
+    // The target is requested on each mouse event, so the component might
+    // display different characters over time.
+    public static ListenerRef trackForTarget(
+            TargetManager targetManager,
+            JComponent component,
+            Supplier<? extends TargetableCharacter> targetRef,
+            Consumer<Boolean> highlightSetter) {
         ExceptionHelper.checkNotNullArgument(targetManager, "targetManager");
         ExceptionHelper.checkNotNullArgument(component, "component");
-        ExceptionHelper.checkNotNullArgument(target, "target");
+        ExceptionHelper.checkNotNullArgument(targetRef, "targetRef");
         ExceptionHelper.checkNotNullArgument(highlightSetter, "highlightSetter");
 
         MouseListener listener = new MouseAdapter() {
             private boolean isAllowedTarget(AttackTargetNeed need) {
-                return target.isTargetable(need.targeterDef);
+                return need.snapshotRef.get().isTargetable(targetRef.get(), need.targeterDef);
             }
 
             @Override
@@ -46,7 +63,7 @@ public final class AttackTargetNeed {
                     if (conditionObj instanceof AttackTargetNeed) {
                         if (isAllowedTarget((AttackTargetNeed)conditionObj)) {
                             highlightSetter.accept(false);
-                            condition.getCallback().accept(target.getTargetId());
+                            condition.getCallback().accept(targetRef.get().getTargetId());
                         }
                     }
                 }
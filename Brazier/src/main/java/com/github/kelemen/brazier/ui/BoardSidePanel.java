@@ -10,6 +10,7 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
 import javax.swing.JButton;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
@@ -21,12 +22,15 @@ import org.jtrim.utils.ExceptionHelper;
 public class BoardSidePanel extends javax.swing.JPanel {
     private final TargetManager targetManager;
     private final JComponent boardContainer;
+    private final KeyedComponentList<Minion, PlayableMinionComponent> minionComponents;
+    private PlayerUiAgent uiAgent;
 
     public BoardSidePanel(PlayerId playerId, TargetManager targetManager) {
         ExceptionHelper.checkNotNullArgument(playerId, "playerId");
         ExceptionHelper.checkNotNullArgument(targetManager, "targetManager");
 
         this.targetManager = targetManager;
+        this.uiAgent = null;
 
         initComponents();
 
@@ -35,6 +39,11 @@ public class BoardSidePanel extends javax.swing.JPanel {
         jBoardScrollPane.setViewportView(boardContainer);
         jBoardScrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_ALWAYS);
 
+        minionComponents = new KeyedComponentList<>(
+                boardContainer,
+                this::createMinionComponent,
+                this::updateMinionComponent);
+
         trackMinionLocationNeed(playerId);
     }
 
@@ -152,30 +161,40 @@ public class BoardSidePanel extends javax.swing.JPanel {
         return addIndex;
     }
 
-    public void setBoard(PlayerUiAgent uiAgent, BoardSide board) {
+    // The minion keys must identify the minions across different snapshots of
+    // the world, so that the components of the minions can be reused.
+    public void setBoard(PlayerUiAgent uiAgent, BoardSide board, ToLongFunction<? super Minion> minionKeys) {
         ExceptionHelper.checkNotNullArgument(board, "board");
+        ExceptionHelper.checkNotNullArgument(minionKeys, "minionKeys");
 
-        boardContainer.removeAll();
-        for (Minion minion: board.getAllMinions()) {
-            PlayableMinionComponent minionComponent = new PlayableMinionComponent(minion);
-            boardContainer.add(minionComponent);
-            JButton attackButton = minionComponent.getAttackButton();
-            attackButton.setVisible(uiAgent != null);
-            if (uiAgent != null) {
-                attackButton.setEnabled(minion.getAttackTool().canAttackWith());
-                minionComponent.getAttackButton().addActionListener((e) -> {
-                    uiAgent.attack(minion);
-                });
-            }
+        this.uiAgent = uiAgent;
+        minionComponents.setElements(board.getAllMinions(), minionKeys);
+    }
 
-            PlayerTargetNeed.trackForTarget(targetManager, minionComponent, minion, minionComponent::setHighlight);
-            AttackTargetNeed.trackForTarget(targetManager, minionComponent, minion, minionComponent::setHighlight);
+    private PlayableMinionComponent createMinionComponent(Minion minion) {
+        PlayableMinionComponent minionComponent = new PlayableMinionComponent(minion);
 
-            UiUtils.forwardMouseEvents(minionComponent);
-        }
+        PlayerTargetNeed.trackForTarget(targetManager, minionComponent, minionComponent::getMinion, minionComponent::setHighlight);
+        AttackTargetNeed.trackForTarget(targetManager, minionComponent, minionComponent::getMinion, minionComponent::setHighlight);
+
+        UiUtils.forwardMouseEvents(minionComponent);
+        return minionComponent;
+    }
+
+    private void updateMinionComponent(PlayableMinionComponent minionComponent, Minion minion, int index) {
+        minionComponent.setMinion(minion);
+        minionComponent.setHighlight(false);
 
-        boardContainer.revalidate();
-        boardContainer.repaint();
+        PlayerUiAgent currentUiAgent = uiAgent;
+        JButton attackButton = minionComponent.getAttackButton();
+        attackButton.setVisible(currentUiAgent != null);
+        if (currentUiAgent != null) {
+            attackButton.setEnabled(currentUiAgent.canAttackWith(minion));
+            minionComponent.setAttackAction(() -> currentUiAgent.attack(minion));
+        }
+        else {
+            minionComponent.setAttackAction(null);
+        }
     }
 
     /**
@@ -3,10 +3,13 @@ package com.github.kelemen.brazier.ui;
 import com.github.kelemen.brazier.cards.Card;
 import com.github.kelemen.brazier.minions.Minion;
 import java.awt.Color;
+import java.awt.Graphics;
 
 @SuppressWarnings("serial")
 public class CardComponent extends javax.swing.JPanel {
     private Card card;
+    private String displayedState;
+    private ComponentImageCache.Key paintedKey;
 
     public CardComponent(Card card) {
         initComponents();
@@ -59,6 +62,34 @@ public class CardComponent extends javax.swing.JPanel {
             jAttackLabel.setText("");
             jHpLabel.setText("");
         }
+
+        updateDisplayedState();
+    }
+
+    private void updateDisplayedState() {
+        displayedState = jManaCostLabel.getText()
+                + "|" + jManaCostLabel.getForeground().getRGB()
+                + "|" + jNameLabel.getText()
+                + "|" + jAttackLabel.getText()
+                + "|" + jHpLabel.getText()
+                + "|" + getBackground().getRGB();
+
+        if (paintedKey != null && !displayedState.equals(paintedKey.getDisplayedState())) {
+            ComponentImageCache.getDefault().invalidate(paintedKey);
+            paintedKey = null;
+        }
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        if (card == null) {
+            super.paint(g);
+            return;
+        }
+
+        String entityId = card.getCardDescr().getId().getName();
+        paintedKey = ComponentImageCache.getDefault().paint(
+                g, entityId, displayedState, getWidth(), getHeight(), super::paint);
     }
 
 
@@ -1,19 +1,14 @@
 package com.github.kelemen.brazier.ui;
 
 import com.github.kelemen.brazier.HearthStoneDb;
-import com.github.kelemen.brazier.Keywords;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.cards.CardDescr;
-import com.github.kelemen.brazier.ui.jtable.FormattedTableModel;
 import com.github.kelemen.brazier.ui.jtable.JTableBuilder;
 import com.github.kelemen.brazier.ui.jtable.JTableUtils;
+import com.github.kelemen.brazier.ui.jtable.SortedTableModel;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
 import javax.swing.JTable;
 import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
@@ -32,7 +27,7 @@ public class CardDatabasePanel extends javax.swing.JPanel {
 
     private final HearthStoneDb db;
     private final WorldPlayUiAgent uiAgent;
-    private final FormattedTableModel<CardDescr> cardsTableModel;
+    private final SortedTableModel<CardDescr> cardsTableModel;
     private final UpdateTaskExecutor searchExecutor;
 
     public CardDatabasePanel(HearthStoneDb db, WorldPlayUiAgent uiAgent) {
@@ -76,81 +71,8 @@ public class CardDatabasePanel extends javax.swing.JPanel {
         });
     }
 
-    private static boolean isWordChar(char ch) {
-        return ch == '-' || Character.isDigit(ch) || Character.isLetter(ch);
-    }
-
-    private static void toWords(String str, Consumer<? super String> worldConsumer) {
-        StringBuilder currentWord = new StringBuilder();
-        for (int i = 0; i < str.length(); i++) {
-            char ch = str.charAt(i);
-            if (isWordChar(ch)) {
-                currentWord.append(ch);
-            }
-            else {
-                if (currentWord.length() > 0) {
-                    worldConsumer.accept(currentWord.toString().toLowerCase(Locale.ROOT));
-                    currentWord.setLength(0);
-                }
-            }
-        }
-
-        if (currentWord.length() > 0) {
-            worldConsumer.accept(currentWord.toString().toLowerCase(Locale.ROOT));
-        }
-    }
-
-    private static boolean matchesCardWord(
-            String searchPattern,
-            Collection<String> cardWords) {
-        for (String cardWord: cardWords) {
-            if (cardWord.startsWith(searchPattern)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private static boolean matchesCardWords(
-            Collection<String> searchPattern,
-            Collection<String> cardWords) {
-        for (String patternWord: searchPattern) {
-            if (!matchesCardWord(patternWord, cardWords)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     private List<CardDescr> getCardsByPattern(String pattern, boolean collectibleOnly) {
-        List<CardDescr> allCards = collectibleOnly
-                ? db.getCardDb().getByKeywords(Keywords.COLLECTIBLE)
-                : db.getCardDb().getAll();
-
-        String normPattern = pattern.trim();
-        if (normPattern.isEmpty()) {
-            return allCards;
-        }
-
-        Collection<String> patternWords = new HashSet<>();
-        toWords(pattern, patternWords::add);
-
-        List<CardDescr> result = new ArrayList<>(allCards.size());
-        Collection<String> currentCardWords = new HashSet<>();
-        for (CardDescr card: allCards) {
-            currentCardWords.clear();
-
-            toWords(card.getDescription(), currentCardWords::add);
-            toWords(card.getDisplayName(), currentCardWords::add);
-            card.getKeywords().forEach((keyword) ->{
-                currentCardWords.add(keyword.getName().toLowerCase(Locale.ROOT));
-            });
-
-            if (matchesCardWords(patternWords, currentCardWords)) {
-                result.add(card);
-            }
-        }
-        return result;
+        return db.getCardSearchIndex().find(pattern, collectibleOnly);
     }
 
     private void searchForCardsNow(String pattern, boolean collectibleOnly) {
@@ -165,7 +87,7 @@ public class CardDatabasePanel extends javax.swing.JPanel {
         return result;
     }
 
-    private static FormattedTableModel<CardDescr> setupTable(JTable table) {
+    private static SortedTableModel<CardDescr> setupTable(JTable table) {
         JTableBuilder<CardDescr> result = new JTableBuilder<>(table);
 
         result.addStringColumn("Name", CardDescr::getDisplayName);
@@ -174,9 +96,8 @@ public class CardDatabasePanel extends javax.swing.JPanel {
 
         result.setInitialSortColumnIndex(0);
         result.setSortableColumns(true);
-        result.setSortsOnUpdates(true);
 
-        return result.setupTable();
+        return result.setupSortedTable();
     }
 
     private List<CardDescr> getSelectedCards() {
@@ -277,7 +198,7 @@ public class CardDatabasePanel extends javax.swing.JPanel {
         List<CardDescr> cards = getSelectedCards();
         for (CardDescr card: cards) {
             uiAgent.alterWorld((world) -> {
-                Player player = uiAgent.getCurrentPlayer();
+                Player player = world.getCurrentPlayer();
                 return player.getHand().addCard(card);
             });
         }
@@ -287,7 +208,7 @@ public class CardDatabasePanel extends javax.swing.JPanel {
         List<CardDescr> cards = getSelectedCards();
         for (CardDescr card: cards) {
             uiAgent.alterWorld((world) -> {
-                Player player = uiAgent.getCurrentPlayer();
+                Player player = world.getCurrentPlayer();
                 return player.getBoard().getDeck().putOnTop(card);
             });
         }
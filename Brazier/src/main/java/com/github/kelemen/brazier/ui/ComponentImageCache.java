@@ -0,0 +1,193 @@
+package com.github.kelemen.brazier.ui;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.jtrim.utils.ExceptionHelper;
+
+// Caches the rendered images of components displaying cards and minions, so
+// that scrolling a hand or a full board does not have to lay out and render the
+// text of every component again. The least recently used images are removed
+// when the total size of the images exceeds the limit.
+//
+// Images are keyed by the id of the displayed entity and a string describing
+// everything the component displays (stats, colors, etc.), so components
+// displaying the same entity in the same state share an image.
+//
+// Must only be used on the EDT.
+public final class ComponentImageCache {
+    public static final long DEFAULT_MAX_SIZE = 32L * 1024 * 1024;
+
+    private static final ComponentImageCache DEFAULT = new ComponentImageCache(DEFAULT_MAX_SIZE);
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long maxSize;
+    private final Map<Key, BufferedImage> images;
+    private long size;
+
+    public ComponentImageCache(long maxSize) {
+        ExceptionHelper.checkArgumentInRange(maxSize, 0, Long.MAX_VALUE, "maxSize");
+
+        this.maxSize = maxSize;
+        this.images = new LinkedHashMap<>(16, 0.75f, true);
+        this.size = 0;
+    }
+
+    public static ComponentImageCache getDefault() {
+        return DEFAULT;
+    }
+
+    // Paints the image of the component from the cache. If there is no such
+    // image cached, the image is rendered by the given painter first.
+    //
+    // Returns the key of the painted image.
+    public Key paint(
+            Graphics g,
+            String entityId,
+            String displayedState,
+            int width,
+            int height,
+            Consumer<? super Graphics2D> painter) {
+        ExceptionHelper.checkNotNullArgument(g, "g");
+        ExceptionHelper.checkNotNullArgument(painter, "painter");
+
+        double scaleX = 1.0;
+        double scaleY = 1.0;
+        if (g instanceof Graphics2D) {
+            AffineTransform transform = ((Graphics2D)g).getTransform();
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+        }
+
+        Key key = new Key(entityId, displayedState, width, height, scaleX, scaleY);
+        if (width <= 0 || height <= 0) {
+            return key;
+        }
+
+        BufferedImage image = images.get(key);
+        if (image == null) {
+            image = render(key, painter);
+            addImage(key, image);
+        }
+
+        g.drawImage(image, 0, 0, width, height, null);
+        return key;
+    }
+
+    private static BufferedImage render(Key key, Consumer<? super Graphics2D> painter) {
+        int imageWidth = Math.max(1, (int)Math.ceil(key.width * key.scaleX));
+        int imageHeight = Math.max(1, (int)Math.ceil(key.height * key.scaleY));
+        BufferedImage result = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g2 = result.createGraphics();
+        try {
+            g2.scale(key.scaleX, key.scaleY);
+            painter.accept(g2);
+        } finally {
+            g2.dispose();
+        }
+        return result;
+    }
+
+    private void addImage(Key key, BufferedImage image) {
+        long imageSize = getSize(image);
+        if (imageSize > maxSize) {
+            return;
+        }
+
+        BufferedImage prevImage = images.put(key, image);
+        if (prevImage != null) {
+            size -= getSize(prevImage);
+        }
+        size += imageSize;
+
+        Iterator<BufferedImage> eldestItr = images.values().iterator();
+        while (size > maxSize) {
+            size -= getSize(eldestItr.next());
+            eldestItr.remove();
+        }
+    }
+
+    private static long getSize(BufferedImage image) {
+        return (long)image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    // Should be called when a component no longer displays the state of the
+    // given key.
+    public void invalidate(Key key) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+
+        BufferedImage removed = images.remove(key);
+        if (removed != null) {
+            size -= getSize(removed);
+        }
+    }
+
+    public int getImageCount() {
+        return images.size();
+    }
+
+    // The number of bytes retained by the cached images.
+    public long getSize() {
+        return size;
+    }
+
+    public static final class Key {
+        private final String entityId;
+        private final String displayedState;
+        private final int width;
+        private final int height;
+        private final double scaleX;
+        private final double scaleY;
+
+        public Key(String entityId, String displayedState, int width, int height, double scaleX, double scaleY) {
+            ExceptionHelper.checkNotNullArgument(entityId, "entityId");
+            ExceptionHelper.checkNotNullArgument(displayedState, "displayedState");
+
+            this.entityId = entityId;
+            this.displayedState = displayedState;
+            this.width = width;
+            this.height = height;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+        }
+
+        public String getDisplayedState() {
+            return displayedState;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + entityId.hashCode();
+            hash = 41 * hash + displayedState.hashCode();
+            hash = 41 * hash + width;
+            hash = 41 * hash + height;
+            hash = 41 * hash + Double.hashCode(scaleX);
+            hash = 41 * hash + Double.hashCode(scaleY);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final Key other = (Key)obj;
+            return this.width == other.width
+                    && this.height == other.height
+                    && Double.compare(this.scaleX, other.scaleX) == 0
+                    && Double.compare(this.scaleY, other.scaleY) == 0
+                    && Objects.equals(this.entityId, other.entityId)
+                    && Objects.equals(this.displayedState, other.displayedState);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.kelemen.brazier.ui;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.jtrim.utils.ExceptionHelper;
+
+// Assigns keys to the entities (minions, cards) of a world. The key of an
+// entity never changes, so entities of different snapshots can be matched by
+// their keys even though snapshots are copies of the world.
+//
+// Entities do not override equals, so they are compared by identity.
+final class EntityKeys {
+    private final Map<Object, Long> keys;
+    private long nextKey;
+
+    public EntityKeys() {
+        this.keys = new WeakHashMap<>();
+        this.nextKey = 0;
+    }
+
+    public long getKey(Object entity) {
+        ExceptionHelper.checkNotNullArgument(entity, "entity");
+
+        Long result = keys.get(entity);
+        if (result == null) {
+            result = nextKey;
+            nextKey++;
+            keys.put(entity, result);
+        }
+        return result;
+    }
+}
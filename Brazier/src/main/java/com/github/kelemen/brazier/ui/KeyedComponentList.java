@@ -0,0 +1,98 @@
+package com.github.kelemen.brazier.ui;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import javax.swing.JComponent;
+import org.jtrim.utils.ExceptionHelper;
+
+// Displays a list of elements in a container with one component per element.
+// Components are matched to elements by the key of the elements, so when the
+// list changes, the components of the remaining elements are updated in place
+// and moved (instead of recreating every component). The container is only
+// laid out again if components were added, removed or moved.
+public final class KeyedComponentList<E, C extends Component> {
+    public interface ComponentUpdater<E, C> {
+        public void updateComponent(C component, E element, int index);
+    }
+
+    private final JComponent container;
+    private final Function<? super E, ? extends C> componentFactory;
+    private final ComponentUpdater<? super E, ? super C> componentUpdater;
+
+    private Map<Long, C> components;
+
+    public KeyedComponentList(
+            JComponent container,
+            Function<? super E, ? extends C> componentFactory,
+            ComponentUpdater<? super E, ? super C> componentUpdater) {
+        ExceptionHelper.checkNotNullArgument(container, "container");
+        ExceptionHelper.checkNotNullArgument(componentFactory, "componentFactory");
+        ExceptionHelper.checkNotNullArgument(componentUpdater, "componentUpdater");
+
+        this.container = container;
+        this.componentFactory = componentFactory;
+        this.componentUpdater = componentUpdater;
+        this.components = new HashMap<>();
+    }
+
+    // Elements with the same key are considered to be the same element (with
+    // a possibly changed state). Components added to the container by others
+    // are removed.
+    public void setElements(List<? extends E> elements, ToLongFunction<? super E> keyFunction) {
+        ExceptionHelper.checkNotNullElements(elements, "elements");
+        ExceptionHelper.checkNotNullArgument(keyFunction, "keyFunction");
+
+        int elementCount = elements.size();
+        Map<Long, C> newComponents = new HashMap<>(2 * elementCount);
+        List<C> orderedComponents = new ArrayList<>(elementCount);
+
+        for (int i = 0; i < elementCount; i++) {
+            E element = elements.get(i);
+            long key = keyFunction.applyAsLong(element);
+
+            C component = components.get(key);
+            if (component == null || newComponents.containsKey(key)) {
+                component = componentFactory.apply(element);
+            }
+            componentUpdater.updateComponent(component, element, i);
+
+            newComponents.put(key, component);
+            orderedComponents.add(component);
+        }
+
+        components = newComponents;
+        if (arrangeComponents(orderedComponents)) {
+            container.revalidate();
+            container.repaint();
+        }
+    }
+
+    // Returns true if the children of the container had to be changed.
+    private boolean arrangeComponents(List<C> orderedComponents) {
+        boolean changed = false;
+
+        int count = orderedComponents.size();
+        for (int i = 0; i < count; i++) {
+            C component = orderedComponents.get(i);
+            if (i < container.getComponentCount() && container.getComponent(i) == component) {
+                continue;
+            }
+
+            // Adding a component to its current container moves it.
+            container.add(component, i);
+            changed = true;
+        }
+
+        while (container.getComponentCount() > count) {
+            container.remove(count);
+            changed = true;
+        }
+
+        return changed;
+    }
+}
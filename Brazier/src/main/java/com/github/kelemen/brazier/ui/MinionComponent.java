@@ -3,6 +3,7 @@ package com.github.kelemen.brazier.ui;
 import com.github.kelemen.brazier.minions.Minion;
 import com.github.kelemen.brazier.minions.MinionBody;
 import java.awt.Color;
+import java.awt.Graphics;
 import javax.swing.BorderFactory;
 import javax.swing.border.Border;
 
@@ -23,6 +24,8 @@ public class MinionComponent extends javax.swing.JPanel {
 
     private boolean highlighted;
     private Minion minion;
+    private String displayedState;
+    private ComponentImageCache.Key paintedKey;
 
     public MinionComponent(Minion minion) {
         initComponents();
@@ -36,8 +39,13 @@ public class MinionComponent extends javax.swing.JPanel {
         updateFlagDisplay();
     }
 
+    public Minion getMinion() {
+        return minion;
+    }
+
     public final void setMinion(Minion minion) {
         this.minion = minion;
+        ComponentImageCache.Key prevKey = paintedKey;
 
         if (minion != null) {
             String name = minion.getBaseDescr().getDisplayName();
@@ -58,6 +66,12 @@ public class MinionComponent extends javax.swing.JPanel {
         }
 
         updateFlagDisplay();
+
+        // Only a changed minion invalidates the image: highlights are
+        // temporary, so the image without them is likely to be needed again.
+        if (prevKey != null && !displayedState.equals(prevKey.getDisplayedState())) {
+            ComponentImageCache.getDefault().invalidate(prevKey);
+        }
     }
 
     private Color getRequiredBckgColor() {
@@ -94,6 +108,29 @@ public class MinionComponent extends javax.swing.JPanel {
         }
 
         setBackground(getRequiredBckgColor());
+        updateDisplayedState();
+    }
+
+    private void updateDisplayedState() {
+        displayedState = jNameLabel.getText()
+                + "|" + jMinionAttackLabel.getText()
+                + "|" + jMinionHpLabel.getText()
+                + "|" + jMinionHpLabel.getForeground().getRGB()
+                + "|" + jDivineShieldLabel.isVisible()
+                + "|" + (getBorder() == TAUNT_BORDER)
+                + "|" + getBackground().getRGB();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        if (minion == null) {
+            super.paint(g);
+            return;
+        }
+
+        String entityId = minion.getBaseDescr().getId().getName();
+        paintedKey = ComponentImageCache.getDefault().paint(
+                g, entityId, displayedState, getWidth(), getHeight(), super::paint);
     }
 
     /**
@@ -6,12 +6,26 @@ import javax.swing.JButton;
 @SuppressWarnings("serial")
 public class PlayableCardComponent extends javax.swing.JPanel {
     private final CardComponent cardComponent;
+    private Runnable playAction;
 
     public PlayableCardComponent(Card card) {
         initComponents();
 
         cardComponent = new CardComponent(card);
         jCardContainer.add(cardComponent);
+
+        playAction = null;
+        jPlayButton.addActionListener((e) -> {
+            Runnable currentAction = playAction;
+            if (currentAction != null) {
+                currentAction.run();
+            }
+        });
+    }
+
+    // The action executed when the play button is pressed (might be null).
+    public void setPlayAction(Runnable playAction) {
+        this.playAction = playAction;
     }
 
     public void setCard(Card card) {
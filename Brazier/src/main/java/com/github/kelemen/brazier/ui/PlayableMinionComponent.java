@@ -6,12 +6,26 @@ import javax.swing.JButton;
 @SuppressWarnings("serial")
 public class PlayableMinionComponent extends javax.swing.JPanel {
     private final MinionComponent minionComponent;
+    private Runnable attackAction;
 
     public PlayableMinionComponent(Minion minion) {
         initComponents();
 
         minionComponent = new MinionComponent(minion);
         jMinionContainer.add(minionComponent);
+
+        attackAction = null;
+        jAttackButton.addActionListener((e) -> {
+            Runnable currentAction = attackAction;
+            if (currentAction != null) {
+                currentAction.run();
+            }
+        });
+    }
+
+    // The action executed when the attack button is pressed (might be null).
+    public void setAttackAction(Runnable attackAction) {
+        this.attackAction = attackAction;
     }
 
     public JButton getAttackButton() {
@@ -22,6 +36,10 @@ public class PlayableMinionComponent extends javax.swing.JPanel {
         minionComponent.setHighlight(highlighted);
     }
 
+    public Minion getMinion() {
+        return minionComponent.getMinion();
+    }
+
     public void setMinion(Minion minion) {
         minionComponent.setMinion(minion);
     }
@@ -6,7 +6,6 @@ import com.github.kelemen.brazier.HeroPower;
 import com.github.kelemen.brazier.ManaResource;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.cards.Card;
-import com.github.kelemen.brazier.weapons.AttackTool;
 import com.github.kelemen.brazier.weapons.Weapon;
 import java.awt.Color;
 import java.awt.Dialog.ModalityType;
@@ -15,6 +14,7 @@ import java.awt.Window;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.List;
+import java.util.function.ToLongFunction;
 import javax.swing.JButton;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
@@ -83,8 +83,12 @@ public class PlayerPanel extends javax.swing.JPanel {
         jHeroContainer.setBackground(highlighted ? Color.GREEN : defaultColor);
     }
 
-    public void setState(PlayerUiAgent uiAgent, Player player) {
+    // The entity keys must identify the cards in hand across different
+    // snapshots of the world, so that the components of the cards can be
+    // reused.
+    public void setState(PlayerUiAgent uiAgent, Player player, ToLongFunction<Object> entityKeys) {
         ExceptionHelper.checkNotNullArgument(player, "player");
+        ExceptionHelper.checkNotNullArgument(entityKeys, "entityKeys");
 
         this.uiAgent = uiAgent;
         this.player = player;
@@ -107,51 +111,44 @@ public class PlayerPanel extends javax.swing.JPanel {
         jManaValue.setText(Integer.toString(manaResource.getMana()) + "/" + Integer.toString(manaResource.getManaCrystals()));
         jDeckSizeValueLabel.setText(Integer.toString(player.getBoard().getDeck().getNumberOfCards()));
         jAttackButton.setVisible(uiAgent != null);
-        jAttackButton.setEnabled(player.getHero().getAttackTool().canAttackWith());
+        jAttackButton.setEnabled(uiAgent != null && uiAgent.canAttackWith(player.getHero()));
 
         HeroPower heroPower = player.getHero().getHeroPower();
         String heroPowerName = heroPower.getPowerDef().getDisplayName();
         jUsePowerButton.setText(heroPowerName.isEmpty() ? "Use power" : heroPowerName);
         jUsePowerButton.setVisible(uiAgent != null);
-        jUsePowerButton.setEnabled(player.getHero().getHeroPower().isPlayable(player));
+        jUsePowerButton.setEnabled(uiAgent != null && uiAgent.canPlayHeroPower());
 
-        updateHandCards(uiAgent, player.getHand().getCards());
-    }
-
-    private void updateHandCards(PlayerUiAgent uiAgent, List<Card> cards) {
-        cardComponents.setCards(uiAgent, cards);
+        cardComponents.setCards(uiAgent, player.getHand().getCards(), entityKeys::applyAsLong);
     }
 
     private static final class CardComponents {
-        private final JComponent container;
+        private final KeyedComponentList<Card, PlayableCardComponent> components;
+        private PlayerUiAgent uiAgent;
 
         public CardComponents(JComponent container) {
-            this.container = container;
+            this.components = new KeyedComponentList<>(container, PlayableCardComponent::new, this::updateComponent);
+            this.uiAgent = null;
         }
 
-        public void setCards(PlayerUiAgent uiAgent, List<Card> cards) {
-            container.removeAll();
-            int index = 0;
-            for (Card card: cards) {
-                PlayableCardComponent cardComponent = new PlayableCardComponent(card);
-                JButton playButton = cardComponent.getPlayButton();
-                playButton.setVisible(uiAgent != null);
-
-                if (uiAgent != null) {
-                    playButton.setEnabled(uiAgent.canPlayCard(card));
-
-                    int cardIndex = index;
-                    playButton.addActionListener((e) -> {
-                        uiAgent.playCard(cardIndex);
-                    });
-                }
-                container.add(cardComponent);
+        public void setCards(PlayerUiAgent uiAgent, List<Card> cards, ToLongFunction<? super Card> cardKeys) {
+            this.uiAgent = uiAgent;
+            components.setElements(cards, cardKeys);
+        }
 
-                index++;
-            }
+        private void updateComponent(PlayableCardComponent cardComponent, Card card, int cardIndex) {
+            cardComponent.setCard(card);
 
-            container.revalidate();
-            container.repaint();
+            PlayerUiAgent currentUiAgent = uiAgent;
+            JButton playButton = cardComponent.getPlayButton();
+            playButton.setVisible(currentUiAgent != null);
+            if (currentUiAgent != null) {
+                playButton.setEnabled(currentUiAgent.canPlayCard(card));
+                cardComponent.setPlayAction(() -> currentUiAgent.playCard(cardIndex));
+            }
+            else {
+                cardComponent.setPlayAction(null);
+            }
         }
     }
 
@@ -312,9 +309,7 @@ public class PlayerPanel extends javax.swing.JPanel {
         }
 
         Hero hero = player.getHero();
-
-        AttackTool attackTool = hero.getAttackTool();
-        if (attackTool.canAttackWith()) {
+        if (uiAgent.canAttackWith(hero)) {
             uiAgent.attack(hero);
         }
     }//GEN-LAST:event_jAttackButtonActionPerformed
@@ -9,25 +9,51 @@ import com.github.kelemen.brazier.minions.Minion;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.swing.JComponent;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.utils.ExceptionHelper;
 
 public final class PlayerTargetNeed {
+    private final BiPredicate<TargetableCharacter, TargeterDef> targetableTest;
     private final TargeterDef targeterDef;
     private final TargetNeed targetNeed;
 
     public PlayerTargetNeed(
             TargeterDef targeterDef,
             TargetNeed targetNeed) {
+        this(TargetableCharacter::isTargetable, targeterDef, targetNeed);
+    }
+
+    // The snapshot is requested on each check, so that targets of the
+    // currently displayed snapshot are checked against its flags.
+    public PlayerTargetNeed(
+            Supplier<? extends WorldSnapshot> snapshotRef,
+            TargeterDef targeterDef,
+            TargetNeed targetNeed) {
+        this(snapshotTargetableTest(snapshotRef), targeterDef, targetNeed);
+    }
+
+    private PlayerTargetNeed(
+            BiPredicate<TargetableCharacter, TargeterDef> targetableTest,
+            TargeterDef targeterDef,
+            TargetNeed targetNeed) {
         ExceptionHelper.checkNotNullArgument(targeterDef, "targeterDef");
         ExceptionHelper.checkNotNullArgument(targetNeed, "targetNeed");
 
+        this.targetableTest = targetableTest;
         this.targeterDef = targeterDef;
         this.targetNeed = targetNeed;
     }
 
+    private static BiPredicate<TargetableCharacter, TargeterDef> snapshotTargetableTest(
+            Supplier<? extends WorldSnapshot> snapshotRef) {
+        ExceptionHelper.checkNotNullArgument(snapshotRef, "snapshotRef");
+        return (target, targeterDef) -> snapshotRef.get().isTargetable(target, targeterDef);
+    }
+
     public PlayerId getPlayerId() {
         return targeterDef.getPlayerId();
     }
@@ -41,7 +67,7 @@ public final class PlayerTargetNeed {
     }
 
     public boolean isAllowedTarget(TargetableCharacter target) {
-        if (!target.isTargetable(targeterDef)) {
+        if (!targetableTest.test(target, targeterDef)) {
             return false;
         }
         if (target instanceof Minion) {
@@ -66,9 +92,20 @@ public final class PlayerTargetNeed {
             JComponent component,
             TargetableCharacter target,
             Consumer<Boolean> highlightSetter) {
+        ExceptionHelper.checkNotNullArgument(target, "target");
+        return trackForTarget(targetManager, component, () -> target, highlightSetter);
+    }
+
+    // The target is requested on each mouse event, so the component might
+    // display different characters over time.
+    public static ListenerRef trackForTarget(
+            TargetManager targetManager,
+            JComponent component,
+            Supplier<? extends TargetableCharacter> targetRef,
+            Consumer<Boolean> highlightSetter) {
         ExceptionHelper.checkNotNullArgument(targetManager, "targetManager");
         ExceptionHelper.checkNotNullArgument(component, "component");
-        ExceptionHelper.checkNotNullArgument(target, "target");
+        ExceptionHelper.checkNotNullArgument(targetRef, "targetRef");
         ExceptionHelper.checkNotNullArgument(highlightSetter, "highlightSetter");
 
         MouseListener listener = new MouseAdapter() {
@@ -78,6 +115,7 @@ public final class PlayerTargetNeed {
                 if (condition != null) {
                     Object conditionObj = condition.getCondition();
                     if (conditionObj instanceof PlayerTargetNeed) {
+                        TargetableCharacter target = targetRef.get();
                         boolean allowed = ((PlayerTargetNeed)conditionObj).isAllowedTarget(target);
                         if (allowed) {
                             highlightSetter.accept(false);
@@ -96,7 +134,7 @@ public final class PlayerTargetNeed {
             public void mouseEntered(MouseEvent e) {
                 Object conditionObj = targetManager.getConditionObj();
                 if (conditionObj instanceof PlayerTargetNeed) {
-                    boolean allowed = ((PlayerTargetNeed)conditionObj).isAllowedTarget(target);
+                    boolean allowed = ((PlayerTargetNeed)conditionObj).isAllowedTarget(targetRef.get());
                     highlightSetter.accept(allowed);
                 }
             }
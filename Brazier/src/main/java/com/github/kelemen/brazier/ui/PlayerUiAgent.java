@@ -41,20 +41,26 @@ public final class PlayerUiAgent {
         });
     }
 
+    // The card must be in the hand of the player of the displayed snapshot.
     public boolean canPlayCard(Card card) {
-        Player player = worldAgent.getWorld().getPlayer(playerId);
-        if (player.getMana() < card.getActiveManaCost()) {
-            return false;
-        }
+        return worldAgent.getSnapshot().canPlayCard(card);
+    }
+
+    public boolean canPlayHeroPower() {
+        WorldSnapshot snapshot = worldAgent.getSnapshot();
+        return snapshot.canPlayHeroPower(snapshot.getWorld().getPlayer(playerId));
+    }
 
-        return card.getCardDescr().doesSomethingWhenPlayed(player);
+    // The character must be of the displayed snapshot.
+    public boolean canAttackWith(TargetableCharacter attacker) {
+        return worldAgent.getSnapshot().canAttackWith(attacker);
     }
 
     public void playHeroPower() {
         Player player = worldAgent.getWorld().getPlayer(playerId);
         HeroPower heroPower = player.getHero().getHeroPower();
 
-        if (!heroPower.isPlayable(player)) {
+        if (!canPlayHeroPower()) {
             throw new IllegalStateException("Cannot play the hero power.");
         }
 
@@ -62,7 +68,7 @@ public final class PlayerUiAgent {
         if (targetNeed.hasTarget()) {
             TargetManager targetManager = worldAgent.getTargetManager();
             TargeterDef targeterDef = new TargeterDef(playerId, true, false);
-            PlayerTargetNeed playerTargetNeed = new PlayerTargetNeed(targeterDef, targetNeed);
+            PlayerTargetNeed playerTargetNeed = new PlayerTargetNeed(worldAgent::getSnapshot, targeterDef, targetNeed);
             targetManager.requestTarget(playerTargetNeed, (targetId) -> {
                 if (targetId instanceof TargetId) {
                     targetManager.clearRequest();
@@ -108,7 +114,7 @@ public final class PlayerUiAgent {
         TargetNeed targetNeed = getTargetNeed(player, card, chooseOneChoice);
         if (targetNeed.hasTarget()) {
             TargeterDef targeterDef = new TargeterDef(playerId, true, false);
-            PlayerTargetNeed playerTargetNeed = new PlayerTargetNeed(targeterDef, targetNeed);
+            PlayerTargetNeed playerTargetNeed = new PlayerTargetNeed(worldAgent::getSnapshot, targeterDef, targetNeed);
             findTarget(playerTargetNeed, cardIndex, -1, chooseOneChoice);
         }
         else {
@@ -150,7 +156,7 @@ public final class PlayerUiAgent {
                 TargetNeed targetNeed = getTargetNeed(player, card, chooseOneChoice);
                 if (targetNeed.hasTarget()) {
                     TargeterDef targeterDef = new TargeterDef(playerId, false, false);
-                    PlayerTargetNeed playerTargetNeed = new PlayerTargetNeed(targeterDef, targetNeed);
+                    PlayerTargetNeed playerTargetNeed = new PlayerTargetNeed(worldAgent::getSnapshot, targeterDef, targetNeed);
                     if (hasValidTarget(player.getWorld(), playerTargetNeed)) {
                         findTarget(playerTargetNeed, cardIndex, (int)minionIndex, chooseOneChoice);
                         return;
@@ -181,7 +187,7 @@ public final class PlayerUiAgent {
 
         TargetManager targetManager = worldAgent.getTargetManager();
         TargeterDef targeterDef = new TargeterDef(playerId, attacker instanceof Hero, true);
-        targetManager.requestTarget(new AttackTargetNeed(targeterDef), (targetId) -> {
+        targetManager.requestTarget(new AttackTargetNeed(worldAgent::getSnapshot, targeterDef), (targetId) -> {
             if (targetId instanceof TargetId) {
                 worldAgent.attack(attacker.getTargetId(), (TargetId)targetId);
             }
@@ -1,37 +1,201 @@
 package com.github.kelemen.brazier.ui;
 
 import com.github.kelemen.brazier.actions.UndoAction;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.function.Supplier;
 import org.jtrim.property.MutableProperty;
 import org.jtrim.property.PropertySource;
 import org.jtrim.utils.ExceptionHelper;
 
 import static org.jtrim.property.PropertyFactory.*;
 
+// A linear history of actions. Undo actions retain everything the action
+// touched, so the number of undoable actions and their approximate retained
+// size is limited: the oldest actions are forgotten when either limit is
+// exceeded.
+//
+// Redo executes the action again instead of storing its effects, so redo
+// entries retain almost nothing.
 public final class UndoManager {
+    public static final int DEFAULT_MAX_DEPTH = 200;
+    public static final long DEFAULT_MAX_RETAINED_SIZE = 64L * 1024 * 1024;
+
+    private final int maxDepth;
+    private final long maxRetainedSize;
+
     private final MutableProperty<Boolean> hasUndos;
-    private final List<UndoAction> undos;
+    private final MutableProperty<Boolean> hasRedos;
+    private final Deque<UndoEntry> undos;
+    private final Deque<RedoEntry> redos;
+    private long retainedSize;
 
     public UndoManager() {
-        this.undos = new LinkedList<>();
+        this(DEFAULT_MAX_DEPTH, DEFAULT_MAX_RETAINED_SIZE);
+    }
+
+    public UndoManager(int maxDepth, long maxRetainedSize) {
+        ExceptionHelper.checkArgumentInRange(maxDepth, 1, Integer.MAX_VALUE, "maxDepth");
+        ExceptionHelper.checkArgumentInRange(maxRetainedSize, 0, Long.MAX_VALUE, "maxRetainedSize");
+
+        this.maxDepth = maxDepth;
+        this.maxRetainedSize = maxRetainedSize;
+        this.undos = new ArrayDeque<>();
+        this.redos = new ArrayDeque<>();
+        this.retainedSize = 0;
         this.hasUndos = lazilySetProperty(memProperty(false));
+        this.hasRedos = lazilySetProperty(memProperty(false));
     }
 
+    // Adds an action which cannot be redone.
     public void addUndo(UndoAction undo) {
+        addAction("", undo, null, 0);
+    }
+
+    // Executes the action and adds it to the history. The action is executed
+    // again to redo it after it was undone.
+    public void executeAction(String description, Supplier<? extends UndoAction> action, long retainedSize) {
+        ExceptionHelper.checkNotNullArgument(action, "action");
+        addAction(description, action.get(), action, retainedSize);
+    }
+
+    // The redo action might be null if the action cannot be redone.
+    public void addAction(
+            String description,
+            UndoAction undo,
+            Supplier<? extends UndoAction> redo,
+            long retainedSize) {
+        ExceptionHelper.checkNotNullArgument(description, "description");
         ExceptionHelper.checkNotNullArgument(undo, "undo");
-        undos.add(undo);
-        hasUndos.setValue(true);
+        ExceptionHelper.checkArgumentInRange(retainedSize, 0, Long.MAX_VALUE, "retainedSize");
+
+        redos.clear();
+        undos.addLast(new UndoEntry(description, undo, redo, retainedSize));
+        this.retainedSize += retainedSize;
+        evictOldEntries();
+        updateProperties();
+    }
+
+    private void evictOldEntries() {
+        // The last action is always kept, even if it alone exceeds the budget.
+        while (undos.size() > maxDepth || (retainedSize > maxRetainedSize && undos.size() > 1)) {
+            UndoEntry removed = undos.removeFirst();
+            retainedSize -= removed.retainedSize;
+        }
+    }
+
+    private void updateProperties() {
+        hasUndos.setValue(!undos.isEmpty());
+        hasRedos.setValue(!redos.isEmpty());
     }
 
     public PropertySource<Boolean> hasUndos() {
         return hasUndos;
     }
 
+    public PropertySource<Boolean> hasRedos() {
+        return hasRedos;
+    }
+
+    // The approximate size of the objects retained by the undo actions.
+    public long getRetainedSize() {
+        return retainedSize;
+    }
+
     public void undo() {
         if (!undos.isEmpty()) {
-            undos.remove(undos.size() - 1).undo();
-            hasUndos.setValue(!undos.isEmpty());
+            undoLast();
+            updateProperties();
+        }
+    }
+
+    private void undoLast() {
+        UndoEntry entry = undos.removeLast();
+        retainedSize -= entry.retainedSize;
+        entry.undo.undo();
+
+        if (entry.redo != null) {
+            redos.addFirst(new RedoEntry(entry.description, entry.redo, entry.retainedSize));
+        }
+        else {
+            // The later actions might depend on the one we cannot redo.
+            redos.clear();
+        }
+    }
+
+    public void redo() {
+        if (!redos.isEmpty()) {
+            redoFirst();
+            evictOldEntries();
+            updateProperties();
+        }
+    }
+
+    private void redoFirst() {
+        RedoEntry entry = redos.removeFirst();
+        UndoAction undo = entry.redo.get();
+        undos.addLast(new UndoEntry(entry.description, undo, entry.redo, entry.retainedSize));
+        retainedSize += entry.retainedSize;
+    }
+
+    // The descriptions of the remembered actions: first the actions which
+    // can be undone (oldest first), then the actions which can be redone.
+    public List<String> getHistory() {
+        List<String> result = new ArrayList<>(undos.size() + redos.size());
+        for (UndoEntry entry: undos) {
+            result.add(entry.description);
+        }
+        for (RedoEntry entry: redos) {
+            result.add(entry.description);
+        }
+        return result;
+    }
+
+    // The number of actions in the history currently applied.
+    public int getHistoryPosition() {
+        return undos.size();
+    }
+
+    // Undoes or redoes actions until exactly the given number of actions of
+    // the history is applied.
+    public void jumpTo(int historyPosition) {
+        ExceptionHelper.checkArgumentInRange(historyPosition, 0, undos.size() + redos.size(), "historyPosition");
+
+        while (undos.size() > historyPosition) {
+            undoLast();
+        }
+        while (undos.size() < historyPosition && !redos.isEmpty()) {
+            redoFirst();
+        }
+        evictOldEntries();
+        updateProperties();
+    }
+
+    private static final class UndoEntry {
+        private final String description;
+        private final UndoAction undo;
+        private final Supplier<? extends UndoAction> redo;
+        private final long retainedSize;
+
+        public UndoEntry(String description, UndoAction undo, Supplier<? extends UndoAction> redo, long retainedSize) {
+            this.description = description;
+            this.undo = undo;
+            this.redo = redo;
+            this.retainedSize = retainedSize;
+        }
+    }
+
+    private static final class RedoEntry {
+        private final String description;
+        private final Supplier<? extends UndoAction> redo;
+        private final long retainedSize;
+
+        public RedoEntry(String description, Supplier<? extends UndoAction> redo, long retainedSize) {
+            this.description = description;
+            this.redo = redo;
+            this.retainedSize = retainedSize;
         }
     }
 }
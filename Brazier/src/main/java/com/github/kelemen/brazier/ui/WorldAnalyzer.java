@@ -0,0 +1,143 @@
+package com.github.kelemen.brazier.ui;
+
+import com.github.kelemen.brazier.ai.MctsAgent;
+import com.github.kelemen.brazier.ai.MctsConfig;
+import com.github.kelemen.brazier.ai.MctsResult;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationSource;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.ExecutorsEx;
+import org.jtrim.concurrent.GenericUpdateTaskExecutor;
+import org.jtrim.concurrent.SingleThreadedExecutor;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.UpdateTaskExecutor;
+import org.jtrim.utils.ExceptionHelper;
+
+// Searches for the best move of the current player in the background using
+// every available core. A single search keeps refining the same trees, and
+// its intermediate results are reported periodically, so the UI can show a
+// progressively better estimate while the user is thinking.
+//
+// The analysis ends after the configured time limit (so that the trees do
+// not grow without bound), in which case the last result is reported as
+// finished.
+//
+// The methods of this class must be called on the EDT, and the listener is
+// also notified on the EDT.
+public final class WorldAnalyzer {
+    private static final Logger LOGGER = Logger.getLogger(WorldAnalyzer.class.getName());
+
+    private static final long REPORT_INTERVAL_MILLIS = 250;
+    public static final long DEFAULT_MAX_ANALYSIS_MILLIS = 32000;
+
+    public interface AnalysisListener {
+        public void onProgress(MctsResult result, boolean finished);
+    }
+
+    private final AnalysisListener listener;
+    private final int threadCount;
+    private final long maxAnalysisNanos;
+    private final TaskExecutor analysisExecutor;
+    private final UpdateTaskExecutor resultExecutor;
+
+    private CancellationSource currentAnalysis;
+    private long analysisIndex;
+
+    public WorldAnalyzer(AnalysisListener listener) {
+        this(Runtime.getRuntime().availableProcessors(), listener);
+    }
+
+    public WorldAnalyzer(int threadCount, AnalysisListener listener) {
+        this(threadCount, DEFAULT_MAX_ANALYSIS_MILLIS, TimeUnit.MILLISECONDS, listener);
+    }
+
+    public WorldAnalyzer(int threadCount, long maxAnalysisTime, TimeUnit unit, AnalysisListener listener) {
+        ExceptionHelper.checkArgumentInRange(threadCount, 1, Integer.MAX_VALUE, "threadCount");
+        ExceptionHelper.checkArgumentInRange(maxAnalysisTime, 1, Long.MAX_VALUE, "maxAnalysisTime");
+        ExceptionHelper.checkNotNullArgument(unit, "unit");
+        ExceptionHelper.checkNotNullArgument(listener, "listener");
+
+        this.listener = listener;
+        this.threadCount = threadCount;
+        this.maxAnalysisNanos = unit.toNanos(maxAnalysisTime);
+        this.analysisExecutor = newAnalysisExecutor();
+        this.resultExecutor = new GenericUpdateTaskExecutor(SwingUtilities::invokeLater);
+        this.currentAnalysis = null;
+        this.analysisIndex = 0;
+    }
+
+    private static TaskExecutor newAnalysisExecutor() {
+        String name = "World-Analyzer";
+        SingleThreadedExecutor result = new SingleThreadedExecutor(name, Integer.MAX_VALUE, 1, TimeUnit.SECONDS);
+        result.dontNeedShutdown();
+        result.setThreadFactory(new ExecutorsEx.NamedThreadFactory(true, name));
+        return result;
+    }
+
+    public long getMaxAnalysisTime(TimeUnit unit) {
+        return unit.convert(maxAnalysisNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Cancels the current analysis (if any) and starts analyzing the given
+    // snapshot.
+    public void analyze(WorldSnapshot snapshot) {
+        ExceptionHelper.checkNotNullArgument(snapshot, "snapshot");
+
+        stop();
+
+        CancellationSource cancelSource = Cancellation.createCancellationSource();
+        currentAnalysis = cancelSource;
+        long index = analysisIndex;
+
+        analysisExecutor.execute(cancelSource.getToken(), (cancelToken) -> {
+            runAnalysis(cancelToken, snapshot, index);
+        }, null);
+    }
+
+    // Results of the canceled analysis are not reported, even if they were
+    // already found.
+    public void stop() {
+        analysisIndex++;
+        if (currentAnalysis != null) {
+            currentAnalysis.getController().cancel();
+            currentAnalysis = null;
+        }
+    }
+
+    private void runAnalysis(CancellationToken cancelToken, WorldSnapshot snapshot, long index) {
+        MctsConfig.Builder config = new MctsConfig.Builder();
+        config.setThreadCount(threadCount);
+        config.setMaxTime(maxAnalysisNanos, TimeUnit.NANOSECONDS);
+
+        MctsResult result;
+        try {
+            result = new MctsAgent(config.create()).searchParallel(
+                    cancelToken,
+                    snapshot::forkWorld,
+                    REPORT_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS,
+                    (progress) -> reportResult(cancelToken, index, progress, false));
+        } catch (Throwable ex) {
+            LOGGER.log(Level.SEVERE, "Failed to analyze the world.", ex);
+            return;
+        }
+
+        reportResult(cancelToken, index, result, true);
+    }
+
+    private void reportResult(CancellationToken cancelToken, long index, MctsResult result, boolean finished) {
+        if (cancelToken.isCanceled()) {
+            return;
+        }
+
+        resultExecutor.execute(() -> {
+            if (index == analysisIndex) {
+                listener.onProgress(result, finished);
+            }
+        });
+    }
+}
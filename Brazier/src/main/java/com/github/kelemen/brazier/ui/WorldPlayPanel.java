@@ -41,6 +41,9 @@ public class WorldPlayPanel extends javax.swing.JPanel {
         this.trackRefs = new LinkedList<>();
         this.targetManager = new TargetManager(this);
 
+        // The user agent must be set before the first snapshot of the world
+        // is captured.
+        setUserAgent(world);
         uiAgent = new WorldPlayUiAgent(world, startingPlayer, targetManager);
         uiAgent.addRefreshWorldAction(this::refreshWorld);
 
@@ -48,6 +51,7 @@ public class WorldPlayPanel extends javax.swing.JPanel {
 
         jLeftControlContainer.setLayout(new SerialLayoutManager(5, false, SerialLayoutManager.Alignment.LEFT));
         jRightControlContainer.setLayout(new SerialLayoutManager(5, false, SerialLayoutManager.Alignment.RIGHT));
+        jRightControlContainer.add(new AnalysisPanel(uiAgent), 0);
 
         board1 = new BoardSidePanel(world.getPlayer1().getPlayerId(), targetManager);
         board2 = new BoardSidePanel(world.getPlayer2().getPlayerId(), targetManager);
@@ -63,8 +67,6 @@ public class WorldPlayPanel extends javax.swing.JPanel {
         setupEnableDisable();
 
         refreshWorld();
-
-        setUserAgent(world);
     }
 
     private void setUserAgent(World world) {
@@ -77,6 +79,7 @@ public class WorldPlayPanel extends javax.swing.JPanel {
 
     private void setupEnableDisable() {
         addSwingStateListener(uiAgent.hasUndos(), jUndoButton::setEnabled);
+        addSwingStateListener(uiAgent.hasRedos(), jRedoButton::setEnabled);
     }
 
     public final void setWorld(World world, PlayerId startingPlayer) {
@@ -87,8 +90,9 @@ public class WorldPlayPanel extends javax.swing.JPanel {
     private void refreshWorld() {
         targetManager.clearRequest();
 
-        World world = uiAgent.getWorld();
-        PlayerId currentPlayerId = uiAgent.getCurrentPlayerId();
+        WorldSnapshot snapshot = uiAgent.getSnapshot();
+        World world = snapshot.getWorld();
+        PlayerId currentPlayerId = snapshot.getCurrentPlayerId();
 
         PlayerUiAgent player1UiAgent;
         PlayerUiAgent player2UiAgent;
@@ -101,11 +105,11 @@ public class WorldPlayPanel extends javax.swing.JPanel {
             player2UiAgent = new PlayerUiAgent(uiAgent, currentPlayerId);
         }
 
-        player1.setState(player1UiAgent, world.getPlayer1());
-        player2.setState(player2UiAgent, world.getPlayer2());
+        player1.setState(player1UiAgent, world.getPlayer1(), snapshot::getEntityKey);
+        player2.setState(player2UiAgent, world.getPlayer2(), snapshot::getEntityKey);
 
-        board1.setBoard(player1UiAgent, world.getPlayer1().getBoard());
-        board2.setBoard(player2UiAgent, world.getPlayer2().getBoard());
+        board1.setBoard(player1UiAgent, world.getPlayer1().getBoard(), snapshot::getEntityKey);
+        board2.setBoard(player2UiAgent, world.getPlayer2().getBoard(), snapshot::getEntityKey);
 
         setupHeroTracking(world);
     }
@@ -156,6 +160,7 @@ public class WorldPlayPanel extends javax.swing.JPanel {
         jEndTurnButton = new javax.swing.JButton();
         jLeftControlContainer = new javax.swing.JPanel();
         jUndoButton = new javax.swing.JButton();
+        jRedoButton = new javax.swing.JButton();
         jAddCardButton = new javax.swing.JButton();
         jResetWorldButton = new javax.swing.JButton();
 
@@ -230,6 +235,14 @@ public class WorldPlayPanel extends javax.swing.JPanel {
         });
         jLeftControlContainer.add(jUndoButton);
 
+        jRedoButton.setText("Redo");
+        jRedoButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                jRedoButtonActionPerformed(evt);
+            }
+        });
+        jLeftControlContainer.add(jRedoButton);
+
         jAddCardButton.setText("Card database");
         jAddCardButton.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
@@ -311,6 +324,10 @@ public class WorldPlayPanel extends javax.swing.JPanel {
         uiAgent.undoLastAction();
     }//GEN-LAST:event_jUndoButtonActionPerformed
 
+    private void jRedoButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jRedoButtonActionPerformed
+        uiAgent.redoLastAction();
+    }//GEN-LAST:event_jRedoButtonActionPerformed
+
     private void jResetWorldButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jResetWorldButtonActionPerformed
         World prevWorld = uiAgent.getWorld();
         PlayerId player1Id = prevWorld.getPlayer1().getPlayerId();
@@ -344,6 +361,7 @@ public class WorldPlayPanel extends javax.swing.JPanel {
     private javax.swing.JPanel jPlayer2BoardPanel;
     private javax.swing.JPanel jPlayer2Panel;
     private javax.swing.JPanel jPlayer2PlayerPanel;
+    private javax.swing.JButton jRedoButton;
     private javax.swing.JButton jResetWorldButton;
     private javax.swing.JPanel jRightControlContainer;
     private javax.swing.JButton jUndoButton;
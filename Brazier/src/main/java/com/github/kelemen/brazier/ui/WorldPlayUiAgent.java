@@ -3,23 +3,69 @@ package com.github.kelemen.brazier.ui;
 import com.github.kelemen.brazier.Player;
 import com.github.kelemen.brazier.PlayerId;
 import com.github.kelemen.brazier.TargetId;
+import com.github.kelemen.brazier.TargetableCharacter;
 import com.github.kelemen.brazier.World;
 import com.github.kelemen.brazier.WorldPlayAgent;
 import com.github.kelemen.brazier.actions.PlayTargetRequest;
 import com.github.kelemen.brazier.actions.UndoAction;
 import com.github.kelemen.brazier.actions.WorldAction;
+import com.github.kelemen.brazier.ai.CharacterRef;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.minions.Minion;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import org.jtrim.concurrent.ExecutorsEx;
+import org.jtrim.concurrent.GenericUpdateTaskExecutor;
+import org.jtrim.concurrent.SingleThreadedExecutor;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.UpdateTaskExecutor;
 import org.jtrim.event.CopyOnTriggerListenerManager;
 import org.jtrim.event.EventListeners;
 import org.jtrim.event.ListenerManager;
 import org.jtrim.event.ListenerRef;
+import org.jtrim.property.MutableProperty;
 import org.jtrim.property.PropertySource;
 import org.jtrim.utils.ExceptionHelper;
 
+import static org.jtrim.property.PropertyFactory.*;
+
+// The world is owned by a dedicated game thread: every action is executed on
+// that thread, so long chains of triggers do not freeze the UI. After the
+// actions, the game thread publishes a copy of the world (WorldSnapshot) to be
+// displayed on the EDT. Snapshots are published through update task executors,
+// so if the UI falls behind, only the latest state is displayed.
+//
+// Unless noted otherwise, the methods of this class must be called on the EDT.
 public final class WorldPlayUiAgent {
-    private WorldPlayAgent playAgent;
+    private static final Logger LOGGER = Logger.getLogger(WorldPlayUiAgent.class.getName());
+
+    private static final long RETAINED_SIZE_PER_ENTITY = 4 * 1024;
+    private static final long ANY_VERSION = -1;
+
     private final TargetManager targetManager;
-    private final UndoManager undoManager;
     private final ListenerManager<Runnable> refreshWorldActions;
+    private final ListenerManager<Runnable> actionStartedActions;
+
+    private final TaskExecutor gameExecutor;
+    private final UpdateTaskExecutor snapshotExecutor;
+    private final UpdateTaskExecutor displayExecutor;
+
+    // Accessed only by the game thread (after the constructor returns).
+    private final UndoManager undoManager;
+    private final EntityKeys entityKeys;
+    private WorldPlayAgent playAgent;
+    private long version;
+
+    // Accessed only by the EDT.
+    private WorldSnapshot snapshot;
+    private final MutableProperty<Boolean> hasUndos;
+    private final MutableProperty<Boolean> hasRedos;
 
     public WorldPlayUiAgent(World world, PlayerId startingPlayer, TargetManager targetManager) {
         ExceptionHelper.checkNotNullArgument(targetManager, "targetManager");
@@ -27,43 +73,168 @@ public final class WorldPlayUiAgent {
         this.playAgent = new WorldPlayAgent(world, startingPlayer);
         this.targetManager = targetManager;
         this.undoManager = new UndoManager();
+        this.entityKeys = new EntityKeys();
         this.refreshWorldActions = new CopyOnTriggerListenerManager<>();
+        this.actionStartedActions = new CopyOnTriggerListenerManager<>();
+        this.version = 0;
+
+        this.gameExecutor = newGameExecutor();
+        this.snapshotExecutor = new GenericUpdateTaskExecutor(gameExecutor);
+        this.displayExecutor = new GenericUpdateTaskExecutor(SwingUtilities::invokeLater);
+
+        this.snapshot = WorldSnapshot.capture(version, world, undoManager, entityKeys);
+        this.hasUndos = lazilySetProperty(memProperty(false));
+        this.hasRedos = lazilySetProperty(memProperty(false));
+    }
+
+    private static TaskExecutor newGameExecutor() {
+        String name = "Game-Executor";
+        SingleThreadedExecutor result = new SingleThreadedExecutor(name, Integer.MAX_VALUE, 1, TimeUnit.SECONDS);
+        result.dontNeedShutdown();
+        result.setThreadFactory(new ExecutorsEx.NamedThreadFactory(true, name));
+        return result;
     }
 
     public void resetWorld(World world) {
         resetWorld(world, world.getPlayer1().getPlayerId());
     }
 
+    // The world must not be accessed by the caller after calling this method.
     public void resetWorld(World world, PlayerId startingPlayer) {
-        WorldPlayAgent newAgent = new WorldPlayAgent(world, startingPlayer);
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(startingPlayer, "startingPlayer");
 
-        WorldPlayAgent prevAgent = playAgent;
-        playAgent = newAgent;
-
-        undoManager.addUndo(() -> playAgent = prevAgent);
-        refreshWorld();
+        executeAction("Reset world", ANY_VERSION, () -> {
+            WorldPlayAgent prevAgent = playAgent;
+            playAgent = new WorldPlayAgent(world, startingPlayer);
+            return () -> playAgent = prevAgent;
+        });
     }
 
+    // The action is executed on the game thread and must only access the world
+    // passed to it.
     public void alterWorld(WorldAction action) {
-        undoManager.addUndo(action.alterWorld(playAgent.getWorld()));
+        ExceptionHelper.checkNotNullArgument(action, "action");
+        executeAction("Alter world", ANY_VERSION, () -> action.alterWorld(playAgent.getWorld()));
+    }
+
+    // The action is executed again when redoing it, so it must always refer
+    // to the current state of the world.
+    //
+    // Actions based on the state of a snapshot are dropped if the world has
+    // changed since the snapshot was captured: for example, the UI might still
+    // display a minion which is already dead.
+    private void executeAction(String description, long baseVersion, Supplier<? extends UndoAction> action) {
+        executeOnGameThread(description, () -> {
+            if (baseVersion != ANY_VERSION && baseVersion != version) {
+                LOGGER.log(Level.INFO, "Dropping outdated action: {0}", description);
+                return false;
+            }
+            undoManager.executeAction(description, action, estimateRetainedSize(playAgent.getWorld()));
+            return true;
+        });
+    }
+
+    private void executeOnGameThread(String description, Runnable task) {
+        executeOnGameThread(description, () -> {
+            task.run();
+            return true;
+        });
+    }
+
+    // The task returns false if it did not change the world, in which case
+    // the displayed snapshot is still up to date and is not published again.
+    private void executeOnGameThread(String description, BooleanSupplier task) {
+        EventListeners.dispatchRunnable(actionStartedActions);
+        gameExecutor.execute(() -> {
+            try {
+                if (!task.getAsBoolean()) {
+                    return;
+                }
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Failed to execute action: " + description, ex);
+            }
+            // Even a failed action might have partially changed the world.
+            version++;
+            snapshotExecutor.execute(this::publishSnapshot);
+        });
+    }
+
+    // Called on the game thread.
+    private void publishSnapshot() {
+        WorldSnapshot newSnapshot = WorldSnapshot.capture(version, playAgent.getWorld(), undoManager, entityKeys);
+        displayExecutor.execute(() -> displaySnapshot(newSnapshot));
+    }
+
+    private void displaySnapshot(WorldSnapshot newSnapshot) {
+        snapshot = newSnapshot;
+        hasUndos.setValue(newSnapshot.hasUndos());
+        hasRedos.setValue(newSnapshot.hasRedos());
         refreshWorld();
     }
 
+    // An undo action might retain any part of the world, so we assume that it
+    // retains a size proportional to the number of entities in the world.
+    private static long estimateRetainedSize(World world) {
+        long entityCount = 2;
+        for (Player player: new Player[]{world.getPlayer1(), world.getPlayer2()}) {
+            entityCount += player.getBoard().getMinionCount();
+            entityCount += player.getHand().getCardCount();
+            entityCount += player.getBoard().getDeck().getNumberOfCards();
+            entityCount += player.getSecrets().getSecrets().size();
+            entityCount += player.getBoard().getGraveyard().getDeadMinions().size();
+        }
+        return entityCount * RETAINED_SIZE_PER_ENTITY;
+    }
+
     public ListenerRef addRefreshWorldAction(Runnable action) {
         return refreshWorldActions.registerListener(action);
     }
 
+    // The action is notified (on the EDT) when an action is submitted to
+    // change the world, before the world is actually changed.
+    public ListenerRef addActionStartedAction(Runnable action) {
+        return actionStartedActions.registerListener(action);
+    }
+
     public void undoLastAction() {
-        undoManager.undo();
-        refreshWorld();
+        executeOnGameThread("Undo", undoManager::undo);
+    }
+
+    public void redoLastAction() {
+        executeOnGameThread("Redo", undoManager::redo);
+    }
+
+    // Undoes or redoes actions until the given number of actions of the
+    // history (see getHistory) is applied.
+    public void jumpToHistory(int historyPosition) {
+        executeOnGameThread("Jump in history", () -> undoManager.jumpTo(historyPosition));
+    }
+
+    public List<String> getHistory() {
+        return snapshot.getHistory();
+    }
+
+    public int getHistoryPosition() {
+        return snapshot.getHistoryPosition();
     }
 
     public PropertySource<Boolean> hasUndos() {
-        return undoManager.hasUndos();
+        return protectedView(hasUndos);
     }
 
+    public PropertySource<Boolean> hasRedos() {
+        return protectedView(hasRedos);
+    }
+
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Returns the world of the currently displayed snapshot which must not be
+    // modified. Use alterWorld to modify the world.
     public World getWorld() {
-        return playAgent.getWorld();
+        return snapshot.getWorld();
     }
 
     public TargetManager getTargetManager() {
@@ -71,11 +242,11 @@ public final class WorldPlayUiAgent {
     }
 
     public Player getCurrentPlayer() {
-        return playAgent.getCurrentPlayer();
+        return snapshot.getWorld().getCurrentPlayer();
     }
 
     public PlayerId getCurrentPlayerId() {
-        return playAgent.getCurrentPlayerId();
+        return snapshot.getCurrentPlayerId();
     }
 
     private void refreshWorld() {
@@ -83,31 +254,90 @@ public final class WorldPlayUiAgent {
     }
 
     public void endTurn() {
-        undoManager.addUndo(playAgent.endTurn());
-        refreshWorld();
+        executeAction("End turn", ANY_VERSION, () -> playAgent.endTurn());
     }
 
+    // The target ids are of the characters of the currently displayed snapshot.
     public void attack(TargetId attacker, TargetId defender) {
-        UndoAction result = playAgent.attack(attacker, defender);
-        undoManager.addUndo(result);
-
         // TODO: Update game over state
-        refreshWorld();
+        World world = getWorld();
+        CharacterRef attackerRef = toCharacterRef(world, attacker);
+        CharacterRef defenderRef = toCharacterRef(world, defender);
+        executeAction("Attack", snapshot.getVersion(), () -> {
+            World gameWorld = playAgent.getWorld();
+            return playAgent.attack(findTarget(gameWorld, attackerRef), findTarget(gameWorld, defenderRef));
+        });
     }
 
     public void playCard(int cardIndex, PlayTargetRequest playTarget) {
-        UndoAction result = playAgent.playCard(cardIndex, playTarget);
-        undoManager.addUndo(result);
-
         // TODO: Update game over state
-        refreshWorld();
+        TargetRef targetRef = new TargetRef(getWorld(), playTarget);
+        executeAction("Play card", snapshot.getVersion(), () -> {
+            return playAgent.playCard(cardIndex, targetRef.toRequest(playAgent.getWorld()));
+        });
     }
 
     public void playHeroPower(PlayTargetRequest playTarget) {
-        UndoAction result = playAgent.playHeroPower(playTarget);
-        undoManager.addUndo(result);
-
         // TODO: Update game over state
-        refreshWorld();
+        TargetRef targetRef = new TargetRef(getWorld(), playTarget);
+        executeAction("Hero power", snapshot.getVersion(), () -> {
+            return playAgent.playHeroPower(targetRef.toRequest(playAgent.getWorld()));
+        });
+    }
+
+    // The characters of the snapshot and the world of the game thread have
+    // different target ids, so they are referenced by their location.
+    private static CharacterRef toCharacterRef(World world, TargetId targetId) {
+        if (targetId == null) {
+            return null;
+        }
+
+        Player currentPlayer = world.getCurrentPlayer();
+        for (Player player: new Player[]{currentPlayer, currentPlayer.getOpponent()}) {
+            boolean opponent = player != currentPlayer;
+            if (Objects.equals(player.getHero().getTargetId(), targetId)) {
+                return CharacterRef.hero(opponent);
+            }
+
+            List<Minion> minions = player.getBoard().getAllMinions();
+            for (int i = 0; i < minions.size(); i++) {
+                if (Objects.equals(minions.get(i).getTargetId(), targetId)) {
+                    return CharacterRef.minion(opponent, i);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown target: " + targetId);
+    }
+
+    private static TargetId findTarget(World world, CharacterRef ref) {
+        if (ref == null) {
+            return null;
+        }
+
+        TargetableCharacter target = ref.tryFind(world);
+        if (target == null) {
+            throw new IllegalStateException("Missing target: " + ref);
+        }
+        return target.getTargetId();
+    }
+
+    private static final class TargetRef {
+        private final PlayerId castingPlayerId;
+        private final int minionLocation;
+        private final CharacterRef target;
+        private final CardDescr chooseOneChoice;
+
+        public TargetRef(World world, PlayTargetRequest request) {
+            ExceptionHelper.checkNotNullArgument(request, "request");
+
+            this.castingPlayerId = request.getCastingPlayerId();
+            this.minionLocation = request.getMinionLocation();
+            this.target = toCharacterRef(world, request.getTargetId());
+            this.chooseOneChoice = request.getChoseOneChoice();
+        }
+
+        public PlayTargetRequest toRequest(World world) {
+            return new PlayTargetRequest(castingPlayerId, minionLocation, findTarget(world, target), chooseOneChoice);
+        }
     }
 }
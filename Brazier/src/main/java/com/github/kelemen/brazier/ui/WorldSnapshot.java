@@ -0,0 +1,262 @@
+package com.github.kelemen.brazier.ui;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.TargetableCharacter;
+import com.github.kelemen.brazier.TargeterDef;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.serialization.BinaryWorldCodec;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.jtrim.collections.CollectionsEx;
+import org.jtrim.utils.ExceptionHelper;
+
+// The state of a game at some point, as displayed by the UI. The world of the
+// snapshot is a copy of the world owned by the game thread, so the UI might
+// freely read it but must never modify it.
+//
+// The copy does not have the abilities and auras of the original (see
+// BinaryWorldCodec), so whether a character can attack or be targeted and
+// whether a card or a hero power can be played are computed from the original
+// world when the snapshot is captured. The conditions of target needs (e.g.,
+// "damaged minion") are still evaluated on the copy.
+public final class WorldSnapshot {
+    private static final int CAN_ATTACK = 1;
+    private static final int CAN_PLAY = 2;
+    // Targetable by the current player with the given kind of targeter.
+    private static final int TARGETABLE_BY_HERO = 4;
+    private static final int TARGETABLE_BY_MINION = 8;
+    private static final int ATTACKABLE_BY_HERO = 16;
+    private static final int ATTACKABLE_BY_MINION = 32;
+
+    private final long version;
+    private final World world;
+    private final byte[] encodedWorld;
+    private final boolean hasUndos;
+    private final boolean hasRedos;
+    private final List<String> history;
+    private final int historyPosition;
+    private final Map<Object, Long> entityKeys;
+    private final Map<Object, Integer> entityFlags;
+
+    private WorldSnapshot(
+            long version,
+            World world,
+            byte[] encodedWorld,
+            Map<Object, Long> entityKeys,
+            Map<Object, Integer> entityFlags,
+            boolean hasUndos,
+            boolean hasRedos,
+            List<String> history,
+            int historyPosition) {
+        this.version = version;
+        this.world = world;
+        this.encodedWorld = encodedWorld;
+        this.entityKeys = entityKeys;
+        this.entityFlags = entityFlags;
+        this.hasUndos = hasUndos;
+        this.hasRedos = hasRedos;
+        this.history = CollectionsEx.readOnlyCopy(history);
+        this.historyPosition = historyPosition;
+    }
+
+    // Must be called on the thread owning the world.
+    static WorldSnapshot capture(long version, World world, UndoManager undoManager, EntityKeys keys) {
+        ExceptionHelper.checkNotNullArgument(world, "world");
+        ExceptionHelper.checkNotNullArgument(undoManager, "undoManager");
+        ExceptionHelper.checkNotNullArgument(keys, "keys");
+
+        // The copy is only displayed, so it does not need the granted
+        // abilities and death rattles.
+        byte[] encodedWorld = BinaryWorldCodec.encodeObservable(world);
+        World copy = decode(world.getDb(), encodedWorld);
+        // Choose One cards are selected by the UI using the user agent of the
+        // displayed world.
+        copy.setUserAgent(world.getUserAgent());
+
+        Map<Object, Long> entityKeys = new IdentityHashMap<>();
+        addEntityKeys(world.getPlayer1(), copy.getPlayer1(), keys, entityKeys);
+        addEntityKeys(world.getPlayer2(), copy.getPlayer2(), keys, entityKeys);
+
+        Map<Object, Integer> entityFlags = new IdentityHashMap<>();
+        PlayerId currentPlayerId = world.getCurrentPlayer().getPlayerId();
+        addEntityFlags(currentPlayerId, world.getPlayer1(), copy.getPlayer1(), entityFlags);
+        addEntityFlags(currentPlayerId, world.getPlayer2(), copy.getPlayer2(), entityFlags);
+
+        return new WorldSnapshot(
+                version,
+                copy,
+                encodedWorld,
+                entityKeys,
+                entityFlags,
+                undoManager.hasUndos().getValue(),
+                undoManager.hasRedos().getValue(),
+                undoManager.getHistory(),
+                undoManager.getHistoryPosition());
+    }
+
+    private static World decode(HearthStoneDb db, byte[] encodedWorld) {
+        try {
+            return BinaryWorldCodec.decode(db, encodedWorld);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to copy the world.", ex);
+        }
+    }
+
+    // The copy keeps the order of the minions and the cards in hand.
+    private static void addEntityKeys(Player player, Player copy, EntityKeys keys, Map<Object, Long> result) {
+        addEntityKeys(player.getBoard().getAllMinions(), copy.getBoard().getAllMinions(), keys, result);
+        addEntityKeys(player.getHand().getCards(), copy.getHand().getCards(), keys, result);
+    }
+
+    private static void addEntityKeys(List<?> entities, List<?> copies, EntityKeys keys, Map<Object, Long> result) {
+        if (entities.size() != copies.size()) {
+            throw new IllegalStateException("The copy of the world has different entities.");
+        }
+
+        for (int i = 0; i < entities.size(); i++) {
+            result.put(copies.get(i), keys.getKey(entities.get(i)));
+        }
+    }
+
+    private static void addEntityFlags(PlayerId currentPlayerId, Player player, Player copy, Map<Object, Integer> result) {
+        int heroFlags = getCharacterFlags(currentPlayerId, player.getHero());
+        if (player.getHero().getHeroPower().isPlayable(player)) {
+            heroFlags |= CAN_PLAY;
+        }
+        result.put(copy.getHero(), heroFlags);
+
+        List<Minion> minions = player.getBoard().getAllMinions();
+        List<Minion> minionCopies = copy.getBoard().getAllMinions();
+        for (int i = 0; i < minions.size(); i++) {
+            result.put(minionCopies.get(i), getCharacterFlags(currentPlayerId, minions.get(i)));
+        }
+
+        List<Card> cards = player.getHand().getCards();
+        List<Card> cardCopies = copy.getHand().getCards();
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            boolean playable = player.getMana() >= card.getActiveManaCost()
+                    && card.getCardDescr().doesSomethingWhenPlayed(player);
+            result.put(cardCopies.get(i), playable ? CAN_PLAY : 0);
+        }
+    }
+
+    private static int getCharacterFlags(PlayerId currentPlayerId, TargetableCharacter character) {
+        int result = 0;
+        if (character.getAttackTool().canAttackWith()) {
+            result |= CAN_ATTACK;
+        }
+        if (character.isTargetable(new TargeterDef(currentPlayerId, true, false))) {
+            result |= TARGETABLE_BY_HERO;
+        }
+        if (character.isTargetable(new TargeterDef(currentPlayerId, false, false))) {
+            result |= TARGETABLE_BY_MINION;
+        }
+        if (character.isTargetable(new TargeterDef(currentPlayerId, true, true))) {
+            result |= ATTACKABLE_BY_HERO;
+        }
+        if (character.isTargetable(new TargeterDef(currentPlayerId, false, true))) {
+            result |= ATTACKABLE_BY_MINION;
+        }
+        return result;
+    }
+
+    private int getFlags(Object entity) {
+        Integer result = entityFlags.get(entity);
+        if (result == null) {
+            throw new IllegalArgumentException("Not an entity of this snapshot: " + entity);
+        }
+        return result;
+    }
+
+    public boolean isEntityOf(Object entity) {
+        return entityFlags.containsKey(entity);
+    }
+
+    // The character must be a hero or a minion of the world of this snapshot.
+    public boolean canAttackWith(TargetableCharacter character) {
+        return (getFlags(character) & CAN_ATTACK) != 0;
+    }
+
+    // The card must be in the hand of a player of the world of this snapshot.
+    public boolean canPlayCard(Card card) {
+        return (getFlags(card) & CAN_PLAY) != 0;
+    }
+
+    public boolean canPlayHeroPower(Player player) {
+        return (getFlags(player.getHero()) & CAN_PLAY) != 0;
+    }
+
+    // Characters not in this snapshot (e.g., of a snapshot displayed later)
+    // are asked directly.
+    public boolean isTargetable(TargetableCharacter target, TargeterDef targeterDef) {
+        ExceptionHelper.checkNotNullArgument(target, "target");
+        ExceptionHelper.checkNotNullArgument(targeterDef, "targeterDef");
+
+        if (!isEntityOf(target) || !Objects.equals(targeterDef.getPlayerId(), getCurrentPlayerId())) {
+            return target.isTargetable(targeterDef);
+        }
+
+        int flag;
+        if (targeterDef.isDirectAttack()) {
+            flag = targeterDef.isHero() ? ATTACKABLE_BY_HERO : ATTACKABLE_BY_MINION;
+        }
+        else {
+            flag = targeterDef.isHero() ? TARGETABLE_BY_HERO : TARGETABLE_BY_MINION;
+        }
+        return (getFlags(target) & flag) != 0;
+    }
+
+    // Incremented after every action, so that actions based on an outdated
+    // snapshot can be detected.
+    public long getVersion() {
+        return version;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    // Returns a new, independent copy of the world of this snapshot which
+    // might be modified freely. This method might be called from any thread.
+    public World forkWorld() {
+        return decode(world.getDb(), encodedWorld);
+    }
+
+    public PlayerId getCurrentPlayerId() {
+        return world.getCurrentPlayer().getPlayerId();
+    }
+
+    // Returns the key of a minion or a card in hand of the world of this
+    // snapshot. The same entity has the same key in every snapshot.
+    public long getEntityKey(Object entity) {
+        Long result = entityKeys.get(entity);
+        if (result == null) {
+            throw new IllegalArgumentException("Not an entity of this snapshot: " + entity);
+        }
+        return result;
+    }
+
+    public boolean hasUndos() {
+        return hasUndos;
+    }
+
+    public boolean hasRedos() {
+        return hasRedos;
+    }
+
+    public List<String> getHistory() {
+        return history;
+    }
+
+    public int getHistoryPosition() {
+        return historyPosition;
+    }
+}
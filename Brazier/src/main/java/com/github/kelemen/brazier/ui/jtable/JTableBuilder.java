@@ -143,6 +143,35 @@ public final class JTableBuilder<RowData> {
             table.setRowSorter(null);
         }
 
+        setupColumns();
+        return tableModel;
+    }
+
+    // Unlike setupTable, the returned model sorts the rows by itself and
+    // reports replaced rows as inserted and removed ranges. This is much
+    // faster for tables with many rows frequently replaced.
+    //
+    // The sortsOnUpdates property is ignored: the rows are always sorted.
+    public SortedTableModel<RowData> setupSortedTable() {
+        SortedTableModel<RowData> tableModel = new SortedTableModel<>(getColumnDefs());
+
+        table.setModel(tableModel);
+        table.setRowSorter(null);
+
+        if (sortableColumns) {
+            tableModel.installSortingHeader(table);
+            if (initialSortColumnIndex >= 0
+                    && initialSortColumnIndex < columnInfos.size()
+                    && tableModel.isSortableColumn(initialSortColumnIndex)) {
+                tableModel.setSortOrder(initialSortColumnIndex, true);
+            }
+        }
+
+        setupColumns();
+        return tableModel;
+    }
+
+    private void setupColumns() {
         TableColumnModel columnModel = table.getColumnModel();
 
         int index = 0;
@@ -150,8 +179,6 @@ public final class JTableBuilder<RowData> {
             columnInfo.config.setupColumn(columnModel.getColumn(index));
             index++;
         }
-
-        return tableModel;
     }
 
     private static final class ColumnInfo<RowData> {
@@ -0,0 +1,360 @@
+package com.github.kelemen.brazier.ui.jtable;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.text.CollationKey;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import org.jtrim.utils.ExceptionHelper;
+
+// A table model keeping its rows sorted by itself (without a RowSorter), so
+// that replacing the rows can be reported as inserted and removed row ranges
+// instead of changing the whole table.
+//
+// The model only does work for what is actually needed: rows are sorted by
+// precomputed, typed sort keys (e.g., collation keys instead of formatting and
+// collating strings on each comparison), and the displayed values are only
+// formatted when the table requests them (i.e., when they become visible).
+// Rows are remembered (until clear is called) so that these values are
+// computed only once for each row.
+public final class SortedTableModel<RowData> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    // If there are more changed ranges, it is cheaper to notify the table
+    // that everything has changed.
+    private static final int MAX_INCREMENTAL_RANGES = 64;
+
+    private final ColumnDef<RowData, ?>[] columnDefs;
+    private final SortKeyDef<RowData>[] sortKeyDefs;
+
+    private final Map<RowData, Row<RowData>> knownRows;
+    private List<Row<RowData>> rows;
+    private long nextRowId;
+
+    private int sortColumnIndex;
+    private boolean ascending;
+
+    @SuppressWarnings("unchecked")
+    public SortedTableModel(List<ColumnDef<RowData, ?>> columnDefs) {
+        ExceptionHelper.checkNotNullElements(columnDefs, "columnDefs");
+
+        this.columnDefs = columnDefs.toArray((ColumnDef<RowData, ?>[])new ColumnDef<?, ?>[columnDefs.size()]);
+        this.sortKeyDefs = (SortKeyDef<RowData>[])new SortKeyDef<?>[this.columnDefs.length];
+        for (int i = 0; i < this.columnDefs.length; i++) {
+            this.sortKeyDefs[i] = createSortKeyDef(this.columnDefs[i]);
+        }
+
+        this.knownRows = new HashMap<>();
+        this.rows = new ArrayList<>();
+        this.nextRowId = 0;
+        this.sortColumnIndex = -1;
+        this.ascending = true;
+    }
+
+    // Returns null if the column is not sortable.
+    @SuppressWarnings("unchecked")
+    private static <RowData, ColumnData> SortKeyDef<RowData> createSortKeyDef(ColumnDef<RowData, ColumnData> def) {
+        Comparator<ColumnData> dataComparer = def.getDataComparer();
+        if (dataComparer == null) {
+            return null;
+        }
+
+        if (dataComparer instanceof StringComparator) {
+            StringComparator stringCmp = (StringComparator)dataComparer;
+            return new SortKeyDef<>(
+                    (row) -> stringCmp.getCollationKey((String)def.getColumnData(row)),
+                    (key1, key2) -> stringCmp.compareKeys((CollationKey)key1, (CollationKey)key2));
+        }
+        else {
+            return new SortKeyDef<>(
+                    def::getColumnData,
+                    (key1, key2) -> dataComparer.compare((ColumnData)key1, (ColumnData)key2));
+        }
+    }
+
+    // Sorts the rows when the header of a column is clicked. The table must
+    // not have a RowSorter.
+    public void installSortingHeader(JTable table) {
+        ExceptionHelper.checkNotNullArgument(table, "table");
+
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumnIndex = header.columnAtPoint(e.getPoint());
+                if (viewColumnIndex < 0) {
+                    return;
+                }
+
+                int columnIndex = table.convertColumnIndexToModel(viewColumnIndex);
+                if (isSortableColumn(columnIndex)) {
+                    boolean newAscending = columnIndex != sortColumnIndex || !ascending;
+                    setSortOrder(columnIndex, newAscending);
+                }
+            }
+        });
+    }
+
+    public boolean isSortableColumn(int columnIndex) {
+        return sortKeyDefs[columnIndex] != null;
+    }
+
+    public int getSortColumnIndex() {
+        return sortColumnIndex;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    // The column index might be -1 to keep the rows in the order they were
+    // first seen.
+    public void setSortOrder(int columnIndex, boolean ascending) {
+        if (columnIndex != -1) {
+            ExceptionHelper.checkArgumentInRange(columnIndex, 0, columnDefs.length - 1, "columnIndex");
+            if (!isSortableColumn(columnIndex)) {
+                throw new IllegalArgumentException("Column is not sortable: " + columnIndex);
+            }
+        }
+
+        this.sortColumnIndex = columnIndex;
+        this.ascending = ascending;
+
+        rows.sort(getRowComparator());
+        fireTableDataChanged();
+    }
+
+    private Comparator<Row<RowData>> getRowComparator() {
+        int currentColumnIndex = sortColumnIndex;
+        int direction = ascending ? 1 : -1;
+        Comparator<Row<RowData>> idCmp = (row1, row2) -> Long.compare(row1.id, row2.id);
+        if (currentColumnIndex < 0) {
+            return idCmp;
+        }
+
+        SortKeyDef<RowData> sortKeyDef = sortKeyDefs[currentColumnIndex];
+        return (row1, row2) -> {
+            Object key1 = row1.getSortKey(currentColumnIndex, sortKeyDef);
+            Object key2 = row2.getSortKey(currentColumnIndex, sortKeyDef);
+            int result = direction * sortKeyDef.keyComparer.compare(key1, key2);
+            return result != 0 ? result : idCmp.compare(row1, row2);
+        };
+    }
+
+    // Replaces the rows of the table, notifying the table only about the rows
+    // actually inserted and removed. The new rows must be distinct.
+    public void setRows(List<? extends RowData> newRowDatas) {
+        ExceptionHelper.checkNotNullElements(newRowDatas, "newRowDatas");
+
+        List<Row<RowData>> newRows = new ArrayList<>(newRowDatas.size());
+        for (RowData rowData: newRowDatas) {
+            newRows.add(getRow(rowData));
+        }
+
+        Comparator<Row<RowData>> rowCmp = getRowComparator();
+        newRows.sort(rowCmp);
+
+        if (countChangedRanges(rows, newRows, rowCmp) > MAX_INCREMENTAL_RANGES) {
+            rows = newRows;
+            fireTableDataChanged();
+        }
+        else {
+            applyChanges(newRows, rowCmp);
+        }
+    }
+
+    private Row<RowData> getRow(RowData rowData) {
+        Row<RowData> result = knownRows.get(rowData);
+        if (result == null) {
+            result = new Row<>(nextRowId, rowData, columnDefs.length);
+            nextRowId++;
+            knownRows.put(rowData, result);
+        }
+        return result;
+    }
+
+    // Both lists must be sorted by rowCmp.
+    private static <RowData> int countChangedRanges(
+            List<Row<RowData>> oldRows,
+            List<Row<RowData>> newRows,
+            Comparator<Row<RowData>> rowCmp) {
+
+        int result = 0;
+        // 0: unchanged, 1: removed, 2: inserted
+        int prevChange = 0;
+
+        int oldIndex = 0;
+        int newIndex = 0;
+        while (oldIndex < oldRows.size() || newIndex < newRows.size()) {
+            int change;
+            if (oldIndex >= oldRows.size()) {
+                change = 2;
+                newIndex++;
+            }
+            else if (newIndex >= newRows.size()) {
+                change = 1;
+                oldIndex++;
+            }
+            else {
+                int cmp = rowCmp.compare(oldRows.get(oldIndex), newRows.get(newIndex));
+                if (cmp == 0) {
+                    change = 0;
+                    oldIndex++;
+                    newIndex++;
+                }
+                else if (cmp < 0) {
+                    change = 1;
+                    oldIndex++;
+                }
+                else {
+                    change = 2;
+                    newIndex++;
+                }
+            }
+
+            if (change != 0 && change != prevChange) {
+                result++;
+            }
+            prevChange = change;
+        }
+        return result;
+    }
+
+    // Transforms the current rows into the new rows range by range, so that
+    // the model is consistent with each event fired.
+    private void applyChanges(List<Row<RowData>> newRows, Comparator<Row<RowData>> rowCmp) {
+        List<Row<RowData>> currentRows = rows;
+
+        int index = 0;
+        int newIndex = 0;
+        while (index < currentRows.size() || newIndex < newRows.size()) {
+            if (index < currentRows.size()
+                    && newIndex < newRows.size()
+                    && currentRows.get(index) == newRows.get(newIndex)) {
+                index++;
+                newIndex++;
+                continue;
+            }
+
+            int removeEnd = index;
+            while (removeEnd < currentRows.size()
+                    && (newIndex >= newRows.size() || rowCmp.compare(currentRows.get(removeEnd), newRows.get(newIndex)) < 0)) {
+                removeEnd++;
+            }
+            if (removeEnd > index) {
+                currentRows.subList(index, removeEnd).clear();
+                fireTableRowsDeleted(index, removeEnd - 1);
+                continue;
+            }
+
+            int insertEnd = newIndex;
+            while (insertEnd < newRows.size()
+                    && (index >= currentRows.size() || rowCmp.compare(newRows.get(insertEnd), currentRows.get(index)) < 0)) {
+                insertEnd++;
+            }
+            currentRows.addAll(index, newRows.subList(newIndex, insertEnd));
+            fireTableRowsInserted(index, index + insertEnd - newIndex - 1);
+            index += insertEnd - newIndex;
+            newIndex = insertEnd;
+        }
+    }
+
+    // Removes every row and forgets the cached values of the rows.
+    public void clear() {
+        knownRows.clear();
+        rows = new ArrayList<>();
+        fireTableDataChanged();
+    }
+
+    public RowData getRow(int rowIndex) {
+        return rows.get(rowIndex).rowData;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnDefs.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnDefs[column].getCaption();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnDefs[columnIndex].getDisplayClass();
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return rows.get(rowIndex).getDisplayValue(columnIndex, columnDefs[columnIndex]);
+    }
+
+    private static final class SortKeyDef<RowData> {
+        private final KeyGetter<RowData> keyGetter;
+        private final Comparator<Object> keyComparer;
+
+        public SortKeyDef(KeyGetter<RowData> keyGetter, Comparator<Object> keyComparer) {
+            this.keyGetter = keyGetter;
+            this.keyComparer = keyComparer;
+        }
+    }
+
+    private interface KeyGetter<RowData> {
+        public Object getKey(RowData row);
+    }
+
+    private static final class Row<RowData> {
+        private static final Object NOT_COMPUTED = new Object();
+
+        private final long id;
+        private final RowData rowData;
+        private final Object[] sortKeys;
+        private final Object[] displayValues;
+
+        public Row(long id, RowData rowData, int columnCount) {
+            this.id = id;
+            this.rowData = rowData;
+            this.sortKeys = new Object[columnCount];
+            this.displayValues = new Object[columnCount];
+
+            for (int i = 0; i < columnCount; i++) {
+                sortKeys[i] = NOT_COMPUTED;
+                displayValues[i] = NOT_COMPUTED;
+            }
+        }
+
+        public Object getSortKey(int columnIndex, SortKeyDef<RowData> sortKeyDef) {
+            Object result = sortKeys[columnIndex];
+            if (result == NOT_COMPUTED) {
+                result = sortKeyDef.keyGetter.getKey(rowData);
+                sortKeys[columnIndex] = result;
+            }
+            return result;
+        }
+
+        public Object getDisplayValue(int columnIndex, ColumnDef<RowData, ?> columnDef) {
+            Object result = displayValues[columnIndex];
+            if (result == NOT_COMPUTED) {
+                result = formatColumn(rowData, columnDef);
+                displayValues[columnIndex] = result;
+            }
+            return result;
+        }
+
+        private static <RowData, ColumnData> Object formatColumn(RowData rowData, ColumnDef<RowData, ColumnData> def) {
+            return def.formatColumn(def.getColumnData(rowData));
+        }
+    }
+}
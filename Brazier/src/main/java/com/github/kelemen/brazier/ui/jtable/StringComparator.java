@@ -1,5 +1,6 @@
 package com.github.kelemen.brazier.ui.jtable;
 
+import java.text.CollationKey;
 import java.text.Collator;
 import java.util.Comparator;
 import java.util.Locale;
@@ -52,4 +53,24 @@ public final class StringComparator implements Comparator<String> {
 
         return cmp.compare(o1, o2);
     }
+
+    // Collation keys order the strings the same way as this comparator but
+    // comparing them is much cheaper. Returns null for null strings.
+    public CollationKey getCollationKey(String str) {
+        return str != null ? cmp.getCollationKey(str) : null;
+    }
+
+    public int compareKeys(CollationKey key1, CollationKey key2) {
+        if (key1 == key2) {
+            return 0;
+        }
+        if (key1 == null) {
+            return firstNullResult;
+        }
+        if (key2 == null) {
+            return secondNullResult;
+        }
+
+        return key1.compareTo(key2);
+    }
 }
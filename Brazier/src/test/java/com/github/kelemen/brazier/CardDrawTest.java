@@ -284,4 +284,17 @@ public final class CardDrawTest {
             script.expectHand("p2");
         });
     }
+
+    @Test
+    public void testFarSightReducesCostOfDrawnCard() {
+        PlayScript.testScript((script) -> {
+            script.deck("p1", YETI);
+            script.setMana("p1", 10);
+
+            script.playCard("p1", FAR_SIGHT);
+
+            script.expectHand("p1", YETI);
+            ManaCostManipulationTest.expectManaCost(script, "p1", 1);
+        });
+    }
 }
@@ -0,0 +1,37 @@
+package com.github.kelemen.brazier;
+
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.minions.Minion;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static org.junit.Assert.*;
+
+public final class CardMinionTest {
+    @Test
+    public void testCardMinionIsShared() {
+        PlayScript.testScript((script) -> {
+            script.setMana("p1", 10);
+            script.addToHand("p1", YETI, MOONFIRE);
+
+            script.expectPlayer("p1", (player) -> {
+                Card yetiCard = player.getHand().getCard(0);
+                Minion minion = yetiCard.getMinion();
+                assertNotNull(minion);
+                assertSame(minion, yetiCard.getMinion());
+                assertEquals(4, minion.getAttackTool().getAttack());
+
+                assertNull(player.getHand().getCard(1).getMinion());
+            });
+
+            script.playMinionCard("p1", 0, 0);
+
+            script.expectMinion("p1:0", (minion) -> {
+                Card card = minion.getCard();
+                assertNotSame(card, minion.getCard());
+                assertSame(minion.getBaseDescr().getBaseCard(), card.getCardDescr());
+                assertNotSame(minion, card.getMinion());
+            });
+        });
+    }
+}
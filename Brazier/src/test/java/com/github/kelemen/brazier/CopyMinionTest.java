@@ -194,4 +194,28 @@ public final class CopyMinionTest {
                     expectedMinion(BLUEGILL_WARRIOR, 2, 1));
         });
     }
+
+    @Test
+    public void testMirrorEntityCopiesAura() {
+        PlayScript.testScript((script) -> {
+            script.setMana("p1", 10);
+            script.playCard("p1", MIRROR_ENTITY);
+
+            script.setCurrentPlayer("p2");
+            script.setMana("p2", 10);
+            script.playMinionCard("p2", RAID_LEADER, 0);
+
+            script.expectBoard("p1",
+                    expectedMinion(RAID_LEADER, 2, 2));
+            script.expectBoard("p2",
+                    expectedMinion(RAID_LEADER, 2, 2));
+
+            script.setCurrentPlayer("p1");
+            script.playMinionCard("p1", WISP, 1);
+
+            script.expectBoard("p1",
+                    expectedMinion(RAID_LEADER, 2, 2),
+                    expectedMinion(WISP, 2, 1));
+        });
+    }
 }
@@ -0,0 +1,137 @@
+package com.github.kelemen.brazier;
+
+import com.github.kelemen.brazier.cards.CardAttributes;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.minions.MinionAttributes;
+import com.github.kelemen.brazier.minions.MinionDescr;
+import com.github.kelemen.brazier.parsing.TestDb;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class EntityQueryTest {
+    private static <T> List<T> filter(List<T> entities, Predicate<? super T> filter) {
+        List<T> result = new ArrayList<>();
+        for (T entity: entities) {
+            if (filter.test(entity)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testManaCostRange() {
+        HearthStoneEntityDatabase<CardDescr> cardDb = TestDb.getTestDb().getCardDb();
+
+        for (int manaCost = 0; manaCost <= 10; manaCost++) {
+            int currentCost = manaCost;
+            List<CardDescr> expected = filter(cardDb.getAll(), (card) -> {
+                return card.getKeywords().contains(Keywords.MINION) && card.getManaCost() == currentCost;
+            });
+
+            List<CardDescr> actual = cardDb.query()
+                    .withKeywords(Keywords.MINION)
+                    .withValue(CardAttributes.MANA_COST, manaCost)
+                    .find();
+            assertEquals(expected, actual);
+            assertEquals(cardDb.getByKeywords(Keywords.MINION, Keywords.manaCost(manaCost)), actual);
+        }
+    }
+
+    @Test
+    public void testKnownManaCostDoesNotLoadEntities() {
+        HearthStoneEntityDatabase.Builder<CardDescr> builder = new HearthStoneEntityDatabase.Builder<>();
+        AtomicInteger loadCount = new AtomicInteger(0);
+        for (CardDescr card: TestDb.getTestDb().getCardDb().getAll()) {
+            builder.addLazyEntity(
+                    card.getId(),
+                    card.getKeywords(),
+                    Collections.singletonMap(CardAttributes.MANA_COST, card.getManaCost()),
+                    () -> {
+                        loadCount.incrementAndGet();
+                        return card;
+                    });
+        }
+        HearthStoneEntityDatabase<CardDescr> cardDb = builder.create();
+
+        List<CardDescr> result = cardDb.query()
+                .withKeywords(Keywords.MINION)
+                .withValue(CardAttributes.MANA_COST, 3)
+                .find();
+        assertFalse(result.isEmpty());
+        assertEquals(result.size(), loadCount.get());
+    }
+
+    @Test
+    public void testCombinedQuery() {
+        HearthStoneEntityDatabase<CardDescr> cardDb = TestDb.getTestDb().getCardDb();
+
+        List<CardDescr> expected = filter(cardDb.getAll(), (card) -> {
+            return card.getKeywords().contains(Keywords.COLLECTIBLE)
+                    && !card.getKeywords().contains(Keywords.CLASS_NEUTRAL)
+                    && card.getMinion() != null
+                    && card.getMinion().getAttack() >= 2
+                    && card.getMinion().getAttack() <= 4
+                    && card.getMinion().getHp() <= 3;
+        });
+
+        List<CardDescr> actual = cardDb.query()
+                .withKeywords(Keywords.COLLECTIBLE)
+                .withoutKeywords(Keywords.CLASS_NEUTRAL)
+                .withRange(CardAttributes.ATTACK, 2, 4)
+                .withRange(CardAttributes.HP, Integer.MIN_VALUE, 3)
+                .find();
+        assertFalse(actual.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testMinionQuery() {
+        HearthStoneEntityDatabase<MinionDescr> minionDb = TestDb.getTestDb().getMinionDb();
+
+        List<MinionDescr> expected = filter(minionDb.getAll(), (minion) -> {
+            return minion.getKeywords().contains(Keywords.RACE_BEAST)
+                    && minion.getBaseCard().getManaCost() <= 3
+                    && minion.getHp() >= 2;
+        });
+
+        List<MinionDescr> actual = minionDb.query()
+                .withKeywords(Keywords.RACE_BEAST)
+                .withRange(MinionAttributes.MANA_COST, 0, 3)
+                .withRange(MinionAttributes.HP, 2, Integer.MAX_VALUE)
+                .find();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testIntersectedRanges() {
+        HearthStoneEntityDatabase<CardDescr> cardDb = TestDb.getTestDb().getCardDb();
+
+        List<CardDescr> actual = cardDb.query()
+                .withRange(CardAttributes.MANA_COST, 0, 3)
+                .withRange(CardAttributes.MANA_COST, 5, 10)
+                .find();
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    public void testResultsAreCached() {
+        HearthStoneEntityDatabase<CardDescr> cardDb = TestDb.getTestDb().getCardDb();
+
+        List<CardDescr> result1 = cardDb.query()
+                .withKeywords(Keywords.SPELL)
+                .withRange(CardAttributes.MANA_COST, 1, 2)
+                .find();
+        List<CardDescr> result2 = cardDb.query()
+                .withRange(CardAttributes.MANA_COST, 1, 2)
+                .withKeywords(Keywords.SPELL)
+                .find();
+        assertSame(result1, result2);
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.kelemen.brazier;
+
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.minions.MinionId;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public final class HearthStoneDbWatcherTest {
+    private static final CardId WISP = new CardId("Wisp");
+    private static final CardId OTHER_WISP = new CardId("Other Wisp");
+
+    @Rule
+    public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static String minionCard(String name, int manaCost, int attack, int hp) {
+        return "{\n"
+                + "    \"name\": \"" + name + "\",\n"
+                + "    \"class\": \"neutral\",\n"
+                + "    \"manaCost\": " + manaCost + ",\n"
+                + "    \"minion\": {\n"
+                + "        \"attack\": " + attack + ",\n"
+                + "        \"hp\": " + hp + "\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private Path createDb() throws IOException {
+        Path root = tmpFolder.getRoot().toPath();
+        Files.createDirectories(root.resolve("cards"));
+        Files.createDirectories(root.resolve("powers"));
+        write(root.resolve("cards").resolve("wisp.card"), minionCard("Wisp", 0, 1, 1));
+        return root;
+    }
+
+    private static CardDescr getCard(HearthStoneDb db, CardId id) {
+        return db.getCardDb().getById(id);
+    }
+
+    @Test
+    public void testModifiedCard() throws Exception {
+        Path root = createDb();
+        try (HearthStoneDbWatcher watcher = HearthStoneDbWatcher.watch(root)) {
+            AtomicInteger reloadCount = new AtomicInteger(0);
+            watcher.addReloadListener(reloadCount::incrementAndGet);
+
+            HearthStoneDb oldDb = watcher.getCurrentDb();
+            assertEquals(1, getCard(oldDb, WISP).getMinion().getAttack());
+
+            Path cardFile = write(root.resolve("cards").resolve("wisp.card"), minionCard("Wisp", 1, 5, 1));
+            assertTrue(watcher.reload(Collections.singleton(cardFile)));
+
+            HearthStoneDb newDb = watcher.getCurrentDb();
+            assertNotSame(oldDb, newDb);
+            assertEquals(1, reloadCount.get());
+
+            assertEquals(5, getCard(newDb, WISP).getMinion().getAttack());
+            assertEquals(1, getCard(newDb, WISP).getManaCost());
+            assertEquals(5, newDb.getMinionDb().getById(new MinionId("Wisp")).getAttack());
+
+            assertEquals(1, getCard(oldDb, WISP).getMinion().getAttack());
+            assertEquals(0, getCard(oldDb, WISP).getManaCost());
+        }
+    }
+
+    @Test
+    public void testAddedAndRemovedCards() throws Exception {
+        Path root = createDb();
+        try (HearthStoneDbWatcher watcher = HearthStoneDbWatcher.watch(root)) {
+            Path wispFile = root.resolve("cards").resolve("wisp.card");
+            Path otherFile = write(root.resolve("cards").resolve("other-wisp.card"), minionCard("Other Wisp", 0, 2, 2));
+            Files.delete(wispFile);
+
+            assertTrue(watcher.reload(Arrays.asList(wispFile, otherFile)));
+
+            HearthStoneDb newDb = watcher.getCurrentDb();
+            assertNull(newDb.getCardDb().tryGetById(WISP));
+            assertEquals(2, getCard(newDb, OTHER_WISP).getMinion().getAttack());
+            assertEquals(1, newDb.getCardDb().getAll().size());
+        }
+    }
+
+    @Test
+    public void testInvalidCardKeepsCurrentDb() throws Exception {
+        Path root = createDb();
+        try (HearthStoneDbWatcher watcher = HearthStoneDbWatcher.watch(root)) {
+            HearthStoneDb oldDb = watcher.getCurrentDb();
+
+            Path cardFile = write(root.resolve("cards").resolve("wisp.card"), "{ \"name\": \"Wisp\", ");
+            assertFalse(watcher.reload(Collections.singleton(cardFile)));
+            assertSame(oldDb, watcher.getCurrentDb());
+
+            write(cardFile, minionCard("Wisp", 0, 3, 3));
+            assertTrue(watcher.reload(Collections.singleton(cardFile)));
+            assertEquals(3, getCard(watcher.getCurrentDb(), WISP).getMinion().getAttack());
+        }
+    }
+
+    @Test
+    public void testInvalidCardDoesNotBlockOtherChanges() throws Exception {
+        Path root = createDb();
+        try (HearthStoneDbWatcher watcher = HearthStoneDbWatcher.watch(root)) {
+            assertEquals(1, getCard(watcher.getCurrentDb(), WISP).getMinion().getAttack());
+
+            Path wispFile = write(root.resolve("cards").resolve("wisp.card"), "{ \"name\": \"Wisp\", ");
+            Path otherFile = write(root.resolve("cards").resolve("other-wisp.card"), minionCard("Other Wisp", 0, 2, 2));
+            assertTrue(watcher.reload(Arrays.asList(wispFile, otherFile)));
+
+            HearthStoneDb newDb = watcher.getCurrentDb();
+            assertEquals(1, getCard(newDb, WISP).getMinion().getAttack());
+            assertEquals(2, getCard(newDb, OTHER_WISP).getMinion().getAttack());
+
+            // The previous Wisp is still kept after unrelated changes.
+            write(otherFile, minionCard("Other Wisp", 0, 4, 4));
+            assertTrue(watcher.reload(Collections.singleton(otherFile)));
+            assertEquals(1, getCard(watcher.getCurrentDb(), WISP).getMinion().getAttack());
+            assertEquals(4, getCard(watcher.getCurrentDb(), OTHER_WISP).getMinion().getAttack());
+        }
+    }
+
+    @Test
+    public void testInvalidCardBodyKeepsPreviousEntity() throws Exception {
+        Path root = createDb();
+        try (HearthStoneDbWatcher watcher = HearthStoneDbWatcher.watch(root)) {
+            assertEquals(1, getCard(watcher.getCurrentDb(), WISP).getMinion().getAttack());
+
+            String invalidBody = minionCard("Wisp", 0, 9, 1).replace("\"hp\"", "\"unknownProperty\"");
+            Path wispFile = write(root.resolve("cards").resolve("wisp.card"), invalidBody);
+            Path otherFile = write(root.resolve("cards").resolve("other-wisp.card"), minionCard("Other Wisp", 0, 2, 2));
+            assertTrue(watcher.reload(Arrays.asList(wispFile, otherFile)));
+
+            HearthStoneDb newDb = watcher.getCurrentDb();
+            assertEquals(1, getCard(newDb, WISP).getMinion().getAttack());
+            assertEquals(2, getCard(newDb, OTHER_WISP).getMinion().getAttack());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.kelemen.brazier;
+
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class ListPoolTest {
+    @Test
+    public void testReleasedListIsReused() {
+        ListPool pool = new ListPool();
+
+        List<String> list1 = pool.acquire();
+        list1.add("a");
+        pool.release(list1);
+
+        List<String> list2 = pool.acquire();
+        assertSame(list1, list2);
+        assertTrue(list2.isEmpty());
+    }
+
+    @Test
+    public void testNestedAcquire() {
+        ListPool pool = new ListPool();
+
+        List<String> list1 = pool.acquire();
+        List<String> list2 = pool.acquire();
+        assertNotSame(list1, list2);
+
+        pool.release(list2);
+        pool.release(list1);
+
+        List<String> list3 = pool.acquire();
+        List<String> list4 = pool.acquire();
+        assertSame(list1, list3);
+        assertSame(list2, list4);
+    }
+}
@@ -80,6 +80,54 @@ public final class ManaCostManipulationTest {
         });
     }
 
+    @Test
+    public void testCachedManaCostFollowsAuras() {
+        World world = TestWorlds.createEmptyWorld();
+        TestWorlds.addToHand(world, TestWorlds.PLAYER1_ID, YETI);
+        Card yeti = world.getPlayer(TestWorlds.PLAYER1_ID).getHand().getCard(0);
+        assertEquals(4, yeti.getActiveManaCost());
+
+        long version = yeti.getRawManaCost().getVersion();
+        TestWorlds.playCard(world, TestWorlds.PLAYER2_ID, MANA_WRAITH, null);
+        world.endPhase();
+        assertTrue(version != yeti.getRawManaCost().getVersion());
+        assertEquals(5, yeti.getActiveManaCost());
+
+        version = yeti.getRawManaCost().getVersion();
+        TestWorlds.getMinion(world, TestWorlds.PLAYER2_ID, 0).silence();
+        world.endPhase();
+        assertTrue(version != yeti.getRawManaCost().getVersion());
+        assertEquals(4, yeti.getActiveManaCost());
+    }
+
+    @Test
+    public void testPintSizedSummoner() {
+        PlayScript.testScript((script) -> {
+            script.setCurrentPlayer("p1");
+            script.setMana("p1", 10);
+
+            script.addToHand("p1", YETI, YETI, SLAM);
+            expectManaCost(script, "p1", 4, 4, 2);
+
+            script.playMinionCard("p1", PINT_SIZED_SUMMONER, 0);
+            expectManaCost(script, "p1", 4, 4, 2);
+
+            script.endTurn(); // p1
+            script.endTurn(); // p2
+            expectManaCost(script, "p1", 3, 3, 2);
+
+            script.setMana("p1", 10);
+            script.playMinionCard("p1", 0, 1);
+            expectManaCost(script, "p1", 4, 2);
+
+            script.endTurn(); // p1
+            expectManaCost(script, "p1", 4, 2);
+
+            script.endTurn(); // p2
+            expectManaCost(script, "p1", 3, 2);
+        });
+    }
+
     @Test
     public void testPreparationUsed() {
         PlayScript.testScript((script) -> {
@@ -0,0 +1,48 @@
+package com.github.kelemen.brazier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class ParallelUtilsTest {
+    @Test
+    public void testForEachIndexVisitsEachIndexOnce() {
+        AtomicIntegerArray visits = new AtomicIntegerArray(100);
+        ParallelUtils.forEachIndex(4, "Test-Thread", visits.length(), visits::incrementAndGet);
+
+        for (int i = 0; i < visits.length(); i++) {
+            assertEquals(1, visits.get(i));
+        }
+    }
+
+    @Test
+    public void testForEachIndexWithoutIndexes() {
+        ParallelUtils.forEachIndex(4, "Test-Thread", 0, (index) -> fail());
+    }
+
+    @Test
+    public void testRunOnThreadsUsesEachThreadIndex() {
+        AtomicIntegerArray visits = new AtomicIntegerArray(3);
+        ParallelUtils.runOnThreads(visits.length(), "Test-Thread", visits::incrementAndGet);
+
+        for (int i = 0; i < visits.length(); i++) {
+            assertEquals(1, visits.get(i));
+        }
+    }
+
+    @Test
+    public void testFailuresAreRethrown() {
+        AtomicInteger stopCount = new AtomicInteger(0);
+        try {
+            ParallelUtils.runOnThreads(3, "Test-Thread", (threadIndex) -> {
+                throw new IllegalStateException("Failure " + threadIndex);
+            }, stopCount::incrementAndGet);
+            fail("Expected failure.");
+        } catch (IllegalStateException ex) {
+            assertEquals(2, ex.getSuppressed().length);
+        }
+        assertEquals(3, stopCount.get());
+    }
+}
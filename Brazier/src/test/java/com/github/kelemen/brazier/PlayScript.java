@@ -7,7 +7,10 @@ import com.github.kelemen.brazier.cards.CardDescr;
 import com.github.kelemen.brazier.cards.CardId;
 import com.github.kelemen.brazier.minions.Minion;
 import com.github.kelemen.brazier.parsing.TestDb;
+import com.github.kelemen.brazier.serialization.BinaryWorldCodec;
+import com.github.kelemen.brazier.serialization.JsonWorldCodec;
 import com.github.kelemen.brazier.weapons.Weapon;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
@@ -549,6 +552,9 @@ public final class PlayScript {
         for (ScriptAction action: currentScript) {
             try {
                 action.doAction(state);
+                if (!action.expectationCheck) {
+                    checkSerialization(state.world);
+                }
             } catch (Throwable ex) {
                 ex.addSuppressed(action.stackTrace);
                 throw ex;
@@ -556,6 +562,34 @@ public final class PlayScript {
         }
     }
 
+    // Every intermediate state of the scripts must survive a round trip
+    // through both formats. Restoring a world updates its auras, so the
+    // original world is compared after updating its auras as well. States with
+    // granted abilities or death rattles cannot be stored at all.
+    private void checkSerialization(World world) {
+        if (!BinaryWorldCodec.canEncode(world)) {
+            return;
+        }
+
+        byte[] encoded = BinaryWorldCodec.encode(world);
+        String json = JsonWorldCodec.encode(world);
+
+        UndoAction endPhaseUndo = world.endPhase();
+        byte[] expectedEncoded = BinaryWorldCodec.encode(world);
+        String expectedJson = JsonWorldCodec.encode(world);
+        endPhaseUndo.undo();
+
+        try {
+            World decoded = BinaryWorldCodec.decode(db, encoded);
+            assertEquals("Binary round trip", expectedJson, JsonWorldCodec.encode(decoded));
+
+            World decodedJson = JsonWorldCodec.decode(db, json);
+            assertArrayEquals("JSON round trip", expectedEncoded, BinaryWorldCodec.encode(decodedJson));
+        } catch (IOException ex) {
+            throw new AssertionError("Failed to decode\n" + json, ex);
+        }
+    }
+
     private static final class CardChoiceDef {
         public final int choiceIndex;
         public final String[] cardNames;
@@ -89,4 +89,28 @@ public final class ReturnMinionTest {
             script.expectHand("p2");
         });
     }
+
+    @Test
+    public void testEchoingOozeReturnedBeforeEndOfTurn() {
+        PlayScript.testScript((script) -> {
+            script.setMana("p1", 10);
+
+            script.playMinionCard("p1", ECHOING_OOZE, 0);
+            script.playMinionCard("p1", YOUTHFUL_BREWMASTER, 1, "p1:0");
+
+            script.expectBoard("p1", expectedMinion(YOUTHFUL_BREWMASTER, 3, 2));
+            script.expectHand("p1", ECHOING_OOZE);
+
+            script.endTurn();
+
+            script.expectBoard("p1", expectedMinion(YOUTHFUL_BREWMASTER, 3, 2));
+            script.expectBoard("p2");
+
+            script.setMana("p2", 10);
+            script.playCard("p2", FIREBALL, "p1:0");
+
+            script.expectBoard("p1");
+            script.expectBoard("p2");
+        });
+    }
 }
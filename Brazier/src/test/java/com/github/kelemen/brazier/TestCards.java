@@ -10,6 +10,8 @@ public final class TestCards {
     public static final String ALARM_O_BOT = "Alarm-o-Bot";
     public static final String ALDOR_PEACEKEEPER = "Aldor Peacekeeper";
     public static final String ANCIENT_MAGE = "Ancient Mage";
+    public static final String ARCANE_MISSILES = "Arcane Missiles";
+    public static final String ARMOR_UP = "Armor Up!";
     public static final String AVENGE = "Avenge";
     public static final String BLACKWING_CORRUPTOR = "Blackwing Corruptor";
     public static final String BLACKWING_TECHNICIAN = "Blackwing Technician";
@@ -27,6 +29,7 @@ public final class TestCards {
     public static final String DEFIAS_RINGLEADER = "Defias Ringleader";
     public static final String DIRE_WOLF_ALPHA = "Dire Wolf Alpha";
     public static final String DREAD_CORSAIR = "Dread Corsair";
+    public static final String ECHOING_OOZE = "Echoing Ooze";
     public static final String EMPEROR_COBRA = "Emperor Cobra";
     public static final String EMPEROR_THAURISSAN = "Emperor Thaurissan";
     public static final String EVISCERATE = "Eviscerate";
@@ -35,6 +38,7 @@ public final class TestCards {
     public static final String EXPLOSIVE_SHOT = "Explosive Shot";
     public static final String EXPLOSIVE_TRAP = "Explosive Trap";
     public static final String FACELESS_MANIPULATOR = "Faceless Manipulator";
+    public static final String FAR_SIGHT = "Far Sight";
     public static final String FIERY_WAR_AXE = "Fiery War Axe";
     public static final String FINICKY_CLOAKFIELD = "Finicky Cloakfield";
     public static final String FIREBALL = "Fireball";
@@ -45,6 +49,7 @@ public final class TestCards {
     public static final String FREEZING_TRAP = "Freezing Trap";
     public static final String FROTHING_BERSERKER = "Frothing Berserker";
     public static final String FROST_NOVA = "Frost Nova";
+    public static final String GOLDSHIRE_FOOTMAN = "Goldshire Footman";
     public static final String GRIM_PATRON = "Grim Patron";
     public static final String GURUBASHI_BERSERKER = "Gurubashi Berserker";
     public static final String HARVEST_GOLEM = "Harvest Golem";
@@ -66,14 +71,17 @@ public final class TestCards {
     public static final String MIRROR_ENTITY = "Mirror Entity";
     public static final String MOONFIRE = "Moonfire";
     public static final String OGRE_BRUTE = "Ogre Brute";
+    public static final String PINT_SIZED_SUMMONER = "Pint-Sized Summoner";
     public static final String PREPARATION = "Preparation";
     public static final String PYROBLAST = "Pyroblast";
+    public static final String RAID_LEADER = "Raid Leader";
     public static final String REDEMPTION = "Redemption";
     public static final String REPENTANCE = "Repentance";
     public static final String RESURRECT = "Resurrect";
     public static final String REVERSING_SWITCH = "Reversing Switch";
     public static final String SHIELD_BLOCK = "Shield Block";
     public static final String SCARLET_CRUSADER = "Scarlet Crusader";
+    public static final String SENJIN_SHIELDMASTA = "Sen'jin Shieldmasta";
     public static final String SHADOW_MADNESS = "Shadow Madness";
     public static final String SHADOW_STEP = "Shadowstep";
     public static final String SHATTERED_SUN_CLERIC = "Shattered Sun Cleric";
@@ -101,6 +109,7 @@ public final class TestCards {
     public static final String WHIRLWIND = "Whirlwind";
     public static final String WISP = "Wisp";
     public static final String YETI = "Chillwind Yeti";
+    public static final String YOUTHFUL_BREWMASTER = "Youthful Brewmaster";
 
     public static MinionExpectations expectedMinion(String name, int attack, int hp) {
         MinionExpectations.Builder result = new MinionExpectations.Builder(new MinionId(name));
@@ -0,0 +1,79 @@
+package com.github.kelemen.brazier;
+
+import com.github.kelemen.brazier.actions.PlayTargetRequest;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.parsing.TestDb;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TestWorlds {
+    public static final PlayerId PLAYER1_ID = new PlayerId("Player1");
+    public static final PlayerId PLAYER2_ID = new PlayerId("Player2");
+
+    public static CardDescr getCard(HearthStoneDb db, String name) {
+        return db.getCardDb().getById(new CardId(name));
+    }
+
+    public static List<CardDescr> getCards(HearthStoneDb db, String... names) {
+        List<CardDescr> result = new ArrayList<>(names.length);
+        for (String name: names) {
+            result.add(getCard(db, name));
+        }
+        return result;
+    }
+
+    public static World createEmptyWorld() {
+        return new World(TestDb.getTestDb(), PLAYER1_ID, PLAYER2_ID);
+    }
+
+    // Player1 has the given minions and cards in hand with 10 mana, Player2
+    // has the given minions.
+    public static World createWorld(String[] ownMinions, String[] enemyMinions, String... hand) {
+        World world = createEmptyWorld();
+        summon(world, PLAYER2_ID, enemyMinions);
+        summon(world, PLAYER1_ID, ownMinions);
+
+        addToHand(world, PLAYER1_ID, hand);
+        world.getPlayer(PLAYER1_ID).setMana(10);
+        return world;
+    }
+
+    public static void addToHand(World world, PlayerId playerId, String... cardNames) {
+        Player player = world.getPlayer(playerId);
+        for (String cardName: cardNames) {
+            player.getHand().addCard(getCard(world.getDb(), cardName));
+        }
+    }
+
+    // Plays the card with 10 mana, putting minions to the right end of the
+    // board.
+    public static UndoAction playCard(World world, PlayerId playerId, String cardName, TargetId target) {
+        Player player = world.getPlayer(playerId);
+        player.setMana(10);
+        player.getHand().addCard(getCard(world.getDb(), cardName));
+
+        int location = player.getBoard().getMinionCount();
+        WorldPlayAgent playAgent = new WorldPlayAgent(world, playerId);
+        return playAgent.playCard(player.getHand().getCardCount() - 1, new PlayTargetRequest(playerId, location, target));
+    }
+
+    // Plays the minions from hand, so that their battle cries take effect,
+    // then refreshes the board so that they can attack.
+    public static void summon(World world, PlayerId playerId, String... minionNames) {
+        for (String minionName: minionNames) {
+            playCard(world, playerId, minionName, null);
+        }
+        world.getPlayer(playerId).getBoard().refresh();
+    }
+
+    public static Minion getMinion(World world, PlayerId playerId, int index) {
+        return world.getPlayer(playerId).getBoard().getAllMinions().get(index);
+    }
+
+    private TestWorlds() {
+        throw new AssertionError();
+    }
+}
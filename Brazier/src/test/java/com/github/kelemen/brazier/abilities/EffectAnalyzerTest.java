@@ -0,0 +1,47 @@
+package com.github.kelemen.brazier.abilities;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.minions.MinionId;
+import com.github.kelemen.brazier.parsing.TestDb;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static org.junit.Assert.*;
+
+public final class EffectAnalyzerTest {
+    private static EffectClass minionEffect(String name) {
+        HearthStoneDb db = TestDb.getTestDb();
+        return db.getMinionDb().getById(new MinionId(name)).getEffectClass();
+    }
+
+    private static EffectClass cardEffect(String name) {
+        HearthStoneDb db = TestDb.getTestDb();
+        return db.getCardDb().getById(new CardId(name)).getEffectClass();
+    }
+
+    @Test
+    public void testMinions() {
+        assertEquals(EffectClass.VANILLA, minionEffect(YETI));
+        assertEquals(EffectClass.VANILLA, minionEffect(WISP));
+        assertEquals(EffectClass.STAT_ONLY, minionEffect(BLUEGILL_WARRIOR));
+        assertEquals(EffectClass.STAT_ONLY, minionEffect(ABUSIVE_SERGEANT));
+        assertEquals(EffectClass.TRIGGERED, minionEffect(HARVEST_GOLEM));
+        assertEquals(EffectClass.TRIGGERED, minionEffect(PINT_SIZED_SUMMONER));
+    }
+
+    @Test
+    public void testCards() {
+        assertEquals(EffectClass.VANILLA, cardEffect(YETI));
+        assertEquals(EffectClass.STAT_ONLY, cardEffect(FIREBALL));
+        assertEquals(EffectClass.STAT_ONLY, cardEffect(ABUSIVE_SERGEANT));
+        assertEquals(EffectClass.TRIGGERED, cardEffect(HARVEST_GOLEM));
+    }
+
+    @Test
+    public void testCombine() {
+        assertEquals(EffectClass.STAT_ONLY, EffectClass.VANILLA.combine(EffectClass.STAT_ONLY));
+        assertEquals(EffectClass.TRIGGERED, EffectClass.TRIGGERED.combine(EffectClass.STAT_ONLY));
+        assertEquals(EffectClass.VANILLA, EffectClass.VANILLA.combine(EffectClass.VANILLA));
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.kelemen.brazier.actions;
+
+import com.github.kelemen.brazier.BornEntity;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.TargetableCharacter;
+import com.github.kelemen.brazier.World;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class EntitySelectorsTest {
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        summon(world, PLAYER1_ID, YETI, BLUEGILL_WARRIOR);
+        summon(world, PLAYER2_ID, BLUEGILL_WARRIOR, YETI, YETI);
+        return world;
+    }
+
+    private static <Actor> void verifyCollect(World world, Actor actor, EntitySelector<Actor, ?> selector) {
+        List<?> expected = selector.select(world, actor).collect(Collectors.toList());
+
+        List<Object> collected = new ArrayList<>();
+        collected.add("prefix");
+        selector.collect(world, actor, collected);
+
+        assertEquals("prefix", collected.get(0));
+        assertEquals(expected, collected.subList(1, collected.size()));
+    }
+
+    @Test
+    public void testCollectMatchesSelect() {
+        World world = createWorld();
+        Player player = world.getPlayer1();
+
+        verifyCollect(world, player, EntitySelectors.allTargets());
+        verifyCollect(world, player, EntitySelectors.enemyTargetsBuffable());
+        verifyCollect(world, player, EntitySelectors.boardAlive());
+        verifyCollect(world, player, EntitySelectors.friendlyHand());
+        verifyCollect(world, player, EntitySelectors.sorted(EntitySelectors.board(), BornEntity.CMP));
+        verifyCollect(world, player, EntitySelectors.notSelf(EntitySelectors.self()));
+        verifyCollect(world, player, EntitySelectors.filtered(
+                EntityFilter.merge(Arrays.asList(
+                        EntityFilters.fromPredicate(EntityFilters.isMurloc()),
+                        EntityFilters.fromPredicate(EntityFilters.isAlive()))),
+                EntitySelectors.allMinions()));
+        verifyCollect(world, player, EntitySelectors.filtered(EntityFilters.empty(), EntitySelectors.allTargets()));
+    }
+
+    @Test
+    public void testCompiledMatchesSelect() {
+        World world = createWorld();
+        Player player = world.getPlayer1();
+
+        List<EntitySelector<Player, ?>> selectors = Arrays.asList(
+                EntitySelectors.allTargets(),
+                EntitySelectors.enemyTargetsBuffable(),
+                EntitySelectors.boardAlive(),
+                EntitySelectors.sorted(EntitySelectors.board(), BornEntity.CMP),
+                EntitySelectors.notSelf(EntitySelectors.self()),
+                EntitySelectors.fromOpponent(EntitySelectors.notSelf(EntitySelectors.friends())),
+                EntitySelectors.filtered(
+                        EntityFilter.merge(Arrays.asList(
+                                EntityFilters.fromPredicate(EntityFilters.isMurloc()),
+                                (World filterWorld, Stream<? extends TargetableCharacter> entities) -> entities.limit(1))),
+                        EntitySelectors.allTargets()),
+                EntitySelector.<Player, TargetableCharacter>mergeToCommonBase(Arrays.asList(
+                        EntitySelectors.filtered(EntityFilters.empty(), EntitySelectors.allTargets()),
+                        EntitySelectors.friendlyHero(),
+                        EntitySelectors.friendlyBoard())));
+
+        for (EntitySelector<Player, ?> selector: selectors) {
+            SelectionProgram<Player, ?> program = SelectionProgram.compile(selector);
+            verifyCollect(world, player, program);
+            verifyCollect(world, player, EntitySelectors.notSelf(program));
+        }
+
+        // BEGIN_RANGE, COLLECT, PUSH_OPPONENT, COLLECT, POP_ACTOR, SORT, END_RANGE
+        SelectionProgram<Player, ?> sortedBoard = SelectionProgram.compile(
+                EntitySelectors.sorted(EntitySelectors.board(), BornEntity.CMP));
+        assertEquals(7, sortedBoard.getInstructionCount());
+        assertTrue(sortedBoard.isInterpreted());
+
+        SelectionProgram<Player, ?> allTargets = SelectionProgram.compile(EntitySelectors.allTargets());
+        assertFalse(allTargets.isInterpreted());
+    }
+
+    @Test
+    public void testForEachReleasesLists() {
+        World world = createWorld();
+        Player player = world.getPlayer1();
+
+        List<Object> visited = new ArrayList<>();
+        EntitySelectors.<Player>allTargets().forEach(world, player, (target) -> {
+            visited.add(target);
+            return UndoAction.DO_NOTHING;
+        });
+        assertEquals(EntitySelectors.<Player>allTargets().select(world, player).collect(Collectors.toList()), visited);
+
+        List<Object> list = world.getListPool().acquire();
+        assertTrue(list.isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.kelemen.brazier.actions;
+
+import com.github.kelemen.brazier.BornEntity;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.World;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+
+// Compares the compiled selectors with the selector trees they were compiled
+// from (SelectionProgram.getSource) by collecting the entities selected by
+// selectors typical in the card definitions. This is not a test, run it
+// manually:
+//
+//   java -cp ... com.github.kelemen.brazier.actions.SelectionProgramBenchmark [rounds]
+public final class SelectionProgramBenchmark {
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int DEFAULT_ROUNDS = 10;
+    private static final int COLLECTS_PER_ROUND = 200000;
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+
+        World world = createWorld();
+        Player player = world.getPlayer1();
+
+        List<SelectionProgram<Player, ?>> programs = new ArrayList<>();
+        for (EntitySelector<Player, ?> selector: getSelectors()) {
+            programs.add(SelectionProgram.compile(selector));
+        }
+
+        System.out.format(Locale.ROOT, "%-40s %12s %12s%n", "Selector", "compiled", "tree");
+        for (SelectionProgram<Player, ?> program: programs) {
+            for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+                runRound(world, player, program);
+                runRound(world, player, program.getSource());
+            }
+
+            long compiledNanos = 0;
+            long treeNanos = 0;
+            for (int i = 0; i < rounds; i++) {
+                compiledNanos += runRound(world, player, program);
+                treeNanos += runRound(world, player, program.getSource());
+            }
+
+            System.out.format(Locale.ROOT, "%-40s %9.1f ns %9.1f ns%n",
+                    program.getInstructionCount() + " instructions, depth " + program.getMaxRangeDepth(),
+                    toNanosPerCollect(compiledNanos, rounds),
+                    toNanosPerCollect(treeNanos, rounds));
+        }
+    }
+
+    private static List<EntitySelector<Player, ?>> getSelectors() {
+        return Arrays.asList(
+                EntitySelectors.enemyTargets(),
+                EntitySelectors.allMinionsAlive(),
+                EntitySelectors.notSelf(EntitySelectors.friends()),
+                EntitySelectors.sorted(EntitySelectors.board(), BornEntity.CMP),
+                EntitySelectors.filtered(
+                        EntityFilters.fromPredicate(EntityFilters.isMurloc()),
+                        EntitySelectors.allMinions()),
+                EntitySelectors.fromOpponent(EntitySelectors.notSelf(EntitySelectors.friendsBuffable())),
+                EntitySelectors.notSelf(EntitySelectors.filtered(
+                        EntityFilters.fromPredicate(EntityFilters.isMurloc()),
+                        EntitySelectors.friends())),
+                EntitySelectors.sorted(EntitySelectors.notSelf(EntitySelectors.filtered(
+                        EntityFilters.fromPredicate(EntityFilters.isMurloc()),
+                        EntitySelectors.allMinionsAlive())), BornEntity.CMP));
+    }
+
+    private static double toNanosPerCollect(long nanos, int rounds) {
+        return (double)nanos / ((long)rounds * COLLECTS_PER_ROUND);
+    }
+
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        summon(world, PLAYER1_ID, YETI, BLUEGILL_WARRIOR, YETI);
+        summon(world, PLAYER2_ID, BLUEGILL_WARRIOR, YETI, YETI, YETI);
+        return world;
+    }
+
+    private static long runRound(World world, Player player, EntitySelector<? super Player, ?> selector) {
+        List<Object> result = new ArrayList<>();
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < COLLECTS_PER_ROUND; i++) {
+            selector.collect(world, player, result);
+            result.clear();
+        }
+        return System.nanoTime() - startTime;
+    }
+}
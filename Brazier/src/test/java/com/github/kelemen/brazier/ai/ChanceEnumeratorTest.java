@@ -0,0 +1,85 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.PlayTargetRequest;
+import com.github.kelemen.brazier.actions.WorldAction;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class ChanceEnumeratorTest {
+    // Player2 has a Wisp and Player1 has Arcane Missiles in hand.
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        summon(world, PLAYER2_ID, WISP);
+        new WorldPlayAgent(world, PLAYER2_ID).setCurrentPlayerId(PLAYER1_ID);
+
+        addToHand(world, PLAYER1_ID, ARCANE_MISSILES);
+        world.getPlayer(PLAYER1_ID).setMana(10);
+        return world;
+    }
+
+    private static WorldAction playFirstCard() {
+        return (world) -> {
+            WorldPlayAgent playAgent = new WorldPlayAgent(world, PLAYER1_ID);
+            return playAgent.playCard(0, new PlayTargetRequest(PLAYER1_ID));
+        };
+    }
+
+    @Test
+    public void testArcaneMissilesExactDistribution() {
+        World world = createWorld();
+        Player player2 = world.getPlayer(PLAYER2_ID);
+
+        OutcomeDistribution<Integer> damage = new ChanceEnumerator().enumerate(world, playFirstCard(),
+                (outcomeWorld) -> 30 - outcomeWorld.getPlayer(PLAYER2_ID).getHero().getCurrentHp());
+
+        // Once the Wisp dies, every remaining missile must hit the hero:
+        // the hero only takes 3 damage if none of the missiles hit the Wisp.
+        assertEquals(4, damage.getSequenceCount());
+        assertEquals(2, damage.getOutcomes().size());
+        assertEquals(1.0 / 8.0, damage.getProbability((dealt) -> dealt == 3), 1e-12);
+        assertEquals(7.0 / 8.0, damage.getProbability((dealt) -> dealt == 2), 1e-12);
+        assertEquals(17.0 / 8.0, damage.getExpectedValue((dealt) -> dealt), 1e-12);
+
+        assertEquals(30, player2.getHero().getCurrentHp());
+        assertEquals(1, player2.getBoard().getMinionCount());
+        assertEquals(1, world.getPlayer(PLAYER1_ID).getHand().getCardCount());
+    }
+
+    @Test
+    public void testMergeByStateHash() {
+        World world = createWorld();
+        long originalHash = WorldStateHash.hash(world);
+
+        OutcomeDistribution<Long> states = new ChanceEnumerator().enumerateStates(world, playFirstCard());
+        assertEquals(4, states.getSequenceCount());
+        assertEquals(2, states.getOutcomes().size());
+
+        double totalProbability = 0.0;
+        for (ChanceOutcome<Long> outcome: states.getOutcomes()) {
+            totalProbability += outcome.getProbability();
+        }
+        assertEquals(1.0, totalProbability, 1e-12);
+        assertEquals(originalHash, WorldStateHash.hash(world));
+    }
+
+    @Test
+    public void testDeterministicAction() {
+        World world = createWorld();
+
+        OutcomeDistribution<Long> states = new ChanceEnumerator().enumerateStates(world, WorldAction.DO_NOTHING);
+        assertEquals(1, states.getSequenceCount());
+        assertEquals(1, states.getOutcomes().size());
+        assertEquals(1.0, states.getOutcomes().get(0).getProbability(), 0.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSequenceLimit() {
+        new ChanceEnumerator(3).enumerateStates(createWorld(), playFirstCard());
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.cards.Card;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class DeterminizerTest {
+    private static final Comparator<CardDescr> CARD_ORDER
+            = (card1, card2) -> card1.getId().getName().compareTo(card2.getId().getName());
+
+    private static List<CardDescr> sorted(List<CardDescr> cards) {
+        List<CardDescr> result = new ArrayList<>(cards);
+        result.sort(CARD_ORDER);
+        return result;
+    }
+
+    private static final class TestState {
+        public final HearthStoneDb db;
+        public final World world;
+        public final PlayerKnowledge knowledge;
+
+        public TestState() {
+            world = createEmptyWorld();
+            db = world.getDb();
+
+            Player player1 = world.getPlayer(PLAYER1_ID);
+            player1.getBoard().getDeck().setCards(getCards(db, YETI, WISP, MOONFIRE));
+
+            Player player2 = world.getPlayer(PLAYER2_ID);
+            playCard(world, PLAYER2_ID, YETI, null);
+            addToHand(world, PLAYER2_ID, WISP, MOONFIRE);
+            player2.getBoard().getDeck().setCards(getCards(db, YETI, WISP, MOONFIRE));
+
+            knowledge = new PlayerKnowledge(PLAYER1_ID);
+            knowledge.setOpponentDeckList(getCards(db, YETI, YETI, WISP, WISP, MOONFIRE, MOONFIRE));
+            knowledge.revealCard(player2.getHand().getCard(1));
+        }
+
+        public Player getOpponent() {
+            return world.getPlayer(PLAYER2_ID);
+        }
+    }
+
+    @Test
+    public void testCandidatesExcludeSeenCards() {
+        TestState state = new TestState();
+
+        InformationSet informationSet = new Determinizer(state.knowledge).observe(state.world);
+        assertEquals(2, informationSet.getOpponentHandSize());
+        assertEquals(
+                sorted(getCards(state.db, YETI, WISP, WISP, MOONFIRE)),
+                sorted(informationSet.getOpponentCandidates()));
+    }
+
+    @Test
+    public void testSamplesAreConsistent() {
+        TestState state = new TestState();
+        InformationSet informationSet = new Determinizer(state.knowledge).observe(state.world);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            Determinization determinization = informationSet.sample(random);
+
+            assertNull(determinization.tryGetOpponentHandCard(1));
+            List<CardDescr> hidden = new ArrayList<>(determinization.getOpponentDeck());
+            hidden.add(determinization.tryGetOpponentHandCard(0));
+            assertEquals(sorted(getCards(state.db, YETI, WISP, WISP, MOONFIRE)), sorted(hidden));
+
+            assertEquals(
+                    sorted(getCards(state.db, YETI, WISP, MOONFIRE)),
+                    sorted(determinization.getOwnDeck()));
+        }
+    }
+
+    @Test
+    public void testApplyAndUndo() {
+        TestState state = new TestState();
+        Player opponent = state.getOpponent();
+        List<Card> originalHand = opponent.getHand().getCards();
+        List<Card> originalDeck = opponent.getBoard().getDeck().getCards();
+
+        Determinization determinization = new Determinizer(state.knowledge).sample(state.world, new Random(1));
+        UndoAction undo = determinization.apply(state.world);
+
+        assertSame(determinization.tryGetOpponentHandCard(0), opponent.getHand().getCard(0).getCardDescr());
+        assertSame(originalHand.get(1), opponent.getHand().getCard(1));
+        List<CardDescr> deck = new ArrayList<>();
+        for (Card card: opponent.getBoard().getDeck().getCards()) {
+            deck.add(card.getCardDescr());
+        }
+        assertEquals(determinization.getOpponentDeck(), deck);
+
+        undo.undo();
+        assertEquals(originalHand, opponent.getHand().getCards());
+        assertEquals(originalDeck, opponent.getBoard().getDeck().getCards());
+    }
+
+    @Test
+    public void testBatchIsDeterministic() {
+        TestState state = new TestState();
+        Determinizer determinizer = new Determinizer(state.knowledge);
+
+        List<Determinization> batch1 = determinizer.sampleBatch(state.world, 500, 7);
+        List<Determinization> batch2 = determinizer.sampleBatch(state.world, 500, 7);
+        assertEquals(500, batch1.size());
+        assertEquals(500, batch2.size());
+
+        for (int i = 0; i < batch1.size(); i++) {
+            assertEquals(batch1.get(i).getOpponentDeck(), batch2.get(i).getOpponentDeck());
+            assertEquals(batch1.get(i).getOwnDeck(), batch2.get(i).getOwnDeck());
+        }
+    }
+
+    @Test
+    public void testDefaultsToClassAndNeutralCards() {
+        TestState state = new TestState();
+        state.getOpponent().getHero().setHeroClass(Keywords.CLASS_MAGE);
+        PlayerKnowledge knowledge = new PlayerKnowledge(PLAYER1_ID);
+
+        InformationSet informationSet = new Determinizer(knowledge).observe(state.world);
+        List<CardDescr> candidates = informationSet.getOpponentCandidates();
+        assertTrue(candidates.contains(getCard(state.db, WISP)));
+        assertTrue(candidates.contains(getCard(state.db, FIREBALL)));
+        assertFalse(candidates.contains(getCard(state.db, HUNTERS_MARK)));
+        for (CardDescr card: candidates) {
+            assertTrue(card.getKeywords().contains(Keywords.COLLECTIBLE));
+            Keyword cardClass = card.getCardClass();
+            assertTrue(cardClass.toString(),
+                    cardClass.equals(Keywords.CLASS_MAGE) || cardClass.equals(Keywords.CLASS_NEUTRAL));
+        }
+
+        Determinization determinization = informationSet.sample(new Random(3));
+        assertNotNull(determinization.tryGetOpponentHandCard(0));
+        assertNotNull(determinization.tryGetOpponentHandCard(1));
+        assertEquals(3, determinization.getOpponentDeck().size());
+    }
+}
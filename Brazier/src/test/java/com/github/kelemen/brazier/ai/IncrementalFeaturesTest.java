@@ -0,0 +1,122 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class IncrementalFeaturesTest {
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        world.setRandomProvider(new Random(37)::nextInt);
+
+        summon(world, PLAYER2_ID, SENJIN_SHIELDMASTA, WISP, YETI);
+        summon(world, PLAYER1_ID, YETI, WISP, STONETUSK_BOAR);
+
+        addToHand(world, PLAYER1_ID, MOONFIRE, WISP, BLUEGILL_WARRIOR, YETI);
+        Player player1 = world.getPlayer(PLAYER1_ID);
+        player1.setMana(10);
+        player1.getManaResource().setManaCrystals(7);
+
+        new WorldPlayAgent(world, PLAYER1_ID).setCurrentPlayerId(PLAYER1_ID);
+        return world;
+    }
+
+    private static void assertFeatures(World world, IncrementalFeatures features) {
+        for (PlayerId playerId: new PlayerId[]{PLAYER1_ID, PLAYER2_ID}) {
+            assertEquals(FeatureVector.extract(world, playerId), features.getFeatures(playerId));
+        }
+    }
+
+    @Test
+    public void testFeaturesFollowMovesAndUndos() {
+        for (int seed = 0; seed < 20; seed++) {
+            World world = createWorld();
+            WorldPlayAgent playAgent = new WorldPlayAgent(world, PLAYER1_ID);
+            IncrementalFeatures features = new IncrementalFeatures(world);
+            FeatureVector initialFeatures = features.getFeatures(PLAYER1_ID);
+            assertFeatures(world, features);
+
+            Random random = new Random(seed);
+            List<UndoAction> undos = new ArrayList<>();
+            for (int i = 0; i < 12 && !world.isGameOver(); i++) {
+                List<PlayMove> moves = MoveGenerator.DEFAULT.getMoves(world);
+                PlayMove move = moves.get(random.nextInt(moves.size()));
+                undos.add(features.play(playAgent, move));
+                assertFeatures(world, features);
+            }
+
+            for (int i = undos.size() - 1; i >= 0; i--) {
+                undos.get(i).undo();
+                assertFeatures(world, features);
+            }
+            assertEquals(initialFeatures, features.getFeatures(PLAYER1_ID));
+        }
+    }
+
+    @Test
+    public void testFeatureValues() {
+        FeatureVector features = FeatureVector.extract(createWorld(), PLAYER1_ID);
+
+        assertEquals(30.0, features.getOwn(EvaluationFeature.HERO_HEALTH), 0.0);
+        assertEquals(3.0, features.getOwn(EvaluationFeature.MINION_COUNT), 0.0);
+        assertEquals(4.0 + 1.0 + 1.0, features.getOwn(EvaluationFeature.MINION_ATTACK), 0.0);
+        assertEquals(5.0 + 1.0 + 1.0, features.getOwn(EvaluationFeature.MINION_HEALTH), 0.0);
+        assertEquals(4.0, features.getOwn(EvaluationFeature.HAND_SIZE), 0.0);
+        assertEquals(1.0, features.getOpponent(EvaluationFeature.TAUNT_COUNT), 0.0);
+        assertEquals(0.0, features.getOwn(EvaluationFeature.TAUNT_COUNT), 0.0);
+    }
+
+    @Test
+    public void testBatchEvaluation() {
+        World world = createWorld();
+        WorldPlayAgent playAgent = new WorldPlayAgent(world, PLAYER1_ID);
+        IncrementalFeatures features = new IncrementalFeatures(world);
+
+        List<FeatureVector> leaves = new ArrayList<>();
+        for (PlayMove move: MoveGenerator.DEFAULT.getMoves(world)) {
+            UndoAction undo = features.play(playAgent, move);
+            leaves.add(features.getFeatures(PLAYER1_ID));
+            undo.undo();
+        }
+
+        LinearEvaluator evaluator = LinearEvaluator.DEFAULT;
+        double[] scores = evaluator.evaluateAll(leaves);
+        assertEquals(leaves.size(), scores.length);
+        for (int i = 0; i < scores.length; i++) {
+            assertEquals(evaluator.evaluate(leaves.get(i)), scores[i], 0.0);
+            assertTrue(scores[i] > 0.0 && scores[i] < 1.0);
+        }
+
+        double ownScore = evaluator.evaluate(world, PLAYER1_ID);
+        double opponentScore = evaluator.evaluate(world, PLAYER2_ID);
+        assertEquals(1.0, ownScore + opponentScore, 1e-12);
+    }
+
+    @Test
+    public void testLargeBatchEvaluation() {
+        FeatureVector ownFeatures = FeatureVector.extract(createWorld(), PLAYER1_ID);
+        FeatureVector opponentFeatures = FeatureVector.extract(createWorld(), PLAYER2_ID);
+
+        List<FeatureVector> batch = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            batch.add(i % 3 == 0 ? opponentFeatures : ownFeatures);
+        }
+
+        LinearEvaluator evaluator = LinearEvaluator.DEFAULT;
+        double[] scores = evaluator.evaluateAll(batch);
+        assertEquals(batch.size(), scores.length);
+        for (int i = 0; i < scores.length; i++) {
+            assertEquals(evaluator.evaluate(batch.get(i)), scores[i], 0.0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class LethalFinderTest {
+    // Three Yetis against a Shieldmasta and an 8 health hero: Two Yetis can
+    // only go face if the Shieldmasta is killed by a single Yeti, which
+    // requires the Moonfire on the Shieldmasta.
+    private static World createTauntPuzzle() {
+        World world = createWorld(
+                new String[]{YETI, YETI, YETI},
+                new String[]{SENJIN_SHIELDMASTA},
+                MOONFIRE);
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentHp(8);
+        return world;
+    }
+
+    private static LethalFinder createFinder(int threadCount) {
+        LethalFinder.Builder builder = new LethalFinder.Builder();
+        builder.setThreadCount(threadCount);
+        return builder.create();
+    }
+
+    private static void assertLethalReplays(World world, LethalResult result) {
+        assertTrue(result.isLethal());
+        assertTrue(result.isComplete());
+
+        WorldPlayAgent playAgent = new WorldPlayAgent(world, PLAYER1_ID);
+        for (PlayMove move: result.getMoves()) {
+            assertFalse(world.isGameOver());
+            move.play(playAgent);
+        }
+        assertTrue(world.getPlayer(PLAYER2_ID).getHero().isDead());
+    }
+
+    @Test
+    public void testFindsLethalThroughTaunt() {
+        World world = createTauntPuzzle();
+        LethalResult result = createFinder(1).find(world);
+
+        assertEquals(8, result.getDamage());
+        assertEquals(8, world.getPlayer(PLAYER2_ID).getHero().getCurrentHp());
+        assertEquals(1, world.getPlayer(PLAYER1_ID).getHand().getCardCount());
+        assertLethalReplays(world, result);
+    }
+
+    @Test
+    public void testFindsLethalInParallel() {
+        LethalResult result = createFinder(4).findParallel(LethalFinderTest::createTauntPuzzle);
+        assertLethalReplays(createTauntPuzzle(), result);
+    }
+
+    @Test
+    public void testMaximumDamageWithoutLethal() {
+        World world = createTauntPuzzle();
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentHp(30);
+
+        LethalResult result = createFinder(1).find(world);
+        assertFalse(result.isLethal());
+        assertTrue(result.isComplete());
+        // Moonfire and a Yeti on the Shieldmasta, two Yetis face.
+        assertEquals(8, result.getDamage());
+        assertEquals(30, world.getPlayer(PLAYER2_ID).getHero().getCurrentHp());
+    }
+
+    @Test(timeout = 10000)
+    public void testFullBoardCompletes() {
+        World world = createWorld(
+                new String[]{YETI, YETI, YETI, YETI, WISP, WISP, STONETUSK_BOAR},
+                new String[]{YETI, WISP},
+                FIREBALL, MOONFIRE);
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentArmor(30);
+
+        LethalResult result = createFinder(1).find(world);
+
+        assertTrue(result.isComplete());
+        assertFalse(result.isLethal());
+        // Every minion goes face: 4 * 4 + 1 + 1 + 1 plus Fireball and Moonfire.
+        assertEquals(26, result.getDamage());
+    }
+
+    @Test
+    public void testLethalWithFrothingBerserker() {
+        // Going face deals only 5 damage but both Wisps attacking the enemy
+        // minions give the Berserker +4 attack.
+        World world = createWorld(
+                new String[]{WISP, FROTHING_BERSERKER, WISP},
+                new String[]{FROTHING_BERSERKER, YETI});
+        world.getPlayer(PLAYER1_ID).setMana(0);
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentHp(6);
+
+        LethalResult result = createFinder(1).find(world);
+        assertEquals(6, result.getDamage());
+        assertLethalReplays(world, result);
+    }
+
+    @Test
+    public void testIdenticalMinionsWithDifferentNeighbours() {
+        // Both Wisps next to the Dire Wolf Alpha have 2 attack but only
+        // killing the second one moves the third Wisp next to the Dire Wolf.
+        World world = createWorld(
+                new String[]{WISP, DIRE_WOLF_ALPHA, WISP, WISP},
+                new String[]{GOLDSHIRE_FOOTMAN});
+        world.getPlayer(PLAYER1_ID).setMana(0);
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentHp(6);
+
+        LethalResult result = createFinder(1).find(world);
+        assertEquals(6, result.getDamage());
+        assertLethalReplays(world, result);
+    }
+
+    @Test
+    public void testNodeLimit() {
+        LethalFinder.Builder builder = new LethalFinder.Builder();
+        builder.setMaxNodes(3);
+        World world = createTauntPuzzle();
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentHp(30);
+
+        LethalResult result = builder.create().find(world);
+        assertFalse(result.isComplete());
+        assertEquals(30, world.getPlayer(PLAYER2_ID).getHero().getCurrentHp());
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.World;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.jtrim.cancel.Cancellation;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class MctsAgentTest {
+    // Both players have a Yeti ready to attack and both heroes have 3 health,
+    // so Player1 wins by attacking the enemy hero and loses otherwise.
+    private static World createLethalWorld() {
+        World world = createWorld(new String[]{YETI}, new String[]{YETI});
+        world.getPlayer(PLAYER1_ID).getHero().setCurrentHp(3);
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentHp(3);
+        return world;
+    }
+
+    private static MctsConfig createConfig(int threadCount) {
+        MctsConfig.Builder config = new MctsConfig.Builder();
+        config.setMaxIterations(2000);
+        config.setNoTimeLimit();
+        config.setThreadCount(threadCount);
+        return config.create();
+    }
+
+    private static void assertLethalFound(MctsResult result) {
+        PlayMove expected = new AttackMove(CharacterRef.minion(false, 0), CharacterRef.hero(true));
+        assertEquals(expected, result.getBestMove());
+
+        MoveStatistics best = result.getMoveStatistics().get(0);
+        assertEquals(1.0, best.getAverageReward(), 0.0);
+    }
+
+    @Test
+    public void testMoveGenerator() {
+        World world = createLethalWorld();
+        List<PlayMove> moves = MoveGenerator.DEFAULT.getMoves(world);
+
+        assertTrue(moves.contains(EndTurnMove.INSTANCE));
+        assertTrue(moves.contains(new AttackMove(CharacterRef.minion(false, 0), CharacterRef.hero(true))));
+        assertTrue(moves.contains(new AttackMove(CharacterRef.minion(false, 0), CharacterRef.minion(true, 0))));
+        assertEquals(3, moves.size());
+    }
+
+    @Test
+    public void testFindsLethal() {
+        World world = createLethalWorld();
+        Player player1 = world.getPlayer(PLAYER1_ID);
+        Player player2 = world.getPlayer(PLAYER2_ID);
+
+        MctsResult result = new MctsAgent(createConfig(1)).search(world);
+        assertLethalFound(result);
+        assertEquals(2000, result.getIterationCount());
+
+        assertFalse(world.isGameOver());
+        assertSame(player1, world.getCurrentPlayer());
+        assertEquals(3, player2.getHero().getCurrentHp());
+        assertEquals(1, player1.getBoard().getMinionCount());
+        assertEquals(0, player1.getHand().getCardCount());
+        assertEquals(10, player1.getMana());
+    }
+
+    @Test
+    public void testFindsLethalInParallel() {
+        MctsResult result = new MctsAgent(createConfig(4)).searchParallel(MctsAgentTest::createLethalWorld);
+        assertLethalFound(result);
+        assertEquals(2000, result.getIterationCount());
+        assertEquals(4, result.getThreadCount());
+    }
+
+    @Test
+    public void testBestLine() {
+        MctsResult result = new MctsAgent(createConfig(1)).search(createLethalWorld());
+
+        List<PlayMove> bestLine = result.getBestLine();
+        assertFalse(bestLine.isEmpty());
+        assertEquals(result.getBestMove(), bestLine.get(0));
+        assertEquals(1.0, result.getWinProbability(), 0.0);
+    }
+
+    @Test(timeout = 10000)
+    public void testProgressIsReported() {
+        MctsConfig.Builder config = new MctsConfig.Builder();
+        config.setThreadCount(2);
+        config.setMaxTime(200, TimeUnit.MILLISECONDS);
+
+        List<MctsResult> progress = new CopyOnWriteArrayList<>();
+        MctsResult result = new MctsAgent(config.create()).searchParallel(
+                Cancellation.UNCANCELABLE_TOKEN,
+                MctsAgentTest::createLethalWorld,
+                20,
+                TimeUnit.MILLISECONDS,
+                progress::add);
+
+        assertFalse(progress.isEmpty());
+        long prevIterationCount = 0;
+        for (MctsResult progressResult: progress) {
+            assertTrue(progressResult.getIterationCount() >= prevIterationCount);
+            if (progressResult.getBestMove() != null) {
+                assertEquals(progressResult.getBestMove(), progressResult.getBestLine().get(0));
+            }
+            prevIterationCount = progressResult.getIterationCount();
+        }
+        assertTrue(result.getIterationCount() >= prevIterationCount);
+        assertLethalFound(result);
+    }
+
+    @Test(timeout = 10000)
+    public void testTimeLimit() {
+        MctsConfig.Builder config = new MctsConfig.Builder();
+        config.setMaxTime(50, TimeUnit.MILLISECONDS);
+
+        MctsResult result = new MctsAgent(config.create()).search(createLethalWorld());
+        assertTrue(result.getIterationCount() > 0);
+        assertNotNull(result.getBestMove());
+    }
+}
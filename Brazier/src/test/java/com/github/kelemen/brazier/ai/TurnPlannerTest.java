@@ -0,0 +1,99 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.World;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class TurnPlannerTest {
+    private static AttackMove attack(int attackerIndex, CharacterRef defender) {
+        return new AttackMove(CharacterRef.minion(false, attackerIndex), defender);
+    }
+
+    private static PlayCardMove playMinion(int cardIndex, int location) {
+        return new PlayCardMove(cardIndex, location, null, null);
+    }
+
+    private static void assertCanonical(TurnPlanner planner, World world, boolean expected, PlayMove... moves) {
+        List<PlayMove> moveList = Arrays.asList(moves);
+        long hash = WorldStateHash.hash(world);
+        assertEquals(moveList.toString(), expected, planner.isCanonical(world, moveList));
+        assertEquals(hash, WorldStateHash.hash(world));
+    }
+
+    @Test
+    public void testIndependentAttacksHaveSingleOrder() {
+        World world = createWorld(new String[]{YETI, YETI}, new String[]{WISP});
+
+        AttackMove firstFace = attack(0, CharacterRef.hero(true));
+        AttackMove secondFace = attack(1, CharacterRef.hero(true));
+        assertCanonical(TurnPlanner.DEFAULT, world, true, firstFace, secondFace);
+        assertCanonical(TurnPlanner.DEFAULT, world, false, secondFace, firstFace);
+
+        AttackMove firstOnWisp = attack(0, CharacterRef.minion(true, 0));
+        assertCanonical(TurnPlanner.DEFAULT, world, true, firstOnWisp, secondFace);
+        assertCanonical(TurnPlanner.DEFAULT, world, false, secondFace, firstOnWisp);
+
+        assertCanonical(TurnPlanner.NONE, world, true, secondFace, firstFace);
+    }
+
+    @Test
+    public void testKillingTauntDoesNotCommute() {
+        World world = createWorld(new String[]{YETI, YETI}, new String[]{SENJIN_SHIELDMASTA});
+        world.getPlayer(PLAYER2_ID).getBoard().getAllMinions().get(0).getBody().getHp().setCurrentHp(1);
+
+        // The face attack is only possible after the Shieldmasta died.
+        assertCanonical(TurnPlanner.DEFAULT, world, true,
+                attack(1, CharacterRef.minion(true, 0)),
+                attack(0, CharacterRef.hero(true)));
+    }
+
+    @Test
+    public void testPlayingVanillaMinions() {
+        World world = createWorld(new String[0], new String[0], YETI, WISP);
+
+        assertCanonical(TurnPlanner.DEFAULT, world, true, playMinion(0, 0), playMinion(0, 1));
+        assertCanonical(TurnPlanner.DEFAULT, world, false, playMinion(1, 0), playMinion(0, 1));
+
+        // The two orders lead to different boards.
+        assertCanonical(TurnPlanner.KEEP_MINION_ORDER, world, true, playMinion(1, 0), playMinion(0, 1));
+    }
+
+    @Test
+    public void testSpellsAreGlobal() {
+        World world = createWorld(new String[]{YETI, YETI}, new String[]{YETI}, MOONFIRE);
+
+        PlannedMove moonfire = TurnPlanner.DEFAULT.plan(world, new PlayCardMove(0, 0, CharacterRef.hero(true), null));
+        assertTrue(moonfire.getFootprint().isGlobal());
+
+        PlannedMove attack = TurnPlanner.DEFAULT.plan(world, attack(0, CharacterRef.hero(true)));
+        assertFalse(attack.getFootprint().isGlobal());
+        assertFalse(attack.getFootprint().commutesWith(moonfire.getFootprint()));
+    }
+
+    @Test
+    public void testLethalFinderSearchesLessNodes() {
+        LethalFinder.Builder builder = new LethalFinder.Builder();
+        builder.setTurnPlanner(TurnPlanner.NONE);
+        LethalFinder unreduced = builder.create();
+        builder.setTurnPlanner(TurnPlanner.DEFAULT);
+        LethalFinder reduced = builder.create();
+
+        World world = createWorld(
+                new String[]{YETI, WISP, STONETUSK_BOAR},
+                new String[]{YETI, WISP},
+                WISP, YETI, BLUEGILL_WARRIOR);
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentArmor(30);
+
+        LethalResult unreducedResult = unreduced.find(world);
+        LethalResult reducedResult = reduced.find(world);
+
+        assertTrue(reducedResult.isComplete());
+        assertEquals(unreducedResult.getDamage(), reducedResult.getDamage());
+        assertTrue(reducedResult.getNodeCount() < unreducedResult.getNodeCount());
+    }
+}
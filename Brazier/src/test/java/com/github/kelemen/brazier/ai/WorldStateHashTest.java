@@ -0,0 +1,62 @@
+package com.github.kelemen.brazier.ai;
+
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.minions.Minion;
+import java.util.function.Function;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class WorldStateHashTest {
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        playCard(world, PLAYER1_ID, YETI, null);
+        addToHand(world, PLAYER1_ID, FIREBALL);
+        return world;
+    }
+
+    private static void assertChangesHash(Function<World, UndoAction> change) {
+        World world = createWorld();
+        long originalHash = WorldStateHash.hash(world);
+
+        UndoAction undo = change.apply(world);
+        assertTrue(originalHash != WorldStateHash.hash(world));
+
+        undo.undo();
+        assertEquals(originalHash, WorldStateHash.hash(world));
+    }
+
+    private static Minion getYeti(World world) {
+        return getMinion(world, PLAYER1_ID, 0);
+    }
+
+    @Test
+    public void testSilenceChangesHash() {
+        assertChangesHash((world) -> getYeti(world).getProperties().silence());
+    }
+
+    @Test
+    public void testFreezeChangesHash() {
+        assertChangesHash((world) -> getYeti(world).getAttackTool().freeze());
+    }
+
+    @Test
+    public void testGrantedDeathRattleChangesHash() {
+        assertChangesHash((world) -> {
+            return getYeti(world).getProperties().addDeathRattle((actionWorld, self, source) -> UndoAction.DO_NOTHING);
+        });
+    }
+
+    @Test
+    public void testManaCostOfCardInHandChangesHash() {
+        assertChangesHash((world) -> world.getPlayer(PLAYER1_ID).getHand().getCard(0).decreaseManaCost(1));
+    }
+
+    @Test
+    public void testSpellPowerChangesHash() {
+        assertChangesHash((world) -> world.getPlayer(PLAYER1_ID).getSpellPower().addBuff(1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.kelemen.brazier.cards;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.parsing.TestDb;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class CardSearchIndexTest {
+    private static boolean matchesWord(String patternWord, Set<String> cardWords) {
+        for (String cardWord: cardWords) {
+            if (cardWord.startsWith(patternWord)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<CardDescr> findLinearly(HearthStoneDb db, String pattern, boolean collectibleOnly) {
+        List<CardDescr> allCards = collectibleOnly
+                ? db.getCardDb().getByKeywords(Keywords.COLLECTIBLE)
+                : db.getCardDb().getAll();
+
+        Set<String> patternWords = new HashSet<>();
+        CardSearchIndex.toWords(pattern, patternWords::add);
+
+        Set<CardDescr> result = new HashSet<>();
+        for (CardDescr card: allCards) {
+            Set<String> cardWords = new HashSet<>();
+            CardSearchIndex.toWords(card.getDescription(), cardWords::add);
+            CardSearchIndex.toWords(card.getDisplayName(), cardWords::add);
+            for (Keyword keyword: card.getKeywords()) {
+                cardWords.add(keyword.getName().toLowerCase(Locale.ROOT));
+            }
+
+            boolean matches = true;
+            for (String patternWord: patternWords) {
+                if (!matchesWord(patternWord, cardWords)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testSameResultAsLinearSearch() {
+        HearthStoneDb db = TestDb.getTestDb();
+        CardSearchIndex index = db.getCardSearchIndex();
+
+        String[] patterns = {"", "wisp", "Deal 2", "battle", "taunt divine", "mech", "xyz-no-such-word", "  "};
+        for (String pattern: patterns) {
+            for (boolean collectibleOnly: new boolean[]{false, true}) {
+                Set<CardDescr> expected = findLinearly(db, pattern, collectibleOnly);
+                List<CardDescr> actual = index.find(pattern, collectibleOnly);
+
+                assertEquals("Result size for " + pattern, expected.size(), actual.size());
+                assertEquals("Result for " + pattern, expected, new HashSet<>(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testNameMatchesFirst() {
+        HearthStoneDb db = TestDb.getTestDb();
+        CardDescr wisp = db.getCardDb().getById(new CardId("Wisp"));
+
+        List<CardDescr> result = db.getCardSearchIndex().find("wisp", false);
+        assertFalse(result.isEmpty());
+        assertSame(wisp, result.get(0));
+    }
+
+    @Test
+    public void testCollectibleFilter() {
+        HearthStoneDb db = TestDb.getTestDb();
+
+        List<CardDescr> result = new ArrayList<>(db.getCardSearchIndex().find("minion", true));
+        assertFalse(result.isEmpty());
+        for (CardDescr card: result) {
+            assertTrue(card.getKeywords().contains(Keywords.COLLECTIBLE));
+        }
+    }
+
+    @Test
+    public void testIndexIsCachedPerDb() {
+        HearthStoneDb db = TestDb.getTestDb();
+        assertSame(db.getCardSearchIndex(), db.getCardSearchIndex());
+    }
+}
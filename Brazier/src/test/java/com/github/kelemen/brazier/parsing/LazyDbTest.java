@@ -0,0 +1,80 @@
+package com.github.kelemen.brazier.parsing;
+
+import com.github.kelemen.brazier.EntityId;
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.HearthStoneEntity;
+import com.github.kelemen.brazier.HearthStoneEntityDatabase;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.cards.CardDescr;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.internal.AssumptionViolatedException;
+
+import static org.junit.Assert.*;
+
+public final class LazyDbTest {
+    private static HearthStoneDb getLazyTestDb() {
+        try {
+            return HearthStoneDb.readDefaultLazily();
+        } catch (IOException | ObjectParsingException ex) {
+            AssumptionViolatedException toThrow = new AssumptionViolatedException("TestDb is not available.");
+            toThrow.addSuppressed(ex);
+            throw toThrow;
+        }
+    }
+
+    private static Set<EntityId> getIds(List<? extends HearthStoneEntity> entities) {
+        Set<EntityId> result = new HashSet<>();
+        for (HearthStoneEntity entity: entities) {
+            result.add(entity.getId());
+        }
+        return result;
+    }
+
+    private static void assertSameIds(
+            HearthStoneEntityDatabase<?> expected,
+            HearthStoneEntityDatabase<?> actual,
+            Keyword... keywords) {
+        assertEquals(getIds(expected.getByKeywords(keywords)), getIds(actual.getByKeywords(keywords)));
+    }
+
+    @Test
+    public void testKeywordQueriesWithoutFullParse() {
+        HearthStoneDb eagerDb = TestDb.getTestDb();
+        HearthStoneDb lazyDb = getLazyTestDb();
+
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.MINION, Keywords.COLLECTIBLE);
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.NON_COLLECTIBLE);
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.SPELL, Keywords.CLASS_MAGE);
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.WEAPON);
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.SECRET);
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.OVERLOAD);
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.manaCost(2));
+        assertSameIds(eagerDb.getCardDb(), lazyDb.getCardDb(), Keywords.RARITY_LEGENDARY);
+        assertSameIds(eagerDb.getMinionDb(), lazyDb.getMinionDb(), Keywords.BATTLE_CRY);
+        assertSameIds(eagerDb.getMinionDb(), lazyDb.getMinionDb(), Keywords.RACE_BEAST);
+        assertSameIds(eagerDb.getWeaponDb(), lazyDb.getWeaponDb(), Keywords.CLASS_ROUGE);
+        assertSameIds(eagerDb.getHeroPowerDb(), lazyDb.getHeroPowerDb(), Keywords.CLASS_WARRIOR);
+    }
+
+    @Test
+    public void testSameEntitiesAsEagerDb() {
+        HearthStoneDb eagerDb = TestDb.getTestDb();
+        HearthStoneDb lazyDb = getLazyTestDb();
+
+        for (CardDescr card: eagerDb.getCardDb().getAll()) {
+            CardDescr lazyCard = lazyDb.getCardDb().getById(card.getId());
+            assertEquals(card.getId().getName(), card.getKeywords(), lazyCard.getKeywords());
+            assertEquals(card.getId().getName(), card.getManaCost(), lazyCard.getManaCost());
+        }
+
+        assertEquals(getIds(eagerDb.getCardDb().getAll()), getIds(lazyDb.getCardDb().getAll()));
+        assertEquals(getIds(eagerDb.getMinionDb().getAll()), getIds(lazyDb.getMinionDb().getAll()));
+        assertEquals(getIds(eagerDb.getWeaponDb().getAll()), getIds(lazyDb.getWeaponDb().getAll()));
+        assertEquals(getIds(eagerDb.getHeroPowerDb().getAll()), getIds(lazyDb.getHeroPowerDb().getAll()));
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.ai.MoveGenerator;
+import com.github.kelemen.brazier.ai.PlayCardMove;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.parsing.TestDb;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class ReplayTest {
+    private static final List<String> DECK = Arrays.asList(
+            WISP, YETI, MOONFIRE, STONETUSK_BOAR, BLUEGILL_WARRIOR, FIREBALL, HARVEST_GOLEM,
+            FLAMESTRIKE, SHATTERED_SUN_CLERIC, FIERY_WAR_AXE, HUNTERS_MARK, VOIDWALKER);
+
+    private static ReplayPlayer createPlayer(HearthStoneDb db, String name, Random random, String... hand) {
+        List<CardDescr> deck = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            deck.add(getCard(db, DECK.get(random.nextInt(DECK.size()))));
+        }
+
+        ReplayPlayer.Builder result = new ReplayPlayer.Builder(name);
+        result.setHeroClass(Keywords.CLASS_HUNTER);
+        result.setHeroPower(db.getHeroPowerDb().getById(new CardId(ARMOR_UP)));
+        result.setDeck(deck);
+        result.setHand(getCards(db, hand));
+        return result.create();
+    }
+
+    // Plays Tracking first (so that the replay contains a card choice), then
+    // random moves.
+    private static Replay recordGame(HearthStoneDb db, long seed) {
+        Random random = new Random(seed);
+        ReplayPlayer player1 = createPlayer(db, "Player1", random, TRACKING, WISP);
+        ReplayPlayer player2 = createPlayer(db, "Player2", random, YETI, THE_COIN);
+
+        ReplayRecorder recorder = new ReplayRecorder(db, seed, player1, player2);
+        recorder.play(new PlayCardMove(0, -1, null, null));
+
+        World world = recorder.getWorld();
+        for (int i = 0; i < 60 && !world.isGameOver(); i++) {
+            List<PlayMove> moves = MoveGenerator.DEFAULT.getMoves(world);
+            recorder.play(moves.get(random.nextInt(moves.size())));
+        }
+        return recorder.toReplay();
+    }
+
+    private static Replay withDigest(Replay replay, long digest) {
+        Replay.Builder result = new Replay.Builder(replay.getSeed(), replay.getPlayer1(), replay.getPlayer2());
+        replay.getMoves().forEach(result::addMove);
+        replay.getChoices().forEach(result::addChoice);
+        result.setFinalDigest(digest);
+        return result.create();
+    }
+
+    private static void assertSameReplay(Replay expected, Replay actual) {
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getMoves(), actual.getMoves());
+        assertEquals(expected.getChoices(), actual.getChoices());
+        assertEquals(expected.getFinalDigest(), actual.getFinalDigest());
+        assertEquals(expected.getPlayer1().getDeck(), actual.getPlayer1().getDeck());
+        assertEquals(expected.getPlayer2().getHand(), actual.getPlayer2().getHand());
+    }
+
+    @Test
+    public void testReplayReproducesGame() {
+        HearthStoneDb db = TestDb.getTestDb();
+        for (long seed = 0; seed < 10; seed++) {
+            Replay replay = recordGame(db, seed);
+            assertEquals(1, replay.getChoices().size());
+
+            World world = replay.replay(db);
+            assertEquals(replay.getFinalDigest(), BinaryWorldCodec.digest(world));
+        }
+    }
+
+    @Test
+    public void testEncodingRoundTrip() throws IOException {
+        HearthStoneDb db = TestDb.getTestDb();
+        Replay replay = recordGame(db, 5);
+
+        assertSameReplay(replay, ReplayCodec.decode(db, ReplayCodec.encodeBinary(replay)));
+        assertSameReplay(replay, ReplayCodec.decodeJson(db, ReplayCodec.encodeJson(replay)));
+    }
+
+    @Test
+    public void testRunnerVerifiesFiles() throws IOException {
+        HearthStoneDb db = TestDb.getTestDb();
+        Path dir = Files.createTempDirectory("brazier-replays");
+        try {
+            List<Path> files = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Replay replay = recordGame(db, i);
+                if (i == 3) {
+                    replay = withDigest(replay, replay.getFinalDigest() + 1);
+                }
+
+                Path file = dir.resolve("game" + i + ".replay");
+                if (i % 2 == 0) {
+                    Files.write(file, ReplayCodec.encodeBinary(replay));
+                }
+                else {
+                    Files.write(file, ReplayCodec.encodeJson(replay).getBytes("UTF-8"));
+                }
+                files.add(file);
+            }
+            Path invalidFile = dir.resolve("invalid.replay");
+            Files.write(invalidFile, "{}".getBytes("UTF-8"));
+            files.add(invalidFile);
+
+            ReplayRunner.Builder runnerBuilder = new ReplayRunner.Builder(db);
+            runnerBuilder.setThreadCount(4);
+            List<ReplayResult> results = runnerBuilder.create().runFiles(files);
+
+            assertEquals(files.size(), results.size());
+            for (int i = 0; i < files.size(); i++) {
+                ReplayResult result = results.get(i);
+                assertEquals(files.get(i).toString(), result.getName());
+
+                boolean expectSuccess = i != 3 && i != files.size() - 1;
+                assertEquals(result.toString(), expectSuccess, result.isSuccessful());
+            }
+            assertNull(results.get(3).tryGetFailure());
+            assertNotNull(results.get(files.size() - 1).tryGetFailure());
+        } finally {
+            try (DirectoryStream<Path> dirFiles = Files.newDirectoryStream(dir)) {
+                for (Path file: dirFiles) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+}
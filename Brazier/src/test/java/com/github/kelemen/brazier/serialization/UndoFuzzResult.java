@@ -0,0 +1,106 @@
+package com.github.kelemen.brazier.serialization;
+
+import java.nio.file.Path;
+import org.jtrim.utils.ExceptionHelper;
+
+// The outcome of fuzzing the undo of a single random game (see UndoFuzzer).
+public final class UndoFuzzResult {
+    private final long seed;
+    private final int moveCount;
+    private final int undoCount;
+    private final long durationNanos;
+    private final Exception failure;
+    private final boolean mismatch;
+    private final String reproducer;
+    private final Path reproducerFile;
+
+    UndoFuzzResult(long seed, int moveCount, int undoCount, long durationNanos) {
+        this.seed = seed;
+        this.moveCount = moveCount;
+        this.undoCount = undoCount;
+        this.durationNanos = durationNanos;
+        this.failure = null;
+        this.mismatch = false;
+        this.reproducer = null;
+        this.reproducerFile = null;
+    }
+
+    UndoFuzzResult(
+            long seed,
+            int moveCount,
+            int undoCount,
+            long durationNanos,
+            Exception failure,
+            boolean mismatch,
+            String reproducer,
+            Path reproducerFile) {
+        ExceptionHelper.checkNotNullArgument(failure, "failure");
+        ExceptionHelper.checkNotNullArgument(reproducer, "reproducer");
+
+        this.seed = seed;
+        this.moveCount = moveCount;
+        this.undoCount = undoCount;
+        this.durationNanos = durationNanos;
+        this.failure = failure;
+        this.mismatch = mismatch;
+        this.reproducer = reproducer;
+        this.reproducerFile = reproducerFile;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    // True if an undo (or a redo) produced a different state than the one
+    // recorded earlier. Otherwise the failure (if any) is an exception thrown
+    // by a move or by an undo.
+    public boolean isMismatch() {
+        return mismatch;
+    }
+
+    // The number of moves played, including the moves played again after
+    // an undo.
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Exception tryGetFailure() {
+        return failure;
+    }
+
+    // The minimized reproducer of the failure (see UndoFuzzer.runReproducer),
+    // or null if the game was consistent.
+    public String tryGetReproducer() {
+        return reproducer;
+    }
+
+    // The file where the reproducer was saved, or null if it was not saved.
+    public Path tryGetReproducerFile() {
+        return reproducerFile;
+    }
+
+    @Override
+    public String toString() {
+        String name = "Seed " + seed;
+        String stats = moveCount + " moves, " + undoCount + " undos, " + (durationNanos / 1000) + " us";
+        if (failure == null) {
+            return name + ": OK (" + stats + ")";
+        }
+        return name + ": " + (mismatch ? "MISMATCH" : "FAILED")
+                + " (" + (mismatch ? failure.getMessage() : failure.toString()) + ", " + stats
+                + (reproducerFile != null ? ", reproducer: " + reproducerFile : "")
+                + ")";
+    }
+}
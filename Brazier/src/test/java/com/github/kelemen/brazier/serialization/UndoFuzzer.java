@@ -0,0 +1,736 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Keyword;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.ParallelUtils;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.RandomProvider;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.ai.MoveGenerator;
+import com.github.kelemen.brazier.ai.PlayMove;
+import com.github.kelemen.brazier.cards.CardDescr;
+import com.github.kelemen.brazier.events.SimpleEventType;
+import com.github.kelemen.brazier.events.WorldEvents;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.minions.MinionProperties;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.jtrim.collections.CollectionsEx;
+import org.jtrim.utils.ExceptionHelper;
+
+// Plays random legal games with random decks and repeatedly undoes them back
+// to an earlier point of the game, verifying that the undo restores exactly
+// the state recorded when the game was at that point. Undone moves are
+// sometimes played again, which must produce the same states as the first
+// time.
+//
+// The recorded state is BinaryWorldCodec.digest extended with the number of
+// abilities and death rattles of each minion, the number of active auras and
+// the number of listeners of each event. So a broken undo of an ability is only
+// detected if it leaves a different number of them behind (e.g., not when an
+// undo replaces a listener with another one).
+//
+// The random provider of the game is rewound by the undos, so a game is fully
+// determined by its seed, the starting setup and the list of moves and undos.
+// Failing games are minimized to a shorter list of moves and undos failing the
+// same way, and are reported (and optionally saved) as reproducers. Seeds are
+// distributed between the threads, each game being played on a single thread.
+public final class UndoFuzzer {
+    private static final int DECK_SIZE = 30;
+    private static final int HAND_SIZE = 3;
+    private static final int UNDO_ODDS = 8;
+    private static final int MAX_MINIMIZE_RUNS = 2000;
+
+    private static final List<Keyword> HERO_CLASSES = Collections.unmodifiableList(Arrays.asList(
+            Keywords.CLASS_DRUID,
+            Keywords.CLASS_HUNTER,
+            Keywords.CLASS_MAGE,
+            Keywords.CLASS_PALADIN,
+            Keywords.CLASS_PRIEST,
+            Keywords.CLASS_ROUGE,
+            Keywords.CLASS_SHAMAN,
+            Keywords.CLASS_WARLOCK,
+            Keywords.CLASS_WARRIOR));
+
+    private static final Gson GSON = new GsonBuilder().serializeNulls().setPrettyPrinting().create();
+
+    public static final class Builder {
+        private final HearthStoneDb db;
+        private int threadCount;
+        private int maxMoveCount;
+        private List<CardDescr> cardPool;
+        private Path reproducerDir;
+
+        public Builder(HearthStoneDb db) {
+            ExceptionHelper.checkNotNullArgument(db, "db");
+
+            this.db = db;
+            this.threadCount = Runtime.getRuntime().availableProcessors();
+            this.maxMoveCount = 200;
+            this.cardPool = null;
+            this.reproducerDir = null;
+        }
+
+        public void setThreadCount(int threadCount) {
+            ExceptionHelper.checkArgumentInRange(threadCount, 1, Integer.MAX_VALUE, "threadCount");
+            this.threadCount = threadCount;
+        }
+
+        public void setMaxMoveCount(int maxMoveCount) {
+            ExceptionHelper.checkArgumentInRange(maxMoveCount, 1, Integer.MAX_VALUE, "maxMoveCount");
+            this.maxMoveCount = maxMoveCount;
+        }
+
+        // The decks are built from the given cards regardless of the class of
+        // the hero. By default, the decks are built from the collectible cards
+        // of the class of the hero and the collectible neutral cards.
+        public void setCardPool(List<? extends CardDescr> cardPool) {
+            List<CardDescr> cardPoolCopy = CollectionsEx.readOnlyCopy(cardPool);
+            ExceptionHelper.checkNotNullElements(cardPoolCopy, "cardPool");
+            ExceptionHelper.checkArgumentInRange(cardPoolCopy.size(), 1, Integer.MAX_VALUE, "cardPool.size()");
+
+            this.cardPool = cardPoolCopy;
+        }
+
+        // The reproducers of the failing games are saved into this directory
+        // if it is not null.
+        public void setReproducerDir(Path reproducerDir) {
+            this.reproducerDir = reproducerDir;
+        }
+
+        public UndoFuzzer create() {
+            return new UndoFuzzer(this);
+        }
+    }
+
+    private final HearthStoneDb db;
+    private final int threadCount;
+    private final int maxMoveCount;
+    private final List<CardDescr> cardPool;
+    private final Map<Keyword, List<CardDescr>> classCards;
+    private final Map<Keyword, List<CardDescr>> classHeroPowers;
+    private final Path reproducerDir;
+
+    private UndoFuzzer(Builder builder) {
+        this.db = builder.db;
+        this.threadCount = builder.threadCount;
+        this.maxMoveCount = builder.maxMoveCount;
+        this.cardPool = builder.cardPool;
+        this.reproducerDir = builder.reproducerDir;
+        this.classCards = new HashMap<>();
+        this.classHeroPowers = new HashMap<>();
+
+        List<CardDescr> collectible = cardPool == null
+                ? db.getCardDb().getByKeywords(Keywords.COLLECTIBLE)
+                : Collections.emptyList();
+        List<CardDescr> heroPowers = db.getHeroPowerDb().getAll();
+        for (Keyword heroClass: HERO_CLASSES) {
+            classCards.put(heroClass, filterByClass(collectible, heroClass, Keywords.CLASS_NEUTRAL));
+            classHeroPowers.put(heroClass, filterByClass(heroPowers, heroClass, heroClass));
+        }
+    }
+
+    private static List<CardDescr> filterByClass(List<CardDescr> cards, Keyword class1, Keyword class2) {
+        List<CardDescr> result = new ArrayList<>();
+        for (CardDescr card: cards) {
+            Keyword cardClass = card.getCardClass();
+            if (cardClass.equals(class1) || cardClass.equals(class2)) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    // Fuzzes the seeds firstSeed, firstSeed + 1, ..., firstSeed + seedCount - 1.
+    // The results are in the order of the seeds.
+    public List<UndoFuzzResult> run(long firstSeed, int seedCount) {
+        ExceptionHelper.checkArgumentInRange(seedCount, 0, Integer.MAX_VALUE, "seedCount");
+
+        UndoFuzzResult[] results = new UndoFuzzResult[seedCount];
+
+        ParallelUtils.forEachIndex(threadCount, "Undo-Fuzzer", seedCount, (seedIndex) -> {
+            results[seedIndex] = fuzzSeed(firstSeed + seedIndex);
+        });
+        return Arrays.asList(results);
+    }
+
+    public UndoFuzzResult fuzzSeed(long seed) {
+        long startTime = System.nanoTime();
+
+        Random random = new Random(seed);
+        ReplayPlayer player1 = randomPlayer("Player1", random);
+        ReplayPlayer player2 = randomPlayer("Player2", random);
+
+        List<Step> script = new ArrayList<>();
+        ScriptRunner runner = new ScriptRunner(db, seed, player1, player2);
+
+        while (!runner.hasFailed() && runner.getMoveCount() < maxMoveCount) {
+            int depth = runner.getDepth();
+            if (depth > 0 && (runner.getWorld().isGameOver() || random.nextInt(UNDO_ODDS) == 0)) {
+                runner.execute(Step.undoTo(random.nextInt(depth)), script);
+
+                List<PlayMove> redoMoves = new ArrayList<>(runner.getRedoMoves());
+                if (random.nextBoolean()) {
+                    int redoCount = random.nextInt(redoMoves.size()) + 1;
+                    for (int i = 0; i < redoCount && !runner.hasFailed(); i++) {
+                        runner.execute(Step.play(redoMoves.get(i)), script);
+                    }
+                }
+            }
+            else {
+                List<PlayMove> moves = MoveGenerator.DEFAULT.getMoves(runner.getWorld());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                runner.execute(Step.play(moves.get(random.nextInt(moves.size()))), script);
+            }
+        }
+
+        if (!runner.hasFailed() && runner.getDepth() > 0) {
+            runner.execute(Step.undoTo(0), script);
+        }
+
+        if (!runner.hasFailed()) {
+            return new UndoFuzzResult(seed, runner.getMoveCount(), runner.getUndoCount(),
+                    System.nanoTime() - startTime);
+        }
+
+        List<Step> minimized = minimize(seed, player1, player2, script, runner.getFailureSignature());
+        ScriptRunner minimizedRunner = new ScriptRunner(db, seed, player1, player2);
+        minimized.forEach(minimizedRunner::execute);
+
+        // Report the failure of the original game if the minimized script
+        // does not fail (which might only happen if the game is not
+        // deterministic).
+        ScriptRunner reported = minimizedRunner.hasFailed() ? minimizedRunner : runner;
+        String reproducer = encodeReproducer(seed, player1, player2, minimized, reported.getExpectedDigest());
+        Path reproducerFile = saveReproducer(seed, reproducer);
+
+        return new UndoFuzzResult(seed, runner.getMoveCount(), runner.getUndoCount(),
+                System.nanoTime() - startTime,
+                reported.getFailure(), reported.isMismatch(), reproducer, reproducerFile);
+    }
+
+    private ReplayPlayer randomPlayer(String name, Random random) {
+        Keyword heroClass = HERO_CLASSES.get(random.nextInt(HERO_CLASSES.size()));
+        List<CardDescr> cards = cardPool != null ? cardPool : classCards.get(heroClass);
+        List<CardDescr> heroPowers = classHeroPowers.get(heroClass);
+
+        List<CardDescr> deck = new ArrayList<>(DECK_SIZE);
+        for (int i = 0; i < DECK_SIZE; i++) {
+            deck.add(cards.get(random.nextInt(cards.size())));
+        }
+        List<CardDescr> hand = new ArrayList<>(deck.subList(DECK_SIZE - HAND_SIZE, DECK_SIZE));
+        deck.subList(DECK_SIZE - HAND_SIZE, DECK_SIZE).clear();
+
+        ReplayPlayer.Builder result = new ReplayPlayer.Builder(name);
+        result.setHeroClass(heroClass);
+        if (!heroPowers.isEmpty()) {
+            result.setHeroPower(heroPowers.get(random.nextInt(heroPowers.size())));
+        }
+        result.setDeck(deck);
+        result.setHand(hand);
+        return result.create();
+    }
+
+    // Removes steps from the script (larger chunks first) as long as the
+    // remaining steps fail the same way. Steps which are not legal in the
+    // game of the remaining steps cannot be kept, so such candidates are
+    // rejected.
+    private List<Step> minimize(
+            long seed,
+            ReplayPlayer player1,
+            ReplayPlayer player2,
+            List<Step> script,
+            String failureSignature) {
+
+        List<Step> current = new ArrayList<>(script);
+        int runCount = 0;
+        int chunkSize = Math.max(1, current.size() / 2);
+        while (runCount < MAX_MINIMIZE_RUNS) {
+            boolean removed = false;
+            int chunkStart = 0;
+            while (chunkStart < current.size() && runCount < MAX_MINIMIZE_RUNS) {
+                int chunkEnd = Math.min(chunkStart + chunkSize, current.size());
+
+                List<Step> candidate = new ArrayList<>(current.size());
+                candidate.addAll(current.subList(0, chunkStart));
+                candidate.addAll(current.subList(chunkEnd, current.size()));
+
+                runCount++;
+                int failingLength = tryReproduce(seed, player1, player2, candidate, failureSignature);
+                if (failingLength >= 0) {
+                    current = new ArrayList<>(candidate.subList(0, failingLength));
+                    removed = true;
+                }
+                else {
+                    chunkStart = chunkEnd;
+                }
+            }
+
+            if (chunkSize > 1) {
+                chunkSize /= 2;
+            }
+            else if (!removed) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    // Returns the number of steps executed until the failure or -1 if the
+    // steps do not fail the expected way.
+    private int tryReproduce(
+            long seed,
+            ReplayPlayer player1,
+            ReplayPlayer player2,
+            List<Step> script,
+            String failureSignature) {
+
+        ScriptRunner runner = new ScriptRunner(db, seed, player1, player2);
+        for (Step step: script) {
+            if (runner.hasFailed()) {
+                break;
+            }
+            if (!runner.isApplicable(step)) {
+                return -1;
+            }
+            runner.execute(step);
+        }
+
+        if (!runner.hasFailed() || !failureSignature.equals(runner.getFailureSignature())) {
+            return -1;
+        }
+        return runner.getExecutedStepCount();
+    }
+
+    private Path saveReproducer(long seed, String reproducer) {
+        if (reproducerDir == null) {
+            return null;
+        }
+
+        Path file = reproducerDir.resolve("undo-fuzz-" + seed + ".json");
+        try {
+            Files.createDirectories(reproducerDir);
+            Files.write(file, reproducer.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to save the reproducer: " + file, ex);
+        }
+        return file;
+    }
+
+    // The reproducer is a replay (see ReplayCodec) of the moves in the order
+    // they were played (including the moves played again after an undo) with
+    // an additional "undos" list. The "afterMove" property of an undo is the
+    // number of moves played before it (possibly zero) and "undoTo" is the
+    // number of moves remaining in the game after the undo. The final digest
+    // of the replay is the digest the failing undo or redo was expected to
+    // produce (zero if the failure is an exception).
+    private static String encodeReproducer(
+            long seed,
+            ReplayPlayer player1,
+            ReplayPlayer player2,
+            List<Step> script,
+            long expectedDigest) {
+
+        Replay.Builder replay = new Replay.Builder(seed, player1, player2);
+        JsonArray undos = new JsonArray();
+        int playedCount = 0;
+        for (Step step: script) {
+            if (step.move != null) {
+                replay.addMove(step.move);
+                playedCount++;
+            }
+            else {
+                JsonObject undo = new JsonObject();
+                undo.addProperty("afterMove", playedCount);
+                undo.addProperty("undoTo", step.undoTo);
+                undos.add(undo);
+            }
+        }
+        replay.setFinalDigest(expectedDigest);
+
+        JsonObject root = new JsonParser().parse(ReplayCodec.encodeJson(replay.create())).getAsJsonObject();
+        root.add("undos", undos);
+        return GSON.toJson(root);
+    }
+
+    public UndoFuzzResult runReproducerFile(Path file) throws IOException {
+        ExceptionHelper.checkNotNullArgument(file, "file");
+        return runReproducer(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), file);
+    }
+
+    // Executes the moves and undos of a reproducer (see encodeReproducer) and
+    // verifies them the same way as the fuzzed games. The reproducer is not
+    // minimized again. Throws an IllegalStateException if a step of the
+    // reproducer is not legal in its game.
+    public UndoFuzzResult runReproducer(String encoded) throws IOException {
+        return runReproducer(encoded, null);
+    }
+
+    private UndoFuzzResult runReproducer(String encoded, Path file) throws IOException {
+        ExceptionHelper.checkNotNullArgument(encoded, "encoded");
+
+        Replay replay = ReplayCodec.decodeJson(db, encoded);
+        List<Step> script = readScript(replay, encoded);
+
+        long startTime = System.nanoTime();
+        ScriptRunner runner = new ScriptRunner(db, replay.getSeed(), replay.getPlayer1(), replay.getPlayer2());
+        int stepIndex = 0;
+        for (Step step: script) {
+            if (runner.hasFailed()) {
+                break;
+            }
+            if (!runner.isApplicable(step)) {
+                throw new IllegalStateException("Step " + stepIndex + " of the reproducer is not legal: " + step);
+            }
+            runner.execute(step);
+            stepIndex++;
+        }
+
+        long durationNanos = System.nanoTime() - startTime;
+        if (!runner.hasFailed()) {
+            return new UndoFuzzResult(replay.getSeed(), runner.getMoveCount(), runner.getUndoCount(), durationNanos);
+        }
+        return new UndoFuzzResult(replay.getSeed(), runner.getMoveCount(), runner.getUndoCount(), durationNanos,
+                runner.getFailure(), runner.isMismatch(), encoded, file);
+    }
+
+    private static List<Step> readScript(Replay replay, String encoded) throws IOException {
+        JsonElement undosElement;
+        try {
+            undosElement = new JsonParser().parse(encoded).getAsJsonObject().get("undos");
+        } catch (JsonParseException | IllegalStateException ex) {
+            throw new IOException("Invalid reproducer.", ex);
+        }
+        if (undosElement == null || !undosElement.isJsonArray()) {
+            throw new IOException("The reproducer must have an \"undos\" list.");
+        }
+
+        List<PlayMove> moves = replay.getMoves();
+        List<Step> result = new ArrayList<>();
+        int playedCount = 0;
+        for (JsonElement undoElement: undosElement.getAsJsonArray()) {
+            int afterMove;
+            int undoTo;
+            try {
+                JsonObject undo = undoElement.getAsJsonObject();
+                afterMove = undo.get("afterMove").getAsInt();
+                undoTo = undo.get("undoTo").getAsInt();
+            } catch (RuntimeException ex) {
+                throw new IOException("Invalid undo: " + undoElement, ex);
+            }
+
+            if (afterMove < playedCount || afterMove > moves.size()) {
+                throw new IOException("Undos must be in the order of the moves: " + undoElement);
+            }
+            for (; playedCount < afterMove; playedCount++) {
+                result.add(Step.play(moves.get(playedCount)));
+            }
+            result.add(Step.undoTo(undoTo));
+        }
+        for (; playedCount < moves.size(); playedCount++) {
+            result.add(Step.play(moves.get(playedCount)));
+        }
+        return result;
+    }
+
+    // Either a move or an undo back to the point where the given number of
+    // moves remain in the game.
+    private static long digest(World world) {
+        long result = BinaryWorldCodec.digest(world);
+        result = mixDigest(result, world.getActiveAuraCount());
+
+        WorldEvents events = world.getEvents();
+        for (SimpleEventType eventType: SimpleEventType.values()) {
+            result = mixDigest(result, events.getListenerCount(eventType));
+        }
+        result = mixDigest(result, events.getSummoningListenerCount());
+
+        for (Player player: Arrays.asList(world.getPlayer1(), world.getPlayer2())) {
+            for (Minion minion: player.getBoard().getAllMinions()) {
+                MinionProperties properties = minion.getProperties();
+                result = mixDigest(result, properties.getAbilityCount());
+                result = mixDigest(result, properties.getDeathRattleCount());
+            }
+        }
+        return result;
+    }
+
+    private static long mixDigest(long digest, int value) {
+        return (digest ^ value) * 0x100000001B3L;
+    }
+
+    private static final class Step {
+        private final PlayMove move;
+        private final int undoTo;
+
+        private Step(PlayMove move, int undoTo) {
+            this.move = move;
+            this.undoTo = undoTo;
+        }
+
+        public static Step play(PlayMove move) {
+            return new Step(move, -1);
+        }
+
+        public static Step undoTo(int undoTo) {
+            return new Step(null, undoTo);
+        }
+
+        @Override
+        public String toString() {
+            return move != null ? move.toString() : "Undo to move " + undoTo;
+        }
+    }
+
+    private static final class Checkpoint {
+        private final long digest;
+        private final long randomPosition;
+
+        public Checkpoint(long digest, long randomPosition) {
+            this.digest = digest;
+            this.randomPosition = randomPosition;
+        }
+    }
+
+    // Executes steps and verifies the undos (and the moves played again after
+    // an undo) against the states recorded earlier. The execution stops at
+    // the first failure because the world might be inconsistent after it.
+    private static final class ScriptRunner {
+        private final RewindableRandom random;
+        private final World world;
+        private final WorldPlayAgent playAgent;
+
+        // The moves currently in the game and the state before and after
+        // each of them (so there is one more checkpoint than moves).
+        private final List<PlayMove> moves;
+        private final List<UndoAction> undos;
+        private final List<Checkpoint> checkpoints;
+
+        // The undone moves following the current state and the states after
+        // them.
+        private final List<PlayMove> redoMoves;
+        private final List<Checkpoint> redoCheckpoints;
+
+        private int moveCount;
+        private int undoCount;
+        private int executedStepCount;
+        private long expectedDigest;
+        private Exception failure;
+        private boolean mismatch;
+
+        public ScriptRunner(HearthStoneDb db, long seed, ReplayPlayer player1, ReplayPlayer player2) {
+            this.random = new RewindableRandom(seed);
+            this.world = Replay.createWorld(db, random, player1, player2);
+            this.playAgent = new WorldPlayAgent(world);
+            this.moves = new ArrayList<>();
+            this.undos = new ArrayList<>();
+            this.checkpoints = new ArrayList<>();
+            this.redoMoves = new ArrayList<>();
+            this.redoCheckpoints = new ArrayList<>();
+            this.moveCount = 0;
+            this.undoCount = 0;
+            this.executedStepCount = 0;
+            this.expectedDigest = 0;
+            this.failure = null;
+            this.mismatch = false;
+
+            try {
+                Replay.startGame(world);
+                checkpoints.add(newCheckpoint());
+            } catch (Exception ex) {
+                failure = ex;
+            }
+        }
+
+        public World getWorld() {
+            return world;
+        }
+
+        public int getDepth() {
+            return moves.size();
+        }
+
+        public List<PlayMove> getRedoMoves() {
+            return redoMoves;
+        }
+
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        public int getUndoCount() {
+            return undoCount;
+        }
+
+        public int getExecutedStepCount() {
+            return executedStepCount;
+        }
+
+        public long getExpectedDigest() {
+            return expectedDigest;
+        }
+
+        public boolean hasFailed() {
+            return failure != null;
+        }
+
+        public Exception getFailure() {
+            return failure;
+        }
+
+        public boolean isMismatch() {
+            return mismatch;
+        }
+
+        // Failures with the same signature are considered to be the same
+        // failure by the minimization.
+        public String getFailureSignature() {
+            return mismatch ? "mismatch" : failure.getClass().getName();
+        }
+
+        public boolean isApplicable(Step step) {
+            if (step.move == null) {
+                return step.undoTo >= 0 && step.undoTo < moves.size();
+            }
+            try {
+                return MoveGenerator.DEFAULT.getMoves(world).contains(step.move);
+            } catch (RuntimeException ex) {
+                return false;
+            }
+        }
+
+        public void execute(Step step, List<Step> script) {
+            script.add(step);
+            execute(step);
+        }
+
+        public void execute(Step step) {
+            executedStepCount++;
+            try {
+                if (step.move != null) {
+                    play(step.move);
+                }
+                else {
+                    undoTo(step.undoTo);
+                }
+            } catch (Exception ex) {
+                failure = ex;
+            }
+        }
+
+        private Checkpoint newCheckpoint() {
+            return new Checkpoint(digest(world), random.getPosition());
+        }
+
+        private void play(PlayMove move) {
+            moveCount++;
+
+            int depth = moves.size();
+            UndoAction undo = move.play(playAgent);
+            moves.add(move);
+            undos.add(undo);
+
+            Checkpoint checkpoint = newCheckpoint();
+            checkpoints.add(checkpoint);
+
+            if (redoMoves.isEmpty() || !redoMoves.get(0).equals(move)) {
+                redoMoves.clear();
+                redoCheckpoints.clear();
+                return;
+            }
+
+            redoMoves.remove(0);
+            Checkpoint expected = redoCheckpoints.remove(0);
+            if (checkpoint.digest != expected.digest) {
+                setMismatch("Playing " + move + " again after " + depth + " moves", checkpoint.digest, expected.digest);
+            }
+        }
+
+        private void undoTo(int undoTo) {
+            undoCount++;
+
+            int depth = moves.size();
+            for (int i = depth - 1; i >= undoTo; i--) {
+                undos.get(i).undo();
+            }
+
+            List<PlayMove> undoneMoves = moves.subList(undoTo, depth);
+            List<Checkpoint> undoneCheckpoints = checkpoints.subList(undoTo + 1, depth + 1);
+            redoMoves.addAll(0, undoneMoves);
+            redoCheckpoints.addAll(0, undoneCheckpoints);
+            undoneMoves.clear();
+            undoneCheckpoints.clear();
+            undos.subList(undoTo, depth).clear();
+
+            Checkpoint expected = checkpoints.get(undoTo);
+            random.setPosition(expected.randomPosition);
+
+            long digest = digest(world);
+            if (digest != expected.digest) {
+                setMismatch("Undo from move " + depth + " to move " + undoTo, digest, expected.digest);
+            }
+        }
+
+        private void setMismatch(String stepName, long actualDigest, long expectedDigest) {
+            this.expectedDigest = expectedDigest;
+            this.mismatch = true;
+            this.failure = new IllegalStateException(stepName + " produced digest "
+                    + Long.toHexString(actualDigest) + ", expected " + Long.toHexString(expectedDigest));
+        }
+    }
+
+    // Every roll is a function of the seed and of the number of previous
+    // rolls, so setting the position back makes the rolls repeat.
+    private static final class RewindableRandom implements RandomProvider {
+        private final long seed;
+        private long position;
+
+        public RewindableRandom(long seed) {
+            this.seed = seed;
+            this.position = 0;
+        }
+
+        public long getPosition() {
+            return position;
+        }
+
+        public void setPosition(long position) {
+            this.position = position;
+        }
+
+        @Override
+        public int roll(int bound) {
+            long value = mix(seed + position * 0x9E3779B97F4A7C15L);
+            position++;
+            return (int)((value >>> 1) % bound);
+        }
+
+        // The finalizer of SplitMix64.
+        private static long mix(long value) {
+            long result = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+            result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+            return result ^ (result >>> 31);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.parsing.TestDb;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Fuzzes the undo of random games using every core and saves the reproducers
+// of the failing games. This is not a test, run it manually:
+//
+//   java -cp ... com.github.kelemen.brazier.serialization.UndoFuzzerMain [firstSeed] [seedCount] [reproducerDir]
+//
+// If the only argument is a file, the reproducer in that file is executed.
+public final class UndoFuzzerMain {
+    private static final long DEFAULT_FIRST_SEED = 0;
+    private static final int DEFAULT_SEED_COUNT = 1000;
+    private static final String DEFAULT_REPRODUCER_DIR = "undo-fuzz";
+
+    public static void main(String[] args) throws Exception {
+        UndoFuzzer.Builder fuzzerBuilder = new UndoFuzzer.Builder(TestDb.getTestDb());
+
+        if (args.length == 1 && !isNumber(args[0])) {
+            System.out.println(fuzzerBuilder.create().runReproducerFile(Paths.get(args[0])));
+            return;
+        }
+
+        long firstSeed = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_FIRST_SEED;
+        int seedCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SEED_COUNT;
+        Path reproducerDir = Paths.get(args.length > 2 ? args[2] : DEFAULT_REPRODUCER_DIR);
+
+        fuzzerBuilder.setReproducerDir(reproducerDir);
+
+        long startTime = System.nanoTime();
+        List<UndoFuzzResult> results = fuzzerBuilder.create().run(firstSeed, seedCount);
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        int failureCount = 0;
+        for (UndoFuzzResult result: results) {
+            if (!result.isSuccessful()) {
+                System.out.println(result);
+                failureCount++;
+            }
+        }
+        System.out.println("Seeds: " + seedCount + ", failures: " + failureCount + ", " + durationMillis + " ms");
+    }
+
+    private static boolean isNumber(String arg) {
+        try {
+            Long.parseLong(arg);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+}
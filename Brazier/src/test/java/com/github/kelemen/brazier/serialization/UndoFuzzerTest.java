@@ -0,0 +1,91 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Keywords;
+import com.github.kelemen.brazier.ai.EndTurnMove;
+import com.github.kelemen.brazier.parsing.TestDb;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class UndoFuzzerTest {
+    private static final String[] CARD_POOL = {
+            WISP, YETI, MOONFIRE, STONETUSK_BOAR, BLUEGILL_WARRIOR, FIREBALL, HARVEST_GOLEM,
+            FLAMESTRIKE, SHATTERED_SUN_CLERIC, FIERY_WAR_AXE, VOIDWALKER, FAR_SIGHT,
+            MIRROR_ENTITY, RAID_LEADER, ECHOING_OOZE, YOUTHFUL_BREWMASTER};
+
+    private static UndoFuzzer createFuzzer(HearthStoneDb db) {
+        UndoFuzzer.Builder result = new UndoFuzzer.Builder(db);
+        result.setThreadCount(4);
+        result.setMaxMoveCount(100);
+        result.setCardPool(getCards(db, CARD_POOL));
+        return result.create();
+    }
+
+    private static String endTurnReproducer(HearthStoneDb db, int moveCount, int[]... undos) {
+        ReplayPlayer.Builder player1 = new ReplayPlayer.Builder("Player1");
+        player1.setHeroClass(Keywords.CLASS_MAGE);
+        ReplayPlayer.Builder player2 = new ReplayPlayer.Builder("Player2");
+        player2.setHeroClass(Keywords.CLASS_WARRIOR);
+        player2.setHand(getCards(db, YETI));
+
+        Replay.Builder replay = new Replay.Builder(7, player1.create(), player2.create());
+        for (int i = 0; i < moveCount; i++) {
+            replay.addMove(EndTurnMove.INSTANCE);
+        }
+        replay.setFinalDigest(0);
+
+        JsonArray undoList = new JsonArray();
+        for (int[] undo: undos) {
+            JsonObject undoObj = new JsonObject();
+            undoObj.addProperty("afterMove", undo[0]);
+            undoObj.addProperty("undoTo", undo[1]);
+            undoList.add(undoObj);
+        }
+
+        JsonObject root = new JsonParser().parse(ReplayCodec.encodeJson(replay.create())).getAsJsonObject();
+        root.add("undos", undoList);
+        return root.toString();
+    }
+
+    @Test
+    public void testFuzzedGamesAreConsistent() {
+        List<UndoFuzzResult> results = createFuzzer(TestDb.getTestDb()).run(100, 16);
+
+        assertEquals(16, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            UndoFuzzResult result = results.get(i);
+            assertEquals(100 + i, result.getSeed());
+            assertTrue(result.toString(), result.isSuccessful());
+            assertTrue(result.toString(), result.getUndoCount() > 0);
+            assertNull(result.tryGetReproducer());
+        }
+    }
+
+    @Test
+    public void testRunReproducer() throws IOException {
+        HearthStoneDb db = TestDb.getTestDb();
+        String reproducer = endTurnReproducer(db, 6, new int[]{4, 1}, new int[]{6, 0});
+
+        UndoFuzzResult result = createFuzzer(db).runReproducer(reproducer);
+        assertTrue(result.toString(), result.isSuccessful());
+        assertEquals(7, result.getSeed());
+        assertEquals(6, result.getMoveCount());
+        assertEquals(2, result.getUndoCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReproducerWithIllegalUndo() throws IOException {
+        HearthStoneDb db = TestDb.getTestDb();
+        String reproducer = endTurnReproducer(db, 3, new int[]{2, 2});
+
+        createFuzzer(db).runReproducer(reproducer);
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.kelemen.brazier.serialization;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.WorldPlayAgent;
+import com.github.kelemen.brazier.actions.UndoAction;
+import com.github.kelemen.brazier.cards.CardId;
+import com.github.kelemen.brazier.minions.Minion;
+import com.github.kelemen.brazier.parsing.TestDb;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class WorldCodecTest {
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        world.setRandomProvider(new Random(37)::nextInt);
+        HearthStoneDb db = world.getDb();
+
+        playCard(world, PLAYER2_ID, DIRE_WOLF_ALPHA, null);
+        playCard(world, PLAYER2_ID, YETI, null);
+        playCard(world, PLAYER2_ID, EXPLOSIVE_TRAP, null);
+
+        playCard(world, PLAYER1_ID, STORMWIND_CHAMPION, null);
+        playCard(world, PLAYER1_ID, YETI, null);
+        playCard(world, PLAYER1_ID, WISP, null);
+        playCard(world, PLAYER1_ID, BLESSING_OF_KINGS, getMinion(world, PLAYER1_ID, 1).getTargetId());
+        playCard(world, PLAYER1_ID, SILENCE, getMinion(world, PLAYER2_ID, 0).getTargetId());
+        playCard(world, PLAYER1_ID, FIERY_WAR_AXE, null);
+        world.getPlayer(PLAYER1_ID).getBoard().refresh();
+
+        addToHand(world, PLAYER1_ID, MOONFIRE, ABUSIVE_SERGEANT);
+        Player player1 = world.getPlayer(PLAYER1_ID);
+        player1.getHand().getCard(1).decreaseManaCost(1);
+        player1.getBoard().getDeck().setCards(getCards(db, WISP, YETI));
+        player1.setMana(4);
+        player1.getManaResource().setManaCrystals(6);
+        player1.getHero().setCurrentHp(25);
+        player1.getHero().setHeroPower(db.getHeroPowerDb().getById(new CardId(ARMOR_UP)));
+
+        new WorldPlayAgent(world, PLAYER1_ID).setCurrentPlayerId(PLAYER1_ID);
+        return world;
+    }
+
+    private static void assertSameMinions(List<Minion> expected, List<Minion> actual) {
+        assertEquals("minionCount", expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Minion expectedMinion = expected.get(i);
+            Minion actualMinion = actual.get(i);
+            assertSame("id", expectedMinion.getBaseDescr(), actualMinion.getBaseDescr());
+            assertEquals("attack", expectedMinion.getAttackTool().getAttack(), actualMinion.getAttackTool().getAttack());
+            assertEquals("hp", expectedMinion.getBody().getCurrentHp(), actualMinion.getBody().getCurrentHp());
+            assertEquals("maxHp", expectedMinion.getBody().getMaxHp(), actualMinion.getBody().getMaxHp());
+            assertEquals("canAttack", expectedMinion.getAttackTool().canAttackWith(), actualMinion.getAttackTool().canAttackWith());
+            assertEquals("silenced", expectedMinion.getProperties().isSilenced(), actualMinion.getProperties().isSilenced());
+        }
+    }
+
+    private static void assertSamePlayer(Player expected, Player actual) {
+        assertEquals(expected.getPlayerId().getName(), actual.getPlayerId().getName());
+        assertSameMinions(expected.getBoard().getAllMinions(), actual.getBoard().getAllMinions());
+        assertEquals(expected.getHero().getCurrentHp(), actual.getHero().getCurrentHp());
+        assertSame(expected.getHero().getHeroPower().getPowerDef(), actual.getHero().getHeroPower().getPowerDef());
+        assertEquals(expected.getMana(), actual.getMana());
+        assertEquals(expected.getManaResource().getManaCrystals(), actual.getManaResource().getManaCrystals());
+        assertEquals(expected.getHand().getCardCount(), actual.getHand().getCardCount());
+        for (int i = 0; i < expected.getHand().getCardCount(); i++) {
+            assertEquals(expected.getHand().getCard(i).getActiveManaCost(), actual.getHand().getCard(i).getActiveManaCost());
+        }
+        assertEquals(expected.getBoard().getDeck().getNumberOfCards(), actual.getBoard().getDeck().getNumberOfCards());
+        assertEquals(expected.getSecrets().getSecrets().size(), actual.getSecrets().getSecrets().size());
+        assertEquals(expected.getWeaponAttack(), actual.getWeaponAttack());
+        assertEquals(expected.getBoard().getGraveyard().getDeadMinions().size(),
+                actual.getBoard().getGraveyard().getDeadMinions().size());
+    }
+
+    private static void assertSameWorld(World expected, World actual) {
+        assertSamePlayer(expected.getPlayer1(), actual.getPlayer1());
+        assertSamePlayer(expected.getPlayer2(), actual.getPlayer2());
+        assertEquals(expected.getCurrentPlayer().getPlayerId().getName(), actual.getCurrentPlayer().getPlayerId().getName());
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        World world = createWorld();
+        byte[] encoded = BinaryWorldCodec.encode(world);
+        World decoded = BinaryWorldCodec.decode(world.getDb(), encoded);
+
+        assertSameWorld(world, decoded);
+        assertArrayEquals(encoded, BinaryWorldCodec.encode(decoded));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws IOException {
+        World world = createWorld();
+        String encoded = JsonWorldCodec.encode(world);
+        World decoded = JsonWorldCodec.decode(world.getDb(), encoded);
+
+        assertSameWorld(world, decoded);
+        assertEquals(encoded, JsonWorldCodec.encode(decoded));
+        assertTrue(BinaryWorldCodec.encode(world).length < encoded.length());
+    }
+
+    @Test
+    public void testRestoredWorldContinuesTheSame() throws IOException {
+        World world = createWorld();
+        World decoded = BinaryWorldCodec.decode(world.getDb(), BinaryWorldCodec.encode(world));
+        decoded.setRandomProvider(new Random(37)::nextInt);
+
+        for (World current: new World[]{world, decoded}) {
+            PlayerId player1Id = current.getPlayer1().getPlayerId();
+            PlayerId player2Id = current.getPlayer2().getPlayerId();
+
+            WorldPlayAgent playAgent = new WorldPlayAgent(current, player1Id);
+            playAgent.attack(
+                    getMinion(current, player1Id, 1).getTargetId(),
+                    getMinion(current, player2Id, 0).getTargetId());
+            playAgent.attack(
+                    current.getPlayer(player1Id).getHero().getTargetId(),
+                    current.getPlayer(player2Id).getHero().getTargetId());
+            playAgent.endTurn();
+        }
+
+        assertSameWorld(world, decoded);
+        assertEquals(JsonWorldCodec.encode(world), JsonWorldCodec.encode(decoded));
+    }
+
+    @Test
+    public void testRejectsMalformedInput() {
+        HearthStoneDb db = TestDb.getTestDb();
+        byte[] encoded = BinaryWorldCodec.encode(createWorld());
+
+        byte[][] malformedInputs = {
+            new byte[0],
+            Arrays.copyOf(encoded, encoded.length / 2),
+            Arrays.copyOf(encoded, 4),
+        };
+        for (byte[] input: malformedInputs) {
+            try {
+                BinaryWorldCodec.decode(db, input);
+                fail("Expected IOException for input of length " + input.length);
+            } catch (IOException ex) {
+                // Expected
+            }
+        }
+
+        String[] malformedJsons = {
+            "{",
+            "[]",
+            JsonWorldCodec.encode(createWorld()).replace("\"currentPlayer\"", "\"current\""),
+            JsonWorldCodec.encode(createWorld()).replace("\"manaCrystals\": 6", "\"manaCrystals\": \"6\""),
+        };
+        for (String input: malformedJsons) {
+            try {
+                JsonWorldCodec.decode(db, input);
+                fail("Expected IOException for " + input);
+            } catch (IOException ex) {
+                // Expected
+            }
+        }
+    }
+
+    private static void assertCannotEncode(World world) {
+        assertFalse(BinaryWorldCodec.canEncode(world));
+        try {
+            BinaryWorldCodec.encode(world);
+            fail("Expected IllegalStateException for the binary format.");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        try {
+            JsonWorldCodec.encode(world);
+            fail("Expected IllegalStateException for the JSON format.");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testRejectsGrantedAbility() throws IOException {
+        World world = createWorld();
+        playCard(world, PLAYER1_ID, BLESSING_OF_WISDOM, getMinion(world, PLAYER1_ID, 1).getTargetId());
+        assertCannotEncode(world);
+
+        World decoded = BinaryWorldCodec.decode(world.getDb(), BinaryWorldCodec.encodeObservable(world));
+        assertSameWorld(world, decoded);
+        assertTrue(BinaryWorldCodec.canEncode(decoded));
+    }
+
+    @Test
+    public void testRejectsGrantedDeathRattle() {
+        World world = createWorld();
+        Minion minion = getMinion(world, PLAYER1_ID, 2);
+        UndoAction undo = minion.getProperties().addDeathRattle((actionWorld, self, source) -> UndoAction.DO_NOTHING);
+        assertCannotEncode(world);
+
+        undo.undo();
+        assertTrue(BinaryWorldCodec.canEncode(world));
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.kelemen.brazier.server;
+
+import com.github.kelemen.brazier.HearthStoneDb;
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.parsing.TestDb;
+import com.github.kelemen.brazier.serialization.BinaryWorldCodec;
+import com.github.kelemen.brazier.serialization.JsonWorldCodec;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class SimulationServerTest {
+    // The current player can kill the opponent by playing Fireball.
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        world.setCurrentPlayerId(PLAYER1_ID);
+
+        addToHand(world, PLAYER1_ID, FIREBALL, YETI);
+        Player player1 = world.getPlayer(PLAYER1_ID);
+        player1.getManaResource().setManaCrystals(10);
+        player1.setMana(10);
+        for (int i = 0; i < 10; i++) {
+            player1.getBoard().getDeck().putOnTop(getCard(world.getDb(), WISP));
+            world.getPlayer(PLAYER2_ID).getBoard().getDeck().putOnTop(getCard(world.getDb(), STONETUSK_BOAR));
+        }
+
+        world.getPlayer(PLAYER2_ID).getHero().setCurrentHp(6);
+        world.endPhase();
+        return world;
+    }
+
+    // The second player is to move and can kill the opponent by attacking
+    // with its charging minion, while the first player could do nothing.
+    private static World createWorldWithPlayer2ToMove() {
+        World world = createEmptyWorld();
+        world.setCurrentPlayerId(PLAYER2_ID);
+
+        summon(world, PLAYER2_ID, STONETUSK_BOAR);
+        world.getPlayer(PLAYER1_ID).getHero().setCurrentHp(1);
+        world.endPhase();
+        return world;
+    }
+
+    private static SimulationServer startServer(HearthStoneDb db, int workerCount, int queueCapacity) throws IOException {
+        SimulationServer.Builder result = new SimulationServer.Builder(db);
+        result.setPort(0);
+        result.setWorkerCount(workerCount);
+        result.setQueueCapacity(queueCapacity);
+        return result.start();
+    }
+
+    private static Socket connect(SimulationServer server) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout((int)TimeUnit.SECONDS.toMillis(60));
+        return socket;
+    }
+
+    private static Map<Long, JsonObject> sendJson(SimulationServer server, String... requests) throws IOException {
+        try (Socket socket = connect(server)) {
+            Writer output = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            for (String request: requests) {
+                output.write(request);
+                output.write('\n');
+            }
+            output.flush();
+            socket.shutdownOutput();
+
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Map<Long, JsonObject> responses = new HashMap<>();
+            for (String line = input.readLine(); line != null; line = input.readLine()) {
+                JsonObject response = new JsonParser().parse(line).getAsJsonObject();
+                responses.put(response.get("id").getAsLong(), response);
+            }
+            assertEquals(requests.length, responses.size());
+            return responses;
+        }
+    }
+
+    private static JsonObject getResult(Map<Long, JsonObject> responses, long id) {
+        JsonObject response = responses.get(id);
+        assertTrue(response.toString(), response.get("ok").getAsBoolean());
+        return response.getAsJsonObject("result");
+    }
+
+    @Test(timeout = 60000)
+    public void testJsonRequests() throws IOException {
+        HearthStoneDb db = TestDb.getTestDb();
+        World world = createWorld();
+        String worldJson = new JsonParser().parse(JsonWorldCodec.encode(world)).toString();
+
+        try (SimulationServer server = startServer(db, 2, 4)) {
+            Map<Long, JsonObject> responses = sendJson(server,
+                    "{\"id\": 1, \"type\": \"setPosition\", \"world\": " + worldJson + "}",
+                    "{\"id\": 2, \"type\": \"findLethal\"}",
+                    "{\"id\": 3, \"type\": \"simulate\", \"count\": 4, \"seed\": 7, \"maxTurns\": 6}",
+                    "{\"id\": 4, \"type\": \"bestMove\", \"count\": 50}",
+                    "{\"id\": 5, \"type\": \"unknown\"}",
+                    "not json");
+
+            long digest = Long.parseUnsignedLong(getResult(responses, 1).get("digest").getAsString(), 16);
+            assertEquals(BinaryWorldCodec.digest(world), digest);
+
+            JsonObject lethal = getResult(responses, 2);
+            assertTrue(lethal.get("lethal").getAsBoolean());
+            assertEquals("card", lethal.getAsJsonArray("moves").get(0).getAsJsonObject().get("type").getAsString());
+
+            JsonObject playouts = getResult(responses, 3);
+            int gameCount = playouts.get("player1Wins").getAsInt()
+                    + playouts.get("player2Wins").getAsInt()
+                    + playouts.get("draws").getAsInt()
+                    + playouts.get("unfinished").getAsInt();
+            assertEquals(4, gameCount);
+
+            assertTrue(getResult(responses, 4).get("move").isJsonObject());
+            assertFalse(responses.get(5L).get("ok").getAsBoolean());
+            assertFalse(responses.get(0L).get("ok").getAsBoolean());
+
+            ServerMetrics metrics = server.getMetrics();
+            assertEquals(1, metrics.getRequestMetrics(RequestType.SIMULATE).getCount());
+            assertEquals(1, metrics.getRequestMetrics(RequestType.FIND_LETHAL).getCount());
+        }
+    }
+
+    @Test
+    public void testSimulateFromPlayer2Turn() throws IOException {
+        HearthStoneDb db = TestDb.getTestDb();
+        byte[] position = BinaryWorldCodec.encode(createWorldWithPlayer2ToMove());
+
+        SimulationRequest request = new SimulationRequest(1, RequestType.SIMULATE, position, 20, 7, 1,
+                SimulationRequest.DEFAULT_MAX_NODES);
+        PlayoutStats stats = (PlayoutStats)new RequestExecutor(db).execute(request);
+
+        assertEquals(0, stats.getPlayer1Wins());
+        assertTrue("Player 2 wins: " + stats.getPlayer2Wins(), stats.getPlayer2Wins() > 0);
+    }
+
+    private static void writeFrame(DataOutputStream output, long id, RequestType type, byte[] position, int count)
+            throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeLong(id);
+        payload.writeByte(type.ordinal());
+        payload.writeBoolean(position != null);
+        if (position != null) {
+            payload.writeInt(position.length);
+            payload.write(position);
+        }
+        payload.writeInt(count);
+        payload.writeLong(0);
+        payload.writeInt(4);
+        payload.writeLong(SimulationRequest.DEFAULT_MAX_NODES);
+
+        output.writeInt(payloadBytes.size());
+        payloadBytes.writeTo(output);
+    }
+
+    @Test(timeout = 60000)
+    public void testBinaryRequestsWithBackpressure() throws IOException {
+        HearthStoneDb db = TestDb.getTestDb();
+        World world = createWorld();
+        int requestCount = 8;
+
+        try (SimulationServer server = startServer(db, 1, 1);
+                Socket socket = connect(server)) {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeInt(BinaryServerProtocol.MAGIC);
+            writeFrame(output, 100, RequestType.SET_POSITION, BinaryWorldCodec.encode(world), 1);
+            for (int i = 0; i < requestCount; i++) {
+                writeFrame(output, i, RequestType.SIMULATE, null, 3);
+            }
+            output.flush();
+
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            for (int i = 0; i <= requestCount; i++) {
+                byte[] payload = new byte[input.readInt()];
+                input.readFully(payload);
+                DataInputStream response = new DataInputStream(new ByteArrayInputStream(payload));
+
+                long id = response.readLong();
+                RequestType type = RequestType.VALUES[response.readByte()];
+                assertTrue(response.readBoolean());
+                response.readLong();
+                response.readLong();
+
+                if (id == 100) {
+                    assertEquals(RequestType.SET_POSITION, type);
+                    assertEquals(BinaryWorldCodec.digest(world), response.readLong());
+                }
+                else {
+                    assertEquals(RequestType.SIMULATE, type);
+                    int gameCount = response.readInt() + response.readInt() + response.readInt() + response.readInt();
+                    assertEquals(3, gameCount);
+                }
+            }
+
+            ServerMetrics metrics = server.getMetrics();
+            assertEquals(requestCount, metrics.getRequestMetrics(RequestType.SIMULATE).getCount());
+            assertEquals(0, metrics.getRequestMetrics(RequestType.SIMULATE).getFailedCount());
+            assertTrue(metrics.getMaxQueuedRequests() <= metrics.getQueueCapacity() + 1);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.kelemen.brazier.ui;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class ComponentImageCacheTest {
+    private static final int SIZE = 10;
+    private static final long IMAGE_BYTES = SIZE * SIZE * 4;
+
+    private static ComponentImageCache.Key paint(
+            ComponentImageCache cache,
+            String entityId,
+            String state,
+            Consumer<Graphics2D> painter) {
+        BufferedImage target = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            return cache.paint(g, entityId, state, SIZE, SIZE, painter);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static Consumer<Graphics2D> countingPainter(AtomicInteger counter) {
+        return (g) -> counter.incrementAndGet();
+    }
+
+    @Test
+    public void testReusesImages() {
+        ComponentImageCache cache = new ComponentImageCache(10 * IMAGE_BYTES);
+        AtomicInteger paintCount = new AtomicInteger(0);
+
+        paint(cache, "Wisp", "1/1", countingPainter(paintCount));
+        paint(cache, "Wisp", "1/1", countingPainter(paintCount));
+        assertEquals(1, paintCount.get());
+
+        paint(cache, "Wisp", "2/1", countingPainter(paintCount));
+        assertEquals(2, paintCount.get());
+        assertEquals(2, cache.getImageCount());
+        assertEquals(2 * IMAGE_BYTES, cache.getSize());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        ComponentImageCache cache = new ComponentImageCache(2 * IMAGE_BYTES);
+        AtomicInteger paintCount = new AtomicInteger(0);
+
+        paint(cache, "a", "", countingPainter(paintCount));
+        paint(cache, "b", "", countingPainter(paintCount));
+        paint(cache, "a", "", countingPainter(paintCount));
+        paint(cache, "c", "", countingPainter(paintCount));
+        assertEquals(3, paintCount.get());
+        assertEquals(2, cache.getImageCount());
+
+        paint(cache, "a", "", countingPainter(paintCount));
+        assertEquals(3, paintCount.get());
+
+        paint(cache, "b", "", countingPainter(paintCount));
+        assertEquals(4, paintCount.get());
+        assertEquals(2 * IMAGE_BYTES, cache.getSize());
+    }
+
+    @Test
+    public void testInvalidate() {
+        ComponentImageCache cache = new ComponentImageCache(10 * IMAGE_BYTES);
+        AtomicInteger paintCount = new AtomicInteger(0);
+
+        ComponentImageCache.Key key = paint(cache, "Wisp", "1/1", countingPainter(paintCount));
+        cache.invalidate(key);
+        assertEquals(0, cache.getImageCount());
+        assertEquals(0, cache.getSize());
+
+        paint(cache, "Wisp", "1/1", countingPainter(paintCount));
+        assertEquals(2, paintCount.get());
+    }
+}
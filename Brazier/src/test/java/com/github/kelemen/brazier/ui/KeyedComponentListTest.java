@@ -0,0 +1,68 @@
+package com.github.kelemen.brazier.ui;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class KeyedComponentListTest {
+    private static KeyedComponentList<String, JLabel> create(JPanel container, List<String> created) {
+        return new KeyedComponentList<>(container, (element) -> {
+            created.add(element);
+            return new JLabel();
+        }, (component, element, index) -> {
+            component.setText(element + index);
+        });
+    }
+
+    private static long key(String element) {
+        return element.charAt(0);
+    }
+
+    private static List<String> getTexts(JPanel container) {
+        List<String> result = new ArrayList<>();
+        for (Component component: container.getComponents()) {
+            result.add(((JLabel)component).getText());
+        }
+        return result;
+    }
+
+    @Test
+    public void testReusesComponents() {
+        JPanel container = new JPanel();
+        List<String> created = new ArrayList<>();
+        KeyedComponentList<String, JLabel> list = create(container, created);
+
+        list.setElements(Arrays.asList("a", "b", "c"), KeyedComponentListTest::key);
+        Component componentA = container.getComponent(0);
+        Component componentC = container.getComponent(2);
+
+        list.setElements(Arrays.asList("c2", "d", "a2"), KeyedComponentListTest::key);
+        assertEquals(Arrays.asList("a", "b", "c", "d"), created);
+        assertEquals(Arrays.asList("c20", "d1", "a22"), getTexts(container));
+        assertSame(componentC, container.getComponent(0));
+        assertSame(componentA, container.getComponent(2));
+    }
+
+    @Test
+    public void testRemovesForeignComponents() {
+        JPanel container = new JPanel();
+        List<String> created = new ArrayList<>();
+        KeyedComponentList<String, JLabel> list = create(container, created);
+
+        list.setElements(Arrays.asList("a", "b"), KeyedComponentListTest::key);
+        container.add(new JPanel(), 1);
+
+        list.setElements(Arrays.asList("a", "b"), KeyedComponentListTest::key);
+        assertEquals(Arrays.asList("a0", "b1"), getTexts(container));
+        assertEquals(Arrays.asList("a", "b"), created);
+
+        list.setElements(Arrays.asList(), KeyedComponentListTest::key);
+        assertEquals(0, container.getComponentCount());
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.kelemen.brazier.ui;
+
+import com.github.kelemen.brazier.actions.UndoAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class UndoManagerTest {
+    private static Supplier<UndoAction> append(List<String> state, String value) {
+        return () -> {
+            state.add(value);
+            return () -> state.remove(state.size() - 1);
+        };
+    }
+
+    @Test
+    public void testUndoRedo() {
+        List<String> state = new ArrayList<>();
+        UndoManager manager = new UndoManager();
+        manager.executeAction("a", append(state, "a"), 1);
+        manager.executeAction("b", append(state, "b"), 1);
+
+        manager.undo();
+        assertEquals(Arrays.asList("a"), state);
+        assertTrue(manager.hasRedos().getValue());
+
+        manager.redo();
+        assertEquals(Arrays.asList("a", "b"), state);
+        assertFalse(manager.hasRedos().getValue());
+
+        manager.undo();
+        manager.executeAction("c", append(state, "c"), 1);
+        assertEquals(Arrays.asList("a", "c"), manager.getHistory());
+        assertFalse(manager.hasRedos().getValue());
+    }
+
+    @Test
+    public void testJumpTo() {
+        List<String> state = new ArrayList<>();
+        UndoManager manager = new UndoManager();
+        for (String value: new String[]{"a", "b", "c", "d"}) {
+            manager.executeAction(value, append(state, value), 1);
+        }
+
+        manager.jumpTo(1);
+        assertEquals(Arrays.asList("a"), state);
+        assertEquals(1, manager.getHistoryPosition());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), manager.getHistory());
+
+        manager.jumpTo(3);
+        assertEquals(Arrays.asList("a", "b", "c"), state);
+
+        manager.jumpTo(0);
+        assertTrue(state.isEmpty());
+        assertFalse(manager.hasUndos().getValue());
+    }
+
+    @Test
+    public void testEvictsOldestEntries() {
+        List<String> state = new ArrayList<>();
+        UndoManager manager = new UndoManager(3, 10);
+        for (String value: new String[]{"a", "b", "c", "d"}) {
+            manager.executeAction(value, append(state, value), 2);
+        }
+        assertEquals(Arrays.asList("b", "c", "d"), manager.getHistory());
+        assertEquals(6, manager.getRetainedSize());
+
+        manager.executeAction("e", append(state, "e"), 7);
+        assertEquals(Arrays.asList("d", "e"), manager.getHistory());
+        assertEquals(9, manager.getRetainedSize());
+
+        manager.jumpTo(0);
+        assertEquals(Arrays.asList("a", "b", "c"), state);
+    }
+
+    @Test
+    public void testNonRedoableActionClearsRedos() {
+        List<String> state = new ArrayList<>();
+        UndoManager manager = new UndoManager();
+        manager.executeAction("a", append(state, "a"), 1);
+        manager.addUndo(append(state, "b").get());
+        manager.executeAction("c", append(state, "c"), 1);
+
+        manager.undo();
+        manager.undo();
+        assertEquals(Arrays.asList("a"), state);
+        assertFalse(manager.hasRedos().getValue());
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.kelemen.brazier.ui;
+
+import com.github.kelemen.brazier.Player;
+import com.github.kelemen.brazier.PlayerId;
+import com.github.kelemen.brazier.TargeterDef;
+import com.github.kelemen.brazier.World;
+import com.github.kelemen.brazier.minions.Minion;
+import java.util.List;
+import org.junit.Test;
+
+import static com.github.kelemen.brazier.TestCards.*;
+import static com.github.kelemen.brazier.TestWorlds.*;
+import static org.junit.Assert.*;
+
+public final class WorldSnapshotTest {
+    // Player1 has a Yeti which cannot attack yet and a Stonetusk Boar which
+    // can, and enough mana for Fireball but not for Flamestrike.
+    private static World createWorld() {
+        World world = createEmptyWorld();
+        playCard(world, PLAYER1_ID, YETI, null);
+        playCard(world, PLAYER1_ID, STONETUSK_BOAR, null);
+        addToHand(world, PLAYER1_ID, FIREBALL, FLAMESTRIKE);
+        world.getPlayer(PLAYER1_ID).setMana(4);
+        return world;
+    }
+
+    private static WorldSnapshot capture(World world) {
+        return WorldSnapshot.capture(0, world, new UndoManager(), new EntityKeys());
+    }
+
+    @Test
+    public void testFlagsMatchOriginalWorld() {
+        World world = createWorld();
+        WorldSnapshot snapshot = capture(world);
+        Player player = snapshot.getWorld().getCurrentPlayer();
+
+        List<Minion> minions = player.getBoard().getAllMinions();
+        assertFalse(snapshot.canAttackWith(minions.get(0)));
+        assertTrue(snapshot.canAttackWith(minions.get(1)));
+        assertFalse(snapshot.canAttackWith(player.getHero()));
+
+        assertTrue(snapshot.canPlayCard(player.getHand().getCard(0)));
+        assertFalse(snapshot.canPlayCard(player.getHand().getCard(1)));
+
+        Player originalPlayer = world.getPlayer(PLAYER1_ID);
+        boolean heroPowerPlayable = originalPlayer.getHero().getHeroPower().isPlayable(originalPlayer);
+        assertEquals(heroPowerPlayable, snapshot.canPlayHeroPower(player));
+    }
+
+    @Test
+    public void testTargetableFlagsAreCapturedFromOriginalWorld() {
+        World world = createWorld();
+        world.getPlayer(PLAYER1_ID).getBoard().getAllMinions().get(0).getBody().setStealth(true);
+
+        WorldSnapshot snapshot = capture(world);
+        PlayerId playerId = snapshot.getCurrentPlayerId();
+        Player player = snapshot.getWorld().getCurrentPlayer();
+        Minion yeti = player.getBoard().getAllMinions().get(0);
+
+        assertTrue(snapshot.isTargetable(yeti, new TargeterDef(playerId, true, false)));
+        assertTrue(snapshot.isTargetable(player.getOpponent().getHero(), new TargeterDef(playerId, false, true)));
+        assertFalse(snapshot.isTargetable(player.getHero(), new TargeterDef(playerId, false, true)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignEntity() {
+        World world = createWorld();
+        WorldSnapshot snapshot = capture(world);
+        snapshot.canAttackWith(world.getPlayer(PLAYER1_ID).getHero());
+    }
+}
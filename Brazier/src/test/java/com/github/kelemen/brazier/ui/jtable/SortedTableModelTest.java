@@ -0,0 +1,115 @@
+package com.github.kelemen.brazier.ui.jtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import javax.swing.event.TableModelEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class SortedTableModelTest {
+    private static SortedTableModel<String> createModel() {
+        List<ColumnDef<String, ?>> columns = new ArrayList<>();
+        columns.add(ColumnDef.stringColumn("Name", (row) -> row));
+        columns.add(ColumnDef.integerColumn("Length", String::length));
+        return new SortedTableModel<>(columns);
+    }
+
+    private static List<String> getRows(SortedTableModel<String> model) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < model.getRowCount(); i++) {
+            result.add(model.getRow(i));
+        }
+        return result;
+    }
+
+    // Replays the events of the model on a list to verify that the events
+    // describe the changes of the model.
+    private static List<String> trackEvents(SortedTableModel<String> model) {
+        List<String> mirror = new ArrayList<>(getRows(model));
+        model.addTableModelListener((e) -> {
+            switch (e.getType()) {
+                case TableModelEvent.INSERT:
+                    for (int i = e.getFirstRow(); i <= e.getLastRow(); i++) {
+                        mirror.add(i, model.getRow(i));
+                    }
+                    break;
+                case TableModelEvent.DELETE:
+                    mirror.subList(e.getFirstRow(), e.getLastRow() + 1).clear();
+                    break;
+                default:
+                    mirror.clear();
+                    mirror.addAll(getRows(model));
+                    break;
+            }
+        });
+        return mirror;
+    }
+
+    @Test
+    public void testSortsByColumn() {
+        SortedTableModel<String> model = createModel();
+        model.setSortOrder(0, true);
+        model.setRows(Arrays.asList("pear", "apple", "fig"));
+        assertEquals(Arrays.asList("apple", "fig", "pear"), getRows(model));
+        assertEquals("fig", model.getValueAt(1, 0));
+        assertEquals("3", model.getValueAt(1, 1));
+
+        model.setSortOrder(1, false);
+        assertEquals(Arrays.asList("apple", "pear", "fig"), getRows(model));
+    }
+
+    @Test
+    public void testReportsRanges() {
+        SortedTableModel<String> model = createModel();
+        model.setSortOrder(0, true);
+        model.setRows(Arrays.asList("a", "b", "c", "d", "e"));
+
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        model.setRows(Arrays.asList("a", "d", "e", "f"));
+        assertEquals(Arrays.asList("a", "d", "e", "f"), getRows(model));
+        assertEquals(2, events.size());
+        assertEquals(TableModelEvent.DELETE, events.get(0).getType());
+        assertEquals(1, events.get(0).getFirstRow());
+        assertEquals(2, events.get(0).getLastRow());
+        assertEquals(TableModelEvent.INSERT, events.get(1).getType());
+        assertEquals(3, events.get(1).getFirstRow());
+        assertEquals(3, events.get(1).getLastRow());
+    }
+
+    @Test
+    public void testRandomChanges() {
+        Random random = new Random(41);
+        List<String> allRows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            allRows.add("row" + random.nextInt(1000) + "-" + i);
+        }
+
+        SortedTableModel<String> model = createModel();
+        model.setSortOrder(0, false);
+        List<String> mirror = trackEvents(model);
+
+        for (int round = 0; round < 50; round++) {
+            // Few changes are reported as ranges, many as a full change.
+            int keepRatio = round % 2 == 0 ? 4 : 50;
+            List<String> newRows = new ArrayList<>();
+            for (String row: allRows) {
+                if (random.nextInt(keepRatio) != 0) {
+                    newRows.add(row);
+                }
+            }
+            Collections.shuffle(newRows, random);
+            model.setRows(newRows);
+
+            List<String> expected = new ArrayList<>(newRows);
+            expected.sort(Collections.reverseOrder(StringComparator.DEFAULT_INSTANCE));
+            assertEquals(expected, getRows(model));
+            assertEquals(expected, mirror);
+        }
+    }
+}